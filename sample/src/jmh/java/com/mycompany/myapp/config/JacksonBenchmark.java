@@ -0,0 +1,95 @@
+package com.mycompany.myapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mycompany.myapp.service.dto.CrawlerDTO;
+import com.mycompany.myapp.service.dto.FiltersDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks of the serialization of a page of {@link CrawlerDTO} and {@link FiltersDTO}, with the modules of
+ * {@link JacksonConfiguration} and the defaults Spring Boot applies to its {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({ "20", "1000" })
+    private int size;
+
+    private ObjectWriter crawlersWriter;
+
+    private ObjectWriter filtersWriter;
+
+    private List<CrawlerDTO> crawlers;
+
+    private List<FiltersDTO> filters;
+
+    @Setup
+    public void setUp() {
+        JacksonConfiguration configuration = new JacksonConfiguration();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder
+            .json()
+            .modules(
+                configuration.javaTimeModule(),
+                configuration.jdk8TimeModule(),
+                configuration.hibernate5Module(),
+                configuration.problemModule(),
+                configuration.constraintViolationProblemModule(),
+                configuration.blackbirdModule()
+            )
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .build();
+        crawlersWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, CrawlerDTO.class));
+        filtersWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, FiltersDTO.class));
+
+        crawlers = new ArrayList<>(size);
+        filters = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            CrawlerDTO crawler = new CrawlerDTO();
+            crawler.setId(id);
+            crawler.setVersion(0L);
+            crawler.setName("crawler-" + id);
+            crawler.setFetch((int) id % 60);
+            crawler.setSource("https://example.com/" + id);
+            crawlers.add(crawler);
+
+            CrawlerDTO crawlerId = new CrawlerDTO();
+            crawlerId.setId(id);
+            FiltersDTO filtersDTO = new FiltersDTO();
+            filtersDTO.setId(id);
+            filtersDTO.setVersion(0L);
+            filtersDTO.setCrawler(crawlerId);
+            filters.add(filtersDTO);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeCrawlers() throws Exception {
+        return crawlersWriter.writeValueAsBytes(crawlers);
+    }
+
+    @Benchmark
+    public byte[] serializeFilters() throws Exception {
+        return filtersWriter.writeValueAsBytes(filters);
+    }
+}
@@ -0,0 +1,115 @@
+package com.mycompany.myapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mycompany.myapp.service.dto.CrawlerDTO;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Benchmarks of the writing of the {@link CrawlerDTO} list of {@code GET /api/crawlers}, as Spring MVC does, by the
+ * default converter without Blackbird and by the converter of {@link JacksonConfiguration}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonListHttpMessageConverterBenchmark {
+
+    private static final Type CRAWLER_LIST_TYPE = new ParameterizedTypeReference<List<CrawlerDTO>>() {}.getType();
+
+    @Param({ "10000" })
+    private int size;
+
+    private MappingJackson2HttpMessageConverter defaultConverter;
+
+    private MappingJackson2HttpMessageConverter listConverter;
+
+    private List<CrawlerDTO> crawlers;
+
+    @Setup
+    public void setUp() {
+        JacksonConfiguration configuration = new JacksonConfiguration();
+        defaultConverter = new MappingJackson2HttpMessageConverter(objectMapper(configuration, false));
+        listConverter = configuration.mappingJackson2HttpMessageConverter(objectMapper(configuration, true));
+
+        crawlers = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            CrawlerDTO crawler = new CrawlerDTO();
+            crawler.setId(id);
+            crawler.setVersion(0L);
+            crawler.setName("crawler-" + id);
+            crawler.setFetch((int) id % 60);
+            crawler.setSource("https://example.com/" + id);
+            crawlers.add(crawler);
+        }
+    }
+
+    private static ObjectMapper objectMapper(JacksonConfiguration configuration, boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder
+            .json()
+            .modules(
+                configuration.javaTimeModule(),
+                configuration.jdk8TimeModule(),
+                configuration.hibernate5Module(),
+                configuration.problemModule(),
+                configuration.constraintViolationProblemModule()
+            )
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.modulesToInstall(configuration.blackbirdModule());
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public HttpHeaders writeWithDefaultConverter() throws Exception {
+        DiscardedOutputMessage outputMessage = new DiscardedOutputMessage();
+        defaultConverter.write(crawlers, CRAWLER_LIST_TYPE, MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage.getHeaders();
+    }
+
+    @Benchmark
+    public HttpHeaders writeWithListConverter() throws Exception {
+        DiscardedOutputMessage outputMessage = new DiscardedOutputMessage();
+        listConverter.write(crawlers, CRAWLER_LIST_TYPE, MediaType.APPLICATION_JSON, outputMessage);
+        return outputMessage.getHeaders();
+    }
+
+    private static final class DiscardedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
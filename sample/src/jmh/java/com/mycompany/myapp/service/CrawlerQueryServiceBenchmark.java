@@ -0,0 +1,74 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.service.criteria.CrawlerCriteria;
+import com.mycompany.myapp.service.mapper.CrawlerMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Benchmarks of {@link CrawlerQueryService#createSpecification(CrawlerCriteria)} for the criteria the clients send the
+ * most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrawlerQueryServiceBenchmark {
+
+    private CrawlerQueryService crawlerQueryService;
+
+    private CrawlerCriteria noCriteria;
+
+    private CrawlerCriteria nameCriteria;
+
+    private CrawlerCriteria combinedCriteria;
+
+    @Setup
+    public void setUp() {
+        crawlerQueryService = new CrawlerQueryService(null, null, new CrawlerMapperImpl(), null, null, new SimpleMeterRegistry(), Optional.empty());
+
+        noCriteria = new CrawlerCriteria();
+
+        nameCriteria = new CrawlerCriteria();
+        nameCriteria.name().setContains("crawler");
+
+        combinedCriteria = new CrawlerCriteria();
+        combinedCriteria.id().setIn(List.of(1L, 2L, 3L, 5L, 8L));
+        combinedCriteria.name().setContains("crawler");
+        combinedCriteria.fetch().setGreaterThanOrEqual(10);
+        combinedCriteria.fetch().setLessThan(60);
+        combinedCriteria.source().setDoesNotContain("localhost");
+        combinedCriteria.setDistinct(true);
+    }
+
+    @Benchmark
+    public Specification<Crawler> noCriteria() {
+        return crawlerQueryService.createSpecification(noCriteria);
+    }
+
+    @Benchmark
+    public Specification<Crawler> nameContains() {
+        return crawlerQueryService.createSpecification(nameCriteria);
+    }
+
+    @Benchmark
+    public Specification<Crawler> combinedCriteria() {
+        return crawlerQueryService.createSpecification(combinedCriteria);
+    }
+}
@@ -0,0 +1,108 @@
+package com.mycompany.myapp.service.mapper;
+
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.domain.Filters;
+import com.mycompany.myapp.service.dto.CrawlerDTO;
+import com.mycompany.myapp.service.dto.FiltersDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Benchmarks of the {@link CrawlerMapper} and {@link FiltersMapper} conversions of a page of entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMapperBenchmark {
+
+    @Param({ "20", "1000" })
+    private int size;
+
+    private CrawlerMapper crawlerMapper;
+
+    private FiltersMapper filtersMapper;
+
+    private List<Crawler> crawlers;
+
+    private List<CrawlerDTO> crawlerDTOs;
+
+    private List<Filters> filters;
+
+    private List<FiltersDTO> filtersDTOs;
+
+    private CrawlerDTO crawlerPatch;
+
+    @Setup
+    public void setUp() {
+        crawlerMapper = new CrawlerMapperImpl();
+        filtersMapper = new FiltersMapperImpl();
+        ReflectionTestUtils.setField(filtersMapper, "crawlerMapper", crawlerMapper);
+
+        crawlers = new ArrayList<>(size);
+        filters = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Crawler crawler = new Crawler().id(id).name("crawler-" + id).fetch((int) id % 60).source("https://example.com/" + id);
+            crawlers.add(crawler);
+            filters.add(new Filters().id(id).crawler(crawler));
+        }
+        crawlerDTOs = crawlerMapper.toDto(crawlers);
+        filtersDTOs = filtersMapper.toDto(filters);
+
+        crawlerPatch = new CrawlerDTO();
+        crawlerPatch.setFetch(30);
+    }
+
+    @Benchmark
+    public List<CrawlerDTO> crawlerToDto() {
+        return crawlerMapper.toDto(crawlers);
+    }
+
+    @Benchmark
+    public List<Crawler> crawlerToEntity() {
+        return crawlerMapper.toEntity(crawlerDTOs);
+    }
+
+    @Benchmark
+    public void crawlerPartialUpdate(Blackhole blackhole) {
+        for (Crawler crawler : crawlers) {
+            crawlerMapper.partialUpdate(crawler, crawlerPatch);
+            blackhole.consume(crawler);
+        }
+    }
+
+    @Benchmark
+    public List<FiltersDTO> filtersToDto() {
+        return filtersMapper.toDto(filters);
+    }
+
+    @Benchmark
+    public List<Filters> filtersToEntity() {
+        return filtersMapper.toEntity(filtersDTOs);
+    }
+
+    @Benchmark
+    public void filtersPartialUpdate(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            Filters entity = filters.get(i);
+            filtersMapper.partialUpdate(entity, filtersDTOs.get(i));
+            blackhole.consume(entity);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.config.DateTimeFormatConfiguration;
+import com.mycompany.myapp.service.criteria.CrawlerCriteria;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.ServletRequestDataBinder;
+
+/**
+ * Benchmarks of the binding of the request parameters of {@code GET /api/crawlers} to a {@link CrawlerCriteria}, as
+ * Spring MVC does with the conversion service of the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CriteriaBindingBenchmark {
+
+    private DefaultFormattingConversionService conversionService;
+
+    private MockHttpServletRequest nameRequest;
+
+    private MockHttpServletRequest combinedRequest;
+
+    @Setup
+    public void setUp() {
+        conversionService = new DefaultFormattingConversionService();
+        new DateTimeFormatConfiguration().addFormatters(conversionService);
+
+        nameRequest = new MockHttpServletRequest("GET", "/api/crawlers");
+        nameRequest.addParameter("name.contains", "crawler");
+
+        combinedRequest = new MockHttpServletRequest("GET", "/api/crawlers");
+        combinedRequest.addParameter("id.in", "1,2,3,5,8");
+        combinedRequest.addParameter("name.contains", "crawler");
+        combinedRequest.addParameter("fetch.greaterThanOrEqual", "10");
+        combinedRequest.addParameter("fetch.lessThan", "60");
+        combinedRequest.addParameter("source.doesNotContain", "localhost");
+        combinedRequest.addParameter("distinct", "true");
+        combinedRequest.addParameter("page", "0");
+        combinedRequest.addParameter("size", "20");
+        combinedRequest.addParameter("sort", "id,desc");
+    }
+
+    private CrawlerCriteria bind(MockHttpServletRequest request) {
+        CrawlerCriteria criteria = new CrawlerCriteria();
+        ServletRequestDataBinder binder = new ServletRequestDataBinder(criteria, "crawlerCriteria");
+        binder.setConversionService(conversionService);
+        binder.bind(request);
+        return criteria;
+    }
+
+    @Benchmark
+    public CrawlerCriteria nameContains() {
+        return bind(nameRequest);
+    }
+
+    @Benchmark
+    public CrawlerCriteria combinedCriteria() {
+        return bind(combinedRequest);
+    }
+}
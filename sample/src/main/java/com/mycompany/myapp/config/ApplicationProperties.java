@@ -1,6 +1,10 @@
 package com.mycompany.myapp.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Sample.
@@ -9,4 +13,505 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Datasource datasource = new Datasource();
+
+    private final ChangeFeed changeFeed = new ChangeFeed();
+
+    private final QueryMetrics queryMetrics = new QueryMetrics();
+
+    private final CrawlerIndex crawlerIndex = new CrawlerIndex();
+
+    private final Crawl crawl = new Crawl();
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    public QueryMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
+
+    public CrawlerIndex getCrawlerIndex() {
+        return crawlerIndex;
+    }
+
+    public Crawl getCrawl() {
+        return crawl;
+    }
+
+    public static class Datasource {
+
+        private final List<Replica> replicas = new ArrayList<>();
+
+        private Duration maxReplicaLag = Duration.ofSeconds(5);
+
+        private Duration replicaCheckInterval = Duration.ofSeconds(1);
+
+        /**
+         * Read replicas of {@code spring.datasource}, serving the read-only transactions. When empty, every transaction
+         * goes to {@code spring.datasource}.
+         */
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        /**
+         * Replication lag above which a replica stops serving read-only transactions, until it catches up.
+         */
+        public Duration getMaxReplicaLag() {
+            return maxReplicaLag;
+        }
+
+        public void setMaxReplicaLag(Duration maxReplicaLag) {
+            this.maxReplicaLag = maxReplicaLag;
+        }
+
+        /**
+         * Delay between two checks of the replication lag of the replicas.
+         */
+        public Duration getReplicaCheckInterval() {
+            return replicaCheckInterval;
+        }
+
+        public void setReplicaCheckInterval(Duration replicaCheckInterval) {
+            this.replicaCheckInterval = replicaCheckInterval;
+        }
+    }
+
+    /**
+     * A read replica. Its pool is configured as the {@code spring.datasource.hikari} one, but for the connection settings.
+     */
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private Integer maximumPoolSize;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        /**
+         * Size of the replica pool, when it should differ from the primary one.
+         */
+        public Integer getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(Integer maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+
+    public static class ChangeFeed {
+
+        private int historySize = 1000;
+
+        private int bufferSize = 256;
+
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        private Duration timeout = Duration.ofMinutes(30);
+
+        private Duration writeTimeout = Duration.ofSeconds(10);
+
+        private int maxThreads = 256;
+
+        /**
+         * Number of past changes kept per entity, that a subscriber resuming with {@code Last-Event-ID} can be sent.
+         */
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+
+        /**
+         * Number of changes waiting to be sent to a subscriber, above which the subscriber is dropped.
+         */
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        /**
+         * Delay between two comments sent to idle subscribers, so that closed connections are detected.
+         */
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        /**
+         * Time after which a subscription is closed, for the client to resume it on a new connection.
+         */
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        /**
+         * Time after which a subscriber still being written to is dropped, checked with the heartbeats.
+         */
+        public Duration getWriteTimeout() {
+            return writeTimeout;
+        }
+
+        public void setWriteTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+        }
+
+        /**
+         * Number of threads writing to the subscribers at once, above which the subscribers with events to send are
+         * dropped.
+         */
+        public int getMaxThreads() {
+            return maxThreads;
+        }
+
+        public void setMaxThreads(int maxThreads) {
+            this.maxThreads = maxThreads;
+        }
+    }
+
+    public static class QueryMetrics {
+
+        private int maxQueries = 500;
+
+        private Duration slowThreshold = Duration.ofSeconds(1);
+
+        /**
+         * Number of normalized SQL statements measured on their own. Further statements are measured together.
+         */
+        public int getMaxQueries() {
+            return maxQueries;
+        }
+
+        public void setMaxQueries(int maxQueries) {
+            this.maxQueries = maxQueries;
+        }
+
+        /**
+         * Duration above which a statement is logged and counted as slow.
+         */
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+    }
+
+    public static class CrawlerIndex {
+
+        private boolean enabled;
+
+        private int loadFetchSize = 1000;
+
+        /**
+         * Whether every crawler is held in memory, to serve the lookups by id and the simple criteria without the
+         * database. Only the writes of this instance update it, so it should only be enabled when a single instance
+         * writes the crawlers.
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Number of rows fetched per round trip while the crawlers are loaded at startup.
+         */
+        public int getLoadFetchSize() {
+            return loadFetchSize;
+        }
+
+        public void setLoadFetchSize(int loadFetchSize) {
+            this.loadFetchSize = loadFetchSize;
+        }
+    }
+
+    public static class Crawl {
+
+        private int maxConnections = 64;
+
+        private int maxConnectionsPerRun = 8;
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        private Duration requestTimeout = Duration.ofSeconds(15);
+
+        private DataSize maxPageSize = DataSize.ofMegabytes(1);
+
+        private String userAgent = "sample-crawler";
+
+        private boolean sameHostOnly = true;
+
+        private Duration politenessDelay = Duration.ofSeconds(1);
+
+        private double seenUrlFalsePositiveRate = 0.001;
+
+        private int seenUrlsPerPage = 16;
+
+        private long seenUrlInitialCapacity = 65536;
+
+        private String seenUrlDirectory;
+
+        private Duration robotsTimeToLive = Duration.ofHours(24);
+
+        private Duration robotsErrorTimeToLive = Duration.ofMinutes(10);
+
+        private long robotsMaxOrigins = 10_000;
+
+        private int nearDuplicateDistance = 3;
+
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+        private Duration heartbeatTimeout = Duration.ofMinutes(2);
+
+        /**
+         * Number of requests in flight at once across every crawl run of this instance. Further requests wait for one
+         * to complete.
+         */
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        /**
+         * Number of requests in flight at once for a single crawl run.
+         */
+        public int getMaxConnectionsPerRun() {
+            return maxConnectionsPerRun;
+        }
+
+        public void setMaxConnectionsPerRun(int maxConnectionsPerRun) {
+            this.maxConnectionsPerRun = maxConnectionsPerRun;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        /**
+         * Time after which a page which has not been received is counted as failed.
+         */
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        /**
+         * Size of the content read from a page, the rest being ignored.
+         */
+        public DataSize getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(DataSize maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+
+        public String getUserAgent() {
+            return userAgent;
+        }
+
+        public void setUserAgent(String userAgent) {
+            this.userAgent = userAgent;
+        }
+
+        /**
+         * Whether only the links to the host of the crawler source are followed.
+         */
+        public boolean isSameHostOnly() {
+            return sameHostOnly;
+        }
+
+        public void setSameHostOnly(boolean sameHostOnly) {
+            this.sameHostOnly = sameHostOnly;
+        }
+
+        /**
+         * Time a crawl run waits after a response from a host before sending it the next request. A run never sends a
+         * host more than one request at a time.
+         */
+        public Duration getPolitenessDelay() {
+            return politenessDelay;
+        }
+
+        public void setPolitenessDelay(Duration politenessDelay) {
+            this.politenessDelay = politenessDelay;
+        }
+
+        /**
+         * Rate of the URLs a crawl run skips as seen when it has not seen them. Each halving of the rate costs about 1.44
+         * bits more per seen URL.
+         */
+        public double getSeenUrlFalsePositiveRate() {
+            return seenUrlFalsePositiveRate;
+        }
+
+        public void setSeenUrlFalsePositiveRate(double seenUrlFalsePositiveRate) {
+            this.seenUrlFalsePositiveRate = seenUrlFalsePositiveRate;
+        }
+
+        /**
+         * Number of new URLs expected per fetched page, to size the seen URLs of a crawl run from its fetch budget.
+         */
+        public int getSeenUrlsPerPage() {
+            return seenUrlsPerPage;
+        }
+
+        public void setSeenUrlsPerPage(int seenUrlsPerPage) {
+            this.seenUrlsPerPage = seenUrlsPerPage;
+        }
+
+        /**
+         * Number of URLs the seen URLs of a crawl run without fetch budget are first sized for.
+         */
+        public long getSeenUrlInitialCapacity() {
+            return seenUrlInitialCapacity;
+        }
+
+        public void setSeenUrlInitialCapacity(long seenUrlInitialCapacity) {
+            this.seenUrlInitialCapacity = seenUrlInitialCapacity;
+        }
+
+        /**
+         * Directory of the memory-mapped files of the seen URLs of the crawl runs, or none to hold them in direct
+         * memory, which is limited to the size of the heap by default.
+         */
+        public String getSeenUrlDirectory() {
+            return seenUrlDirectory;
+        }
+
+        public void setSeenUrlDirectory(String seenUrlDirectory) {
+            this.seenUrlDirectory = seenUrlDirectory;
+        }
+
+        /**
+         * Time the rules of a fetched robots.txt are used, by every crawl run of this instance, before it is fetched
+         * again.
+         */
+        public Duration getRobotsTimeToLive() {
+            return robotsTimeToLive;
+        }
+
+        public void setRobotsTimeToLive(Duration robotsTimeToLive) {
+            this.robotsTimeToLive = robotsTimeToLive;
+        }
+
+        /**
+         * Time a robots.txt answered with an error status, or which could not be fetched, is not fetched again.
+         * Meanwhile, everything is allowed after a 4xx status, and nothing after a 5xx status or a failure.
+         */
+        public Duration getRobotsErrorTimeToLive() {
+            return robotsErrorTimeToLive;
+        }
+
+        public void setRobotsErrorTimeToLive(Duration robotsErrorTimeToLive) {
+            this.robotsErrorTimeToLive = robotsErrorTimeToLive;
+        }
+
+        /**
+         * Number of hosts whose robots.txt rules are kept, the least recently used being dropped.
+         */
+        public long getRobotsMaxOrigins() {
+            return robotsMaxOrigins;
+        }
+
+        public void setRobotsMaxOrigins(long robotsMaxOrigins) {
+            this.robotsMaxOrigins = robotsMaxOrigins;
+        }
+
+        /**
+         * Number of bits the SimHash fingerprint of a page differs in at most from the one of a page fetched before by
+         * the same crawl run, for its links not to be followed. With 0, only pages with the same text are skipped.
+         */
+        public int getNearDuplicateDistance() {
+            return nearDuplicateDistance;
+        }
+
+        public void setNearDuplicateDistance(int nearDuplicateDistance) {
+            this.nearDuplicateDistance = nearDuplicateDistance;
+        }
+
+        /**
+         * Interval at which an instance records that its crawl runs are still running, and fails the runs left
+         * running by stopped instances.
+         */
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        /**
+         * Time without heartbeat after which a crawl run is failed as interrupted, its instance having stopped or
+         * crashed. It must be a few times the heartbeat interval.
+         */
+        public Duration getHeartbeatTimeout() {
+            return heartbeatTimeout;
+        }
+
+        public void setHeartbeatTimeout(Duration heartbeatTimeout) {
+            this.heartbeatTimeout = heartbeatTimeout;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.service.ChangeFeedService;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * Registers the change feeds as Hibernate post-commit listeners, and schedules their heartbeats.
+ */
+@Configuration
+public class ChangeFeedConfiguration {
+
+    @Bean
+    public ChangeFeedService changeFeedService(
+        ApplicationProperties applicationProperties,
+        EntityManagerFactory entityManagerFactory,
+        TaskScheduler taskScheduler,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.ChangeFeed properties = applicationProperties.getChangeFeed();
+        ChangeFeedService changeFeedService = new ChangeFeedService(
+            properties.getHistorySize(),
+            properties.getBufferSize(),
+            Math.max(2, Runtime.getRuntime().availableProcessors()),
+            properties.getMaxThreads(),
+            properties.getWriteTimeout(),
+            properties.getTimeout(),
+            meterRegistry
+        );
+        EventListenerRegistry listenerRegistry = entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, changeFeedService);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, changeFeedService);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, changeFeedService);
+        taskScheduler.scheduleAtFixedRate(changeFeedService::heartbeat, properties.getHeartbeatInterval());
+        return changeFeedService;
+    }
+}
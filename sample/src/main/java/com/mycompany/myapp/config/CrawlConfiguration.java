@@ -0,0 +1,126 @@
+package com.mycompany.myapp.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.mycompany.myapp.repository.CrawlRunRepository;
+import com.mycompany.myapp.repository.CrawlerRepository;
+import com.mycompany.myapp.service.CrawlRunService;
+import com.mycompany.myapp.service.crawl.FrontierMetrics;
+import com.mycompany.myapp.service.crawl.PageFetcher;
+import com.mycompany.myapp.service.crawl.RobotsCache;
+import com.mycompany.myapp.service.crawl.SeenUrlFilters;
+import com.mycompany.myapp.service.mapper.CrawlRunMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Creates the crawl engine running the {@link com.mycompany.myapp.domain.Crawler} definitions, from the
+ * {@code application.crawl} properties.
+ */
+@Configuration
+public class CrawlConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(CrawlConfiguration.class);
+
+    @Bean
+    public PageFetcher pageFetcher(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Crawl properties = applicationProperties.getCrawl();
+        HttpClient httpClient = HttpClient
+            .newBuilder()
+            .connectTimeout(properties.getConnectTimeout())
+            // the redirects of pages are queued like links, to go through robots.txt and the frontier
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+        return new PageFetcher(
+            httpClient,
+            properties.getMaxConnections(),
+            properties.getRequestTimeout(),
+            Math.toIntExact(properties.getMaxPageSize().toBytes()),
+            properties.getUserAgent(),
+            meterRegistry
+        );
+    }
+
+    @Bean
+    public RobotsCache robotsCache(ApplicationProperties applicationProperties, PageFetcher pageFetcher, MeterRegistry meterRegistry) {
+        ApplicationProperties.Crawl properties = applicationProperties.getCrawl();
+        return new RobotsCache(
+            pageFetcher,
+            properties.getUserAgent(),
+            properties.getRobotsTimeToLive(),
+            properties.getRobotsErrorTimeToLive(),
+            properties.getRobotsMaxOrigins(),
+            Ticker.systemTicker(),
+            meterRegistry
+        );
+    }
+
+    @Bean
+    public FrontierMetrics frontierMetrics(MeterRegistry meterRegistry) {
+        return new FrontierMetrics(meterRegistry);
+    }
+
+    @Bean
+    public SeenUrlFilters seenUrlFilters(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Crawl properties = applicationProperties.getCrawl();
+        SeenUrlFilters seenUrlFilters = new SeenUrlFilters(
+            properties.getSeenUrlDirectory() == null ? null : Path.of(properties.getSeenUrlDirectory()),
+            properties.getSeenUrlFalsePositiveRate(),
+            properties.getSeenUrlsPerPage(),
+            properties.getSeenUrlInitialCapacity(),
+            meterRegistry
+        );
+        int leftOvers = seenUrlFilters.deleteLeftOverFilters();
+        if (leftOvers > 0) {
+            log.info("Deleted the seen URL filters of {} crawl runs left over by the last stop", leftOvers);
+        }
+        return seenUrlFilters;
+    }
+
+    @Bean
+    public CrawlRunService crawlRunService(
+        ApplicationProperties applicationProperties,
+        CrawlRunRepository crawlRunRepository,
+        CrawlerRepository crawlerRepository,
+        CrawlRunMapper crawlRunMapper,
+        PageFetcher pageFetcher,
+        RobotsCache robotsCache,
+        FrontierMetrics frontierMetrics,
+        TaskScheduler taskScheduler,
+        SeenUrlFilters seenUrlFilters,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Crawl properties = applicationProperties.getCrawl();
+        CrawlRunService crawlRunService = new CrawlRunService(
+            crawlRunRepository,
+            crawlerRepository,
+            crawlRunMapper,
+            pageFetcher,
+            robotsCache,
+            frontierMetrics,
+            taskScheduler,
+            seenUrlFilters,
+            transactionManager,
+            properties.getMaxConnectionsPerRun(),
+            properties.isSameHostOnly(),
+            properties.getPolitenessDelay(),
+            properties.getNearDuplicateDistance(),
+            properties.getHeartbeatTimeout(),
+            meterRegistry
+        );
+        taskScheduler.scheduleAtFixedRate(
+            crawlRunService::heartbeat,
+            Instant.now().plus(properties.getHeartbeatInterval()),
+            properties.getHeartbeatInterval()
+        );
+        return crawlRunService;
+    }
+}
@@ -0,0 +1,49 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.domain.Crawler_;
+import com.mycompany.myapp.repository.CrawlerRepository;
+import com.mycompany.myapp.service.CrawlerIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Loads every crawler into a {@link CrawlerIndex} at startup, when {@code application.crawler-index.enabled} is set.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.crawler-index", name = "enabled", havingValue = "true")
+public class CrawlerIndexConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(CrawlerIndexConfiguration.class);
+
+    @Bean
+    public CrawlerIndex crawlerIndex(
+        ApplicationProperties applicationProperties,
+        CrawlerRepository crawlerRepository,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        CrawlerIndex crawlerIndex = new CrawlerIndex();
+        long start = System.nanoTime();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status ->
+            crawlerRepository.scrollAll(
+                null,
+                Sort.by(Crawler_.ID),
+                applicationProperties.getCrawlerIndex().getLoadFetchSize(),
+                crawlerIndex::load
+            )
+        );
+        log.info("Loaded {} Crawlers in memory in {} ms", crawlerIndex.size(), (System.nanoTime() - start) / 1_000_000);
+        Gauge.builder("crawler.index.size", crawlerIndex, CrawlerIndex::size).register(meterRegistry);
+        return crawlerIndex;
+    }
+}
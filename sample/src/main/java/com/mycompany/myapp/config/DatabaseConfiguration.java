@@ -1,16 +1,121 @@
 package com.mycompany.myapp.config;
 
+import com.mycompany.myapp.service.CriteriaCountCache;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.util.StringUtils;
 import tech.jhipster.config.JHipsterConstants;
 
 @Configuration
 @EnableJpaRepositories({ "com.mycompany.myapp.repository" })
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
 @EnableTransactionManagement
-public class DatabaseConfiguration {}
+public class DatabaseConfiguration {
+
+    /**
+     * Routes the read-only transactions to the replicas of {@code application.datasource.replicas}, when there are
+     * any. The primary pool is then configured here rather than by Spring Boot, from the same
+     * {@code spring.datasource} properties, and the replica pools are copies of it.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "application.datasource", name = "replicas[0].url")
+    static class ReplicaRoutingConfiguration {
+
+        private static final String PRIMARY_POOL_NAME = "primary";
+
+        private final Logger log = LoggerFactory.getLogger(ReplicaRoutingConfiguration.class);
+
+        @Bean
+        @LiquibaseDataSource
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            if (StringUtils.hasText(properties.getName())) {
+                dataSource.setPoolName(properties.getName());
+            }
+            return dataSource;
+        }
+
+        @Bean
+        public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry,
+            TaskScheduler taskScheduler,
+            CriteriaCountCache countCache
+        ) {
+            ApplicationProperties.Datasource properties = applicationProperties.getDatasource();
+            String primaryName = primaryDataSource.getPoolName() != null ? primaryDataSource.getPoolName() : PRIMARY_POOL_NAME;
+            Map<String, DataSource> replicas = new LinkedHashMap<>();
+            List<ApplicationProperties.Replica> replicaProperties = properties.getReplicas();
+            for (int i = 0; i < replicaProperties.size(); i++) {
+                String name = primaryName + "-replica-" + (i + 1);
+                replicas.put(name, replicaDataSource(primaryDataSource, replicaProperties.get(i), name, meterRegistry));
+            }
+            log.debug("Routing read-only transactions to {}", replicas.keySet());
+            ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+                primaryName,
+                primaryDataSource,
+                replicas,
+                properties.getMaxReplicaLag(),
+                ReplicaRoutingDataSource.POSTGRESQL_LAG,
+                meterRegistry
+            );
+            dataSource.checkReplicas();
+            taskScheduler.scheduleWithFixedDelay(dataSource::checkReplicas, properties.getReplicaCheckInterval());
+            // the counts are taken on the replicas, which may not see a write until the maximum lag is over
+            countCache.setReplicaLag(properties.getMaxReplicaLag());
+            return dataSource;
+        }
+
+        /**
+         * The data source of the application, only fetching a connection for the first statement of a transaction,
+         * once it is known whether the transaction is read-only.
+         */
+        @Bean
+        @Primary
+        public LazyConnectionDataSourceProxy dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+        }
+
+        private static HikariDataSource replicaDataSource(
+            HikariDataSource primaryDataSource,
+            ApplicationProperties.Replica properties,
+            String name,
+            MeterRegistry meterRegistry
+        ) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(name);
+            config.setJdbcUrl(properties.getUrl());
+            config.setUsername(properties.getUsername() != null ? properties.getUsername() : primaryDataSource.getUsername());
+            config.setPassword(properties.getPassword() != null ? properties.getPassword() : primaryDataSource.getPassword());
+            if (properties.getMaximumPoolSize() != null) {
+                config.setMaximumPoolSize(properties.getMaximumPoolSize());
+            }
+            config.setReadOnly(true);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            return new HikariDataSource(config);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mycompany.myapp.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+/**
+ * A {@link MappingJackson2HttpMessageConverter} writing the lists of some types with {@link ObjectWriter}s resolved
+ * once, straight to the response body.
+ * <p>
+ * The default converter builds a writer and looks its serializer up for every response, which shows on the large
+ * lists returned by the list endpoints. The other values, and the lists written in another charset than UTF-8, are
+ * written by the default converter.
+ */
+public class JsonListHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Map<Type, ObjectWriter> listWriters = new HashMap<>();
+
+    /**
+     * @param objectMapper the object mapper of the application.
+     * @param elementTypes the types of the elements of the lists to write with a resolved writer.
+     */
+    public JsonListHttpMessageConverter(ObjectMapper objectMapper, Class<?>... elementTypes) {
+        super(objectMapper);
+        for (Class<?> elementType : elementTypes) {
+            JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+            listWriters.put(elementType, objectMapper.writerFor(listType));
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+        throws IOException, HttpMessageNotWritableException {
+        ObjectWriter listWriter = object instanceof List ? listWriter(type) : null;
+        if (listWriter == null || !isUtf8(outputMessage.getHeaders().getContentType())) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        try {
+            listWriter.writeValue(StreamUtils.nonClosing(outputMessage.getBody()), object);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    @Nullable
+    private ObjectWriter listWriter(@Nullable Type type) {
+        if (!(type instanceof ParameterizedType) || ((ParameterizedType) type).getRawType() != List.class) {
+            return null;
+        }
+        return listWriters.get(((ParameterizedType) type).getActualTypeArguments()[0]);
+    }
+
+    private static boolean isUtf8(@Nullable MediaType contentType) {
+        Charset charset = contentType != null ? contentType.getCharset() : null;
+        return charset == null || StandardCharsets.UTF_8.equals(charset);
+    }
+}
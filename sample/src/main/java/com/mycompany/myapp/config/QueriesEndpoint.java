@@ -0,0 +1,32 @@
+package com.mycompany.myapp.config;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Management endpoint listing the slowest query shapes measured by {@link QueryMetrics}.
+ */
+@Endpoint(id = "queries")
+public class QueriesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final QueryMetrics queryMetrics;
+
+    public QueriesEndpoint(QueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    /**
+     * {@code GET /management/queries} : get the slowest query shapes.
+     *
+     * @param limit the maximum number of shapes, 20 by default.
+     * @return the query shapes, the slowest on average first.
+     */
+    @ReadOperation
+    public List<QueryMetrics.QueryShape> queries(@Nullable Integer limit) {
+        return queryMetrics.getSlowestQueries(limit == null ? DEFAULT_LIMIT : limit);
+    }
+}
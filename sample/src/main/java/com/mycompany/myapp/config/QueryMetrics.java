@@ -0,0 +1,350 @@
+package com.mycompany.myapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Collects the queries executed by Hibernate, the entities it loads and its cache requests, as reported by
+ * {@link QueryStatistics}, and publishes them as metrics tagged with the repository that was called.
+ * <p>
+ * Queries are grouped by shape: the SQL they are rendered to, with the literals and the {@code in} lists collapsed.
+ * The SQL of a query is only looked up the first time its shape is seen. Each shape is identified by a short hash,
+ * used as the {@code query} tag of the {@code hibernate.query.executions} timer, the {@code hibernate.query.rows}
+ * summary and the {@code hibernate.query.slow} counter, which are registered once per shape and repository. Only the
+ * first shapes seen are measured on their own, the others are measured together as the {@code other} shape, so that
+ * the number of meters stays bounded.
+ * <p>
+ * The statements prepared while a request is handled are counted, to be published per request.
+ */
+public class QueryMetrics {
+
+    /**
+     * The repository tag of the queries run outside a repository call.
+     */
+    public static final String NO_REPOSITORY = "none";
+
+    static final String OTHER_SHAPE = "other";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*(?:[?:][\\w]*\\s*,\\s*)+[?:][\\w]*\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Logger log = LoggerFactory.getLogger(QueryMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxQueries;
+
+    private final Duration slowThreshold;
+
+    private final Map<String, QueryShape> shapes = new ConcurrentHashMap<>();
+
+    private final Map<String, QueryShape> shapesByQuery = new ConcurrentHashMap<>();
+
+    private final QueryShape otherShape = new QueryShape(OTHER_SHAPE, OTHER_SHAPE);
+
+    private final Map<List<String>, Counter> counters = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder[]> cacheRequests = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<String> repository = ThreadLocal.withInitial(() -> NO_REPOSITORY);
+
+    private final ThreadLocal<LongAdder> requestStatements = new ThreadLocal<>();
+
+    /**
+     * @param meterRegistry the registry of the metrics.
+     * @param maxQueries the number of query shapes measured on their own.
+     * @param slowThreshold the duration above which a query is logged and counted as slow.
+     */
+    public QueryMetrics(MeterRegistry meterRegistry, int maxQueries, Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.maxQueries = maxQueries;
+        this.slowThreshold = slowThreshold;
+        for (String cache : new String[] { "second-level", "query" }) {
+            LongAdder[] requests = { new LongAdder(), new LongAdder() };
+            cacheRequests.put(cache, requests);
+            Gauge
+                .builder("hibernate.cache.hit.ratio", requests, QueryMetrics::hitRatio)
+                .description("Share of the requests to the Hibernate cache that were hits")
+                .tag("cache", cache)
+                .register(meterRegistry);
+        }
+    }
+
+    private static double hitRatio(LongAdder[] requests) {
+        long hits = requests[0].sum();
+        long total = hits + requests[1].sum();
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+
+    /**
+     * Attribute the queries of the current thread to a repository.
+     *
+     * @param name the name of the repository.
+     * @return the repository the queries were attributed to, to be restored once the call returns.
+     */
+    public String enterRepository(String name) {
+        String previous = repository.get();
+        repository.set(name);
+        return previous;
+    }
+
+    /**
+     * Restore the repository returned by {@link #enterRepository(String)}.
+     */
+    public void exitRepository(String previous) {
+        repository.set(previous);
+    }
+
+    /**
+     * Start counting the statements prepared by the current thread.
+     */
+    public void startRequest() {
+        requestStatements.set(new LongAdder());
+    }
+
+    /**
+     * Stop counting the statements prepared by the current thread.
+     *
+     * @return the number of statements prepared since {@link #startRequest()}.
+     */
+    public long finishRequest() {
+        LongAdder statements = requestStatements.get();
+        requestStatements.remove();
+        return statements == null ? 0 : statements.sum();
+    }
+
+    void statementPrepared() {
+        LongAdder statements = requestStatements.get();
+        if (statements != null) {
+            statements.increment();
+        }
+    }
+
+    void queryExecuted(String query, long rows, long millis) {
+        queryExecuted(query, UnaryOperator.identity(), rows, millis);
+    }
+
+    /**
+     * @param query the query, as reported by Hibernate.
+     * @param toSql the SQL the query is rendered to.
+     * @param rows the number of rows returned.
+     * @param millis the execution time.
+     */
+    void queryExecuted(String query, UnaryOperator<String> toSql, long rows, long millis) {
+        QueryShape shape = shape(query, toSql);
+        shape.record(rows, millis);
+        String repositoryName = repository.get();
+        ShapeMeters meters = shape.meters.computeIfAbsent(repositoryName, name -> new ShapeMeters(shape.id, name));
+        meters.executions.record(millis, TimeUnit.MILLISECONDS);
+        meters.rows.record(rows);
+        if (millis >= slowThreshold.toMillis()) {
+            log.warn("Slow query {} took {} ms in {}: {}", shape.id, millis, repositoryName, shape.query);
+            meters.slow.increment();
+        }
+    }
+
+    void entityLoaded(String entityName) {
+        counter(
+            "hibernate.entity.loads",
+            "Entities loaded by Hibernate",
+            "entity",
+            entityName.substring(entityName.lastIndexOf('.') + 1),
+            "repository",
+            repository.get()
+        )
+            .increment();
+    }
+
+    void cacheRequested(String cache, String region, boolean hit) {
+        cacheRequests.get(cache)[hit ? 0 : 1].increment();
+        counter(
+            "hibernate.cache.requests",
+            "Requests to the Hibernate cache",
+            "cache",
+            cache,
+            "region",
+            region == null ? "default" : region,
+            "result",
+            hit ? "hit" : "miss"
+        )
+            .increment();
+    }
+
+    private Counter counter(String name, String description, String... tags) {
+        List<String> key = Stream.concat(Stream.of(name), Arrays.stream(tags)).collect(Collectors.toList());
+        return counters.computeIfAbsent(key, k -> Counter.builder(name).description(description).tags(tags).register(meterRegistry));
+    }
+
+    /**
+     * The shape of a query: looked up by the query as reported, so that its SQL is only rendered the first time.
+     */
+    private QueryShape shape(String query, UnaryOperator<String> toSql) {
+        String normalizedQuery = normalize(query);
+        QueryShape shape = shapesByQuery.get(normalizedQuery);
+        if (shape != null) {
+            return shape;
+        }
+        if (shapesByQuery.size() >= maxQueries) {
+            return otherShape;
+        }
+        String normalized = normalize(toSql.apply(query));
+        String id = DigestUtils.md5DigestAsHex(normalized.getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+        shape = shapes.computeIfAbsent(normalized, key -> new QueryShape(id, key));
+        QueryShape previous = shapesByQuery.putIfAbsent(normalizedQuery, shape);
+        return previous != null ? previous : shape;
+    }
+
+    /**
+     * @param limit the maximum number of shapes.
+     * @return the query shapes, the slowest on average first.
+     */
+    public List<QueryShape> getSlowestQueries(int limit) {
+        return Stream
+            .concat(shapes.values().stream(), Stream.of(otherShape))
+            .filter(shape -> shape.getCount() > 0)
+            .sorted(Comparator.comparingDouble(QueryShape::getMeanTime).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Replace the literals of a query by {@code ?}, collapse its {@code in} lists and its whitespace.
+     */
+    static String normalize(String query) {
+        String normalized = STRING_LITERAL.matcher(query).replaceAll("?");
+        normalized = NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return IN_LIST.matcher(normalized).replaceAll("in (?)");
+    }
+
+    /**
+     * The meters of a query shape, for a repository.
+     */
+    private final class ShapeMeters {
+
+        private final Timer executions;
+
+        private final DistributionSummary rows;
+
+        private final Counter slow;
+
+        private ShapeMeters(String query, String repositoryName) {
+            this.executions =
+                Timer
+                    .builder("hibernate.query.executions")
+                    .description("Queries executed by Hibernate, by shape")
+                    .tag("query", query)
+                    .tag("repository", repositoryName)
+                    .register(meterRegistry);
+            this.rows =
+                DistributionSummary
+                    .builder("hibernate.query.rows")
+                    .description("Rows returned by the queries executed by Hibernate, by shape")
+                    .tag("query", query)
+                    .tag("repository", repositoryName)
+                    .register(meterRegistry);
+            this.slow =
+                Counter
+                    .builder("hibernate.query.slow")
+                    .description("Queries executed by Hibernate slower than the threshold, by shape")
+                    .tag("query", query)
+                    .tag("repository", repositoryName)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * The statistics of a query shape.
+     */
+    public static final class QueryShape {
+
+        private final String id;
+
+        private final String query;
+
+        private final Map<String, ShapeMeters> meters = new ConcurrentHashMap<>();
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalTime = new LongAdder();
+
+        private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+
+        private final LongAdder rows = new LongAdder();
+
+        QueryShape(String id, String query) {
+            this.id = id;
+            this.query = query;
+        }
+
+        void record(long rows, long millis) {
+            this.count.increment();
+            this.totalTime.add(millis);
+            this.maxTime.accumulate(millis);
+            this.rows.add(rows);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * The total execution time, in milliseconds.
+         */
+        public long getTotalTime() {
+            return totalTime.sum();
+        }
+
+        /**
+         * The mean execution time, in milliseconds.
+         */
+        public double getMeanTime() {
+            long executions = getCount();
+            return executions == 0 ? 0 : (double) getTotalTime() / executions;
+        }
+
+        /**
+         * The longest execution time, in milliseconds.
+         */
+        public long getMaxTime() {
+            return maxTime.get();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+    }
+}
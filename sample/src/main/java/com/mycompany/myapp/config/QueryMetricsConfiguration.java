@@ -0,0 +1,150 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.repository.AuthorityRepository;
+import com.mycompany.myapp.repository.CrawlerRepository;
+import com.mycompany.myapp.repository.FiltersRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.stat.internal.StatisticsInitiator;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Publishes the queries executed by Hibernate as metrics, per repository and per request, and lists the slowest ones
+ * on the {@code queries} management endpoint.
+ */
+@Configuration
+@EnableAspectJAutoProxy
+public class QueryMetricsConfiguration {
+
+    @Bean
+    public QueryMetrics queryMetrics(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.QueryMetrics properties = applicationProperties.getQueryMetrics();
+        return new QueryMetrics(meterRegistry, properties.getMaxQueries(), properties.getSlowThreshold());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatisticsCustomizer(QueryMetrics queryMetrics) {
+        StatisticsFactory statisticsFactory = sessionFactory -> new QueryStatistics(sessionFactory, queryMetrics);
+        return hibernateProperties -> hibernateProperties.put(StatisticsInitiator.STATS_BUILDER, statisticsFactory);
+    }
+
+    @Bean
+    public RepositoryMetricsAspect repositoryMetricsAspect(QueryMetrics queryMetrics) {
+        return new RepositoryMetricsAspect(queryMetrics);
+    }
+
+    @Bean
+    public RequestMetricsFilter requestMetricsFilter(QueryMetrics queryMetrics, MeterRegistry meterRegistry) {
+        return new RequestMetricsFilter(queryMetrics, meterRegistry);
+    }
+
+    @Bean
+    public QueriesEndpoint queriesEndpoint(QueryMetrics queryMetrics) {
+        return new QueriesEndpoint(queryMetrics);
+    }
+
+    /**
+     * Attributes the queries to the repository called.
+     */
+    @Aspect
+    public static class RepositoryMetricsAspect {
+
+        private static final Class<?>[] REPOSITORIES = {
+            CrawlerRepository.class,
+            FiltersRepository.class,
+            UserRepository.class,
+            AuthorityRepository.class,
+        };
+
+        private final QueryMetrics queryMetrics;
+
+        public RepositoryMetricsAspect(QueryMetrics queryMetrics) {
+            this.queryMetrics = queryMetrics;
+        }
+
+        @Around(
+            "execution(* com.mycompany.myapp.repository.CrawlerRepository+.*(..))" +
+            " || execution(* com.mycompany.myapp.repository.FiltersRepository+.*(..))" +
+            " || execution(* com.mycompany.myapp.repository.UserRepository+.*(..))" +
+            " || execution(* com.mycompany.myapp.repository.AuthorityRepository+.*(..))"
+        )
+        public Object attributeQueries(ProceedingJoinPoint joinPoint) throws Throwable {
+            String previous = queryMetrics.enterRepository(repositoryName(joinPoint.getThis()));
+            try {
+                return joinPoint.proceed();
+            } finally {
+                queryMetrics.exitRepository(previous);
+            }
+        }
+
+        private static String repositoryName(Object repository) {
+            for (Class<?> type : REPOSITORIES) {
+                if (type.isInstance(repository)) {
+                    return type.getSimpleName();
+                }
+            }
+            return QueryMetrics.NO_REPOSITORY;
+        }
+    }
+
+    /**
+     * Publishes the number of statements prepared per request, as the {@code http.server.requests.statements} summary.
+     */
+    public static class RequestMetricsFilter extends OncePerRequestFilter {
+
+        private final QueryMetrics queryMetrics;
+
+        private final MeterRegistry meterRegistry;
+
+        private final Map<List<String>, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+        public RequestMetricsFilter(QueryMetrics queryMetrics, MeterRegistry meterRegistry) {
+            this.queryMetrics = queryMetrics;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+            queryMetrics.startRequest();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                long statements = queryMetrics.finishRequest();
+                Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (uri != null) {
+                    summaries
+                        .computeIfAbsent(
+                            List.of(request.getMethod(), uri.toString()),
+                            key ->
+                                DistributionSummary
+                                    .builder("http.server.requests.statements")
+                                    .description("Statements prepared by Hibernate per request")
+                                    .tag("method", key.get(0))
+                                    .tag("uri", key.get(1))
+                                    .register(meterRegistry)
+                        )
+                        .record(statements);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.mycompany.myapp.config;
+
+import java.util.Collections;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.model.domain.NavigableRole;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+/**
+ * Hibernate statistics also reporting to {@link QueryMetrics}, set up as the {@code hibernate.stats.factory}.
+ * <p>
+ * Hibernate only reports to its statistics when {@code hibernate.generate_statistics} is enabled. It reports the
+ * queries as HQL, which is mapped to the SQL of its plan in the query plan cache; native queries are already SQL.
+ */
+public class QueryStatistics extends StatisticsImpl {
+
+    private static final Pattern FROM = Pattern.compile("(?i)\\bfrom\\s+([\\w.$]+)");
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final QueryMetrics queryMetrics;
+
+    public QueryStatistics(SessionFactoryImplementor sessionFactory, QueryMetrics queryMetrics) {
+        super(sessionFactory);
+        this.sessionFactory = sessionFactory;
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        queryMetrics.queryExecuted(hql, this::toSql, rows, time);
+    }
+
+    /**
+     * The SQL of a query, from the plan Hibernate cached when executing it. A query which does not select from an
+     * entity is a native query, left as it is rather than parsed as HQL.
+     */
+    private String toSql(String query) {
+        Matcher from = FROM.matcher(query);
+        if (!from.find() || sessionFactory.getMetamodel().getImportedClassName(from.group(1)) == null) {
+            return query;
+        }
+        try {
+            return String.join("; ", sessionFactory.getQueryPlanCache().getHQLQueryPlan(query, false, Collections.emptyMap()).getSqlStrings());
+        } catch (RuntimeException e) {
+            return query;
+        }
+    }
+
+    @Override
+    public void prepareStatement() {
+        super.prepareStatement();
+        queryMetrics.statementPrepared();
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        super.loadEntity(entityName);
+        queryMetrics.entityLoaded(entityName);
+    }
+
+    @Override
+    public void entityCacheHit(NavigableRole entityName, String regionName) {
+        super.entityCacheHit(entityName, regionName);
+        queryMetrics.cacheRequested("second-level", regionName, true);
+    }
+
+    @Override
+    public void entityCacheMiss(NavigableRole entityName, String regionName) {
+        super.entityCacheMiss(entityName, regionName);
+        queryMetrics.cacheRequested("second-level", regionName, false);
+    }
+
+    @Override
+    public void collectionCacheHit(NavigableRole collectionRole, String regionName) {
+        super.collectionCacheHit(collectionRole, regionName);
+        queryMetrics.cacheRequested("second-level", regionName, true);
+    }
+
+    @Override
+    public void collectionCacheMiss(NavigableRole collectionRole, String regionName) {
+        super.collectionCacheMiss(collectionRole, regionName);
+        queryMetrics.cacheRequested("second-level", regionName, false);
+    }
+
+    @Override
+    public void queryCacheHit(String hql, String regionName) {
+        super.queryCacheHit(hql, regionName);
+        queryMetrics.cacheRequested("query", regionName, true);
+    }
+
+    @Override
+    public void queryCacheMiss(String hql, String regionName) {
+        super.queryCacheMiss(hql, regionName);
+        queryMetrics.cacheRequested("query", regionName, false);
+    }
+}
@@ -0,0 +1,289 @@
+package com.mycompany.myapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A {@link DataSource} handing out connections to the read replicas within read-only transactions, and to the
+ * primary otherwise.
+ * <p>
+ * The replicas are taken in turn, skipping those whose replication lag exceeds the maximum or that cannot be reached:
+ * their lag is checked by {@link #checkReplicas()}, which is meant to be scheduled. When no replica is available, the
+ * read-only transactions fall back to the primary.
+ * <p>
+ * A replica may lag behind the primary by up to the maximum lag: the few reads which must see the latest writes, such
+ * as the versions compared by conditional requests, are run within {@link #readFromPrimary(Supplier)}, which routes
+ * them to the primary while the other reads of the same kind keep using the replicas.
+ * <p>
+ * A transaction manager fetches its connection before it marks the transaction read-only, so this data source must
+ * be wrapped into a {@link LazyConnectionDataSourceProxy}, which only fetches the connection for the first statement.
+ * <p>
+ * The routed connections are counted by the {@code datasource.routing.connections} metrics, tagged with the pool and
+ * the reason it was chosen, and the lag of each replica is exported as the {@code datasource.replica.lag} gauge.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final String POSTGRESQL_LAG_SQL =
+        "select case when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0" +
+        " else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+    /**
+     * Measures the replication lag of a database.
+     */
+    @FunctionalInterface
+    public interface LagProbe {
+        /**
+         * @param connection a connection to the replica.
+         * @return the replication lag, or {@code null} if it is unknown.
+         * @throws SQLException if the replica cannot be queried.
+         */
+        Duration lag(Connection connection) throws SQLException;
+    }
+
+    /**
+     * The time since the last transaction replayed by a PostgreSQL standby, or zero if it has replayed everything it
+     * received: an idle primary must not make its standbys look late. Databases other than PostgreSQL are only
+     * checked to be reachable.
+     */
+    public static final LagProbe POSTGRESQL_LAG = connection -> {
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return connection.isValid(1) ? Duration.ZERO : null;
+        }
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(POSTGRESQL_LAG_SQL)) {
+            if (!resultSet.next()) {
+                return null;
+            }
+            double seconds = resultSet.getDouble(1);
+            return resultSet.wasNull() ? null : Duration.ofNanos((long) (seconds * 1e9));
+        }
+    };
+
+    private static final String ROUTED_CONNECTIONS = "datasource.routing.connections";
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final Duration maxLag;
+
+    private final LagProbe lagProbe;
+
+    private final Counter readWrite;
+
+    private final Counter fallback;
+
+    private final Counter primaryRequired;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primaryName the name of the primary pool, for the metrics.
+     * @param primary the primary data source.
+     * @param replicas the replica data sources, by pool name.
+     * @param maxLag the replication lag above which a replica is skipped.
+     * @param lagProbe the probe measuring the lag of the replicas.
+     * @param meterRegistry the registry of the metrics.
+     */
+    public ReplicaRoutingDataSource(
+        String primaryName,
+        DataSource primary,
+        Map<String, DataSource> replicas,
+        Duration maxLag,
+        LagProbe lagProbe,
+        MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.maxLag = maxLag;
+        this.lagProbe = lagProbe;
+        this.readWrite = routedConnections(meterRegistry, primaryName, "read-write");
+        this.fallback = routedConnections(meterRegistry, primaryName, "fallback");
+        this.primaryRequired = routedConnections(meterRegistry, primaryName, "primary-required");
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, routedConnections(meterRegistry, name, "read-only"));
+            Gauge
+                .builder("datasource.replica.lag", replica, Replica::getLagSeconds)
+                .description("Replication lag of the replica, or NaN when it cannot be reached")
+                .baseUnit("seconds")
+                .tag("pool", name)
+                .register(meterRegistry);
+            this.replicas.add(replica);
+        });
+    }
+
+    private static Counter routedConnections(MeterRegistry meterRegistry, String pool, String reason) {
+        return Counter
+            .builder(ROUTED_CONNECTIONS)
+            .description("Connections handed out by the replica routing data source")
+            .tag("pool", pool)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Run reads on the primary, even within read-only transactions: for the reads which must see the latest writes.
+     * Only the connections fetched by the reads are routed, so the transactions must start within them.
+     *
+     * @param reads the reads.
+     * @param <T> the type of their result.
+     * @return their result.
+     */
+    public static <T> T readFromPrimary(Supplier<T> reads) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Measure the lag of every replica, and make it available or not accordingly.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            Duration lag;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                lag = lagProbe.lag(connection);
+            } catch (SQLException | RuntimeException e) {
+                log.debug("Replica {} could not be checked", replica.name, e);
+                replica.unreachable();
+                continue;
+            }
+            replica.update(lag, lag != null && lag.compareTo(maxLag) <= 0);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection getConnection(ConnectionFactory factory) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readWrite.increment();
+            return factory.getConnection(primary);
+        }
+        if (PRIMARY_REQUIRED.get() != null) {
+            primaryRequired.increment();
+            return factory.getConnection(primary);
+        }
+        Replica replica = nextAvailableReplica();
+        if (replica != null) {
+            try {
+                Connection connection = factory.getConnection(replica.dataSource);
+                replica.routed.increment();
+                return connection;
+            } catch (SQLException e) {
+                log.debug("Replica {} did not hand out a connection", replica.name, e);
+                replica.unreachable();
+            }
+        }
+        fallback.increment();
+        return factory.getConnection(primary);
+    }
+
+    private Replica nextAvailableReplica() {
+        int size = replicas.size();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, size));
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Close the replica pools. The primary is left open, as it is not owned by this data source.
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+        Connection getConnection(DataSource dataSource) throws SQLException;
+    }
+
+    private final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final Counter routed;
+
+        private volatile boolean available;
+
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, DataSource dataSource, Counter routed) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.routed = routed;
+        }
+
+        private double getLagSeconds() {
+            return lagSeconds;
+        }
+
+        private void update(Duration lag, boolean available) {
+            lagSeconds = lag == null ? Double.NaN : lag.toNanos() / 1e9;
+            if (this.available != available) {
+                if (available) {
+                    log.info("Replica {} is available, with a lag of {}", name, lag);
+                } else if (lag == null) {
+                    log.warn("Replica {} has an unknown lag, read-only transactions are routed elsewhere", name);
+                } else {
+                    log.warn("Replica {} is lagging by {}, read-only transactions are routed elsewhere", name, lag);
+                }
+            }
+            this.available = available;
+        }
+
+        private void unreachable() {
+            lagSeconds = Double.NaN;
+            if (available) {
+                log.warn("Replica {} cannot be reached, read-only transactions are routed elsewhere", name);
+            }
+            available = false;
+        }
+    }
+}
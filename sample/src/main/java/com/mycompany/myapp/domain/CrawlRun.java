@@ -0,0 +1,256 @@
+package com.mycompany.myapp.domain;
+
+import com.mycompany.myapp.domain.enumeration.CrawlRunStatus;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A run of a {@link Crawler}: a crawl seeded from its source and capped by its fetch budget.
+ */
+@Entity
+@Table(name = "crawl_run")
+public class CrawlRun implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int ERROR_MAX_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Crawler crawler;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private CrawlRunStatus status;
+
+    @NotNull
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    /**
+     * Number of pages fetched with a successful response.
+     */
+    @Column(name = "pages_fetched", nullable = false)
+    private int pagesFetched;
+
+    /**
+     * Number of pages which could not be fetched, or were answered with an error.
+     */
+    @Column(name = "pages_failed", nullable = false)
+    private int pagesFailed;
+
+    /**
+     * Number of pages fetched whose links were not followed, as they were near-duplicates of a page fetched before.
+     */
+    @Column(name = "pages_duplicate", nullable = false)
+    private int pagesDuplicate;
+
+    /**
+     * Number of distinct URLs found, the seed included, whether they were fetched or not.
+     */
+    @Column(name = "urls_discovered", nullable = false)
+    private long urlsDiscovered;
+
+    /**
+     * Last time the instance running the crawl recorded that it is still running it.
+     */
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Size(max = ERROR_MAX_LENGTH)
+    @Column(name = "error", length = ERROR_MAX_LENGTH)
+    private String error;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public CrawlRun id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Crawler getCrawler() {
+        return this.crawler;
+    }
+
+    public CrawlRun crawler(Crawler crawler) {
+        this.setCrawler(crawler);
+        return this;
+    }
+
+    public void setCrawler(Crawler crawler) {
+        this.crawler = crawler;
+    }
+
+    public CrawlRunStatus getStatus() {
+        return this.status;
+    }
+
+    public CrawlRun status(CrawlRunStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(CrawlRunStatus status) {
+        this.status = status;
+    }
+
+    public Instant getStartedAt() {
+        return this.startedAt;
+    }
+
+    public CrawlRun startedAt(Instant startedAt) {
+        this.setStartedAt(startedAt);
+        return this;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return this.finishedAt;
+    }
+
+    public CrawlRun finishedAt(Instant finishedAt) {
+        this.setFinishedAt(finishedAt);
+        return this;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public int getPagesFetched() {
+        return this.pagesFetched;
+    }
+
+    public CrawlRun pagesFetched(int pagesFetched) {
+        this.setPagesFetched(pagesFetched);
+        return this;
+    }
+
+    public void setPagesFetched(int pagesFetched) {
+        this.pagesFetched = pagesFetched;
+    }
+
+    public int getPagesFailed() {
+        return this.pagesFailed;
+    }
+
+    public CrawlRun pagesFailed(int pagesFailed) {
+        this.setPagesFailed(pagesFailed);
+        return this;
+    }
+
+    public void setPagesFailed(int pagesFailed) {
+        this.pagesFailed = pagesFailed;
+    }
+
+    public int getPagesDuplicate() {
+        return this.pagesDuplicate;
+    }
+
+    public CrawlRun pagesDuplicate(int pagesDuplicate) {
+        this.setPagesDuplicate(pagesDuplicate);
+        return this;
+    }
+
+    public void setPagesDuplicate(int pagesDuplicate) {
+        this.pagesDuplicate = pagesDuplicate;
+    }
+
+    public long getUrlsDiscovered() {
+        return this.urlsDiscovered;
+    }
+
+    public CrawlRun urlsDiscovered(long urlsDiscovered) {
+        this.setUrlsDiscovered(urlsDiscovered);
+        return this;
+    }
+
+    public void setUrlsDiscovered(long urlsDiscovered) {
+        this.urlsDiscovered = urlsDiscovered;
+    }
+
+    public Instant getHeartbeatAt() {
+        return this.heartbeatAt;
+    }
+
+    public CrawlRun heartbeatAt(Instant heartbeatAt) {
+        this.setHeartbeatAt(heartbeatAt);
+        return this;
+    }
+
+    public void setHeartbeatAt(Instant heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    public CrawlRun error(String error) {
+        this.setError(error);
+        return this;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CrawlRun)) {
+            return false;
+        }
+        return id != null && id.equals(((CrawlRun) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CrawlRun{" +
+            "id=" + getId() +
+            ", status='" + getStatus() + "'" +
+            ", startedAt='" + getStartedAt() + "'" +
+            ", finishedAt='" + getFinishedAt() + "'" +
+            ", pagesFetched=" + getPagesFetched() +
+            ", pagesFailed=" + getPagesFailed() +
+            ", pagesDuplicate=" + getPagesDuplicate() +
+            ", urlsDiscovered=" + getUrlsDiscovered() +
+            ", heartbeatAt='" + getHeartbeatAt() + "'" +
+            ", error='" + getError() + "'" +
+            "}";
+    }
+}
@@ -3,12 +3,15 @@ package com.mycompany.myapp.domain;
 import java.io.Serializable;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Crawler.
  */
 @Entity
 @Table(name = "crawler")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Crawler implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -32,6 +35,13 @@ public class Crawler implements Serializable {
     @Column(name = "source", nullable = false)
     private String source;
 
+    /**
+     * Incremented by each update. Primitive, so that an entity built with an id is never mistaken for a new one.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -86,6 +96,14 @@ public class Crawler implements Serializable {
         this.source = source;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
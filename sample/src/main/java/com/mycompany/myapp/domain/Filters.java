@@ -2,12 +2,15 @@ package com.mycompany.myapp.domain;
 
 import java.io.Serializable;
 import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A Filters.
  */
 @Entity
 @Table(name = "filters")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Filters implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -18,9 +21,16 @@ public class Filters implements Serializable {
     @Column(name = "id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Crawler crawler;
 
+    /**
+     * Incremented by each update. Primitive, so that an entity built with an id is never mistaken for a new one.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -49,6 +59,14 @@ public class Filters implements Serializable {
         return this;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
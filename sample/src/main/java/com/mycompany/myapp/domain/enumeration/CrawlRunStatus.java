@@ -0,0 +1,10 @@
+package com.mycompany.myapp.domain.enumeration;
+
+/**
+ * The CrawlRunStatus enumeration.
+ */
+public enum CrawlRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+}
@@ -0,0 +1,46 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.CrawlRun;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the CrawlRun entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface CrawlRunRepository extends JpaRepository<CrawlRun, Long> {
+    Optional<CrawlRun> findByIdAndCrawlerId(Long id, Long crawlerId);
+
+    /**
+     * Record that runs are still running.
+     *
+     * @param ids the ids of the runs.
+     * @param heartbeatAt the current time.
+     * @return the number of runs updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update CrawlRun crawlRun set crawlRun.heartbeatAt = ?2 where crawlRun.id in ?1")
+    int updateHeartbeatAt(Collection<Long> ids, Instant heartbeatAt);
+
+    /**
+     * Fail the runs still running whose last heartbeat is older than a time, or which have none.
+     *
+     * @param heartbeatBefore the time.
+     * @param finishedAt the time the runs are finished at.
+     * @param error the error the runs failed with.
+     * @return the number of runs failed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "update CrawlRun crawlRun" +
+        " set crawlRun.status = com.mycompany.myapp.domain.enumeration.CrawlRunStatus.FAILED," +
+        " crawlRun.finishedAt = ?2, crawlRun.error = ?3" +
+        " where crawlRun.status = com.mycompany.myapp.domain.enumeration.CrawlRunStatus.RUNNING" +
+        " and (crawlRun.heartbeatAt is null or crawlRun.heartbeatAt < ?1)"
+    )
+    int failRunningWithHeartbeatBefore(Instant heartbeatBefore, Instant finishedAt, String error);
+}
@@ -1,6 +1,7 @@
 package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.domain.Crawler;
+import java.util.Collection;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +10,20 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CrawlerRepository extends JpaRepository<Crawler, Long>, JpaSpecificationExecutor<Crawler> {}
+public interface CrawlerRepository extends JpaRepository<Crawler, Long>, JpaSpecificationExecutor<Crawler>, CrawlerRepositoryCustom {
+    /**
+     * Implemented by {@link CrawlerRepositoryCustomImpl}, redeclared to resolve the clash with {@link JpaRepository}.
+     */
+    @Override
+    boolean existsById(Long id);
+
+    /**
+     * Delete the crawlers with a single statement, without loading them. Pending changes are flushed first and the
+     * persistence context is cleared afterwards; Hibernate evicts the crawlers from the second-level cache.
+     *
+     * @return the number of crawlers deleted.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Crawler crawler where crawler.id in ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,124 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.Crawler;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import javax.persistence.Tuple;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Custom queries for the {@link Crawler} entity, mixed into {@link CrawlerRepository}.
+ */
+public interface CrawlerRepositoryCustom {
+    /**
+     * Whether a crawler exists. Unlike the default implementation, the crawler is looked up by id rather than counted,
+     * so a crawler already in the persistence context or in the second-level cache costs no database round trip.
+     *
+     * @param id the id of the crawler.
+     * @return whether the crawler exists.
+     */
+    boolean existsById(Long id);
+
+    /**
+     * Return at most {@code limit} crawlers matching the specification, in the given order.
+     * Unlike a {@link org.springframework.data.domain.Page}, no count query is issued.
+     *
+     * @param specification the specification the crawlers should match.
+     * @param sort the order of the crawlers.
+     * @param limit the maximum number of crawlers to return.
+     * @return the matching crawlers.
+     */
+    List<Crawler> findAll(Specification<Crawler> specification, Sort sort, int limit);
+
+    /**
+     * Hand every crawler matching the specification to {@code action}, streaming them from a forward-only cursor.
+     * Each crawler is detached once {@code action} returns, so it must not be kept or modified afterwards.
+     *
+     * @param specification the specification the crawlers should match.
+     * @param sort the order of the crawlers.
+     * @param fetchSize the number of rows fetched per round trip.
+     * @param action the action to perform on each crawler.
+     * @return the number of crawlers.
+     */
+    long scrollAll(Specification<Crawler> specification, Sort sort, int fetchSize, Consumer<Crawler> action);
+
+    /**
+     * Return at most {@code limit} crawlers whose name or source contains {@code text}, ignoring case, the most
+     * relevant first. On PostgreSQL the crawlers are matched through the trigram indexes and ranked by trigram
+     * similarity; elsewhere, crawlers whose name is or starts with {@code text} come first.
+     *
+     * @param text the text to search for.
+     * @param limit the maximum number of crawlers to return.
+     * @return the matching crawlers.
+     */
+    List<Crawler> search(String text, int limit);
+
+    /**
+     * Return the crawlers selected by a JPQL query, within the given page.
+     *
+     * @param query the JPQL query, with positional parameters.
+     * @param parameters the values of the positional parameters, in order.
+     * @param pageable the page to return, or {@link Pageable#unpaged()} for all of them.
+     * @return the selected crawlers.
+     */
+    List<Crawler> findAll(String query, List<?> parameters, Pageable pageable);
+
+    /**
+     * Return properties of the crawlers selected by a JPQL query, within the given page, without hydrating them.
+     *
+     * @param query the JPQL query selecting properties, with positional parameters.
+     * @param parameters the values of the positional parameters, in order.
+     * @param pageable the page to return, or {@link Pageable#unpaged()} for all of them.
+     * @return the selected properties, one tuple per row.
+     */
+    List<Tuple> findTuples(String query, List<?> parameters, Pageable pageable);
+
+    /**
+     * Run a JPQL count query.
+     *
+     * @param query the JPQL count query, with positional parameters.
+     * @param parameters the values of the positional parameters, in order.
+     * @return the count.
+     */
+    long count(String query, List<?> parameters);
+
+    /**
+     * Estimate the number of crawlers from the database table statistics, without counting them.
+     *
+     * @return the estimate, or empty if the database cannot provide one.
+     */
+    OptionalLong estimateCount();
+
+    /**
+     * Estimate the number of crawlers selected by a JPQL query from the database query planner, without running it.
+     *
+     * @param query the JPQL query, with positional parameters.
+     * @param parameters the values of the positional parameters, in order.
+     * @return the estimate, or empty if the database cannot provide one.
+     */
+    OptionalLong estimateCount(String query, List<?> parameters);
+
+    /**
+     * Insert new crawlers without going through the persistence context: with a single {@code COPY} on PostgreSQL,
+     * with batched inserts elsewhere. Their ids are drawn from the sequence of the entity and set on them.
+     * <p>
+     * As the crawlers are not written by Hibernate, they are neither cached nor published to its listeners.
+     *
+     * @param crawlers the crawlers to insert, without ids.
+     */
+    void insertAll(List<Crawler> crawlers);
+
+    /**
+     * Update a crawler with a single statement, without loading it first, and increment its version.
+     *
+     * @param crawler the id of the crawler and its new values.
+     * @param expectedVersion the version the crawler is expected to have, or {@code null} for any version.
+     * @param partial whether the {@code null} values are left unchanged rather than written.
+     * @return the updated crawler, detached, or empty if no crawler has the id at the expected version.
+     */
+    Optional<Crawler> updateById(Crawler crawler, Long expectedVersion, boolean partial);
+}
@@ -0,0 +1,235 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.Crawler;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.Query;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Implementation of {@link CrawlerRepositoryCustom}.
+ */
+public class CrawlerRepositoryCustomImpl extends SpecificationRepositorySupport<Crawler> implements CrawlerRepositoryCustom {
+
+    /**
+     * Matches through the {@code upper(...) gin_trgm_ops} indexes, and ranks by similarity.
+     */
+    private static final String POSTGRESQL_SEARCH =
+        "select c.* from crawler c where upper(c.name) like ?1 escape '\\' or upper(c.source) like ?1 escape '\\'" +
+        " order by greatest(similarity(c.name, ?2), similarity(c.source, ?2)) desc, c.id";
+
+    private static final String SEARCH =
+        "select e from Crawler e where upper(e.name) like ?1 escape '\\' or upper(e.source) like ?1 escape '\\'" +
+        " order by case when upper(e.name) = ?2 then 0 when upper(e.name) like ?3 escape '\\' then 1" +
+        " when upper(e.name) like ?1 escape '\\' then 2 else 3 end, e.id";
+
+    private static final String COLUMNS = "id, name, jhi_fetch, source, version";
+
+    private static final String COPY = "copy crawler (" + COLUMNS + ") from stdin";
+
+    private static final String INSERT = "insert into crawler (" + COLUMNS + ") values (?, ?, ?, ?, ?)";
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    /**
+     * Number of characters of rows sent to {@code COPY} at once.
+     */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    public CrawlerRepositoryCustomImpl(EntityManager entityManager) {
+        super(entityManager, Crawler.class);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return super.existsById(id);
+    }
+
+    @Override
+    public List<Crawler> findAll(Specification<Crawler> specification, Sort sort, int limit) {
+        return super.findAll(specification, sort, limit);
+    }
+
+    @Override
+    public long scrollAll(Specification<Crawler> specification, Sort sort, int fetchSize, Consumer<Crawler> action) {
+        return scroll(specification, sort, fetchSize, action);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Crawler> search(String text, int limit) {
+        String upper = text.toUpperCase(Locale.ROOT);
+        String escaped = upper.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        Query query;
+        if (isPostgreSQL()) {
+            query = entityManager.createNativeQuery(POSTGRESQL_SEARCH, Crawler.class).setParameter(2, text);
+        } else {
+            query = entityManager.createQuery(SEARCH, Crawler.class).setParameter(2, upper).setParameter(3, escaped + "%");
+        }
+        return query.setParameter(1, "%" + escaped + "%").setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Crawler> findAll(String query, List<?> parameters, Pageable pageable) {
+        return super.findAll(query, parameters, pageable);
+    }
+
+    @Override
+    public List<Tuple> findTuples(String query, List<?> parameters, Pageable pageable) {
+        return super.findTuples(query, parameters, pageable);
+    }
+
+    @Override
+    public long count(String query, List<?> parameters) {
+        return super.count(query, parameters);
+    }
+
+    @Override
+    public OptionalLong estimateCount() {
+        return super.estimateCount();
+    }
+
+    @Override
+    public OptionalLong estimateCount(String query, List<?> parameters) {
+        return super.estimateCount(query, parameters);
+    }
+
+    @Override
+    public Optional<Crawler> updateById(Crawler crawler, Long expectedVersion, boolean partial) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        if (!partial || crawler.getName() != null) {
+            assignments.put("name", crawler.getName());
+        }
+        if (!partial || crawler.getFetch() != null) {
+            assignments.put("jhi_fetch", crawler.getFetch());
+        }
+        if (!partial || crawler.getSource() != null) {
+            assignments.put("source", crawler.getSource());
+        }
+        return updateColumns(
+            crawler.getId(),
+            expectedVersion,
+            assignments,
+            COLUMNS,
+            (resultSet, rowNum) -> {
+                Crawler updated = new Crawler()
+                    .id(resultSet.getLong(1))
+                    .name(resultSet.getString(2))
+                    .fetch(resultSet.getInt(3))
+                    .source(resultSet.getString(4));
+                updated.setVersion(resultSet.getLong(5));
+                return updated;
+            }
+        );
+    }
+
+    @Override
+    public void insertAll(List<Crawler> crawlers) {
+        long[] ids = reserveIds(crawlers.size());
+        for (int i = 0; i < crawlers.size(); i++) {
+            crawlers.get(i).setId(ids[i]);
+        }
+        boolean postgreSQL = isPostgreSQL();
+        entityManager
+            .unwrap(Session.class)
+            .doWork(connection -> {
+                if (postgreSQL) {
+                    copy(connection, crawlers);
+                } else {
+                    insert(connection, crawlers);
+                }
+            });
+    }
+
+    /**
+     * Send the crawlers to {@code COPY} in its text format, a row per line and a tab between the columns.
+     */
+    private static void copy(Connection connection, List<Crawler> crawlers) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY);
+        try {
+            StringBuilder rows = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+            for (Crawler crawler : crawlers) {
+                rows.append(crawler.getId()).append('\t');
+                appendCopyText(rows, crawler.getName()).append('\t');
+                rows.append(crawler.getFetch()).append('\t');
+                appendCopyText(rows, crawler.getSource()).append('\t');
+                rows.append(crawler.getVersion()).append('\n');
+                if (rows.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copyIn, rows);
+                }
+            }
+            writeToCopy(copyIn, rows);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder rows) throws SQLException {
+        byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        rows.setLength(0);
+    }
+
+    /**
+     * Escape the characters {@code COPY} gives a meaning to in its text format.
+     */
+    private static StringBuilder appendCopyText(StringBuilder rows, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    rows.append("\\\\");
+                    break;
+                case '\t':
+                    rows.append("\\t");
+                    break;
+                case '\n':
+                    rows.append("\\n");
+                    break;
+                case '\r':
+                    rows.append("\\r");
+                    break;
+                default:
+                    rows.append(c);
+            }
+        }
+        return rows;
+    }
+
+    private static void insert(Connection connection, List<Crawler> crawlers) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (int i = 0; i < crawlers.size(); i++) {
+                Crawler crawler = crawlers.get(i);
+                statement.setLong(1, crawler.getId());
+                statement.setString(2, crawler.getName());
+                statement.setInt(3, crawler.getFetch());
+                statement.setString(4, crawler.getSource());
+                statement.setLong(5, crawler.getVersion());
+                statement.addBatch();
+                if ((i + 1) % INSERT_BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+}
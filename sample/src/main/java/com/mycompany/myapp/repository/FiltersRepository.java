@@ -1,6 +1,9 @@
 package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.domain.Filters;
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.Tuple;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +12,42 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface FiltersRepository extends JpaRepository<Filters, Long>, JpaSpecificationExecutor<Filters> {}
+public interface FiltersRepository extends JpaRepository<Filters, Long>, JpaSpecificationExecutor<Filters>, FiltersRepositoryCustom {
+    /**
+     * Implemented by {@link FiltersRepositoryCustomImpl}, redeclared to resolve the clash with {@link JpaRepository}.
+     */
+    @Override
+    boolean existsById(Long id);
+
+    /**
+     * Return the ids and versions of the filters of the crawlers, as the {@code id} and {@code version} elements of
+     * each tuple.
+     */
+    @Query("select filters.id as id, filters.version as version from Filters filters where filters.crawler.id in ?1")
+    List<Tuple> findVersionsByCrawlerIdIn(Collection<Long> crawlerIds);
+
+    /**
+     * Count the filters of the crawlers.
+     */
+    long countByCrawlerIdIn(Collection<Long> crawlerIds);
+
+    /**
+     * Delete the filters with a single statement, without loading them. Pending changes are flushed first and the
+     * persistence context is cleared afterwards; Hibernate evicts the filters from the second-level cache.
+     *
+     * @return the number of filters deleted.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Filters filters where filters.id in ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
+
+    /**
+     * Delete the filters of the crawlers with a single statement, without loading them, like
+     * {@link #deleteAllByIdIn(Collection)}.
+     *
+     * @return the number of filters deleted.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Filters filters where filters.crawler.id in ?1")
+    int deleteAllByCrawlerIdIn(Collection<Long> crawlerIds);
+}
@@ -0,0 +1,90 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.Filters;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import javax.persistence.Tuple;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Custom queries for the {@link Filters} entity, mixed into {@link FiltersRepository}.
+ */
+public interface FiltersRepositoryCustom {
+    /**
+     * Whether a filters exists. Unlike the default implementation, the filters is looked up by id rather than counted,
+     * so a filters already in the persistence context or in the second-level cache costs no database round trip.
+     *
+     * @param id the id of the filters.
+     * @return whether the filters exists.
+     */
+    boolean existsById(Long id);
+
+    /**
+     * Return at most {@code limit} filters matching the specification, in the given order.
+     * Unlike a {@link org.springframework.data.domain.Page}, no count query is issued.
+     *
+     * @param specification the specification the filters should match.
+     * @param sort the order of the filters.
+     * @param limit the maximum number of filters to return.
+     * @return the matching filters.
+     */
+    List<Filters> findAll(Specification<Filters> specification, Sort sort, int limit);
+
+    /**
+     * Return the filters selected by a JPQL query, within the given page.
+     *
+     * @param query the JPQL query, with positional parameters.
+     * @param parameters the values of the positional parameters, in order.
+     * @param pageable the page to return, or {@link Pageable#unpaged()} for all of them.
+     * @return the selected filters.
+     */
+    List<Filters> findAll(String query, List<?> parameters, Pageable pageable);
+
+    /**
+     * Return properties of the filters selected by a JPQL query, within the given page, without hydrating them.
+     *
+     * @param query the JPQL query selecting properties, with positional parameters.
+     * @param parameters the values of the positional parameters, in order.
+     * @param pageable the page to return, or {@link Pageable#unpaged()} for all of them.
+     * @return the selected properties, one tuple per row.
+     */
+    List<Tuple> findTuples(String query, List<?> parameters, Pageable pageable);
+
+    /**
+     * Run a JPQL count query.
+     *
+     * @param query the JPQL count query, with positional parameters.
+     * @param parameters the values of the positional parameters, in order.
+     * @return the count.
+     */
+    long count(String query, List<?> parameters);
+
+    /**
+     * Estimate the number of filters from the database table statistics, without counting them.
+     *
+     * @return the estimate, or empty if the database cannot provide one.
+     */
+    OptionalLong estimateCount();
+
+    /**
+     * Estimate the number of filters selected by a JPQL query from the database query planner, without running it.
+     *
+     * @param query the JPQL query, with positional parameters.
+     * @param parameters the values of the positional parameters, in order.
+     * @return the estimate, or empty if the database cannot provide one.
+     */
+    OptionalLong estimateCount(String query, List<?> parameters);
+
+    /**
+     * Update a filters with a single statement, without loading it first, and increment its version.
+     *
+     * @param filters the id of the filters and its new values.
+     * @param expectedVersion the version the filters is expected to have, or {@code null} for any version.
+     * @param partial whether the {@code null} values are left unchanged rather than written.
+     * @return the updated filters, detached, or empty if no filters has the id at the expected version.
+     */
+    Optional<Filters> updateById(Filters filters, Long expectedVersion, boolean partial);
+}
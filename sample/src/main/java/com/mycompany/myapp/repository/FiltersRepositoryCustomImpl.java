@@ -0,0 +1,82 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.domain.Filters;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Implementation of {@link FiltersRepositoryCustom}.
+ */
+public class FiltersRepositoryCustomImpl extends SpecificationRepositorySupport<Filters> implements FiltersRepositoryCustom {
+
+    public FiltersRepositoryCustomImpl(EntityManager entityManager) {
+        super(entityManager, Filters.class);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return super.existsById(id);
+    }
+
+    @Override
+    public List<Filters> findAll(Specification<Filters> specification, Sort sort, int limit) {
+        return super.findAll(specification, sort, limit);
+    }
+
+    @Override
+    public List<Filters> findAll(String query, List<?> parameters, Pageable pageable) {
+        return super.findAll(query, parameters, pageable);
+    }
+
+    @Override
+    public List<Tuple> findTuples(String query, List<?> parameters, Pageable pageable) {
+        return super.findTuples(query, parameters, pageable);
+    }
+
+    @Override
+    public long count(String query, List<?> parameters) {
+        return super.count(query, parameters);
+    }
+
+    @Override
+    public OptionalLong estimateCount() {
+        return super.estimateCount();
+    }
+
+    @Override
+    public OptionalLong estimateCount(String query, List<?> parameters) {
+        return super.estimateCount(query, parameters);
+    }
+
+    @Override
+    public Optional<Filters> updateById(Filters filters, Long expectedVersion, boolean partial) {
+        Map<String, Object> assignments = new LinkedHashMap<>();
+        if (!partial || filters.getCrawler() != null) {
+            assignments.put("crawler_id", filters.getCrawler() != null ? filters.getCrawler().getId() : null);
+        }
+        return updateColumns(
+            filters.getId(),
+            expectedVersion,
+            assignments,
+            "id, crawler_id, version",
+            (resultSet, rowNum) -> {
+                Filters updated = new Filters().id(resultSet.getLong(1));
+                long crawlerId = resultSet.getLong(2);
+                if (!resultSet.wasNull()) {
+                    updated.setCrawler(new Crawler().id(crawlerId));
+                }
+                updated.setVersion(resultSet.getLong(3));
+                return updated;
+            }
+        );
+    }
+}
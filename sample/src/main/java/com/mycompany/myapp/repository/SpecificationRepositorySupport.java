@@ -0,0 +1,425 @@
+package com.mycompany.myapp.repository;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.hql.spi.QueryTranslator;
+import org.hibernate.hql.spi.QueryTranslatorFactory;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.Joinable;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Base class for the custom repository fragments, running {@link Specification} queries that
+ * {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor} does not cover, and JPQL queries
+ * compiled by the service layer with positional parameters.
+ *
+ * @param <T> the entity type.
+ */
+abstract class SpecificationRepositorySupport<T> {
+
+    private static final String TABLE_ESTIMATE_SQL =
+        "select (c.reltuples / c.relpages * (pg_relation_size(c.oid) / current_setting('block_size')::int))::bigint" +
+        " from pg_class c where c.oid = to_regclass(?) and c.relpages > 0 and c.reltuples >= 0";
+
+    private static final String SEQUENCE_BLOCKS_SQL = "select nextval(cast(? as regclass)) from generate_series(1, ?)";
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private static final Pattern POSITIONAL_PARAMETER = Pattern.compile("\\?(\\d+)");
+
+    protected final EntityManager entityManager;
+
+    private final Class<T> domainClass;
+
+    protected SpecificationRepositorySupport(EntityManager entityManager, Class<T> domainClass) {
+        this.entityManager = entityManager;
+        this.domainClass = domainClass;
+    }
+
+    /**
+     * Return at most {@code limit} entities matching the specification, without issuing a count query.
+     */
+    protected List<T> findAll(Specification<T> specification, Sort sort, int limit) {
+        return createQuery(specification, sort).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Whether an entity exists, looking it up by id rather than with a count query: an entity already in the
+     * persistence context or in the second-level cache is found without a database round trip.
+     */
+    protected boolean existsById(Object id) {
+        return entityManager.find(domainClass, id) != null;
+    }
+
+    /**
+     * Hand every entity matching the specification to {@code action}, reading them through a forward-only
+     * cursor of {@code fetchSize} rows. Each entity is detached once {@code action} returns, so the persistence
+     * context does not grow however many rows match.
+     *
+     * @return the number of entities.
+     */
+    @SuppressWarnings("unchecked")
+    protected long scroll(Specification<T> specification, Sort sort, int fetchSize, Consumer<? super T> action) {
+        Query<T> query = createQuery(specification, sort).unwrap(Query.class);
+        query.setFetchSize(fetchSize);
+        query.setReadOnly(true);
+        query.setCacheMode(CacheMode.IGNORE);
+        long count = 0;
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                T entity = (T) results.get(0);
+                action.accept(entity);
+                entityManager.detach(entity);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Run a JPQL query selecting entities, binding {@code parameters} to the positional parameters {@code ?1}, {@code ?2}...
+     */
+    protected List<T> findAll(String query, List<?> parameters, Pageable pageable) {
+        TypedQuery<T> typedQuery = bind(entityManager.createQuery(query, domainClass), parameters);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset())).setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Run a JPQL query selecting properties rather than entities, binding {@code parameters} to the positional parameters
+     * {@code ?1}, {@code ?2}... No entity is hydrated, so the persistence context stays empty.
+     */
+    protected List<Tuple> findTuples(String query, List<?> parameters, Pageable pageable) {
+        TypedQuery<Tuple> typedQuery = bind(entityManager.createQuery(query, Tuple.class), parameters);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset())).setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Run a JPQL count query, binding {@code parameters} to the positional parameters {@code ?1}, {@code ?2}...
+     */
+    protected long count(String query, List<?> parameters) {
+        return bind(entityManager.createQuery(query, Long.class), parameters).getSingleResult();
+    }
+
+    /**
+     * Estimate the number of entities from the PostgreSQL table statistics, scaled to the current size of the table
+     * the same way the planner does.
+     *
+     * @return the estimate, or empty if the database is not PostgreSQL or the table was never analyzed.
+     */
+    protected OptionalLong estimateCount() {
+        String table = ((Joinable) sessionFactory().getMetamodel().entityPersister(domainClass)).getTableName();
+        return entityManager
+            .unwrap(Session.class)
+            .doReturningWork(connection -> {
+                if (!isPostgreSQL(connection)) {
+                    return OptionalLong.empty();
+                }
+                try (PreparedStatement statement = connection.prepareStatement(TABLE_ESTIMATE_SQL)) {
+                    statement.setString(1, table);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return resultSet.next() ? OptionalLong.of(resultSet.getLong(1)) : OptionalLong.empty();
+                    }
+                }
+            });
+    }
+
+    /**
+     * Estimate the number of entities selected by a JPQL query from the PostgreSQL planner, without running the query.
+     *
+     * @return the estimate, or empty if the database is not PostgreSQL.
+     */
+    protected OptionalLong estimateCount(String query, List<?> parameters) {
+        return entityManager
+            .unwrap(Session.class)
+            .doReturningWork(connection -> {
+                if (!isPostgreSQL(connection)) {
+                    return OptionalLong.empty();
+                }
+                List<Object> values = new ArrayList<>();
+                String expanded = expandParameters(query, parameters, values);
+                String sql = toSql(expanded);
+                try (PreparedStatement statement = connection.prepareStatement("explain (format json) " + sql)) {
+                    for (int i = 0; i < values.size(); i++) {
+                        statement.setObject(i + 1, values.get(i));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        Matcher matcher = resultSet.next() ? PLAN_ROWS.matcher(resultSet.getString(1)) : null;
+                        return matcher != null && matcher.find() ? OptionalLong.of(Long.parseLong(matcher.group(1))) : OptionalLong.empty();
+                    }
+                }
+            });
+    }
+
+    /**
+     * Translate a JPQL query into SQL with the query translator of the session factory, the one compiling the queries.
+     */
+    private String toSql(String query) {
+        QueryTranslator translator = sessionFactory()
+            .getServiceRegistry()
+            .getService(QueryTranslatorFactory.class)
+            .createQueryTranslator(query, query, Collections.emptyMap(), sessionFactory(), null);
+        translator.compile(Collections.emptyMap(), false);
+        return translator.getSQLString();
+    }
+
+    /**
+     * Expand the collection-valued positional parameters of a JPQL query into one parameter per element, since
+     * the SQL is explained with plain JDBC parameters.
+     */
+    private static String expandParameters(String query, List<?> parameters, List<Object> values) {
+        Matcher matcher = POSITIONAL_PARAMETER.matcher(query);
+        StringBuilder expanded = new StringBuilder();
+        while (matcher.find()) {
+            Object value = parameters.get(Integer.parseInt(matcher.group(1)) - 1);
+            Collection<?> elements = value instanceof Collection ? (Collection<?>) value : List.of(value);
+            StringJoiner positions = new StringJoiner(", ");
+            for (Object element : elements) {
+                values.add(element);
+                positions.add("?" + values.size());
+            }
+            matcher.appendReplacement(expanded, positions.toString());
+        }
+        matcher.appendTail(expanded);
+        return expanded.toString();
+    }
+
+    /**
+     * Update columns of an entity and increment its version with a single statement, without loading the entity first:
+     * the number of rows updated tells whether it exists at the expected version. On PostgreSQL the statement also
+     * returns the updated row; elsewhere the row is read by a second statement, in the same transaction.
+     * <p>
+     * As the entity is not written by Hibernate, the pending changes are flushed first, and the entity is detached
+     * from the persistence context and evicted from the second-level cache, again once the transaction completes.
+     * When there is no column to update, or when they already have their values, the entity is only read and keeps its
+     * version, as it would when written by Hibernate.
+     *
+     * @param id the id of the entity.
+     * @param expectedVersion the version the entity is expected to have, or {@code null} for any version.
+     * @param assignments the columns to update, and their values, in order.
+     * @param columns the columns of the row to read, separated by commas.
+     * @param rowMapper maps the row, read through {@code columns}, to a detached entity.
+     * @return the updated entity, or empty if no entity has the id at the expected version.
+     */
+    protected Optional<T> updateColumns(
+        Serializable id,
+        Long expectedVersion,
+        Map<String, Object> assignments,
+        String columns,
+        RowMapper<T> rowMapper
+    ) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) sessionFactory().getMetamodel().entityPersister(domainClass);
+        String byId = " where " + persister.getIdentifierColumnNames()[0] + " = ?";
+        String byIdAndVersion = byId + (expectedVersion != null ? " and " + persister.getVersionColumnName() + " = ?" : "");
+        String selectColumns = "select " + columns + " from " + persister.getTableName();
+        StringJoiner changed = new StringJoiner(" or ", " and (", ")");
+        assignments.keySet().forEach(column -> changed.add(column + " is distinct from ?"));
+        StringJoiner update = new StringJoiner(", ", "update " + persister.getTableName() + " set ", byIdAndVersion + changed);
+        assignments.keySet().forEach(column -> update.add(column + " = ?"));
+        update.add(persister.getVersionColumnName() + " = " + persister.getVersionColumnName() + " + 1");
+        boolean returning = isPostgreSQL();
+
+        entityManager.flush();
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+        if (managed != null) {
+            entityManager.detach(managed);
+        }
+        evictAfterCompletion(id);
+
+        return session.doReturningWork(connection -> {
+            if (assignments.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(selectColumns + byIdAndVersion)) {
+                    bindIdAndVersion(statement, 1, id, expectedVersion);
+                    return readRow(statement, rowMapper);
+                }
+            }
+            String sql = returning ? update + " returning " + columns : update.toString();
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int index = 1;
+                for (Object value : assignments.values()) {
+                    statement.setObject(index++, value);
+                }
+                bindIdAndVersion(statement, index, id, expectedVersion);
+                index += expectedVersion != null ? 2 : 1;
+                for (Object value : assignments.values()) {
+                    statement.setObject(index++, value);
+                }
+                if (returning) {
+                    Optional<T> updated = readRow(statement, rowMapper);
+                    if (updated.isPresent()) {
+                        return updated;
+                    }
+                } else if (statement.executeUpdate() > 0) {
+                    try (PreparedStatement select = connection.prepareStatement(selectColumns + byId)) {
+                        bindIdAndVersion(select, 1, id, null);
+                        return readRow(select, rowMapper);
+                    }
+                }
+            }
+            // Nothing updated: either the row is missing or stale, or the write changes nothing, as Hibernate would not
+            // update it either
+            try (PreparedStatement statement = connection.prepareStatement(selectColumns + byIdAndVersion)) {
+                bindIdAndVersion(statement, 1, id, expectedVersion);
+                return readRow(statement, rowMapper);
+            }
+        });
+    }
+
+    private static void bindIdAndVersion(PreparedStatement statement, int index, Object id, Long expectedVersion) throws SQLException {
+        statement.setObject(index, id);
+        if (expectedVersion != null) {
+            statement.setLong(index + 1, expectedVersion);
+        }
+    }
+
+    private static <X> Optional<X> readRow(PreparedStatement statement, RowMapper<X> rowMapper) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? Optional.ofNullable(rowMapper.mapRow(resultSet, 0)) : Optional.empty();
+        }
+    }
+
+    /**
+     * Evict an entity from the second-level cache now and once the transaction completes, so that a concurrent
+     * transaction cannot cache the state it had before the transaction committed.
+     */
+    private void evictAfterCompletion(Serializable id) {
+        org.hibernate.Cache cache = sessionFactory().getCache();
+        cache.evictEntityData(domainClass, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        cache.evictEntityData(domainClass, id);
+                    }
+                }
+            );
+        }
+    }
+
+    /**
+     * Draw the ids of new entities from their identifier generator, for the entities inserted without Hibernate.
+     * <p>
+     * On PostgreSQL, when the ids come from a pooled sequence, all the blocks of ids are reserved with a single query
+     * rather than one query per block: each value drawn from the sequence is the highest id of a block, as for the
+     * {@link PooledOptimizer} of Hibernate, so the ids never collide with those it hands out.
+     *
+     * @param count the number of ids.
+     * @return the ids.
+     */
+    protected long[] reserveIds(int count) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        IdentifierGenerator generator = sessionFactory().getMetamodel().entityPersister(domainClass).getIdentifierGenerator();
+        long[] ids = new long[count];
+        if (isPostgreSQL() && generator instanceof SequenceStyleGenerator) {
+            SequenceStyleGenerator sequence = (SequenceStyleGenerator) generator;
+            if (sequence.getDatabaseStructure().isPhysicalSequence() && sequence.getOptimizer() instanceof PooledOptimizer) {
+                String sequenceName = sequence.getDatabaseStructure().getPhysicalName().render();
+                int blockSize = sequence.getOptimizer().getIncrementSize();
+                session.doWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(SEQUENCE_BLOCKS_SQL)) {
+                        statement.setString(1, sequenceName);
+                        statement.setInt(2, (count + blockSize - 1) / blockSize);
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            for (int i = 0; i < count; i += blockSize) {
+                                resultSet.next();
+                                long highest = resultSet.getLong(1);
+                                for (int j = 0; j < blockSize && i + j < count; j++) {
+                                    ids[i + j] = highest - blockSize + 1 + j;
+                                }
+                            }
+                        }
+                    }
+                });
+                return ids;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            ids[i] = ((Number) generator.generate(session, null)).longValue();
+        }
+        return ids;
+    }
+
+    /**
+     * Whether the entities are stored in PostgreSQL, for the queries relying on its extensions.
+     */
+    protected boolean isPostgreSQL() {
+        return sessionFactory().getJdbcServices().getDialect() instanceof PostgreSQL81Dialect;
+    }
+
+    private static boolean isPostgreSQL(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+    }
+
+    private static <X> TypedQuery<X> bind(TypedQuery<X> query, List<?> parameters) {
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(i + 1, parameters.get(i));
+        }
+        return query;
+    }
+
+    private TypedQuery<T> createQuery(Specification<T> specification, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        query.select(root);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        return entityManager.createQuery(query);
+    }
+}
@@ -0,0 +1,321 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.service.dto.ChangeDTO;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The committed changes of one entity, fanned out to subscribers.
+ * <p>
+ * Each change is numbered, and its event id is that number prefixed with the epoch of the feed, so that ids handed
+ * out before a restart are recognized. The last changes are kept, to be sent to the subscribers resuming after an
+ * event id; a subscriber resuming from further back is told to reset instead, and reload the entities.
+ * <p>
+ * Publishing never blocks: each subscriber has a bounded buffer, drained by the executor, and is dropped when its
+ * buffer is full. A subscriber whose write does not complete within the write timeout is dropped with the next
+ * heartbeat, so that its events stop piling up; the write itself is left to fail when the connection is closed.
+ */
+public final class ChangeFeed {
+
+    /**
+     * Receives the events of a subscription, one at a time.
+     */
+    public interface Subscriber {
+        /**
+         * The subscription started without resuming: the next changes are the ones following {@code eventId}.
+         */
+        void onOpen(String eventId) throws IOException;
+
+        /**
+         * The subscription could not resume, as changes were missed: the entities must be reloaded, and the next
+         * changes are the ones following {@code eventId}.
+         */
+        void onReset(String eventId) throws IOException;
+
+        void onChange(String eventId, ChangeDTO change) throws IOException;
+
+        /**
+         * Nothing happened, but the subscriber should be written to, so that a closed connection is detected.
+         */
+        void onHeartbeat() throws IOException;
+
+        /**
+         * The subscription was dropped, because the subscriber did not keep up, stalled or could not be written to.
+         */
+        void onDropped();
+    }
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    private final String name;
+
+    private final String epoch;
+
+    private final int historySize;
+
+    private final int bufferSize;
+
+    private final long writeTimeout;
+
+    private final Executor executor;
+
+    private final Deque<Event> history = new ArrayDeque<>();
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private long sequence;
+
+    /**
+     * @param name the name of the feed, for the logs.
+     * @param epoch the epoch of the event ids, different on every start.
+     * @param historySize the number of changes kept for the subscribers resuming.
+     * @param bufferSize the number of events waiting to be sent to a subscriber, above which it is dropped.
+     * @param writeTimeout the time after which a subscriber still being written to is dropped.
+     * @param executor the executor sending the events to the subscribers.
+     */
+    public ChangeFeed(String name, String epoch, int historySize, int bufferSize, Duration writeTimeout, Executor executor) {
+        this.name = name;
+        this.epoch = epoch;
+        this.historySize = historySize;
+        this.bufferSize = bufferSize;
+        this.writeTimeout = writeTimeout.toNanos();
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribe to the changes.
+     *
+     * @param lastEventId the id of the last event received on a previous subscription, or {@code null} to start afresh.
+     * @param subscriber the subscriber.
+     * @return the subscription, to be cancelled once the subscriber goes away.
+     */
+    public synchronized Subscription subscribe(String lastEventId, Subscriber subscriber) {
+        Subscription subscription = new Subscription(subscriber);
+        String eventId = eventId(sequence);
+        if (lastEventId == null) {
+            subscription.offer(new Marker(eventId, false));
+        } else {
+            long last = parseSequence(lastEventId);
+            long oldest = sequence - history.size();
+            if (last < oldest || last > sequence || sequence - last > bufferSize) {
+                subscription.offer(new Marker(eventId, true));
+            } else {
+                history.stream().filter(event -> event.sequence > last).forEach(subscription::offer);
+            }
+        }
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Number the change, keep it and send it to every subscriber.
+     */
+    public synchronized void publish(ChangeDTO change) {
+        Event event = new Event(++sequence, change);
+        history.addLast(event);
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * Send a heartbeat to every subscriber, dropping those whose write timed out.
+     */
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            if (subscription.isStalled(now)) {
+                subscription.drop("a write timed out");
+            } else {
+                subscription.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * The number of subscriptions dropped so far.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * @return the sequence of an event id of this feed, or -1.
+     */
+    private long parseSequence(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class Event {
+
+        private final long sequence;
+
+        private final ChangeDTO change;
+
+        private Event(long sequence, ChangeDTO change) {
+            this.sequence = sequence;
+            this.change = change;
+        }
+    }
+
+    private static final class Marker {
+
+        private final String eventId;
+
+        private final boolean reset;
+
+        private Marker(String eventId, boolean reset) {
+            this.eventId = eventId;
+            this.reset = reset;
+        }
+    }
+
+    /**
+     * A subscription, sending its buffered events from one executor task at a time.
+     */
+    public final class Subscription {
+
+        private final Subscriber subscriber;
+
+        private final BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(bufferSize);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private volatile boolean sending;
+
+        private volatile long sendStartedAt;
+
+        private Subscription(Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Stop sending events to the subscriber.
+         */
+        public void cancel() {
+            closed = true;
+            subscriptions.remove(this);
+            buffer.clear();
+        }
+
+        private void offer(Object item) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(item)) {
+                if (item != HEARTBEAT) {
+                    drop("its buffer is full");
+                }
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    drop("the executor is saturated");
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Object item = buffer.poll();
+                if (item == null) {
+                    draining.set(false);
+                    // an item offered after the poll found the task still draining
+                    if (buffer.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (closed) {
+                    return;
+                }
+                sendStartedAt = System.nanoTime();
+                sending = true;
+                try {
+                    send(item);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Subscriber of {} could not be written to", name, e);
+                    drop("it could not be written to");
+                    return;
+                } finally {
+                    sending = false;
+                }
+            }
+        }
+
+        private boolean isStalled(long now) {
+            return sending && now - sendStartedAt >= writeTimeout;
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                subscriber.onHeartbeat();
+            } else if (item instanceof Marker) {
+                Marker marker = (Marker) item;
+                if (marker.reset) {
+                    subscriber.onReset(marker.eventId);
+                } else {
+                    subscriber.onOpen(marker.eventId);
+                }
+            } else {
+                Event event = (Event) item;
+                subscriber.onChange(eventId(event.sequence), event.change);
+            }
+        }
+
+        private void drop(String reason) {
+            if (closed) {
+                return;
+            }
+            log.debug("Dropping a subscriber of {}, as {}", name, reason);
+            cancel();
+            dropped.incrementAndGet();
+            // closing the subscriber may wait for a write in progress, so it must not hold up the publisher
+            try {
+                executor.execute(subscriber::onDropped);
+            } catch (RejectedExecutionException e) {
+                log.debug("Subscriber of {} left to time out", name);
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.domain.Filters;
+import com.mycompany.myapp.service.dto.ChangeDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Feeds of the committed changes of {@link Crawler} and {@link Filters}.
+ * <p>
+ * This service is a Hibernate post-commit listener, so a change is published once the transaction writing it commits,
+ * whichever service wrote it, and never if the transaction rolls back. Changes are only seen by the instance that
+ * committed them. The subscribers are written to by a dedicated pool of threads, closed with the service. A write may
+ * block on a stalled client, so the pool grows past its core threads rather than holding up the other subscribers, and
+ * the subscribers whose write exceeds the write timeout are dropped.
+ */
+public class ChangeFeedService
+    implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener, AutoCloseable {
+
+    private final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final Map<Class<?>, ChangeFeed> feeds = new LinkedHashMap<>();
+
+    private final ExecutorService executor;
+
+    private final Duration timeout;
+
+    /**
+     * @param historySize the number of changes kept per entity for the subscribers resuming.
+     * @param bufferSize the number of events waiting to be sent to a subscriber, above which it is dropped.
+     * @param threads the number of threads kept to write to the subscribers.
+     * @param maxThreads the number of threads writing to the subscribers at once, above which the subscribers with
+     *     events to send are dropped.
+     * @param writeTimeout the time after which a subscriber still being written to is dropped.
+     * @param timeout the time after which a subscription is closed.
+     * @param meterRegistry the registry of the subscriber metrics.
+     */
+    public ChangeFeedService(
+        int historySize,
+        int bufferSize,
+        int threads,
+        int maxThreads,
+        Duration writeTimeout,
+        Duration timeout,
+        MeterRegistry meterRegistry
+    ) {
+        this.executor =
+            new ThreadPoolExecutor(
+                threads,
+                Math.max(threads, maxThreads),
+                1,
+                TimeUnit.MINUTES,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory("change-feed-")
+            );
+        this.timeout = timeout;
+        String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+        for (Class<?> entityClass : new Class<?>[] { Crawler.class, Filters.class }) {
+            String entity = entityClass.getSimpleName().toLowerCase(Locale.ROOT);
+            ChangeFeed feed = new ChangeFeed(entity, epoch, historySize, bufferSize, writeTimeout, executor);
+            Gauge
+                .builder("changefeed.subscribers", feed, ChangeFeed::getSubscriberCount)
+                .description("Subscribers of the change feed")
+                .tag("entity", entity)
+                .register(meterRegistry);
+            FunctionCounter
+                .builder("changefeed.dropped", feed, ChangeFeed::getDroppedCount)
+                .description("Subscribers dropped by the change feed, as they did not keep up, stalled or went away")
+                .tag("entity", entity)
+                .register(meterRegistry);
+            feeds.put(entityClass, feed);
+        }
+    }
+
+    /**
+     * Subscribe to the changes of an entity.
+     *
+     * @param entityClass the entity.
+     * @param lastEventId the id of the last event received on a previous subscription, or {@code null} to start afresh.
+     * @param subscriber the subscriber.
+     * @return the subscription, to be cancelled once the subscriber goes away.
+     */
+    public ChangeFeed.Subscription subscribe(Class<?> entityClass, String lastEventId, ChangeFeed.Subscriber subscriber) {
+        log.debug("Request to subscribe to the changes of {} after {}", entityClass.getSimpleName(), lastEventId);
+        return feeds.get(entityClass).subscribe(lastEventId, subscriber);
+    }
+
+    /**
+     * The time after which a subscription should be closed, for the client to resume it on a new connection.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Send a heartbeat to every subscriber, dropping those whose write timed out.
+     */
+    public void heartbeat() {
+        feeds.values().forEach(ChangeFeed::heartbeat);
+    }
+
+    /**
+     * Publish a change written without Hibernate, once the current transaction commits, or right away outside of a
+     * transaction.
+     *
+     * @param entityClass the entity.
+     * @param change the change.
+     */
+    public void publishAfterCommit(Class<?> entityClass, ChangeDTO change) {
+        publishAfterCommit(entityClass, List.of(change));
+    }
+
+    /**
+     * Publish changes written without Hibernate, in order, once the current transaction commits, or right away outside
+     * of a transaction.
+     *
+     * @param entityClass the entity.
+     * @param changes the changes.
+     */
+    public void publishAfterCommit(Class<?> entityClass, List<ChangeDTO> changes) {
+        ChangeFeed feed = feeds.get(entityClass);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changes.forEach(feed::publish);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changes.forEach(feed::publish);
+                }
+            }
+        );
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(ChangeDTO.Type.CREATED, event.getPersister(), event.getId(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(ChangeDTO.Type.UPDATED, event.getPersister(), event.getId(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(ChangeDTO.Type.DELETED, event.getPersister(), event.getId(), event.getEntity());
+    }
+
+    private void publish(ChangeDTO.Type type, EntityPersister persister, Object id, Object entity) {
+        ChangeFeed feed = feeds.get(persister.getMappedClass());
+        if (feed == null) {
+            return;
+        }
+        Long version = persister.isVersioned() ? ((Number) persister.getVersion(entity)).longValue() : null;
+        feed.publish(new ChangeDTO(type, (Long) id, version));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return feeds.containsKey(persister.getMappedClass());
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,274 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.CrawlRun;
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.domain.enumeration.CrawlRunStatus;
+import com.mycompany.myapp.repository.CrawlRunRepository;
+import com.mycompany.myapp.repository.CrawlerRepository;
+import com.mycompany.myapp.service.crawl.Crawl;
+import com.mycompany.myapp.service.crawl.Frontier;
+import com.mycompany.myapp.service.crawl.FrontierMetrics;
+import com.mycompany.myapp.service.crawl.LinkExtractor;
+import com.mycompany.myapp.service.crawl.PageFetcher;
+import com.mycompany.myapp.service.crawl.RobotsCache;
+import com.mycompany.myapp.service.crawl.SeenUrlFilters;
+import com.mycompany.myapp.service.crawl.SimHashIndex;
+import com.mycompany.myapp.service.dto.CrawlRunDTO;
+import com.mycompany.myapp.service.mapper.CrawlRunMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service running {@link Crawler} definitions as {@link CrawlRun} jobs.
+ * <p>
+ * A run is saved as {@code RUNNING} and its crawl started once the transaction commits. The crawl then proceeds
+ * asynchronously, and its progress is only kept in memory until it finishes, when the run is saved with its outcome.
+ * The progress of a running crawl is read from memory, so it is only seen on the instance running it.
+ * <p>
+ * Crawls do not survive their instance. Each instance records the heartbeat of its runs every so often, see
+ * {@link #heartbeat()}; a run whose heartbeat is older than the heartbeat timeout was left by an instance which stopped
+ * or crashed, and is failed as interrupted by the next heartbeat of any instance.
+ */
+@Transactional
+public class CrawlRunService {
+
+    private static final String INTERRUPTED_ERROR = "The crawl was interrupted, as its instance stopped";
+
+    private final Logger log = LoggerFactory.getLogger(CrawlRunService.class);
+
+    private final CrawlRunRepository crawlRunRepository;
+
+    private final CrawlerRepository crawlerRepository;
+
+    private final CrawlRunMapper crawlRunMapper;
+
+    private final PageFetcher pageFetcher;
+
+    private final RobotsCache robotsCache;
+
+    private final FrontierMetrics frontierMetrics;
+
+    private final TaskScheduler taskScheduler;
+
+    private final SeenUrlFilters seenUrlFilters;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int maxInFlightPerRun;
+
+    private final boolean sameHostOnly;
+
+    private final Duration politenessDelay;
+
+    private final int nearDuplicateDistance;
+
+    private final Duration heartbeatTimeout;
+
+    private final DistributionSummary duplicateRatios;
+
+    private final Map<Long, Crawl> runningCrawls = new ConcurrentHashMap<>();
+
+    public CrawlRunService(
+        CrawlRunRepository crawlRunRepository,
+        CrawlerRepository crawlerRepository,
+        CrawlRunMapper crawlRunMapper,
+        PageFetcher pageFetcher,
+        RobotsCache robotsCache,
+        FrontierMetrics frontierMetrics,
+        TaskScheduler taskScheduler,
+        SeenUrlFilters seenUrlFilters,
+        PlatformTransactionManager transactionManager,
+        int maxInFlightPerRun,
+        boolean sameHostOnly,
+        Duration politenessDelay,
+        int nearDuplicateDistance,
+        Duration heartbeatTimeout,
+        MeterRegistry meterRegistry
+    ) {
+        this.crawlRunRepository = crawlRunRepository;
+        this.crawlerRepository = crawlerRepository;
+        this.crawlRunMapper = crawlRunMapper;
+        this.pageFetcher = pageFetcher;
+        this.robotsCache = robotsCache;
+        this.frontierMetrics = frontierMetrics;
+        this.taskScheduler = taskScheduler;
+        this.seenUrlFilters = seenUrlFilters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // the crawl may finish while the transaction which started it completes
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxInFlightPerRun = maxInFlightPerRun;
+        this.sameHostOnly = sameHostOnly;
+        this.politenessDelay = politenessDelay;
+        this.nearDuplicateDistance = nearDuplicateDistance;
+        this.heartbeatTimeout = heartbeatTimeout;
+        this.duplicateRatios =
+            DistributionSummary
+                .builder("crawl.runs.duplicate.ratio")
+                .description("Share of the pages fetched by a finished crawl run which were near-duplicates")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("crawl.runs.running", Tags.empty(), runningCrawls);
+    }
+
+    /**
+     * Start a run of the crawler, seeded from its source and capped by its fetch budget.
+     *
+     * @param crawlerId the id of the crawler.
+     * @return the started run, failed already if the source is not an http or https URL, or empty if the crawler does
+     * not exist.
+     */
+    public Optional<CrawlRunDTO> start(Long crawlerId) {
+        log.debug("Request to start a run of Crawler : {}", crawlerId);
+        return crawlerRepository
+            .findById(crawlerId)
+            .map(crawler -> {
+                Instant now = Instant.now();
+                CrawlRun crawlRun = crawlRunRepository.save(
+                    new CrawlRun().crawler(crawler).status(CrawlRunStatus.RUNNING).startedAt(now).heartbeatAt(now)
+                );
+                URI seed = seed(crawler.getSource());
+                if (seed == null) {
+                    crawlRun
+                        .status(CrawlRunStatus.FAILED)
+                        .finishedAt(crawlRun.getStartedAt())
+                        .error("The source is not an http or https URL");
+                    return crawlRunMapper.toDto(crawlRun);
+                }
+                Crawl crawl = new Crawl(
+                    crawlRun.getId(),
+                    seed,
+                    crawler.getFetch(),
+                    maxInFlightPerRun,
+                    sameHostOnly,
+                    pageFetcher,
+                    robotsCache,
+                    new Frontier(politenessDelay, System::nanoTime, frontierMetrics),
+                    taskScheduler,
+                    seenUrlFilters.create(crawlRun.getId(), crawler.getFetch()),
+                    new SimHashIndex(nearDuplicateDistance),
+                    this::finish
+                );
+                runningCrawls.put(crawlRun.getId(), crawl);
+                startAfterCommit(crawl);
+                return crawlRunMapper.toDto(crawlRun);
+            });
+    }
+
+    /**
+     * Get a run of the crawler, with its current progress if it is running on this instance.
+     *
+     * @param crawlerId the id of the crawler.
+     * @param id the id of the run.
+     * @return the run, or empty if the crawler has no such run.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CrawlRunDTO> findOne(Long crawlerId, Long id) {
+        log.debug("Request to get CrawlRun : {} of Crawler : {}", id, crawlerId);
+        return crawlRunRepository
+            .findByIdAndCrawlerId(id, crawlerId)
+            .map(crawlRun -> {
+                CrawlRunDTO crawlRunDTO = crawlRunMapper.toDto(crawlRun);
+                Crawl crawl = runningCrawls.get(id);
+                if (crawl != null) {
+                    crawlRunDTO.setPagesFetched(crawl.getPagesFetched());
+                    crawlRunDTO.setPagesFailed(crawl.getPagesFailed());
+                    crawlRunDTO.setPagesDuplicate(crawl.getPagesDuplicate());
+                    crawlRunDTO.setUrlsDiscovered(crawl.getUrlsDiscovered());
+                }
+                return crawlRunDTO;
+            });
+    }
+
+    /**
+     * Record the heartbeat of the runs of this instance, then fail the runs whose heartbeat is older than the heartbeat
+     * timeout, as their instance stopped without finishing them. It is called at a fixed rate, shorter than the
+     * timeout, from startup on. It runs outside of any transaction, its own being committed before it returns.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void heartbeat() {
+        Instant now = Instant.now();
+        int interrupted = transactionTemplate.execute(status -> {
+            if (!runningCrawls.isEmpty()) {
+                crawlRunRepository.updateHeartbeatAt(runningCrawls.keySet(), now);
+            }
+            return crawlRunRepository.failRunningWithHeartbeatBefore(now.minus(heartbeatTimeout), now, INTERRUPTED_ERROR);
+        });
+        if (interrupted > 0) {
+            log.warn("Failed {} crawl runs left running by a stopped instance", interrupted);
+        }
+    }
+
+    private static URI seed(String source) {
+        try {
+            return LinkExtractor.normalize(URI.create(source.strip()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void startAfterCommit(Crawl crawl) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            crawl.start();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        crawl.start();
+                    } else {
+                        runningCrawls.remove(crawl.getRunId());
+                        crawl.discard();
+                    }
+                }
+            }
+        );
+    }
+
+    /**
+     * Save the outcome of a finished crawl. The run is gone if its crawler was deleted meanwhile.
+     */
+    private void finish(Crawl crawl) {
+        if (crawl.getPagesFetched() > 0) {
+            duplicateRatios.record((double) crawl.getPagesDuplicate() / crawl.getPagesFetched());
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                crawlRunRepository
+                    .findById(crawl.getRunId())
+                    .ifPresent(crawlRun ->
+                        crawlRun
+                            .status(crawl.getError() == null ? CrawlRunStatus.COMPLETED : CrawlRunStatus.FAILED)
+                            .finishedAt(crawl.getFinishedAt())
+                            .pagesFetched(crawl.getPagesFetched())
+                            .pagesFailed(crawl.getPagesFailed())
+                            .pagesDuplicate(crawl.getPagesDuplicate())
+                            .urlsDiscovered(crawl.getUrlsDiscovered())
+                            .error(StringUtils.abbreviate(crawl.getError(), CrawlRun.ERROR_MAX_LENGTH))
+                    )
+            );
+        } catch (RuntimeException e) {
+            log.error("Could not save the outcome of crawl run {}", crawl.getRunId(), e);
+        } finally {
+            runningCrawls.remove(crawl.getRunId());
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package com.mycompany.myapp.service;
+
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.IntObjectCursor;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.service.criteria.CrawlerCriteria;
+import com.mycompany.myapp.service.criteria.PrefixStringFilter;
+import com.mycompany.myapp.service.dto.CrawlerDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.RangeFilter;
+
+/**
+ * In-memory read model of every {@link Crawler}, held in primitive collections rather than as entities: an entry per
+ * id, and the ids per {@code fetch} and per {@code source} value, sorted. The sources are kept in order, so that the
+ * sources starting with a prefix are a range of them.
+ * <p>
+ * It is loaded once at startup, before the services use it, then kept up to date by the services writing crawlers,
+ * once their transaction commits. Only the writes of this instance are seen, so it should only be enabled when a
+ * single instance writes the crawlers.
+ * <p>
+ * The writes of concurrent transactions may be applied out of their commit order: an entry only replaces one of an
+ * older version, and a removed id is kept while a write of that id is still pending, so that an update applied after
+ * the removal of its crawler does not bring it back. It is dropped once the last pending write completes.
+ * <p>
+ * Criteria are served when they only use the {@code equals}, {@code in}, {@code specified} and range operators on
+ * {@code id}, {@code fetch} and {@code source}, and {@code startsWith} on {@code source}; other criteria are left to
+ * the database.
+ */
+public class CrawlerIndex {
+
+    private final LongObjectHashMap<Entry> entries = new LongObjectHashMap<>();
+
+    private final IntObjectHashMap<LongArrayList> idsByFetch = new IntObjectHashMap<>();
+
+    private final NavigableMap<String, LongArrayList> idsBySource = new TreeMap<>();
+
+    private final LongHashSet removedIds = new LongHashSet();
+
+    private final LongIntHashMap pendingWrites = new LongIntHashMap();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Add a crawler read from the database while loading the index.
+     */
+    public void load(Crawler crawler) {
+        lock.writeLock().lock();
+        try {
+            add(new Entry(crawler));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace crawlers, unless the index already holds a more recent version of them or they were removed.
+     */
+    public void putAll(Collection<Entry> crawlers) {
+        lock.writeLock().lock();
+        try {
+            for (Entry entry : crawlers) {
+                if (removedIds.contains(entry.id)) {
+                    continue;
+                }
+                Entry previous = entries.get(entry.id);
+                if (previous == null || previous.version <= entry.version) {
+                    if (previous != null) {
+                        remove(previous);
+                    }
+                    add(entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove crawlers by id, for good.
+     */
+    public void removeAll(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                if (pendingWrites.containsKey(id)) {
+                    removedIds.add(id);
+                }
+                Entry previous = entries.remove(id);
+                if (previous != null) {
+                    remove(previous);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace crawlers once the current transaction commits, or right away outside of a transaction. Their
+     * state is copied now, so the entities may change or be detached afterwards.
+     */
+    public void putAllAfterCommit(Collection<Crawler> crawlers) {
+        List<Entry> copies = crawlers.stream().map(Entry::new).collect(Collectors.toList());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            putAll(copies);
+            return;
+        }
+        long[] ids = copies.stream().mapToLong(Entry::getId).toArray();
+        updatePendingWrites(ids, 1);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putAll(copies);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    // after the commit was applied, or the transaction rolled back
+                    updatePendingWrites(ids, -1);
+                }
+            }
+        );
+    }
+
+    /**
+     * Remove crawlers by id once the current transaction commits, or right away outside of a transaction.
+     */
+    public void removeAllAfterCommit(Collection<Long> ids) {
+        List<Long> copies = List.copyOf(ids);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeAll(copies);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeAll(copies);
+                }
+            }
+        );
+    }
+
+    /**
+     * Count the writes of each id registered but not completed yet, dropping the removed ids no write is pending for.
+     */
+    private void updatePendingWrites(long[] ids, int delta) {
+        lock.writeLock().lock();
+        try {
+            for (long id : ids) {
+                int pending = pendingWrites.addTo(id, delta);
+                if (pending <= 0) {
+                    pendingWrites.remove(id);
+                    removedIds.remove(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Return the crawler with the given id, or {@code null} if there is none.
+     */
+    public Entry get(long id) {
+        lock.readLock().lock();
+        try {
+            return entries.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the number of crawlers.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the crawlers matching the criteria, ordered by id.
+     *
+     * @param criteria the criteria, may be {@code null} to match every crawler.
+     * @return the matching crawlers, or {@code null} if the criteria use a filter the index cannot serve.
+     */
+    public List<Entry> find(CrawlerCriteria criteria) {
+        if (criteria != null && !isServed(criteria)) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            LongArrayList candidates = null;
+            if (criteria != null) {
+                candidates = candidatesBySource(criteria.getSource());
+                if (candidates == null) {
+                    candidates = candidatesByFetch(criteria.getFetch());
+                }
+                if (candidates == null) {
+                    candidates = candidatesById(criteria.getId());
+                }
+            }
+            LongArrayList matching = new LongArrayList();
+            if (candidates == null) {
+                // no secondary index narrows the criteria down: every crawler is a candidate
+                for (LongObjectCursor<Entry> cursor : entries) {
+                    if (criteria == null || matches(criteria, cursor.value)) {
+                        matching.add(cursor.key);
+                    }
+                }
+            } else {
+                for (int i = 0; i < candidates.size(); i++) {
+                    Entry entry = entries.get(candidates.get(i));
+                    if (entry != null && matches(criteria, entry)) {
+                        matching.add(entry.id);
+                    }
+                }
+            }
+            long[] ids = matching.toArray();
+            Arrays.sort(ids);
+            List<Entry> result = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                // an id is a candidate twice when an in filter repeats a value
+                if (i == 0 || ids[i] != ids[i - 1]) {
+                    result.add(entries.get(ids[i]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.id, entry);
+        LongArrayList ids = idsByFetch.get(entry.fetch);
+        if (ids == null) {
+            ids = new LongArrayList();
+            idsByFetch.put(entry.fetch, ids);
+        }
+        insertSorted(ids, entry.id);
+        insertSorted(idsBySource.computeIfAbsent(entry.source, source -> new LongArrayList(1)), entry.id);
+    }
+
+    private void remove(Entry entry) {
+        LongArrayList ids = idsByFetch.get(entry.fetch);
+        if (ids != null) {
+            removeSorted(ids, entry.id);
+            if (ids.isEmpty()) {
+                idsByFetch.remove(entry.fetch);
+            }
+        }
+        LongArrayList sourceIds = idsBySource.get(entry.source);
+        if (sourceIds != null) {
+            removeSorted(sourceIds, entry.id);
+            if (sourceIds.isEmpty()) {
+                idsBySource.remove(entry.source);
+            }
+        }
+    }
+
+    /**
+     * The crawlers whose source is one of the values of an {@code equals} or {@code in} filter, or starts with the
+     * prefix of a {@code startsWith} filter, or {@code null} if the filter does not narrow the sources down.
+     */
+    private LongArrayList candidatesBySource(PrefixStringFilter source) {
+        if (source == null) {
+            return null;
+        }
+        LongArrayList candidates = new LongArrayList();
+        if (source.getEquals() != null || source.getIn() != null) {
+            for (String value : source.getEquals() != null ? List.of(source.getEquals()) : source.getIn()) {
+                LongArrayList ids = idsBySource.get(value);
+                if (ids != null) {
+                    candidates.addAll(ids);
+                }
+            }
+        } else if (source.getStartsWith() != null) {
+            for (Map.Entry<String, LongArrayList> entry : idsBySource.tailMap(source.getStartsWith(), true).entrySet()) {
+                if (!entry.getKey().startsWith(source.getStartsWith())) {
+                    break;
+                }
+                candidates.addAll(entry.getValue());
+            }
+        } else {
+            return null;
+        }
+        return candidates;
+    }
+
+    /**
+     * The crawlers whose fetch value matches the filter, or {@code null} if the filter does not narrow the values down.
+     */
+    private LongArrayList candidatesByFetch(RangeFilter<Integer> fetch) {
+        if (fetch == null || hasNoValue(fetch)) {
+            return null;
+        }
+        LongArrayList candidates = new LongArrayList();
+        for (IntObjectCursor<LongArrayList> cursor : idsByFetch) {
+            if (matches(fetch, cursor.key)) {
+                candidates.addAll(cursor.value);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * The ids of an {@code equals} or {@code in} filter, or {@code null} if the filter does not narrow the ids down.
+     */
+    private static LongArrayList candidatesById(RangeFilter<Long> id) {
+        if (id == null || (id.getEquals() == null && id.getIn() == null)) {
+            return null;
+        }
+        LongArrayList candidates = new LongArrayList();
+        for (Long value : id.getEquals() != null ? List.of(id.getEquals()) : id.getIn()) {
+            candidates.add(value);
+        }
+        return candidates;
+    }
+
+    private static boolean hasNoValue(RangeFilter<?> filter) {
+        return (
+            filter.getEquals() == null &&
+            filter.getIn() == null &&
+            filter.getGreaterThan() == null &&
+            filter.getGreaterThanOrEqual() == null &&
+            filter.getLessThan() == null &&
+            filter.getLessThanOrEqual() == null
+        );
+    }
+
+    /**
+     * Whether the criteria only use the operators the index serves, on the properties it holds.
+     */
+    private static boolean isServed(CrawlerCriteria criteria) {
+        PrefixStringFilter source = criteria.getSource();
+        return (
+            criteria.getName() == null &&
+            isSimple(criteria.getId()) &&
+            isSimple(criteria.getFetch()) &&
+            isSimple(source) &&
+            (source == null || (source.getContains() == null && source.getDoesNotContain() == null))
+        );
+    }
+
+    private static boolean isSimple(Filter<?> filter) {
+        return filter == null || (filter.getNotEquals() == null && filter.getNotIn() == null);
+    }
+
+    private static boolean matches(CrawlerCriteria criteria, Entry entry) {
+        return (
+            matches(criteria.getId(), entry.id) &&
+            matches(criteria.getFetch(), entry.fetch) &&
+            matches(criteria.getSource(), entry.source)
+        );
+    }
+
+    private static boolean matches(PrefixStringFilter filter, String value) {
+        return (
+            filter == null ||
+            (
+                (filter.getEquals() == null || filter.getEquals().equals(value)) &&
+                (filter.getIn() == null || filter.getIn().contains(value)) &&
+                (filter.getStartsWith() == null || value.startsWith(filter.getStartsWith())) &&
+                // the columns are not null
+                (filter.getSpecified() == null || filter.getSpecified())
+            )
+        );
+    }
+
+    private static <T extends Comparable<? super T>> boolean matches(RangeFilter<T> filter, T value) {
+        return (
+            filter == null ||
+            (
+                (filter.getEquals() == null || filter.getEquals().compareTo(value) == 0) &&
+                (filter.getIn() == null || filter.getIn().contains(value)) &&
+                (filter.getSpecified() == null || filter.getSpecified()) &&
+                (filter.getGreaterThan() == null || value.compareTo(filter.getGreaterThan()) > 0) &&
+                (filter.getGreaterThanOrEqual() == null || value.compareTo(filter.getGreaterThanOrEqual()) >= 0) &&
+                (filter.getLessThan() == null || value.compareTo(filter.getLessThan()) < 0) &&
+                (filter.getLessThanOrEqual() == null || value.compareTo(filter.getLessThanOrEqual()) <= 0)
+            )
+        );
+    }
+
+    private static void insertSorted(LongArrayList ids, long id) {
+        int index = Arrays.binarySearch(ids.buffer, 0, ids.elementsCount, id);
+        if (index < 0) {
+            ids.insert(-index - 1, id);
+        }
+    }
+
+    private static void removeSorted(LongArrayList ids, long id) {
+        int index = Arrays.binarySearch(ids.buffer, 0, ids.elementsCount, id);
+        if (index >= 0) {
+            ids.remove(index);
+        }
+    }
+
+    /**
+     * The state of a crawler, as of its version.
+     */
+    public static final class Entry {
+
+        private final long id;
+
+        private final String name;
+
+        private final int fetch;
+
+        private final String source;
+
+        private final long version;
+
+        public Entry(long id, String name, int fetch, String source, long version) {
+            this.id = id;
+            this.name = name;
+            this.fetch = fetch;
+            this.source = source;
+            this.version = version;
+        }
+
+        private Entry(Crawler crawler) {
+            this(crawler.getId(), crawler.getName(), crawler.getFetch(), crawler.getSource(), crawler.getVersion());
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getFetch() {
+            return fetch;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public CrawlerDTO toDto() {
+            CrawlerDTO crawlerDTO = new CrawlerDTO();
+            crawlerDTO.setId(id);
+            crawlerDTO.setName(name);
+            crawlerDTO.setFetch(fetch);
+            crawlerDTO.setSource(source);
+            crawlerDTO.setVersion(version);
+            return crawlerDTO;
+        }
+    }
+}
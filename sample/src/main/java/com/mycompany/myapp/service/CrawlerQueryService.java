@@ -3,16 +3,36 @@ package com.mycompany.myapp.service;
 import com.mycompany.myapp.domain.*; // for static metamodels
 import com.mycompany.myapp.domain.Crawler;
 import com.mycompany.myapp.repository.CrawlerRepository;
+import com.mycompany.myapp.repository.FiltersRepository;
+import com.mycompany.myapp.service.CriteriaQueryPlanCache.CompiledQuery;
 import com.mycompany.myapp.service.criteria.CrawlerCriteria;
+import com.mycompany.myapp.service.dto.CountResult;
+import com.mycompany.myapp.service.dto.ChangeDTO;
 import com.mycompany.myapp.service.dto.CrawlerDTO;
+import com.mycompany.myapp.service.dto.DeleteResult;
+import com.mycompany.myapp.service.dto.KeysetCursor;
+import com.mycompany.myapp.service.dto.KeysetSlice;
 import com.mycompany.myapp.service.mapper.CrawlerMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.persistence.Tuple;
 import javax.persistence.criteria.JoinType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
@@ -22,6 +42,12 @@ import tech.jhipster.service.QueryService;
  * The main input is a {@link CrawlerCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
  * It returns a {@link List} of {@link CrawlerDTO} or a {@link Page} of {@link CrawlerDTO} which fulfills the criteria.
+ * List, page and count queries are compiled through a {@link CriteriaQueryPlanCache}, so criteria of the same shape
+ * reuse the same query plan.
+ * The {@code contains} filters on {@code name} and {@code source} compare {@code upper(...)}, which is the expression
+ * their trigram indexes are built on in PostgreSQL, while the {@code startsWith} filter on {@code source} compares the
+ * column itself.
+ * When the {@link CrawlerIndex} is enabled, the list, page and count queries it can answer are served from memory.
  */
 @Service
 @Transactional(readOnly = true)
@@ -29,13 +55,60 @@ public class CrawlerQueryService extends QueryService<Crawler> {
 
     private final Logger log = LoggerFactory.getLogger(CrawlerQueryService.class);
 
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * Number of ids bound to each statement of a delete by criteria.
+     */
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
     private final CrawlerRepository crawlerRepository;
 
+    private final FiltersRepository filtersRepository;
+
     private final CrawlerMapper crawlerMapper;
 
-    public CrawlerQueryService(CrawlerRepository crawlerRepository, CrawlerMapper crawlerMapper) {
+    private final CriteriaQueryPlanCache<CrawlerCriteria> queryPlans;
+
+    private final CriteriaCountCache countCache;
+
+    private final ChangeFeedService changeFeedService;
+
+    private final Fieldset fieldset;
+
+    private final Optional<CrawlerIndex> crawlerIndex;
+
+    public CrawlerQueryService(
+        CrawlerRepository crawlerRepository,
+        FiltersRepository filtersRepository,
+        CrawlerMapper crawlerMapper,
+        CriteriaCountCache countCache,
+        ChangeFeedService changeFeedService,
+        MeterRegistry meterRegistry,
+        Optional<CrawlerIndex> crawlerIndex
+    ) {
         this.crawlerRepository = crawlerRepository;
+        this.filtersRepository = filtersRepository;
         this.crawlerMapper = crawlerMapper;
+        this.countCache = countCache;
+        this.changeFeedService = changeFeedService;
+        this.crawlerIndex = crawlerIndex;
+        this.queryPlans =
+            CriteriaQueryPlanCache
+                .builder(Crawler.class, CrawlerCriteria::getDistinct)
+                .rangeFilter(Crawler_.ID, CrawlerCriteria::getId)
+                .stringFilter(Crawler_.NAME, CrawlerCriteria::getName)
+                .rangeFilter(Crawler_.FETCH, CrawlerCriteria::getFetch)
+                .stringFilter(Crawler_.SOURCE, CrawlerCriteria::getSource)
+                .build(meterRegistry);
+        this.fieldset =
+            Fieldset
+                .builder()
+                .field("id", Crawler_.ID)
+                .field("name", Crawler_.NAME)
+                .field("fetch", Crawler_.FETCH)
+                .field("source", Crawler_.SOURCE)
+                .build();
     }
 
     /**
@@ -46,8 +119,32 @@ public class CrawlerQueryService extends QueryService<Crawler> {
     @Transactional(readOnly = true)
     public List<CrawlerDTO> findByCriteria(CrawlerCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
-        final Specification<Crawler> specification = createSpecification(criteria);
-        return crawlerMapper.toDto(crawlerRepository.findAll(specification));
+        final List<CrawlerIndex.Entry> indexed = findIndexed(criteria);
+        if (indexed != null) {
+            return indexed.stream().map(CrawlerIndex.Entry::toDto).collect(Collectors.toList());
+        }
+        final CompiledQuery query = queryPlans.compile(criteria, Sort.unsorted());
+        return crawlerMapper.toDto(crawlerRepository.findAll(query.getQuery(), query.getParameters(), Pageable.unpaged()));
+    }
+
+    /**
+     * Return the requested fields of the crawlers which match the criteria from the database. Only the matching columns
+     * are read: no entity is hydrated nor mapped to a DTO.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fields The names of the requested fields, the id being always returned.
+     * @return the requested fields of the matching entities, one map per entity.
+     * @throws IllegalArgumentException if a field is unknown.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFieldsByCriteria(CrawlerCriteria criteria, Collection<String> fields) {
+        log.debug("find fields by criteria : {}, fields: {}", criteria, fields);
+        final Fieldset.Selection selection = fieldset.select(fields);
+        final CompiledQuery query = queryPlans.compile(criteria, Sort.unsorted(), selection.getPaths());
+        return crawlerRepository
+            .findTuples(query.getQuery(), query.getParameters(), Pageable.unpaged())
+            .stream()
+            .map(selection::toMap)
+            .collect(Collectors.toList());
     }
 
     /**
@@ -59,20 +156,198 @@ public class CrawlerQueryService extends QueryService<Crawler> {
     @Transactional(readOnly = true)
     public Page<CrawlerDTO> findByCriteria(CrawlerCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
+        final List<CrawlerIndex.Entry> indexed = isSortedById(page.getSort()) ? findIndexed(criteria) : null;
+        if (indexed != null) {
+            return toPage(indexed, page);
+        }
+        final CompiledQuery query = queryPlans.compile(criteria, page.getSort());
+        if (query == null) {
+            final Specification<Crawler> specification = createSpecification(criteria);
+            return crawlerRepository.findAll(specification, page).map(crawlerMapper::toDto);
+        }
+        List<Crawler> content = crawlerRepository.findAll(query.getQuery(), query.getParameters(), page);
+        return PageableExecutionUtils
+            .getPage(content, page, () -> crawlerRepository.count(query.getCountQuery(), query.getParameters()))
+            .map(crawlerMapper::toDto);
+    }
+
+    /**
+     * Return at most {@code limit} {@link CrawlerDTO} whose name or source contains the text, the most relevant first.
+     * @param text The text to search for, ignoring case.
+     * @param limit The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<CrawlerDTO> search(String text, int limit) {
+        log.debug("search : {}, limit: {}", text, limit);
+        return crawlerMapper.toDto(crawlerRepository.search(text, limit));
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link CrawlerDTO} which matches the criteria from the database,
+     * starting right after the given cursor.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position after which the slice starts, which also holds the sort order.
+     * @param size The maximum number of entities in the slice.
+     * @return the matching entities, and the cursor of the next slice if there is one.
+     * @throws IllegalArgumentException if the cursor is not sorted by a supported property.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<CrawlerDTO> findByCriteria(CrawlerCriteria criteria, KeysetCursor cursor, int size) {
+        log.debug("find by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        final Specification<Crawler> specification = createSpecification(criteria).and(createKeysetSpecification(cursor));
+        List<Crawler> crawlers = crawlerRepository.findAll(specification, cursor.toSort(), size + 1);
+        if (crawlers.size() <= size) {
+            return new KeysetSlice<>(crawlerMapper.toDto(crawlers), null);
+        }
+        Crawler last = crawlers.get(size - 1);
+        KeysetCursor next = cursor.after(keysetValue(last, cursor.getProperty()), last.getId());
+        return new KeysetSlice<>(crawlerMapper.toDto(crawlers.subList(0, size)), next);
+    }
+
+    /**
+     * Stream every {@link CrawlerDTO} which matches the criteria from the database to the given consumer, ordered by id.
+     * The entities are read through a forward-only cursor and detached one by one, so memory does not depend on the
+     * number of matching entities.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param consumer The consumer of the matching entities.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long exportByCriteria(CrawlerCriteria criteria, Consumer<CrawlerDTO> consumer) {
+        log.debug("export by criteria : {}", criteria);
         final Specification<Crawler> specification = createSpecification(criteria);
-        return crawlerRepository.findAll(specification, page).map(crawlerMapper::toDto);
+        return crawlerRepository.scrollAll(
+            specification,
+            Sort.by(Crawler_.ID),
+            EXPORT_FETCH_SIZE,
+            crawler -> consumer.accept(crawlerMapper.toDto(crawler))
+        );
     }
 
     /**
      * Return the number of matching entities in the database.
+     * The count is cached per normalized criteria until the entities are written.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(CrawlerCriteria criteria) {
-        log.debug("count by criteria : {}", criteria);
-        final Specification<Crawler> specification = createSpecification(criteria);
-        return crawlerRepository.count(specification);
+        return countByCriteria(criteria, false).getCount();
+    }
+
+    /**
+     * Return the number of matching entities in the database, or an estimate of it.
+     * When approximate, a cached exact count is still preferred; otherwise the table statistics are used if no filter
+     * is given, and the query planner estimate if filters are given. If the database cannot estimate the count, it is
+     * counted exactly.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param approximate Whether an estimate is enough.
+     * @return the number of matching entities, and whether it is exact.
+     */
+    @Transactional(readOnly = true)
+    public CountResult countByCriteria(CrawlerCriteria criteria, boolean approximate) {
+        log.debug("count by criteria : {}, approximate: {}", criteria, approximate);
+        final List<CrawlerIndex.Entry> indexed = findIndexed(criteria);
+        if (indexed != null) {
+            return CountResult.exact(indexed.size());
+        }
+        final CompiledQuery query = queryPlans.compile(criteria, Sort.unsorted());
+        if (approximate) {
+            OptionalLong cached = countCache.get(Crawler.class, query.getCountKey());
+            if (cached.isPresent()) {
+                return CountResult.exact(cached.getAsLong());
+            }
+            OptionalLong estimate = query.isFiltered()
+                ? crawlerRepository.estimateCount(query.getQuery(), query.getParameters())
+                : crawlerRepository.estimateCount();
+            if (estimate.isPresent()) {
+                return CountResult.estimate(estimate.getAsLong());
+            }
+        }
+        long count = countCache.get(
+            Crawler.class,
+            query.getCountKey(),
+            () -> crawlerRepository.count(query.getCountQuery(), query.getParameters())
+        );
+        return CountResult.exact(count);
+    }
+
+    /**
+     * Delete at most {@code limit} crawlers which match the criteria, the lowest ids first, along with their filters.
+     * No entity is loaded: the ids of the matching crawlers are selected through the compiled criteria query, then
+     * their filters and themselves are deleted with set-based statements of at most {@value #DELETE_CHUNK_SIZE} ids.
+     * The deletions are published to the change feeds once the transaction commits.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param limit The maximum number of crawlers to delete.
+     * @param dryRun Whether to only count the crawlers and filters which would be deleted.
+     * @return the number of crawlers and of filters deleted, or which would be, and whether more crawlers match.
+     * @throws IllegalArgumentException if the criteria hold no filter, and so would match every crawler.
+     */
+    @Transactional
+    public DeleteResult deleteByCriteria(CrawlerCriteria criteria, int limit, boolean dryRun) {
+        log.debug("delete by criteria : {}, limit: {}, dry run: {}", criteria, limit, dryRun);
+        final CompiledQuery query = queryPlans.compile(criteria, Sort.by(Crawler_.ID), List.of(Crawler_.ID, Crawler_.VERSION));
+        if (!query.isFiltered()) {
+            throw new IllegalArgumentException("At least one filter is required to delete crawlers");
+        }
+        List<Tuple> rows = crawlerRepository.findTuples(query.getQuery(), query.getParameters(), PageRequest.of(0, limit + 1));
+        boolean more = rows.size() > limit;
+        List<Tuple> crawlers = more ? rows.subList(0, limit) : rows;
+        long crawlersDeleted = 0;
+        long filtersDeleted = 0;
+        for (int from = 0; from < crawlers.size(); from += DELETE_CHUNK_SIZE) {
+            List<Tuple> chunk = crawlers.subList(from, Math.min(from + DELETE_CHUNK_SIZE, crawlers.size()));
+            List<Long> ids = chunk.stream().map(row -> row.get(0, Long.class)).collect(Collectors.toList());
+            if (dryRun) {
+                crawlersDeleted += ids.size();
+                filtersDeleted += filtersRepository.countByCrawlerIdIn(ids);
+                continue;
+            }
+            List<Tuple> filters = filtersRepository.findVersionsByCrawlerIdIn(ids);
+            filtersDeleted += filtersRepository.deleteAllByCrawlerIdIn(ids);
+            crawlersDeleted += crawlerRepository.deleteAllByIdIn(ids);
+            changeFeedService.publishAfterCommit(Filters.class, deletions(filters));
+            changeFeedService.publishAfterCommit(Crawler.class, deletions(chunk));
+            crawlerIndex.ifPresent(index -> index.removeAllAfterCommit(ids));
+        }
+        if (!dryRun) {
+            countCache.evict(Filters.class);
+            countCache.evict(Crawler.class);
+        }
+        return new DeleteResult(crawlersDeleted, filtersDeleted, dryRun, more);
+    }
+
+    /**
+     * Return the crawlers which match the criteria from the {@link CrawlerIndex}, ordered by id, or {@code null} if the
+     * index is disabled or cannot answer the criteria.
+     */
+    private List<CrawlerIndex.Entry> findIndexed(CrawlerCriteria criteria) {
+        return crawlerIndex.map(index -> index.find(criteria)).orElse(null);
+    }
+
+    private static boolean isSortedById(Sort sort) {
+        return sort.stream().allMatch(order -> Crawler_.ID.equals(order.getProperty()));
+    }
+
+    private static Page<CrawlerDTO> toPage(List<CrawlerIndex.Entry> entries, Pageable page) {
+        if (page.getSort().stream().anyMatch(Sort.Order::isDescending)) {
+            Collections.reverse(entries);
+        }
+        if (page.isUnpaged()) {
+            return new PageImpl<>(entries.stream().map(CrawlerIndex.Entry::toDto).collect(Collectors.toList()), page, entries.size());
+        }
+        int from = (int) Math.min(page.getOffset(), entries.size());
+        int to = Math.min(from + page.getPageSize(), entries.size());
+        List<CrawlerDTO> content = entries.subList(from, to).stream().map(CrawlerIndex.Entry::toDto).collect(Collectors.toList());
+        return new PageImpl<>(content, page, entries.size());
+    }
+
+    private static List<ChangeDTO> deletions(List<Tuple> rows) {
+        return rows
+            .stream()
+            .map(row -> new ChangeDTO(ChangeDTO.Type.DELETED, row.get(0, Long.class), row.get(1, Long.class)))
+            .collect(Collectors.toList());
     }
 
     /**
@@ -98,8 +373,53 @@ public class CrawlerQueryService extends QueryService<Crawler> {
             }
             if (criteria.getSource() != null) {
                 specification = specification.and(buildStringSpecification(criteria.getSource(), Crawler_.source));
+                String prefix = criteria.getSource().getStartsWith();
+                if (prefix != null) {
+                    specification =
+                        specification.and((root, query, builder) ->
+                            builder.like(root.get(Crawler_.source), CriteriaQueryPlanCache.prefixLikeQuery(prefix), '\\')
+                        );
+                }
             }
         }
         return specification;
     }
+
+    /**
+     * Function to convert a {@link KeysetCursor} to a {@link Specification} matching the entities placed after it.
+     * @param cursor The position after which the entities should be placed.
+     * @return the matching {@link Specification} of the entity, or {@code null} for the first slice.
+     */
+    protected Specification<Crawler> createKeysetSpecification(KeysetCursor cursor) {
+        switch (cursor.getProperty()) {
+            case "id":
+                return KeysetSpecifications.seek(Crawler_.id, cursor);
+            case "name":
+                return KeysetSpecifications.seek(Crawler_.name, cursor.getValue(), Crawler_.id, cursor);
+            case "fetch":
+                return KeysetSpecifications.seek(
+                    Crawler_.fetch,
+                    cursor.isFirst() ? null : Integer.valueOf(cursor.getValue()),
+                    Crawler_.id,
+                    cursor
+                );
+            case "source":
+                return KeysetSpecifications.seek(Crawler_.source, cursor.getValue(), Crawler_.id, cursor);
+            default:
+                throw new IllegalArgumentException("Unsupported keyset sort property: " + cursor.getProperty());
+        }
+    }
+
+    private static String keysetValue(Crawler crawler, String property) {
+        switch (property) {
+            case "name":
+                return crawler.getName();
+            case "fetch":
+                return crawler.getFetch().toString();
+            case "source":
+                return crawler.getSource();
+            default:
+                return crawler.getId().toString();
+        }
+    }
 }
@@ -1,6 +1,10 @@
 package com.mycompany.myapp.service;
 
+import com.mycompany.myapp.service.dto.BulkResult;
 import com.mycompany.myapp.service.dto.CrawlerDTO;
+import com.mycompany.myapp.service.dto.ImportResult;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,19 +15,67 @@ public interface CrawlerService {
     /**
      * Save a crawler.
      *
-     * @param crawlerDTO the entity to save.
-     * @return the persisted entity.
+     * @param crawlerDTO the entity to save, with the version it is expected to have if any.
+     * @return the persisted entity, at its new version.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the entity is not at the expected version.
      */
     CrawlerDTO save(CrawlerDTO crawlerDTO);
 
     /**
-     * Partially updates a crawler.
+     * Update an existing crawler with a single statement, whose count of updated rows tells whether it exists.
      *
-     * @param crawlerDTO the entity to update partially.
-     * @return the persisted entity.
+     * @param crawlerDTO the entity to update, with the version it is expected to have if any.
+     * @return the persisted entity, at its new version, or empty if it does not exist.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the entity is not at the expected version.
+     */
+    Optional<CrawlerDTO> update(CrawlerDTO crawlerDTO);
+
+    /**
+     * Partially updates a crawler with a single statement, writing its non-null fields only.
+     *
+     * @param crawlerDTO the entity to update partially, with the version it is expected to have if any.
+     * @return the persisted entity, at its new version, or empty if it does not exist.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the entity is not at the expected version.
+     * @throws javax.validation.ConstraintViolationException if a non-null field is not valid.
      */
     Optional<CrawlerDTO> partialUpdate(CrawlerDTO crawlerDTO);
 
+    /**
+     * Create several crawlers, each validated on its own: an invalid crawler is reported in the result
+     * without preventing the others from being created.
+     *
+     * @param crawlerDTOs the entities to create, without ids.
+     * @return the outcome for each entity, in the same order.
+     */
+    BulkResult<CrawlerDTO> createAll(List<CrawlerDTO> crawlerDTOs);
+
+    /**
+     * Update several existing crawlers, each validated on its own: an invalid or missing crawler, or one which is not
+     * at the version it carries, is reported in the result without preventing the others from being updated.
+     * Each crawler is fully updated, like by {@link #update(CrawlerDTO)}.
+     *
+     * @param crawlerDTOs the entities to update.
+     * @return the outcome for each entity, in the same order.
+     */
+    BulkResult<CrawlerDTO> updateAll(List<CrawlerDTO> crawlerDTOs);
+
+    /**
+     * Create the crawlers of a CSV file, as it is read: its rows are validated as {@link CrawlerDTO}s, then written in
+     * chunks, one transaction per chunk. An invalid row is reported in the result without preventing the others from
+     * being created. A row which is not well formed stops the import: it is reported in the result, the rows before it
+     * being created and the rows after it being left out.
+     * <p>
+     * The file is shaped like {@code config/liquibase/fake-data/crawler.csv}: a header naming the columns, among which
+     * {@code name}, {@code jhi_fetch} and {@code source}, separated by semicolons. The {@code id} column, if any, is
+     * ignored: the crawlers are created with new ids.
+     *
+     * @param reader the reader of the file.
+     * @return the number of rows created and rejected, and why the first rejected rows were.
+     * @throws IOException if the file could not be read.
+     * @throws IllegalArgumentException if the header misses a column or is not well formed.
+     */
+    ImportResult importCsv(Reader reader) throws IOException;
+
     /**
      * Get all the crawlers.
      *
@@ -45,4 +97,13 @@ public interface CrawlerService {
      * @param id the id of the entity.
      */
     void delete(Long id);
+
+    /**
+     * Delete the "id" crawler, if it is at the expected version.
+     *
+     * @param id the id of the entity.
+     * @param expectedVersion the version the entity is expected to have.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the entity does not exist or is at another version.
+     */
+    void delete(Long id, long expectedVersion);
 }
@@ -0,0 +1,150 @@
+package com.mycompany.myapp.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache of exact entity counts, keyed by entity type and normalized criteria.
+ * <p>
+ * The services writing an entity evict its counts with {@link #evict(Class)}: once right away, and once more when
+ * the writing transaction completes, so that a count running concurrently with the write cannot be cached once the
+ * write is visible. Counts also expire after {@link #TIME_TO_LIVE}, in case the table is written to by other means.
+ * <p>
+ * When the counts are taken on read replicas, a count taken within the replica lag of an eviction may not see the
+ * write yet: it is returned, but not cached, so that a stale count is not served until it expires.
+ */
+@Service
+public class CriteriaCountCache {
+
+    static final Duration TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    static final int MAX_ENTRIES_PER_ENTITY = 1024;
+
+    private final Map<Class<?>, Region> regions = new ConcurrentHashMap<>();
+
+    private volatile long replicaLagNanos;
+
+    /**
+     * Set the maximum lag of the replicas the counts are taken on: the counts taken within that lag of an eviction are
+     * not cached. Zero, the default, when there are no replicas.
+     *
+     * @param replicaLag the maximum replica lag.
+     */
+    public void setReplicaLag(Duration replicaLag) {
+        this.replicaLagNanos = replicaLag.toNanos();
+    }
+
+    /**
+     * Return the cached count, if it is still valid.
+     *
+     * @param entityClass the counted entity.
+     * @param key the normalized criteria.
+     * @return the cached count, or empty.
+     */
+    public OptionalLong get(Class<?> entityClass, Object key) {
+        Region region = region(entityClass);
+        Entry entry = region.entries.get(key);
+        if (entry == null || !entry.isValid(region.generation.get(), System.nanoTime())) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(entry.count);
+    }
+
+    /**
+     * Return the cached count, or count the entities and cache the result.
+     *
+     * @param entityClass the counted entity.
+     * @param key the normalized criteria.
+     * @param counter the exact count of the entities matching the criteria.
+     * @return the count.
+     */
+    public long get(Class<?> entityClass, Object key, LongSupplier counter) {
+        Region region = region(entityClass);
+        long generation = region.generation.get();
+        long now = System.nanoTime();
+        Entry entry = region.entries.get(key);
+        if (entry != null && entry.isValid(generation, now)) {
+            return entry.count;
+        }
+        long count = counter.getAsLong();
+        if (region.entries.size() >= MAX_ENTRIES_PER_ENTITY) {
+            region.entries.clear();
+        }
+        if (region.generation.get() == generation && !region.isInvalidatedWithin(replicaLagNanos, now)) {
+            region.entries.put(key, new Entry(generation, count, now + TIME_TO_LIVE.toNanos()));
+        }
+        return count;
+    }
+
+    /**
+     * Evict the counts of an entity, now and after the current transaction completes.
+     *
+     * @param entityClass the written entity.
+     */
+    public void evict(Class<?> entityClass) {
+        Region region = region(entityClass);
+        region.invalidate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        region.invalidate();
+                    }
+                }
+            );
+        }
+    }
+
+    private Region region(Class<?> entityClass) {
+        return regions.computeIfAbsent(entityClass, key -> new Region());
+    }
+
+    private static final class Region {
+
+        private final AtomicLong generation = new AtomicLong();
+
+        private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+
+        private volatile boolean invalidated;
+
+        private volatile long invalidatedAt;
+
+        void invalidate() {
+            invalidatedAt = System.nanoTime();
+            invalidated = true;
+            generation.incrementAndGet();
+            entries.clear();
+        }
+
+        boolean isInvalidatedWithin(long nanos, long now) {
+            return nanos > 0 && invalidated && now - invalidatedAt < nanos;
+        }
+    }
+
+    private static final class Entry {
+
+        private final long generation;
+
+        private final long count;
+
+        private final long expiresAt;
+
+        private Entry(long generation, long count, long expiresAt) {
+            this.generation = generation;
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isValid(long currentGeneration, long now) {
+            return generation == currentGeneration && now - expiresAt < 0;
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.service.criteria.PrefixStringFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Sort;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Compiles criteria to JPQL, caching the query by the shape of the criteria: which filters are set, which operators
+ * they use, whether the query is distinct and how it is sorted. Criteria of the same shape share the same JPQL string,
+ * and so the same Hibernate query plan: only the parameter values are bound on each call.
+ * <p>
+ * The filters are translated the same way as {@link tech.jhipster.service.QueryService} does, so the compiled query
+ * matches the same entities as the {@link org.springframework.data.jpa.domain.Specification} built from the criteria.
+ *
+ * @param <C> the criteria type.
+ */
+final class CriteriaQueryPlanCache<C> {
+
+    static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final String ALIAS = "e";
+
+    private final String entityName;
+
+    private final Function<C, Boolean> distinct;
+
+    private final List<FilterField<C>> fields;
+
+    private final Set<String> sortable;
+
+    private final int maxSize;
+
+    private final Map<String, QueryPlan> plans = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private CriteriaQueryPlanCache(Builder<C> builder, MeterRegistry meterRegistry, int maxSize) {
+        this.entityName = builder.entityName;
+        this.distinct = builder.distinct;
+        this.fields = List.copyOf(builder.fields);
+        this.sortable = Set.copyOf(builder.sortable);
+        this.maxSize = maxSize;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        Gauge.builder("criteria.query.plans.size", plans, Map::size).tag("entity", entityName).register(meterRegistry);
+    }
+
+    static <C> Builder<C> builder(Class<?> entityClass, Function<C, Boolean> distinct) {
+        return new Builder<>(entityClass.getSimpleName(), distinct);
+    }
+
+    /**
+     * Compile the criteria into a query selecting the entities, sorted in the given order.
+     *
+     * @param criteria the criteria, may be {@code null} to match every entity.
+     * @param sort the order of the entities.
+     * @return the compiled query, or {@code null} if the sort uses a property the cache cannot order by.
+     */
+    CompiledQuery compile(C criteria, Sort sort) {
+        return compile(criteria, sort, List.of());
+    }
+
+    /**
+     * Compile the criteria into a query selecting only the given properties of the entities, sorted in the given order.
+     * The selection should hold the id, so that a distinct query still returns one row per entity.
+     *
+     * @param criteria the criteria, may be {@code null} to match every entity.
+     * @param sort the order of the entities.
+     * @param selection the paths of the selected properties, or an empty list to select the entities.
+     * @return the compiled query, or {@code null} if the sort uses a property the cache cannot order by.
+     */
+    CompiledQuery compile(C criteria, Sort sort, List<String> selection) {
+        StringBuilder shape = new StringBuilder();
+        List<Term> terms = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        boolean isDistinct = false;
+        if (criteria != null) {
+            isDistinct = Boolean.TRUE.equals(distinct.apply(criteria));
+            for (int i = 0; i < fields.size(); i++) {
+                fields.get(i).visit(criteria, i, shape, terms, parameters);
+            }
+        }
+        shape.append(isDistinct ? "|d|" : "|a|");
+        for (Sort.Order order : sort) {
+            if (!sortable.contains(order.getProperty()) || order.isIgnoreCase() || order.getNullHandling() != Sort.NullHandling.NATIVE) {
+                return null;
+            }
+            shape.append(order.getProperty()).append(order.isAscending() ? '+' : '-');
+        }
+        shape.append("|s|").append(String.join(",", selection));
+        String key = shape.toString();
+        QueryPlan plan = plans.get(key);
+        if (plan != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            plan = render(terms, isDistinct, sort, selection);
+            if (plans.size() < maxSize) {
+                plans.putIfAbsent(key, plan);
+            }
+        }
+        return new CompiledQuery(plan, parameters);
+    }
+
+    int size() {
+        return plans.size();
+    }
+
+    /**
+     * The pattern of a {@code like} matching the values starting with the prefix, escaping its wildcards with a
+     * backslash.
+     */
+    static String prefixLikeQuery(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private QueryPlan render(List<Term> terms, boolean isDistinct, Sort sort, List<String> selection) {
+        StringBuilder where = new StringBuilder();
+        int position = 1;
+        for (Term term : terms) {
+            where.append(where.length() == 0 ? " where " : " and ");
+            where.append(term.operator.render(ALIAS + "." + term.path, "?" + position));
+            if (term.operator.hasParameter()) {
+                position++;
+            }
+        }
+        String from = " from " + entityName + " " + ALIAS + where;
+        StringBuilder select = new StringBuilder("select ").append(isDistinct ? "distinct " : "");
+        if (selection.isEmpty()) {
+            select.append(ALIAS);
+        } else {
+            select.append(selection.stream().map(path -> ALIAS + "." + path).collect(Collectors.joining(", ")));
+        }
+        select.append(from);
+        String separator = " order by ";
+        for (Sort.Order order : sort) {
+            select.append(separator).append(ALIAS).append('.').append(order.getProperty());
+            select.append(order.isAscending() ? " asc" : " desc");
+            separator = ", ";
+        }
+        String count = "select count(" + (isDistinct ? "distinct " : "") + ALIAS + ")" + from;
+        return new QueryPlan(select.toString(), count, !terms.isEmpty());
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter
+            .builder("criteria.query.plans")
+            .description("Criteria compiled from a cached query plan (hit) or rendered to JPQL (miss)")
+            .tag("entity", entityName)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * A query compiled from criteria: the cached JPQL strings and the parameter values bound to them, in position order.
+     */
+    static final class CompiledQuery {
+
+        private final QueryPlan plan;
+
+        private final List<Object> parameters;
+
+        private CompiledQuery(QueryPlan plan, List<Object> parameters) {
+            this.plan = plan;
+            this.parameters = parameters;
+        }
+
+        String getQuery() {
+            return plan.query;
+        }
+
+        String getCountQuery() {
+            return plan.countQuery;
+        }
+
+        List<Object> getParameters() {
+            return parameters;
+        }
+
+        /**
+         * Whether the query has a where clause, or selects every entity.
+         */
+        boolean isFiltered() {
+            return plan.filtered;
+        }
+
+        /**
+         * The criteria normalized to the count query and its parameter values: criteria matching the same entities
+         * the same way have equal keys.
+         */
+        Object getCountKey() {
+            return List.of(plan.countQuery, parameters);
+        }
+    }
+
+    private static final class QueryPlan {
+
+        private final String query;
+
+        private final String countQuery;
+
+        private final boolean filtered;
+
+        private QueryPlan(String query, String countQuery, boolean filtered) {
+            this.query = query;
+            this.countQuery = countQuery;
+            this.filtered = filtered;
+        }
+    }
+
+    private enum Operator {
+        EQUALS("%s = %s", true),
+        NOT_EQUALS("%s <> %s", true),
+        IN("%s in (%s)", true),
+        NOT_IN("%s not in (%s)", true),
+        EMPTY_IN("1 = 0", false),
+        EMPTY_NOT_IN("1 = 1", false),
+        CONTAINS("upper(%s) like %s", true),
+        DOES_NOT_CONTAIN("upper(%s) not like %s", true),
+        STARTS_WITH("%s like %s escape '\\'", true),
+        SPECIFIED("%s is not null", false),
+        UNSPECIFIED("%s is null", false),
+        GREATER_THAN("%s > %s", true),
+        GREATER_THAN_OR_EQUAL("%s >= %s", true),
+        LESS_THAN("%s < %s", true),
+        LESS_THAN_OR_EQUAL("%s <= %s", true);
+
+        private final String template;
+
+        private final boolean parameter;
+
+        Operator(String template, boolean parameter) {
+            this.template = template;
+            this.parameter = parameter;
+        }
+
+        boolean hasParameter() {
+            return parameter;
+        }
+
+        String render(String path, String parameter) {
+            return String.format(template, path, parameter);
+        }
+    }
+
+    private static final class Term {
+
+        private final String path;
+
+        private final Operator operator;
+
+        private Term(String path, Operator operator) {
+            this.path = path;
+            this.operator = operator;
+        }
+    }
+
+    private enum Kind {
+        PLAIN,
+        STRING,
+        RANGE,
+    }
+
+    private static final class FilterField<C> {
+
+        private final String path;
+
+        private final Kind kind;
+
+        private final Function<C, ? extends Filter<?>> getter;
+
+        private FilterField(String path, Kind kind, Function<C, ? extends Filter<?>> getter) {
+            this.path = path;
+            this.kind = kind;
+            this.getter = getter;
+        }
+
+        void visit(C criteria, int index, StringBuilder shape, List<Term> terms, List<Object> parameters) {
+            Filter<?> filter = getter.apply(criteria);
+            if (filter == null) {
+                return;
+            }
+            Visitor visitor = new Visitor(index, shape, terms, parameters);
+            if (filter.getEquals() != null) {
+                visitor.add(Operator.EQUALS, filter.getEquals());
+            } else if (filter.getIn() != null) {
+                visitor.addIn(filter.getIn(), Operator.IN, Operator.EMPTY_IN);
+            } else if (kind == Kind.RANGE) {
+                visitRange((RangeFilter<?>) filter, visitor);
+            } else if (filter.getNotIn() != null) {
+                visitor.addIn(filter.getNotIn(), Operator.NOT_IN, Operator.EMPTY_NOT_IN);
+            } else if (kind == Kind.STRING && ((StringFilter) filter).getContains() != null) {
+                visitor.add(Operator.CONTAINS, wrapLikeQuery(((StringFilter) filter).getContains()));
+            } else if (kind == Kind.STRING && ((StringFilter) filter).getDoesNotContain() != null) {
+                visitor.add(Operator.DOES_NOT_CONTAIN, wrapLikeQuery(((StringFilter) filter).getDoesNotContain()));
+            } else if (filter.getNotEquals() != null) {
+                visitor.add(Operator.NOT_EQUALS, filter.getNotEquals());
+            } else if (filter.getSpecified() != null) {
+                visitor.add(filter.getSpecified() ? Operator.SPECIFIED : Operator.UNSPECIFIED, null);
+            }
+            if (filter instanceof PrefixStringFilter && ((PrefixStringFilter) filter).getStartsWith() != null) {
+                // not one of the operators of QueryService, so it applies on top of them
+                visitor.add(Operator.STARTS_WITH, prefixLikeQuery(((PrefixStringFilter) filter).getStartsWith()));
+            }
+        }
+
+        private void visitRange(RangeFilter<?> filter, Visitor visitor) {
+            if (filter.getSpecified() != null) {
+                visitor.add(filter.getSpecified() ? Operator.SPECIFIED : Operator.UNSPECIFIED, null);
+            }
+            if (filter.getNotEquals() != null) {
+                visitor.add(Operator.NOT_EQUALS, filter.getNotEquals());
+            }
+            if (filter.getNotIn() != null) {
+                visitor.addIn(filter.getNotIn(), Operator.NOT_IN, Operator.EMPTY_NOT_IN);
+            }
+            if (filter.getGreaterThan() != null) {
+                visitor.add(Operator.GREATER_THAN, filter.getGreaterThan());
+            }
+            if (filter.getGreaterThanOrEqual() != null) {
+                visitor.add(Operator.GREATER_THAN_OR_EQUAL, filter.getGreaterThanOrEqual());
+            }
+            if (filter.getLessThan() != null) {
+                visitor.add(Operator.LESS_THAN, filter.getLessThan());
+            }
+            if (filter.getLessThanOrEqual() != null) {
+                visitor.add(Operator.LESS_THAN_OR_EQUAL, filter.getLessThanOrEqual());
+            }
+        }
+
+        private static String wrapLikeQuery(String text) {
+            return "%" + text.toUpperCase() + "%";
+        }
+
+        private final class Visitor {
+
+            private final int index;
+
+            private final StringBuilder shape;
+
+            private final List<Term> terms;
+
+            private final List<Object> parameters;
+
+            private Visitor(int index, StringBuilder shape, List<Term> terms, List<Object> parameters) {
+                this.index = index;
+                this.shape = shape;
+                this.terms = terms;
+                this.parameters = parameters;
+            }
+
+            void add(Operator operator, Object value) {
+                shape.append(index).append(':').append(operator.ordinal()).append(';');
+                terms.add(new Term(path, operator));
+                if (operator.hasParameter()) {
+                    parameters.add(value);
+                }
+            }
+
+            void addIn(Collection<?> values, Operator operator, Operator whenEmpty) {
+                add(values.isEmpty() ? whenEmpty : operator, values);
+            }
+        }
+    }
+
+    /**
+     * Declares the filters of the criteria, in the order their predicates are rendered.
+     */
+    static final class Builder<C> {
+
+        private final String entityName;
+
+        private final Function<C, Boolean> distinct;
+
+        private final List<FilterField<C>> fields = new ArrayList<>();
+
+        private final Set<String> sortable = new HashSet<>();
+
+        private Builder(String entityName, Function<C, Boolean> distinct) {
+            this.entityName = entityName;
+            this.distinct = distinct;
+        }
+
+        /**
+         * A filter translated like {@code QueryService.buildSpecification(Filter, ...)}.
+         */
+        Builder<C> filter(String path, Function<C, ? extends Filter<?>> getter) {
+            return add(path, Kind.PLAIN, getter);
+        }
+
+        /**
+         * A filter translated like {@code QueryService.buildStringSpecification(StringFilter, ...)}.
+         */
+        Builder<C> stringFilter(String path, Function<C, StringFilter> getter) {
+            return add(path, Kind.STRING, getter);
+        }
+
+        /**
+         * A filter translated like {@code QueryService.buildRangeSpecification(RangeFilter, ...)}.
+         */
+        Builder<C> rangeFilter(String path, Function<C, ? extends RangeFilter<?>> getter) {
+            return add(path, Kind.RANGE, getter);
+        }
+
+        CriteriaQueryPlanCache<C> build(MeterRegistry meterRegistry) {
+            return build(meterRegistry, DEFAULT_MAX_SIZE);
+        }
+
+        CriteriaQueryPlanCache<C> build(MeterRegistry meterRegistry, int maxSize) {
+            return new CriteriaQueryPlanCache<>(this, meterRegistry, maxSize);
+        }
+
+        private Builder<C> add(String path, Kind kind, Function<C, ? extends Filter<?>> getter) {
+            fields.add(new FilterField<>(path, kind, getter));
+            if (path.indexOf('.') < 0) {
+                sortable.add(path);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.mycompany.myapp.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the records of a CSV file one at a time, as Liquibase writes them in {@code config/liquibase/fake-data}:
+ * fields separated by a delimiter, and enclosed in double quotes when they hold the delimiter, a quote or a line break,
+ * quotes being escaped by doubling them.
+ * <p>
+ * The reader is not buffered: wrap it in a {@link java.io.BufferedReader}.
+ */
+public final class CsvReader {
+
+    private static final char QUOTE = '"';
+
+    private final Reader reader;
+
+    private final char delimiter;
+
+    private final StringBuilder field = new StringBuilder();
+
+    private int next = -2;
+
+    private long line = 1;
+
+    private long recordLine;
+
+    /**
+     * @param reader the reader of the file.
+     * @param delimiter the character separating the fields.
+     */
+    public CsvReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Read the next record, skipping the blank lines.
+     *
+     * @return the fields of the record, or {@code null} at the end of the file.
+     * @throws IOException if the file could not be read.
+     * @throws IllegalArgumentException if a quoted field is not closed, or is followed by anything else than the
+     *     delimiter or the end of the record.
+     */
+    public List<String> read() throws IOException {
+        int c = peek();
+        while (c == '\r' || c == '\n') {
+            consumeLineBreak();
+            c = peek();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        while (true) {
+            fields.add(readField());
+            c = peek();
+            if (c == delimiter) {
+                advance();
+            } else {
+                if (c != -1) {
+                    consumeLineBreak();
+                }
+                return fields;
+            }
+        }
+    }
+
+    /**
+     * @return the line the last record read starts at, counting from 1.
+     */
+    public long getLine() {
+        return recordLine;
+    }
+
+    private String readField() throws IOException {
+        field.setLength(0);
+        int c = peek();
+        if (c != QUOTE) {
+            while (c != -1 && c != delimiter && c != '\r' && c != '\n') {
+                field.append((char) c);
+                advance();
+                c = peek();
+            }
+            return field.toString();
+        }
+        advance();
+        while (true) {
+            c = advance();
+            if (c == -1) {
+                throw new IllegalArgumentException("Unclosed quoted field at line " + recordLine);
+            }
+            if (c == QUOTE) {
+                int after = peek();
+                if (after == delimiter || after == '\r' || after == '\n' || after == -1) {
+                    return field.toString();
+                }
+                if (after != QUOTE) {
+                    throw new IllegalArgumentException("Unexpected character after quoted field at line " + line);
+                }
+                advance();
+            } else if (c == '\n') {
+                line++;
+            }
+            field.append((char) c);
+        }
+    }
+
+    private void consumeLineBreak() throws IOException {
+        if (advance() == '\r' && peek() == '\n') {
+            advance();
+        }
+        line++;
+    }
+
+    private int peek() throws IOException {
+        if (next == -2) {
+            next = reader.read();
+        }
+        return next;
+    }
+
+    private int advance() throws IOException {
+        int c = peek();
+        next = -2;
+        return c;
+    }
+}
@@ -0,0 +1,131 @@
+package com.mycompany.myapp.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import javax.persistence.Tuple;
+
+/**
+ * The fields of an entity that can be requested on their own, through {@code ?fields=}, and the properties they are
+ * selected from. A selection is read as {@link Tuple}s, without hydrating the entities, and returned as maps holding
+ * only the requested fields.
+ */
+final class Fieldset {
+
+    private static final String ID = "id";
+
+    private final Map<String, Field> fields;
+
+    private Fieldset(Map<String, Field> fields) {
+        this.fields = fields;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Select the given fields, in the order they were declared. The id is always selected.
+     *
+     * @param names the names of the requested fields.
+     * @return the selection.
+     * @throws IllegalArgumentException if a field is unknown.
+     */
+    Selection select(Collection<String> names) {
+        Set<String> unknown = new TreeSet<>(names);
+        unknown.removeAll(fields.keySet());
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown fields: " + unknown);
+        }
+        List<Field> selected = new ArrayList<>();
+        for (Map.Entry<String, Field> entry : fields.entrySet()) {
+            if (ID.equals(entry.getKey()) || names.contains(entry.getKey())) {
+                selected.add(entry.getValue());
+            }
+        }
+        return new Selection(selected);
+    }
+
+    /**
+     * Selected fields, in the order of the select clause.
+     */
+    static final class Selection {
+
+        private final List<Field> fields;
+
+        private Selection(List<Field> fields) {
+            this.fields = fields;
+        }
+
+        /**
+         * The paths of the selected properties, to be passed to {@link CriteriaQueryPlanCache#compile}.
+         */
+        List<String> getPaths() {
+            List<String> paths = new ArrayList<>(fields.size());
+            for (Field field : fields) {
+                paths.add(field.path);
+            }
+            return paths;
+        }
+
+        Map<String, Object> toMap(Tuple tuple) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                Object value = tuple.get(i);
+                values.put(field.name, value == null ? null : field.converter.apply(value));
+            }
+            return values;
+        }
+    }
+
+    private static final class Field {
+
+        private final String name;
+
+        private final String path;
+
+        private final Function<Object, Object> converter;
+
+        private Field(String name, String path, Function<Object, Object> converter) {
+            this.name = name;
+            this.path = path;
+            this.converter = converter;
+        }
+    }
+
+    static final class Builder {
+
+        private final Map<String, Field> fields = new LinkedHashMap<>();
+
+        private Builder() {}
+
+        /**
+         * A field holding the value of a property.
+         */
+        Builder field(String name, String path) {
+            return field(name, path, Function.identity());
+        }
+
+        /**
+         * A field holding the converted value of a property, when the DTO does not expose it as is.
+         */
+        Builder field(String name, String path, Function<Object, Object> converter) {
+            fields.put(name, new Field(name, path, converter));
+            return this;
+        }
+
+        Fieldset build() {
+            if (!fields.containsKey(ID)) {
+                throw new IllegalStateException("The id must be a field");
+            }
+            return new Fieldset(Collections.unmodifiableMap(new LinkedHashMap<>(fields)));
+        }
+    }
+}
@@ -3,16 +3,30 @@ package com.mycompany.myapp.service;
 import com.mycompany.myapp.domain.*; // for static metamodels
 import com.mycompany.myapp.domain.Filters;
 import com.mycompany.myapp.repository.FiltersRepository;
+import com.mycompany.myapp.service.CriteriaQueryPlanCache.CompiledQuery;
 import com.mycompany.myapp.service.criteria.FiltersCriteria;
+import com.mycompany.myapp.service.dto.ChangeDTO;
+import com.mycompany.myapp.service.dto.CountResult;
+import com.mycompany.myapp.service.dto.DeleteResult;
 import com.mycompany.myapp.service.dto.FiltersDTO;
+import com.mycompany.myapp.service.dto.KeysetCursor;
+import com.mycompany.myapp.service.dto.KeysetSlice;
 import com.mycompany.myapp.service.mapper.FiltersMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
 import java.util.List;
-import javax.persistence.criteria.JoinType;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import javax.persistence.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
@@ -22,6 +36,10 @@ import tech.jhipster.service.QueryService;
  * The main input is a {@link FiltersCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
  * It returns a {@link List} of {@link FiltersDTO} or a {@link Page} of {@link FiltersDTO} which fulfills the criteria.
+ * List, page and count queries are compiled through a {@link CriteriaQueryPlanCache}, so criteria of the same shape
+ * reuse the same query plan.
+ * The crawler of a {@link Filters} is lazy and only its id is mapped, so it is read from the {@code crawler_id} column
+ * of the same row: listing filters is a single query.
  */
 @Service
 @Transactional(readOnly = true)
@@ -29,13 +47,47 @@ public class FiltersQueryService extends QueryService<Filters> {
 
     private final Logger log = LoggerFactory.getLogger(FiltersQueryService.class);
 
+    /**
+     * Number of ids bound to each statement of a delete by criteria.
+     */
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
     private final FiltersRepository filtersRepository;
 
     private final FiltersMapper filtersMapper;
 
-    public FiltersQueryService(FiltersRepository filtersRepository, FiltersMapper filtersMapper) {
+    private final CriteriaQueryPlanCache<FiltersCriteria> queryPlans;
+
+    private final CriteriaCountCache countCache;
+
+    private final ChangeFeedService changeFeedService;
+
+    private final Fieldset fieldset;
+
+    public FiltersQueryService(
+        FiltersRepository filtersRepository,
+        FiltersMapper filtersMapper,
+        CriteriaCountCache countCache,
+        ChangeFeedService changeFeedService,
+        MeterRegistry meterRegistry
+    ) {
         this.filtersRepository = filtersRepository;
         this.filtersMapper = filtersMapper;
+        this.countCache = countCache;
+        this.changeFeedService = changeFeedService;
+        this.queryPlans =
+            CriteriaQueryPlanCache
+                .builder(Filters.class, FiltersCriteria::getDistinct)
+                .rangeFilter(Filters_.ID, FiltersCriteria::getId)
+                .filter(Filters_.CRAWLER + "." + Crawler_.ID, FiltersCriteria::getCrawlerId)
+                .build(meterRegistry);
+        this.fieldset =
+            Fieldset
+                .builder()
+                .field("id", Filters_.ID)
+                // exposed like FiltersDTO.crawler, which only holds the id
+                .field("crawler", Filters_.CRAWLER + "." + Crawler_.ID, id -> Map.of("id", id))
+                .build();
     }
 
     /**
@@ -46,8 +98,28 @@ public class FiltersQueryService extends QueryService<Filters> {
     @Transactional(readOnly = true)
     public List<FiltersDTO> findByCriteria(FiltersCriteria criteria) {
         log.debug("find by criteria : {}", criteria);
-        final Specification<Filters> specification = createSpecification(criteria);
-        return filtersMapper.toDto(filtersRepository.findAll(specification));
+        final CompiledQuery query = queryPlans.compile(criteria, Sort.unsorted());
+        return filtersMapper.toDto(filtersRepository.findAll(query.getQuery(), query.getParameters(), Pageable.unpaged()));
+    }
+
+    /**
+     * Return the requested fields of the filters which match the criteria from the database. Only the matching columns
+     * are read: no entity is hydrated nor mapped to a DTO.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param fields The names of the requested fields, the id being always returned.
+     * @return the requested fields of the matching entities, one map per entity.
+     * @throws IllegalArgumentException if a field is unknown.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFieldsByCriteria(FiltersCriteria criteria, Collection<String> fields) {
+        log.debug("find fields by criteria : {}, fields: {}", criteria, fields);
+        final Fieldset.Selection selection = fieldset.select(fields);
+        final CompiledQuery query = queryPlans.compile(criteria, Sort.unsorted(), selection.getPaths());
+        return filtersRepository
+            .findTuples(query.getQuery(), query.getParameters(), Pageable.unpaged())
+            .stream()
+            .map(selection::toMap)
+            .collect(Collectors.toList());
     }
 
     /**
@@ -59,20 +131,121 @@ public class FiltersQueryService extends QueryService<Filters> {
     @Transactional(readOnly = true)
     public Page<FiltersDTO> findByCriteria(FiltersCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
-        final Specification<Filters> specification = createSpecification(criteria);
-        return filtersRepository.findAll(specification, page).map(filtersMapper::toDto);
+        final CompiledQuery query = queryPlans.compile(criteria, page.getSort());
+        if (query == null) {
+            final Specification<Filters> specification = createSpecification(criteria);
+            return filtersRepository.findAll(specification, page).map(filtersMapper::toDto);
+        }
+        List<Filters> content = filtersRepository.findAll(query.getQuery(), query.getParameters(), page);
+        return PageableExecutionUtils
+            .getPage(content, page, () -> filtersRepository.count(query.getCountQuery(), query.getParameters()))
+            .map(filtersMapper::toDto);
+    }
+
+    /**
+     * Return a {@link KeysetSlice} of {@link FiltersDTO} which matches the criteria from the database,
+     * starting right after the given cursor.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position after which the slice starts, which also holds the sort order.
+     * @param size The maximum number of entities in the slice.
+     * @return the matching entities, and the cursor of the next slice if there is one.
+     * @throws IllegalArgumentException if the cursor is not sorted by a supported property.
+     */
+    @Transactional(readOnly = true)
+    public KeysetSlice<FiltersDTO> findByCriteria(FiltersCriteria criteria, KeysetCursor cursor, int size) {
+        log.debug("find by criteria : {}, cursor: {}, size: {}", criteria, cursor, size);
+        final Specification<Filters> specification = createSpecification(criteria).and(createKeysetSpecification(cursor));
+        List<Filters> filters = filtersRepository.findAll(specification, cursor.toSort(), size + 1);
+        if (filters.size() <= size) {
+            return new KeysetSlice<>(filtersMapper.toDto(filters), null);
+        }
+        Filters last = filters.get(size - 1);
+        KeysetCursor next = cursor.after(last.getId().toString(), last.getId());
+        return new KeysetSlice<>(filtersMapper.toDto(filters.subList(0, size)), next);
     }
 
     /**
      * Return the number of matching entities in the database.
+     * The count is cached per normalized criteria until the entities are written.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @return the number of matching entities.
      */
     @Transactional(readOnly = true)
     public long countByCriteria(FiltersCriteria criteria) {
-        log.debug("count by criteria : {}", criteria);
-        final Specification<Filters> specification = createSpecification(criteria);
-        return filtersRepository.count(specification);
+        return countByCriteria(criteria, false).getCount();
+    }
+
+    /**
+     * Return the number of matching entities in the database, or an estimate of it.
+     * When approximate, a cached exact count is still preferred; otherwise the table statistics are used if no filter
+     * is given, and the query planner estimate if filters are given. If the database cannot estimate the count, it is
+     * counted exactly.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param approximate Whether an estimate is enough.
+     * @return the number of matching entities, and whether it is exact.
+     */
+    @Transactional(readOnly = true)
+    public CountResult countByCriteria(FiltersCriteria criteria, boolean approximate) {
+        log.debug("count by criteria : {}, approximate: {}", criteria, approximate);
+        final CompiledQuery query = queryPlans.compile(criteria, Sort.unsorted());
+        if (approximate) {
+            OptionalLong cached = countCache.get(Filters.class, query.getCountKey());
+            if (cached.isPresent()) {
+                return CountResult.exact(cached.getAsLong());
+            }
+            OptionalLong estimate = query.isFiltered()
+                ? filtersRepository.estimateCount(query.getQuery(), query.getParameters())
+                : filtersRepository.estimateCount();
+            if (estimate.isPresent()) {
+                return CountResult.estimate(estimate.getAsLong());
+            }
+        }
+        long count = countCache.get(
+            Filters.class,
+            query.getCountKey(),
+            () -> filtersRepository.count(query.getCountQuery(), query.getParameters())
+        );
+        return CountResult.exact(count);
+    }
+
+    /**
+     * Delete at most {@code limit} filters which match the criteria, the lowest ids first, without loading them: their
+     * ids are selected through the compiled criteria query, then they are deleted with set-based statements of at most
+     * {@value #DELETE_CHUNK_SIZE} ids. The deletions are published to the change feed once the transaction commits.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param limit The maximum number of filters to delete.
+     * @param dryRun Whether to only count the filters which would be deleted.
+     * @return the number of filters deleted, or which would be, and whether more filters match.
+     * @throws IllegalArgumentException if the criteria hold no filter, and so would match every filters.
+     */
+    @Transactional
+    public DeleteResult deleteByCriteria(FiltersCriteria criteria, int limit, boolean dryRun) {
+        log.debug("delete by criteria : {}, limit: {}, dry run: {}", criteria, limit, dryRun);
+        final CompiledQuery query = queryPlans.compile(criteria, Sort.by(Filters_.ID), List.of(Filters_.ID, Filters_.VERSION));
+        if (!query.isFiltered()) {
+            throw new IllegalArgumentException("At least one filter is required to delete filters");
+        }
+        List<Tuple> rows = filtersRepository.findTuples(query.getQuery(), query.getParameters(), PageRequest.of(0, limit + 1));
+        boolean more = rows.size() > limit;
+        List<Tuple> filters = more ? rows.subList(0, limit) : rows;
+        if (dryRun) {
+            return new DeleteResult(filters.size(), 0, true, more);
+        }
+        long deleted = 0;
+        for (int from = 0; from < filters.size(); from += DELETE_CHUNK_SIZE) {
+            List<Tuple> chunk = filters.subList(from, Math.min(from + DELETE_CHUNK_SIZE, filters.size()));
+            deleted += filtersRepository.deleteAllByIdIn(chunk.stream().map(row -> row.get(0, Long.class)).collect(Collectors.toList()));
+            changeFeedService.publishAfterCommit(Filters.class, deletions(chunk));
+        }
+        countCache.evict(Filters.class);
+        return new DeleteResult(deleted, 0, false, more);
+    }
+
+    private static List<ChangeDTO> deletions(List<Tuple> rows) {
+        return rows
+            .stream()
+            .map(row -> new ChangeDTO(ChangeDTO.Type.DELETED, row.get(0, Long.class), row.get(1, Long.class)))
+            .collect(Collectors.toList());
     }
 
     /**
@@ -91,12 +264,24 @@ public class FiltersQueryService extends QueryService<Filters> {
                 specification = specification.and(buildRangeSpecification(criteria.getId(), Filters_.id));
             }
             if (criteria.getCrawlerId() != null) {
+                // the id of the crawler is the crawler_id column of filters, so no join is needed
                 specification =
-                    specification.and(
-                        buildSpecification(criteria.getCrawlerId(), root -> root.join(Filters_.crawler, JoinType.LEFT).get(Crawler_.id))
-                    );
+                    specification.and(buildSpecification(criteria.getCrawlerId(), root -> root.get(Filters_.crawler).get(Crawler_.id)));
             }
         }
         return specification;
     }
+
+    /**
+     * Function to convert a {@link KeysetCursor} to a {@link Specification} matching the entities placed after it.
+     * Filters can only be sorted by id.
+     * @param cursor The position after which the entities should be placed.
+     * @return the matching {@link Specification} of the entity, or {@code null} for the first slice.
+     */
+    protected Specification<Filters> createKeysetSpecification(KeysetCursor cursor) {
+        if (!cursor.isById()) {
+            throw new IllegalArgumentException("Unsupported keyset sort property: " + cursor.getProperty());
+        }
+        return KeysetSpecifications.seek(Filters_.id, cursor);
+    }
 }
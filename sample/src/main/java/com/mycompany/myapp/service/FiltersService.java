@@ -2,6 +2,7 @@ package com.mycompany.myapp.service;
 
 import com.mycompany.myapp.domain.Filters;
 import com.mycompany.myapp.repository.FiltersRepository;
+import com.mycompany.myapp.service.dto.ChangeDTO;
 import com.mycompany.myapp.service.dto.FiltersDTO;
 import com.mycompany.myapp.service.mapper.FiltersMapper;
 import java.util.LinkedList;
@@ -10,6 +11,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,42 +28,80 @@ public class FiltersService {
 
     private final FiltersMapper filtersMapper;
 
-    public FiltersService(FiltersRepository filtersRepository, FiltersMapper filtersMapper) {
+    private final CriteriaCountCache countCache;
+
+    private final ChangeFeedService changeFeedService;
+
+    public FiltersService(
+        FiltersRepository filtersRepository,
+        FiltersMapper filtersMapper,
+        CriteriaCountCache countCache,
+        ChangeFeedService changeFeedService
+    ) {
         this.filtersRepository = filtersRepository;
         this.filtersMapper = filtersMapper;
+        this.countCache = countCache;
+        this.changeFeedService = changeFeedService;
     }
 
     /**
      * Save a filters.
      *
-     * @param filtersDTO the entity to save.
-     * @return the persisted entity.
+     * @param filtersDTO the entity to save, with the version it is expected to have if any.
+     * @return the persisted entity, at its new version.
+     * @throws OptimisticLockingFailureException if the entity is not at the expected version.
      */
     public FiltersDTO save(FiltersDTO filtersDTO) {
         log.debug("Request to save Filters : {}", filtersDTO);
         Filters filters = filtersMapper.toEntity(filtersDTO);
-        filters = filtersRepository.save(filters);
+        countCache.evict(Filters.class);
+        Optional<Filters> existingFilters = filters.getId() == null ? Optional.empty() : filtersRepository.findById(filters.getId());
+        if (existingFilters.isPresent()) {
+            // merge the DTO at the current version, so that only the expected version is checked
+            checkVersion(existingFilters.get(), filtersDTO.getVersion());
+            filters.setVersion(existingFilters.get().getVersion());
+        }
+        filters = filtersRepository.saveAndFlush(filters);
         return filtersMapper.toDto(filters);
     }
 
     /**
-     * Partially update a filters.
+     * Update an existing filters with a single statement, whose count of updated rows tells whether it exists.
+     *
+     * @param filtersDTO the entity to update, with the version it is expected to have if any.
+     * @return the persisted entity, at its new version, or empty if it does not exist.
+     * @throws OptimisticLockingFailureException if the entity is not at the expected version.
+     */
+    public Optional<FiltersDTO> update(FiltersDTO filtersDTO) {
+        log.debug("Request to update Filters : {}", filtersDTO);
+        return update(filtersDTO, false);
+    }
+
+    /**
+     * Partially update a filters with a single statement, writing its non-null fields only.
      *
-     * @param filtersDTO the entity to update partially.
-     * @return the persisted entity.
+     * @param filtersDTO the entity to update partially, with the version it is expected to have if any.
+     * @return the persisted entity, at its new version, or empty if it does not exist.
+     * @throws OptimisticLockingFailureException if the entity is not at the expected version.
      */
     public Optional<FiltersDTO> partialUpdate(FiltersDTO filtersDTO) {
         log.debug("Request to partially update Filters : {}", filtersDTO);
+        return update(filtersDTO, true);
+    }
 
-        return filtersRepository
-            .findById(filtersDTO.getId())
-            .map(existingFilters -> {
-                filtersMapper.partialUpdate(existingFilters, filtersDTO);
-
-                return existingFilters;
-            })
-            .map(filtersRepository::save)
-            .map(filtersMapper::toDto);
+    private Optional<FiltersDTO> update(FiltersDTO filtersDTO, boolean partial) {
+        countCache.evict(Filters.class);
+        Optional<Filters> filters = filtersRepository.updateById(filtersMapper.toEntity(filtersDTO), filtersDTO.getVersion(), partial);
+        if (filters.isEmpty() && filtersDTO.getVersion() != null && filtersRepository.existsById(filtersDTO.getId())) {
+            throw staleVersion(filtersDTO.getId());
+        }
+        filters.ifPresent(updated ->
+            changeFeedService.publishAfterCommit(
+                Filters.class,
+                new ChangeDTO(ChangeDTO.Type.UPDATED, updated.getId(), updated.getVersion())
+            )
+        );
+        return filters.map(filtersMapper::toDto);
     }
 
     /**
@@ -94,6 +134,32 @@ public class FiltersService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Filters : {}", id);
+        countCache.evict(Filters.class);
         filtersRepository.deleteById(id);
     }
+
+    /**
+     * Delete the filters by id, if it is at the expected version.
+     *
+     * @param id the id of the entity.
+     * @param expectedVersion the version the entity is expected to have.
+     * @throws OptimisticLockingFailureException if the entity does not exist or is at another version.
+     */
+    public void delete(Long id, long expectedVersion) {
+        log.debug("Request to delete Filters : {} at version {}", id, expectedVersion);
+        countCache.evict(Filters.class);
+        Filters filters = filtersRepository.findById(id).orElseThrow(() -> staleVersion(id));
+        checkVersion(filters, expectedVersion);
+        filtersRepository.delete(filters);
+    }
+
+    private static void checkVersion(Filters filters, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != filters.getVersion()) {
+            throw staleVersion(filters.getId());
+        }
+    }
+
+    private static OptimisticLockingFailureException staleVersion(Long id) {
+        return new OptimisticLockingFailureException("Filters " + id + " is not at the expected version");
+    }
 }
@@ -0,0 +1,51 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.service.dto.KeysetCursor;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.metamodel.SingularAttribute;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Seek predicates for keyset pagination: instead of skipping rows with an OFFSET, they only match
+ * the rows placed after the cursor in the {@code (sort key, id)} order, so every slice costs the same.
+ */
+final class KeysetSpecifications {
+
+    private KeysetSpecifications() {}
+
+    /**
+     * Match the rows placed after the cursor when sorting by id only.
+     */
+    static <E> Specification<E> seek(SingularAttribute<? super E, Long> id, KeysetCursor cursor) {
+        if (cursor.isFirst()) {
+            return null;
+        }
+        Long lastId = cursor.getId();
+        boolean ascending = cursor.getDirection().isAscending();
+        return (root, query, builder) -> ascending ? builder.greaterThan(root.get(id), lastId) : builder.lessThan(root.get(id), lastId);
+    }
+
+    /**
+     * Match the rows placed after the cursor when sorting by {@code key}, then by id.
+     */
+    static <E, X extends Comparable<? super X>> Specification<E> seek(
+        SingularAttribute<? super E, X> key,
+        X value,
+        SingularAttribute<? super E, Long> id,
+        KeysetCursor cursor
+    ) {
+        if (cursor.isFirst()) {
+            return null;
+        }
+        Long lastId = cursor.getId();
+        boolean ascending = cursor.getDirection().isAscending();
+        return (root, query, builder) -> {
+            Path<X> keyPath = root.get(key);
+            Path<Long> idPath = root.get(id);
+            Predicate pastKey = ascending ? builder.greaterThan(keyPath, value) : builder.lessThan(keyPath, value);
+            Predicate pastId = ascending ? builder.greaterThan(idPath, lastId) : builder.lessThan(idPath, lastId);
+            return builder.or(pastKey, builder.and(builder.equal(keyPath, value), pastId));
+        };
+    }
+}
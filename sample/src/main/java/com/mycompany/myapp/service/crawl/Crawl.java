@@ -0,0 +1,365 @@
+package com.mycompany.myapp.service.crawl;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * The state of a running crawl: the {@link Frontier} of the URLs left to fetch, the {@link SeenUrlFilter} of the URLs
+ * already seen, the {@link SimHashIndex} of the pages fetched, and the progress of the crawl.
+ * <p>
+ * Pages are fetched through the shared {@link PageFetcher}, at most {@code maxInFlight} at once for this crawl, and one
+ * at a time per host. The pages disallowed by the {@code robots.txt} of their host are skipped, without counting in
+ * the budget: the rules are checked as the pages are taken from the frontier if they are cached, else once they are.
+ * Each response is handled on the thread completing it: its out-links, or the target of its redirect, are queued, then
+ * further pages are fetched. No thread waits for a response, nor for a politeness delay: when the hosts left to fetch
+ * are delayed, the crawl is resumed by the scheduler once the first delay is over, whatever the pages in flight. Once no page is left to fetch, or the
+ * fetch budget is spent, and the last response is handled, the crawl is finished and handed to the completion callback.
+ * If a response cannot be handled, no further page is fetched and the crawl is finished with an error once the pages
+ * in flight are handled.
+ * <p>
+ * The out-links of a page near-duplicate of a page fetched before are not followed: they mostly lead to variants of
+ * the pages the first one links to, as the pages of a listing in another sort order, or with another session id. Pages
+ * with too little text to compare, as image galleries or link hubs, are never near-duplicates.
+ */
+public final class Crawl {
+
+    /**
+     * Number of tokens of text a page must have for its fingerprint to be compared.
+     */
+    static final int MIN_FINGERPRINT_TOKENS = 16;
+
+    private final Logger log = LoggerFactory.getLogger(Crawl.class);
+
+    private final long runId;
+
+    private final URI seed;
+
+    private final int budget;
+
+    private final int maxInFlight;
+
+    private final boolean sameHostOnly;
+
+    private final PageFetcher fetcher;
+
+    private final RobotsCache robots;
+
+    private final Frontier frontier;
+
+    private final TaskScheduler scheduler;
+
+    private final SeenUrlFilter seen;
+
+    private final SimHashIndex fingerprints;
+
+    private final Consumer<Crawl> onFinished;
+
+    private int inFlight;
+
+    private int dispatched;
+
+    private int pagesFetched;
+
+    private int pagesFailed;
+
+    private int pagesDuplicate;
+
+    private long urlsDiscovered;
+
+    private String error;
+
+    private Instant finishedAt;
+
+    private boolean resumeScheduled;
+
+    private boolean aborted;
+
+    /**
+     * @param runId the id of the run.
+     * @param seed the normalized URI the crawl starts from.
+     * @param budget the maximum number of pages to fetch, or {@code -1} for no maximum.
+     * @param maxInFlight the maximum number of pages of this crawl fetched at once.
+     * @param sameHostOnly whether only the links to the host of the seed are followed.
+     * @param fetcher the fetcher of the pages.
+     * @param robots the {@code robots.txt} rules of the hosts.
+     * @param frontier the empty frontier of the crawl.
+     * @param scheduler the scheduler resuming the crawl after politeness delays.
+     * @param seen the empty filter of the URLs seen by the crawl, closed once it is finished.
+     * @param fingerprints the empty index of the fingerprints of the pages fetched by the crawl.
+     * @param onFinished called once, with the finished crawl.
+     */
+    public Crawl(
+        long runId,
+        URI seed,
+        int budget,
+        int maxInFlight,
+        boolean sameHostOnly,
+        PageFetcher fetcher,
+        RobotsCache robots,
+        Frontier frontier,
+        TaskScheduler scheduler,
+        SeenUrlFilter seen,
+        SimHashIndex fingerprints,
+        Consumer<Crawl> onFinished
+    ) {
+        this.runId = runId;
+        this.seed = seed;
+        this.budget = budget;
+        this.maxInFlight = maxInFlight;
+        this.sameHostOnly = sameHostOnly;
+        this.fetcher = fetcher;
+        this.robots = robots;
+        this.frontier = frontier;
+        this.scheduler = scheduler;
+        this.seen = seen;
+        this.fingerprints = fingerprints;
+        this.onFinished = onFinished;
+    }
+
+    public void start() {
+        synchronized (this) {
+            discover(seed, FrontierUrl.PriorityClass.SEED, 0);
+        }
+        advance();
+    }
+
+    /**
+     * Fetch pages of the frontier while the budget and the concurrency allow it, or finish the crawl if no page is
+     * left nor in flight. The fetches are sent outside of the lock, as a fetch may complete on the calling thread.
+     */
+    private void advance() {
+        List<FrontierUrl> batch = new ArrayList<>();
+        boolean finished = false;
+        synchronized (this) {
+            if (finishedAt != null) {
+                return;
+            }
+            FrontierUrl next;
+            while (!aborted && inFlight < maxInFlight && hasBudget() && (next = frontier.poll()) != null) {
+                RobotsRules rules = robots.getIfPresent(next.getUri());
+                if (rules != null && !rules.isAllowed(next.getUri())) {
+                    disallowed(next);
+                    continue;
+                }
+                batch.add(next);
+                inFlight++;
+                dispatched++;
+            }
+            if (inFlight == 0 && (aborted || frontier.isEmpty() || !hasBudget())) {
+                finishedAt = Instant.now();
+                frontier.clear();
+                seen.close();
+                finished = true;
+            } else if (!aborted && inFlight < maxInFlight && hasBudget() && !resumeScheduled) {
+                // the hosts left are delayed, or busy: a delayed host must not wait for the responses of the others
+                long nanosUntilReady = frontier.nanosUntilReady();
+                if (nanosUntilReady > 0) {
+                    resumeScheduled = true;
+                    scheduler.schedule(this::resume, Instant.now().plusNanos(nanosUntilReady));
+                }
+            }
+        }
+        for (FrontierUrl url : batch) {
+            URI uri = url.getUri();
+            robots
+                .rules(uri)
+                .thenCompose(rules -> rules.isAllowed(uri) ? fetcher.fetch(uri) : CompletableFuture.completedFuture(null))
+                .whenComplete((page, failure) -> completed(url, page, failure));
+        }
+        if (finished) {
+            log.debug(
+                "Finished crawl run {}: {} pages fetched, {} failed, {} near-duplicates",
+                runId,
+                pagesFetched,
+                pagesFailed,
+                pagesDuplicate
+            );
+            onFinished.accept(this);
+        }
+    }
+
+    /**
+     * Drop a crawl which is not started, as the run was not saved.
+     */
+    public synchronized void discard() {
+        frontier.clear();
+        seen.close();
+    }
+
+    private void resume() {
+        synchronized (this) {
+            resumeScheduled = false;
+        }
+        advance();
+    }
+
+    private boolean hasBudget() {
+        return budget < 0 || dispatched < budget;
+    }
+
+    /**
+     * Skip a URL disallowed by {@code robots.txt}.
+     */
+    private void disallowed(FrontierUrl url) {
+        log.debug("Skipping {}, disallowed by robots.txt", url.getUri());
+        frontier.skip(url);
+        if (url.getUri().equals(seed)) {
+            error = "The source is disallowed by robots.txt";
+        }
+    }
+
+    /**
+     * Handle the response to a page, or its failure, or the lack of both if the page turned out to be disallowed, then
+     * fetch further pages. As it runs on the thread completing the fetch, an exception would be lost along with the
+     * crawl: it aborts the crawl instead.
+     */
+    private void completed(FrontierUrl url, Page page, Throwable failure) {
+        try {
+            handle(url, page, failure);
+        } catch (RuntimeException e) {
+            abort(url, e);
+        }
+        advance();
+    }
+
+    private void handle(FrontierUrl url, Page page, Throwable failure) {
+        URI uri = url.getUri();
+        synchronized (this) {
+            inFlight--;
+            if (page == null && failure == null) {
+                dispatched--;
+                disallowed(url);
+            } else {
+                frontier.release(url);
+                if (failure != null) {
+                    pagesFailed++;
+                    log.debug("Failed to fetch {}: {}", uri, failure.toString());
+                    if (uri.equals(seed)) {
+                        error = "The source could not be fetched: " + failure;
+                    }
+                } else if (page.isRedirect()) {
+                    redirected(url, page.getLocation());
+                } else if (!page.isSuccessful()) {
+                    pagesFailed++;
+                    if (uri.equals(seed)) {
+                        error = "The source was answered with status " + page.getStatusCode();
+                    }
+                } else {
+                    pagesFetched++;
+                    discoverLinks(url, page);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop fetching pages after a failure to handle a response, so that the crawl finishes once the pages in flight are
+     * handled.
+     */
+    private synchronized void abort(FrontierUrl url, RuntimeException e) {
+        log.warn("Aborting crawl run {}, the response to {} could not be handled", runId, url.getUri(), e);
+        aborted = true;
+        error = "The crawl was aborted: " + e;
+    }
+
+    /**
+     * Queue the target of a redirect like a link, at the same depth and with the same priority as the redirected URL,
+     * so that it goes through the {@code robots.txt} rules and the politeness of its host. It is not fetched if it was
+     * seen before, which also ends redirect loops.
+     */
+    private void redirected(FrontierUrl url, URI location) {
+        log.debug("{} redirects to {}", url.getUri(), location);
+        if (!sameHostOnly || location.getHost().equals(seed.getHost())) {
+            discover(location, url.getPriorityClass(), url.getDepth());
+        } else if (url.getUri().equals(seed)) {
+            error = "The source redirects to another host: " + location;
+        }
+    }
+
+    private void discoverLinks(FrontierUrl url, Page page) {
+        if (page.getContent() == null) {
+            return;
+        }
+        OptionalLong fingerprint = SimHash.fingerprint(page.getContent(), MIN_FINGERPRINT_TOKENS);
+        if (fingerprint.isPresent() && !fingerprints.add(fingerprint.getAsLong())) {
+            log.debug("Not following the links of {}, a near-duplicate", page.getUri());
+            pagesDuplicate++;
+            return;
+        }
+        for (URI link : LinkExtractor.extract(page.getUri(), page.getContent())) {
+            if (!sameHostOnly || link.getHost().equals(seed.getHost())) {
+                discover(link, FrontierUrl.PriorityClass.LINK, url.getDepth() + 1);
+            }
+        }
+    }
+
+    private void discover(URI uri, FrontierUrl.PriorityClass priorityClass, int depth) {
+        if (seen.add(uri.toString())) {
+            urlsDiscovered++;
+            frontier.add(uri, priorityClass, depth, score(uri));
+        }
+    }
+
+    /**
+     * Score a URL by the number of its query parameters, the fewer the better: the parameters of session ids, sort
+     * orders or tracking mostly lead to variants of pages reachable without them.
+     */
+    static double score(URI uri) {
+        String query = uri.getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return 1;
+        }
+        int parameters = 1;
+        for (int i = 0; i < query.length(); i++) {
+            if (query.charAt(i) == '&') {
+                parameters++;
+            }
+        }
+        return 1.0 / (1 + parameters);
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public synchronized int getPagesFetched() {
+        return pagesFetched;
+    }
+
+    public synchronized int getPagesFailed() {
+        return pagesFailed;
+    }
+
+    /**
+     * Number of pages fetched whose links were not followed, as they were near-duplicates of a page fetched before.
+     */
+    public synchronized int getPagesDuplicate() {
+        return pagesDuplicate;
+    }
+
+    public synchronized long getUrlsDiscovered() {
+        return urlsDiscovered;
+    }
+
+    /**
+     * Why the crawl failed, or {@code null} if it did not.
+     */
+    public synchronized String getError() {
+        return error;
+    }
+
+    /**
+     * When the crawl finished, or {@code null} if it is running.
+     */
+    public synchronized Instant getFinishedAt() {
+        return finishedAt;
+    }
+}
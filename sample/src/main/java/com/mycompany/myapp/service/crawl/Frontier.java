@@ -0,0 +1,150 @@
+package com.mycompany.myapp.service.crawl;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * The URLs a crawl has left to fetch, queued per host so that a host is fetched politely: one request at a time, and
+ * no sooner than the politeness delay after its previous response.
+ * <p>
+ * Each host has its own queue, ordered by {@link FrontierUrl} priority, and the time its next URL may be fetched at.
+ * The hosts with queued URLs and no request in flight are kept in a ready heap ordered by that time, so taking the next
+ * URL only looks at the top of the heap: a delayed host never blocks the others, and no host is scanned while it waits.
+ * <p>
+ * A frontier is not thread-safe: the crawl owning it serializes its calls. The URLs are expected to be normalized, and
+ * each added once.
+ */
+public final class Frontier {
+
+    private final long delayNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final FrontierMetrics metrics;
+
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+
+    private final PriorityQueue<HostQueue> readyHosts = new PriorityQueue<>((a, b) -> Long.compare(a.nextFetchAt - b.nextFetchAt, 0));
+
+    private long sequence;
+
+    private int size;
+
+    /**
+     * @param politenessDelay the minimum delay between a response from a host and the next request to it.
+     * @param nanoClock the clock of the politeness delays, as {@link System#nanoTime()}.
+     * @param metrics the meters updated by the frontier.
+     */
+    public Frontier(Duration politenessDelay, LongSupplier nanoClock, FrontierMetrics metrics) {
+        this.delayNanos = politenessDelay.toNanos();
+        this.nanoClock = nanoClock;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Queue a URL for its host.
+     */
+    public void add(URI uri, FrontierUrl.PriorityClass priorityClass, int depth, double score) {
+        long now = nanoClock.getAsLong();
+        HostQueue host = hosts.computeIfAbsent(uri.getHost(), key -> new HostQueue(now));
+        boolean wasEmpty = host.urls.isEmpty();
+        host.urls.add(new FrontierUrl(uri, priorityClass, depth, score, sequence++, now));
+        size++;
+        metrics.queued(1, wasEmpty ? 1 : 0);
+        if (wasEmpty && !host.busy) {
+            readyHosts.add(host);
+        }
+    }
+
+    /**
+     * Take the URL to fetch next: the most urgent one of the host whose politeness delay ended first, if it is over.
+     * Its host has no other URL taken until the URL is {@linkplain #release released}.
+     *
+     * @return the URL, or {@code null} if no host may be fetched now.
+     */
+    public FrontierUrl poll() {
+        HostQueue host = readyHosts.peek();
+        long now = nanoClock.getAsLong();
+        if (host == null || host.nextFetchAt - now > 0) {
+            return null;
+        }
+        readyHosts.poll();
+        int depth = host.urls.size();
+        FrontierUrl url = host.urls.poll();
+        host.busy = true;
+        size--;
+        metrics.queued(-1, host.urls.isEmpty() ? -1 : 0);
+        metrics.taken(url, depth, now - url.getQueuedAt());
+        return url;
+    }
+
+    /**
+     * Mark the URL as fetched, so that its host may be fetched again once the politeness delay is over.
+     */
+    public void release(FrontierUrl url) {
+        HostQueue host = hosts.get(url.getUri().getHost());
+        host.busy = false;
+        host.nextFetchAt = nanoClock.getAsLong() + delayNanos;
+        if (!host.urls.isEmpty()) {
+            readyHosts.add(host);
+        }
+    }
+
+    /**
+     * Mark the URL as skipped without a request, so that its host may be fetched again right away.
+     */
+    public void skip(FrontierUrl url) {
+        HostQueue host = hosts.get(url.getUri().getHost());
+        host.busy = false;
+        if (!host.urls.isEmpty()) {
+            readyHosts.add(host);
+        }
+    }
+
+    /**
+     * Return how long until a URL may be taken: {@code 0} if one may be taken now, or {@code -1} if none will be until
+     * a URL is added or released.
+     */
+    public long nanosUntilReady() {
+        HostQueue host = readyHosts.peek();
+        return host == null ? -1 : Math.max(0, host.nextFetchAt - nanoClock.getAsLong());
+    }
+
+    /**
+     * Return the number of queued URLs.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Drop every queued URL, once the crawl is over.
+     */
+    public void clear() {
+        metrics.queued(-size, -(int) hosts.values().stream().filter(host -> !host.urls.isEmpty()).count());
+        hosts.clear();
+        readyHosts.clear();
+        size = 0;
+    }
+
+    private static final class HostQueue {
+
+        private final PriorityQueue<FrontierUrl> urls = new PriorityQueue<>();
+
+        private long nextFetchAt;
+
+        private boolean busy;
+
+        private HostQueue(long nextFetchAt) {
+            this.nextFetchAt = nextFetchAt;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.mycompany.myapp.service.crawl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters of the {@link Frontier}s of every crawl run of this instance: the number of queued URLs and of hosts with
+ * queued URLs, the depth of the host queue a URL is taken from, and how long URLs wait, per priority class.
+ */
+public class FrontierMetrics {
+
+    private final AtomicLong queuedUrls = new AtomicLong();
+
+    private final AtomicLong queuedHosts = new AtomicLong();
+
+    private final DistributionSummary hostQueueDepth;
+
+    private final Map<FrontierUrl.PriorityClass, Timer> waits = new EnumMap<>(FrontierUrl.PriorityClass.class);
+
+    public FrontierMetrics(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("crawl.frontier.urls", queuedUrls);
+        meterRegistry.gauge("crawl.frontier.hosts", queuedHosts);
+        this.hostQueueDepth =
+            DistributionSummary
+                .builder("crawl.frontier.host.queue.depth")
+                .description("Number of URLs queued for a host when one of them is fetched")
+                .register(meterRegistry);
+        for (FrontierUrl.PriorityClass priorityClass : FrontierUrl.PriorityClass.values()) {
+            waits.put(
+                priorityClass,
+                Timer
+                    .builder("crawl.frontier.wait")
+                    .description("Time from the queuing of a URL to its fetch")
+                    .tag("priority", priorityClass.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry)
+            );
+        }
+    }
+
+    void queued(int urls, int hosts) {
+        queuedUrls.addAndGet(urls);
+        queuedHosts.addAndGet(hosts);
+    }
+
+    void taken(FrontierUrl url, int hostQueueDepth, long waitNanos) {
+        this.hostQueueDepth.record(hostQueueDepth);
+        waits.get(url.getPriorityClass()).record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+}
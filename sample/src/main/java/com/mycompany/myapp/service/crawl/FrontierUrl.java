@@ -0,0 +1,82 @@
+package com.mycompany.myapp.service.crawl;
+
+import java.net.URI;
+
+/**
+ * A URL waiting in the {@link Frontier}, with its priority: its class first, then the shallowest, then the highest score,
+ * then the first queued.
+ */
+public final class FrontierUrl implements Comparable<FrontierUrl> {
+
+    /**
+     * The priority classes, the most urgent first.
+     */
+    public enum PriorityClass {
+        SEED,
+        LINK,
+    }
+
+    private final URI uri;
+
+    private final PriorityClass priorityClass;
+
+    private final int depth;
+
+    private final double score;
+
+    private final long sequence;
+
+    private final long queuedAt;
+
+    FrontierUrl(URI uri, PriorityClass priorityClass, int depth, double score, long sequence, long queuedAt) {
+        this.uri = uri;
+        this.priorityClass = priorityClass;
+        this.depth = depth;
+        this.score = score;
+        this.sequence = sequence;
+        this.queuedAt = queuedAt;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public PriorityClass getPriorityClass() {
+        return priorityClass;
+    }
+
+    /**
+     * Number of links followed from the seed to reach the URL.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * When the URL was queued, in the nanoseconds of the frontier clock.
+     */
+    long getQueuedAt() {
+        return queuedAt;
+    }
+
+    @Override
+    public int compareTo(FrontierUrl other) {
+        int result = priorityClass.compareTo(other.priorityClass);
+        if (result == 0) {
+            result = Integer.compare(depth, other.depth);
+        }
+        if (result == 0) {
+            result = Double.compare(other.score, score);
+        }
+        return result != 0 ? result : Long.compare(sequence, other.sequence);
+    }
+
+    @Override
+    public String toString() {
+        return "FrontierUrl{uri=" + uri + ", priorityClass=" + priorityClass + ", depth=" + depth + ", score=" + score + "}";
+    }
+}
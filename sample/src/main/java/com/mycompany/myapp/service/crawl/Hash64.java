@@ -0,0 +1,35 @@
+package com.mycompany.myapp.service.crawl;
+
+/**
+ * 64-bit hashing of the crawled text: FNV-1a over the characters, then the finalizer of MurmurHash3 to spread the bits.
+ * The hash may be computed at once, or fed a character at a time while the text is scanned.
+ */
+final class Hash64 {
+
+    static final long SEED = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+
+    private Hash64() {}
+
+    static long hash(CharSequence text) {
+        long hash = SEED;
+        for (int i = 0; i < text.length(); i++) {
+            hash = update(hash, text.charAt(i));
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Feed a character to a hash started from {@link #SEED}, to be {@linkplain #mix mixed} once complete.
+     */
+    static long update(long hash, char c) {
+        return (hash ^ c) * PRIME;
+    }
+
+    static long mix(long hash) {
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
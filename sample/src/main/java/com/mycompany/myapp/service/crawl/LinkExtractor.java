@@ -0,0 +1,89 @@
+package com.mycompany.myapp.service.crawl;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the out-links of HTML pages, and normalizes URIs so that a page has a single form.
+ */
+public final class LinkExtractor {
+
+    private static final Pattern ANCHOR_HREF = Pattern.compile(
+        "<a\\s[^>]*?\\bhref\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s\"'>]+))",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    private LinkExtractor() {}
+
+    /**
+     * Return the normalized http and https targets of the anchors of the page, in document order, possibly repeated.
+     *
+     * @param base the URI the page was fetched from, which relative links are resolved against.
+     * @param html the content of the page.
+     * @return the out-links of the page.
+     */
+    public static List<URI> extract(URI base, CharSequence html) {
+        List<URI> links = new ArrayList<>();
+        Matcher matcher = ANCHOR_HREF.matcher(html);
+        while (matcher.find()) {
+            String href = matcher.group(1) != null ? matcher.group(1) : matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+            URI link = resolve(base, href.strip().replace("&amp;", "&"));
+            if (link != null) {
+                links.add(link);
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Resolve a reference against a URI, then normalize it.
+     *
+     * @return the normalized URI, or {@code null} if it is not an http or https URI.
+     */
+    static URI resolve(URI base, String href) {
+        if (href.isEmpty() || href.startsWith("#")) {
+            return null;
+        }
+        try {
+            return normalize(base.resolve(href));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Normalize an absolute URI: lower case scheme and host, no user info, default port nor fragment, and {@code /} as
+     * the path of the root.
+     *
+     * @param uri the URI to normalize.
+     * @return the normalized URI, or {@code null} if it is not an absolute http or https URI.
+     */
+    public static URI normalize(URI uri) {
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return null;
+        }
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        int defaultPort;
+        if ("http".equals(scheme)) {
+            defaultPort = 80;
+        } else if ("https".equals(scheme)) {
+            defaultPort = 443;
+        } else {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder(scheme).append("://").append(uri.getHost().toLowerCase(Locale.ROOT));
+        if (uri.getPort() != -1 && uri.getPort() != defaultPort) {
+            normalized.append(':').append(uri.getPort());
+        }
+        String path = uri.getRawPath();
+        normalized.append(path == null || path.isEmpty() ? "/" : path);
+        if (uri.getRawQuery() != null) {
+            normalized.append('?').append(uri.getRawQuery());
+        }
+        return URI.create(normalized.toString());
+    }
+}
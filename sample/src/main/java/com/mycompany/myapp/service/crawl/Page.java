@@ -0,0 +1,64 @@
+package com.mycompany.myapp.service.crawl;
+
+import java.net.URI;
+
+/**
+ * A fetched page: its URI, its status code, the target of a redirect, and its content if it is a successful response
+ * of the type requested.
+ */
+public final class Page {
+
+    private final URI uri;
+
+    private final int statusCode;
+
+    private final String content;
+
+    private final URI location;
+
+    public Page(URI uri, int statusCode, String content) {
+        this(uri, statusCode, content, null);
+    }
+
+    public Page(URI uri, int statusCode, String content, URI location) {
+        this.uri = uri;
+        this.statusCode = statusCode;
+        this.content = content;
+        this.location = location;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isSuccessful() {
+        return statusCode / 100 == 2;
+    }
+
+    /**
+     * Whether the response is a redirect to a valid http or https URI.
+     */
+    public boolean isRedirect() {
+        return statusCode / 100 == 3 && location != null;
+    }
+
+    /**
+     * The normalized target of a redirect, or {@code null} if the response is not a redirect or its target is not an
+     * http or https URI.
+     */
+    public URI getLocation() {
+        return location;
+    }
+
+    /**
+     * The decoded content, truncated to the maximum size, or {@code null} if the response is not a successful one of the
+     * type requested.
+     */
+    public String getContent() {
+        return content;
+    }
+}
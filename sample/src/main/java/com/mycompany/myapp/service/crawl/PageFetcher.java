@@ -0,0 +1,276 @@
+package com.mycompany.myapp.service.crawl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.MediaType;
+
+/**
+ * Non-blocking HTTP fetcher shared by every crawl run. At most {@code maxInFlight} requests are sent at once: further
+ * fetches wait in a queue, and are sent as responses come back, so no thread ever waits for a permit.
+ * <p>
+ * Only the content of successful responses of the requested type is read, up to a maximum size: HTML up to
+ * {@code maxPageSize} bytes for pages, any type for text files. Other responses are discarded as they are received.
+ * <p>
+ * The HTTP client must not follow redirects: the redirects of pages are returned, for the crawl to queue their target
+ * like a link, while those of text files are followed here, up to {@value #MAX_TEXT_REDIRECTS} in a row, as RFC 9309
+ * asks for {@code robots.txt}.
+ */
+public class PageFetcher {
+
+    static final int MAX_TEXT_REDIRECTS = 5;
+
+    private final HttpClient httpClient;
+
+    private final int maxInFlight;
+
+    private final Duration requestTimeout;
+
+    private final int maxPageSize;
+
+    private final String userAgent;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Queue<PendingFetch> pending = new ConcurrentLinkedQueue<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public PageFetcher(
+        HttpClient httpClient,
+        int maxInFlight,
+        Duration requestTimeout,
+        int maxPageSize,
+        String userAgent,
+        MeterRegistry meterRegistry
+    ) {
+        this.httpClient = httpClient;
+        this.maxInFlight = maxInFlight;
+        this.requestTimeout = requestTimeout;
+        this.maxPageSize = maxPageSize;
+        this.userAgent = userAgent;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("crawl.fetcher.in-flight", inFlight);
+        meterRegistry.gaugeCollectionSize("crawl.fetcher.pending", Tags.empty(), pending);
+    }
+
+    /**
+     * Fetch the page, once fewer than {@code maxInFlight} requests are in flight.
+     *
+     * @param uri the absolute http or https URI of the page.
+     * @return the page, or an exceptionally completed future if it could not be fetched.
+     */
+    public CompletableFuture<Page> fetch(URI uri) {
+        return enqueue(new PendingFetch(uri, true, maxPageSize, 0));
+    }
+
+    /**
+     * Fetch a text file, such as {@code robots.txt}, whatever the type it is served as, once fewer than
+     * {@code maxInFlight} requests are in flight. Redirects are followed, up to {@value #MAX_TEXT_REDIRECTS} in a row:
+     * the last one is returned if there are more.
+     *
+     * @param uri the absolute http or https URI of the file.
+     * @param maxSize the number of bytes read, the rest being ignored.
+     * @return the file, or an exceptionally completed future if it could not be fetched.
+     */
+    public CompletableFuture<Page> fetchText(URI uri, int maxSize) {
+        return enqueue(new PendingFetch(uri, false, maxSize, 0));
+    }
+
+    private CompletableFuture<Page> enqueue(PendingFetch fetch) {
+        pending.add(fetch);
+        drain();
+        return fetch.result;
+    }
+
+    /**
+     * Send the pending fetches while permits are left. A permit released concurrently is either seen by the loop, or
+     * followed by another drain from the thread which released it.
+     */
+    private void drain() {
+        while (!pending.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            PendingFetch fetch = pending.poll();
+            if (fetch == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            send(fetch);
+        }
+    }
+
+    private void send(PendingFetch fetch) {
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            HttpRequest request = HttpRequest
+                .newBuilder(fetch.uri)
+                .timeout(requestTimeout)
+                .header("User-Agent", userAgent)
+                .header("Accept", fetch.html ? "text/html,application/xhtml+xml;q=0.9,*/*;q=0.1" : "text/plain,*/*;q=0.1")
+                .GET()
+                .build();
+            response = httpClient.sendAsync(request, responseInfo -> bodySubscriber(fetch, responseInfo));
+        } catch (IllegalArgumentException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((received, error) -> {
+            inFlight.decrementAndGet();
+            drain();
+            String outcome = error != null ? "ERROR" : (received.statusCode() / 100) + "xx";
+            Timer
+                .builder("crawl.fetches")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (error != null) {
+                fetch.result.completeExceptionally(error);
+                return;
+            }
+            Page page = new Page(received.uri(), received.statusCode(), received.body(), location(received));
+            if (!fetch.html && page.isRedirect() && fetch.redirects < MAX_TEXT_REDIRECTS) {
+                enqueue(new PendingFetch(page.getLocation(), false, fetch.maxSize, fetch.redirects + 1))
+                    .whenComplete((redirected, redirectError) -> {
+                        if (redirectError != null) {
+                            fetch.result.completeExceptionally(redirectError);
+                        } else {
+                            fetch.result.complete(redirected);
+                        }
+                    });
+            } else {
+                fetch.result.complete(page);
+            }
+        });
+    }
+
+    private static URI location(HttpResponse<?> response) {
+        if (response.statusCode() / 100 != 3) {
+            return null;
+        }
+        return response.headers().firstValue("Location").map(location -> LinkExtractor.resolve(response.uri(), location)).orElse(null);
+    }
+
+    private static HttpResponse.BodySubscriber<String> bodySubscriber(PendingFetch fetch, HttpResponse.ResponseInfo responseInfo) {
+        MediaType contentType = contentType(responseInfo.headers());
+        if (responseInfo.statusCode() / 100 != 2 || (fetch.html && (contentType == null || !isHtml(contentType)))) {
+            return HttpResponse.BodySubscribers.replacing(null);
+        }
+        Charset charset = contentType != null && contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        return new TruncatingBodySubscriber(fetch.maxSize, charset);
+    }
+
+    private static MediaType contentType(HttpHeaders headers) {
+        try {
+            return headers.firstValue("Content-Type").map(MediaType::parseMediaType).orElse(null);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isHtml(MediaType contentType) {
+        return MediaType.TEXT_HTML.includes(contentType) || MediaType.APPLICATION_XHTML_XML.includes(contentType);
+    }
+
+    private static final class PendingFetch {
+
+        private final URI uri;
+
+        private final boolean html;
+
+        private final int maxSize;
+
+        private final int redirects;
+
+        private final CompletableFuture<Page> result = new CompletableFuture<>();
+
+        private PendingFetch(URI uri, boolean html, int maxSize, int redirects) {
+            this.uri = uri;
+            this.html = html;
+            this.maxSize = maxSize;
+            this.redirects = redirects;
+        }
+    }
+
+    /**
+     * Reads a body up to a maximum size, then cancels the rest of it, decoding what was read.
+     */
+    private static final class TruncatingBodySubscriber implements HttpResponse.BodySubscriber<String> {
+
+        private final int maxSize;
+
+        private final Charset charset;
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        private final CompletableFuture<String> body = new CompletableFuture<>();
+
+        private Flow.Subscription subscription;
+
+        private TruncatingBodySubscriber(int maxSize, Charset charset) {
+            this.maxSize = maxSize;
+            this.charset = charset;
+        }
+
+        @Override
+        public CompletionStage<String> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (body.isDone()) {
+                return;
+            }
+            for (ByteBuffer buffer : buffers) {
+                int length = Math.min(buffer.remaining(), maxSize - content.size());
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                content.write(bytes, 0, length);
+            }
+            if (content.size() >= maxSize) {
+                subscription.cancel();
+                onComplete();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            body.complete(content.toString(charset));
+        }
+    }
+}
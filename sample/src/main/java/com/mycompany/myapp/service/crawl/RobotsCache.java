@@ -0,0 +1,152 @@
+package com.mycompany.myapp.service.crawl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@code robots.txt} rules of the hosts crawled by this instance, shared by every crawl run.
+ * <p>
+ * The rules of an origin are fetched once, through the {@link PageFetcher}: the callers asking for them while they are
+ * fetched share the same future. They are then cached for {@code timeToLive}, or for {@code errorTimeToLive} if
+ * {@code robots.txt} was answered with an error or could not be fetched: a 4xx response, or more redirects than the
+ * fetcher follows, allows everything, while a 5xx response or a failure disallows everything until the rules are
+ * fetched again, as RFC 9309 recommends.
+ */
+public class RobotsCache {
+
+    /**
+     * Number of bytes of {@code robots.txt} parsed, the minimum RFC 9309 requires.
+     */
+    static final int MAX_SIZE = 500 * 1024;
+
+    private final Logger log = LoggerFactory.getLogger(RobotsCache.class);
+
+    private final PageFetcher fetcher;
+
+    private final String userAgent;
+
+    private final AsyncCache<String, Entry> cache;
+
+    /**
+     * @param fetcher the fetcher of {@code robots.txt}.
+     * @param userAgent the user agent of the crawler.
+     * @param timeToLive how long the rules of a fetched {@code robots.txt} are used.
+     * @param errorTimeToLive how long the rules of a {@code robots.txt} answered with an error or not fetched are used.
+     * @param maxOrigins the number of origins whose rules are kept.
+     * @param ticker the clock of the times to live.
+     * @param meterRegistry the registry of the cache meters.
+     */
+    public RobotsCache(
+        PageFetcher fetcher,
+        String userAgent,
+        Duration timeToLive,
+        Duration errorTimeToLive,
+        long maxOrigins,
+        Ticker ticker,
+        MeterRegistry meterRegistry
+    ) {
+        this.fetcher = fetcher;
+        this.userAgent = userAgent;
+        this.cache =
+            Caffeine
+                .newBuilder()
+                .maximumSize(maxOrigins)
+                .expireAfter(new EntryExpiry(timeToLive.toNanos(), errorTimeToLive.toNanos()))
+                .ticker(ticker)
+                // the maintenance is cheap, and keeps the cache deterministic
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "crawl.robots");
+    }
+
+    /**
+     * Get the rules of the origin of the URL, fetching them if they are not cached.
+     *
+     * @param uri the absolute http or https URL, normalized.
+     * @return the rules, never completed exceptionally.
+     */
+    public CompletableFuture<RobotsRules> rules(URI uri) {
+        return cache.get(origin(uri), (origin, executor) -> fetch(origin)).thenApply(entry -> entry.rules);
+    }
+
+    /**
+     * Get the rules of the origin of the URL if they are cached, without fetching them.
+     *
+     * @return the rules, or {@code null} if they are not cached or still fetched.
+     */
+    public RobotsRules getIfPresent(URI uri) {
+        CompletableFuture<Entry> entry = cache.getIfPresent(origin(uri));
+        return entry != null && entry.isDone() ? entry.join().rules : null;
+    }
+
+    private static String origin(URI uri) {
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+
+    private CompletableFuture<Entry> fetch(String origin) {
+        log.debug("Fetching {}/robots.txt", origin);
+        return fetcher
+            .fetchText(URI.create(origin + "/robots.txt"), MAX_SIZE)
+            .handle((page, failure) -> {
+                if (failure != null) {
+                    log.debug("Could not fetch {}/robots.txt: {}", origin, failure.toString());
+                    return new Entry(RobotsRules.DISALLOW_ALL, true);
+                }
+                if (page.isSuccessful()) {
+                    return new Entry(RobotsRules.parse(page.getContent(), userAgent), false);
+                }
+                int statusClass = page.getStatusCode() / 100;
+                boolean unavailable = statusClass == 4 || statusClass == 3;
+                return new Entry(unavailable ? RobotsRules.ALLOW_ALL : RobotsRules.DISALLOW_ALL, true);
+            });
+    }
+
+    private static final class Entry {
+
+        private final RobotsRules rules;
+
+        private final boolean error;
+
+        private Entry(RobotsRules rules, boolean error) {
+            this.rules = rules;
+            this.error = error;
+        }
+    }
+
+    private static final class EntryExpiry implements Expiry<String, Entry> {
+
+        private final long timeToLive;
+
+        private final long errorTimeToLive;
+
+        private EntryExpiry(long timeToLive, long errorTimeToLive) {
+            this.timeToLive = timeToLive;
+            this.errorTimeToLive = errorTimeToLive;
+        }
+
+        @Override
+        public long expireAfterCreate(String origin, Entry entry, long currentTime) {
+            return entry.error ? errorTimeToLive : timeToLive;
+        }
+
+        @Override
+        public long expireAfterUpdate(String origin, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(origin, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String origin, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
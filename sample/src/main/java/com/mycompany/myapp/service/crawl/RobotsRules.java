@@ -0,0 +1,191 @@
+package com.mycompany.myapp.service.crawl;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The rules of a {@code robots.txt} file for a crawler, as defined by RFC 9309, compiled to check URLs without
+ * allocating.
+ * <p>
+ * The rules are those of the groups naming the product token of the crawler, or else of the groups for {@code *}. A
+ * URL is allowed unless its path and query match a {@code Disallow} rule, and no longer {@code Allow} rule; an
+ * {@code Allow} rule wins over a {@code Disallow} rule of the same length. In a rule, {@code *} matches any sequence of
+ * characters and a final {@code $} the end of the URL; otherwise a rule matches the start of the URL. Percent-encoded
+ * characters are compared as they are written.
+ */
+public final class RobotsRules {
+
+    /**
+     * The rules when {@code robots.txt} does not exist: everything is allowed.
+     */
+    public static final RobotsRules ALLOW_ALL = new RobotsRules(List.of());
+
+    /**
+     * The rules when {@code robots.txt} cannot be fetched: nothing is allowed.
+     */
+    public static final RobotsRules DISALLOW_ALL = new RobotsRules(List.of(new Rule("/", false)));
+
+    private static final String ROBOTS_PATH = "/robots.txt";
+
+    private final char[][] patterns;
+
+    private final boolean[] anchored;
+
+    private final boolean[] allows;
+
+    /**
+     * @param rules the rules, the first matching one deciding.
+     */
+    private RobotsRules(List<Rule> rules) {
+        this.patterns = new char[rules.size()][];
+        this.anchored = new boolean[rules.size()];
+        this.allows = new boolean[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            String pattern = rules.get(i).pattern;
+            anchored[i] = pattern.endsWith("$");
+            patterns[i] = (anchored[i] ? pattern.substring(0, pattern.length() - 1) : pattern).toCharArray();
+            allows[i] = rules.get(i).allow;
+        }
+    }
+
+    /**
+     * Parse a {@code robots.txt} file.
+     *
+     * @param content the content of the file.
+     * @param userAgent the user agent of the crawler, whose product token is looked for.
+     */
+    public static RobotsRules parse(String content, String userAgent) {
+        String productToken = productToken(userAgent);
+        List<Rule> ownRules = new ArrayList<>();
+        List<Rule> defaultRules = new ArrayList<>();
+        boolean ownGroup = false;
+        boolean ownGroupFound = false;
+        boolean defaultGroup = false;
+        boolean inRules = false;
+        for (String line : content.split("\r\n|\r|\n")) {
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String key = line.substring(0, colon).strip().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).strip();
+            if (key.equals("user-agent")) {
+                if (inRules) {
+                    // a new group starts
+                    ownGroup = false;
+                    defaultGroup = false;
+                    inRules = false;
+                }
+                ownGroup |= value.equalsIgnoreCase(productToken);
+                ownGroupFound |= ownGroup;
+                defaultGroup |= value.equals("*");
+            } else if (key.equals("allow") || key.equals("disallow")) {
+                inRules = true;
+                if (!value.isEmpty()) {
+                    Rule rule = new Rule(value, key.equals("allow"));
+                    if (ownGroup) {
+                        ownRules.add(rule);
+                    }
+                    if (defaultGroup) {
+                        defaultRules.add(rule);
+                    }
+                }
+            }
+        }
+        List<Rule> rules = ownGroupFound ? ownRules : defaultRules;
+        if (rules.isEmpty()) {
+            return ALLOW_ALL;
+        }
+        // the longest rule first, allowing first on a tie
+        rules.sort(Comparator.comparingInt((Rule rule) -> -rule.pattern.length()).thenComparing(rule -> !rule.allow));
+        return new RobotsRules(rules);
+    }
+
+    /**
+     * Whether the crawler may fetch the URL.
+     */
+    public boolean isAllowed(URI uri) {
+        String path = uri.getRawPath();
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        }
+        String query = uri.getRawQuery();
+        if (query == null && path.equals(ROBOTS_PATH)) {
+            return true;
+        }
+        int length = query == null ? path.length() : path.length() + 1 + query.length();
+        for (int i = 0; i < patterns.length; i++) {
+            if (matches(patterns[i], anchored[i], path, query, length)) {
+                return allows[i];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Match a pattern against the path and query of a URL, backtracking to the last {@code *} on a mismatch.
+     */
+    private static boolean matches(char[] pattern, boolean anchored, String path, String query, int length) {
+        int i = 0;
+        int j = 0;
+        int star = -1;
+        int starAt = 0;
+        while (true) {
+            if (j == pattern.length) {
+                if (!anchored || i == length) {
+                    return true;
+                }
+            } else if (pattern[j] == '*') {
+                star = j++;
+                starAt = i;
+                continue;
+            } else if (i < length && pattern[j] == charAt(path, query, i)) {
+                i++;
+                j++;
+                continue;
+            }
+            if (star < 0 || starAt >= length) {
+                return false;
+            }
+            j = star + 1;
+            i = ++starAt;
+        }
+    }
+
+    private static char charAt(String path, String query, int i) {
+        if (i < path.length()) {
+            return path.charAt(i);
+        }
+        return i == path.length() ? '?' : query.charAt(i - path.length() - 1);
+    }
+
+    /**
+     * Return the product token of a user agent, as {@code sample-crawler} of {@code sample-crawler/1.0 (+https://...)}.
+     */
+    static String productToken(String userAgent) {
+        int end = 0;
+        while (end < userAgent.length() && userAgent.charAt(end) != '/' && !Character.isWhitespace(userAgent.charAt(end))) {
+            end++;
+        }
+        return userAgent.substring(0, end);
+    }
+
+    private static final class Rule {
+
+        private final String pattern;
+
+        private final boolean allow;
+
+        private Rule(String pattern, boolean allow) {
+            this.pattern = pattern;
+            this.allow = allow;
+        }
+    }
+}
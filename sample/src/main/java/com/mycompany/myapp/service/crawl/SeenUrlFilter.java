@@ -0,0 +1,282 @@
+package com.mycompany.myapp.service.crawl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The URLs a crawl has seen, as a scalable Bloom filter over 64-bit URL hashes kept out of the heap: a URL costs about
+ * 10 bits at a false positive rate of 1%, whatever its length.
+ * <p>
+ * The filter is a list of slices, each a Bloom filter sized for a number of URLs. Once the last slice is full, a new
+ * one twice as large and with half its false positive rate is added, so the false positive rate of the whole filter
+ * stays under the requested one however many URLs are added. A false positive makes the crawl skip a URL it has not
+ * seen; a URL it has seen is never reported as new.
+ * <p>
+ * The slices are either memory-mapped files in a directory, deleted once the filter is closed, or direct buffers. A
+ * filter is not thread-safe: the crawl owning it serializes its calls, and only its fill ratio and size are read from
+ * other threads.
+ */
+public final class SeenUrlFilter implements AutoCloseable {
+
+    /**
+     * Ratio of the capacity of a slice to the one of the previous slice.
+     */
+    static final int GROWTH = 2;
+
+    /**
+     * Ratio of the false positive rate of a slice to the one of the previous slice.
+     */
+    static final double TIGHTENING = 0.5;
+
+    private static final int MAGIC = 0x5345454e;
+
+    // magic, hashes, bits, capacity, count, bits set
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8 + 8;
+
+    private static final long MAX_BITS = (long) (Integer.MAX_VALUE - HEADER_SIZE) / Long.BYTES * Long.SIZE;
+
+    private static final double LN2_SQUARED = Math.log(2) * Math.log(2);
+
+    private final Path directory;
+
+    private final Consumer<SeenUrlFilter> onClose;
+
+    private final List<Slice> slices = new ArrayList<>();
+
+    private volatile Slice last;
+
+    private volatile long sizeInBytes;
+
+    private long count;
+
+    private boolean closed;
+
+    /**
+     * Create a filter.
+     *
+     * @param directory the directory of the slice files, which must not hold a filter, or {@code null} to hold the
+     * slices in direct buffers.
+     * @param initialCapacity the number of URLs of the first slice.
+     * @param falsePositiveRate the rate of the new URLs reported as seen.
+     * @param onClose called once the filter is closed.
+     * @throws IllegalStateException if the directory holds a filter already.
+     */
+    public SeenUrlFilter(Path directory, long initialCapacity, double falsePositiveRate, Consumer<SeenUrlFilter> onClose) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("The initial capacity must be positive: " + initialCapacity);
+        }
+        this.directory = directory;
+        this.onClose = onClose;
+        if (directory != null && Files.exists(sliceFile(0))) {
+            throw new IllegalStateException(directory + " already holds a seen URL filter");
+        }
+        // the rates of the slices add up to the requested one
+        addSlice(newSlice(0, initialCapacity, falsePositiveRate * (1 - TIGHTENING)));
+    }
+
+    /**
+     * Add a URL.
+     *
+     * @return {@code true} if the URL was not seen, {@code false} if it was, or on a false positive.
+     */
+    public boolean add(CharSequence url) {
+        if (closed) {
+            throw new IllegalStateException("The filter is closed");
+        }
+        long hash = Hash64.hash(url);
+        long hash2 = Hash64.mix(hash + 0x9e3779b97f4a7c15L) | 1;
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash, hash2)) {
+                return false;
+            }
+        }
+        if (last.count >= last.capacity) {
+            addSlice(newSlice(slices.size(), last.capacity * GROWTH, last.falsePositiveRate * TIGHTENING));
+        }
+        last.put(hash, hash2);
+        count++;
+        return true;
+    }
+
+    /**
+     * Whether the URL was seen, or is a false positive.
+     */
+    public boolean mightContain(CharSequence url) {
+        long hash = Hash64.hash(url);
+        long hash2 = Hash64.mix(hash + 0x9e3779b97f4a7c15L) | 1;
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the number of URLs added.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public int getSliceCount() {
+        return slices.size();
+    }
+
+    /**
+     * Return the share of the bits set in the last slice, which is full at about one half.
+     */
+    public double getFillRatio() {
+        Slice slice = last;
+        return (double) slice.bitsSet / slice.bits;
+    }
+
+    /**
+     * Return the size of the slices.
+     */
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Delete the files of the slices. The filter may not be added to anymore.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        onClose.accept(this);
+        if (directory != null) {
+            try {
+                for (Slice slice : slices) {
+                    Files.deleteIfExists(slice.file);
+                }
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not delete the seen URL filter in " + directory, e);
+            }
+        }
+    }
+
+    private void addSlice(Slice slice) {
+        slices.add(slice);
+        last = slice;
+        sizeInBytes += slice.buffer.capacity();
+    }
+
+    private Slice newSlice(int index, long capacity, double rate) {
+        long bits = (long) Math.ceil(capacity * -Math.log(rate) / LN2_SQUARED);
+        if (bits > MAX_BITS) {
+            bits = MAX_BITS;
+            capacity = (long) (bits * LN2_SQUARED / -Math.log(rate));
+        }
+        bits = (bits + Long.SIZE - 1) / Long.SIZE * Long.SIZE;
+        int hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        int size = HEADER_SIZE + (int) (bits / Byte.SIZE);
+        ByteBuffer buffer;
+        Path file = null;
+        if (directory == null) {
+            buffer = ByteBuffer.allocateDirect(size);
+        } else {
+            try {
+                Files.createDirectories(directory);
+                file = sliceFile(index);
+                buffer = map(file, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create the seen URL filter in " + directory, e);
+            }
+        }
+        buffer.putInt(0, MAGIC).putInt(4, hashes).putLong(8, bits).putLong(16, capacity);
+        return new Slice(file, buffer, rate);
+    }
+
+    private Path sliceFile(int index) {
+        return directory.resolve("slice-" + index + ".bloom");
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        // the mapping outlives the channel
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * A Bloom filter of a fixed size. Its bit positions are derived from two hashes, as {@code hash + i * hash2}. The
+     * header keeps its sizing and counters.
+     */
+    private static final class Slice {
+
+        private final Path file;
+
+        private final ByteBuffer buffer;
+
+        private final double falsePositiveRate;
+
+        private final int hashes;
+
+        private final long bits;
+
+        private final long capacity;
+
+        private long count;
+
+        private long bitsSet;
+
+        private Slice(Path file, ByteBuffer buffer, double falsePositiveRate) {
+            this.file = file;
+            this.buffer = buffer;
+            this.falsePositiveRate = falsePositiveRate;
+            this.hashes = buffer.getInt(4);
+            this.bits = buffer.getLong(8);
+            this.capacity = buffer.getLong(16);
+            this.count = buffer.getLong(24);
+            this.bitsSet = buffer.getLong(32);
+        }
+
+        private boolean mightContain(long hash, long hash2) {
+            long combined = hash;
+            for (int i = 0; i < hashes; i++, combined += hash2) {
+                long bit = Long.remainderUnsigned(combined, bits);
+                if ((buffer.getLong(offset(bit)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long hash, long hash2) {
+            long combined = hash;
+            for (int i = 0; i < hashes; i++, combined += hash2) {
+                long bit = Long.remainderUnsigned(combined, bits);
+                int offset = offset(bit);
+                long word = buffer.getLong(offset);
+                long mask = 1L << bit;
+                if ((word & mask) == 0) {
+                    buffer.putLong(offset, word | mask);
+                    bitsSet++;
+                }
+            }
+            count++;
+            buffer.putLong(24, count).putLong(32, bitsSet);
+        }
+
+        private static int offset(long bit) {
+            return HEADER_SIZE + (int) (bit >>> 6) * Long.BYTES;
+        }
+    }
+}
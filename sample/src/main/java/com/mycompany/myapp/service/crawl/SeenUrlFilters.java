@@ -0,0 +1,123 @@
+package com.mycompany.myapp.service.crawl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Creates the {@link SeenUrlFilter}s of the crawl runs of this instance, and meters them.
+ * <p>
+ * The filter of a run is sized from its fetch budget: a fetched page is expected to link to {@code urlsPerPage} URLs
+ * not seen yet. A run without budget starts from {@code initialCapacity}. Either way, the filter grows if more URLs
+ * are seen than expected.
+ * <p>
+ * The files of a filter are deleted once its run finishes. Those of the runs an instance was running when it stopped
+ * are left over, and deleted by {@link #deleteLeftOverFilters()} as the instance starts again.
+ */
+public class SeenUrlFilters {
+
+    private final Path directory;
+
+    private final double falsePositiveRate;
+
+    private final int urlsPerPage;
+
+    private final long initialCapacity;
+
+    private final Set<SeenUrlFilter> openFilters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param directory the directory of the filter files, each run in its own subdirectory, or {@code null} to hold the
+     * filters in direct buffers.
+     * @param falsePositiveRate the rate of the new URLs reported as seen.
+     * @param urlsPerPage the number of new URLs expected per fetched page.
+     * @param initialCapacity the number of URLs the filter of a run without budget is first sized for.
+     * @param meterRegistry the registry of the meters of the filters.
+     */
+    public SeenUrlFilters(Path directory, double falsePositiveRate, int urlsPerPage, long initialCapacity, MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.falsePositiveRate = falsePositiveRate;
+        this.urlsPerPage = urlsPerPage;
+        this.initialCapacity = initialCapacity;
+        Gauge
+            .builder("crawl.seen.fill.ratio", openFilters, SeenUrlFilters::maxFillRatio)
+            .description("Highest share of bits set in the last slice of the seen URL filter of a running crawl")
+            .register(meterRegistry);
+        Gauge
+            .builder("crawl.seen.memory", openFilters, SeenUrlFilters::sizeInBytes)
+            .description("Size of the seen URL filters of the running crawls, out of the heap")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Create the filter of a run.
+     *
+     * @param runId the id of the run.
+     * @param budget the maximum number of pages to fetch, or {@code -1} for no maximum.
+     */
+    public SeenUrlFilter create(long runId, int budget) {
+        long capacity = budget < 0 ? initialCapacity : Math.max(1, (budget + 1L) * urlsPerPage);
+        SeenUrlFilter filter = new SeenUrlFilter(
+            directory == null ? null : directory.resolve(Long.toString(runId)),
+            capacity,
+            falsePositiveRate,
+            openFilters::remove
+        );
+        openFilters.add(filter);
+        return filter;
+    }
+
+    /**
+     * Delete the filter files of the runs which were not finished when this instance last stopped, before any run
+     * starts: their crawls are gone, and the files would clash with those of new runs with the same ids.
+     *
+     * @return the number of filters deleted.
+     */
+    public int deleteLeftOverFilters() {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> runDirectories = Files.list(directory)) {
+            List<Path> leftOvers = runDirectories
+                .filter(path -> Files.isDirectory(path) && path.getFileName().toString().matches("\\d+"))
+                .collect(Collectors.toList());
+            for (Path leftOver : leftOvers) {
+                try (Stream<Path> files = Files.walk(leftOver)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                        Files.delete(file);
+                    }
+                }
+            }
+            return leftOvers.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete the seen URL filters left over in " + directory, e);
+        }
+    }
+
+    // the filters are read while their crawls change them: a gauge may be slightly off
+    private static double maxFillRatio(Set<SeenUrlFilter> filters) {
+        double max = 0;
+        for (SeenUrlFilter filter : filters) {
+            max = Math.max(max, filter.getFillRatio());
+        }
+        return max;
+    }
+
+    private static double sizeInBytes(Set<SeenUrlFilter> filters) {
+        long size = 0;
+        for (SeenUrlFilter filter : filters) {
+            size += filter.getSizeInBytes();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,135 @@
+package com.mycompany.myapp.service.crawl;
+
+import java.util.OptionalLong;
+
+/**
+ * 64-bit SimHash fingerprints of HTML pages: pages whose text differs little have fingerprints differing in few bits.
+ * <p>
+ * The text is read in a single pass, without building any string: the markup, and the content of {@code script} and
+ * {@code style} elements, are skipped, and the other characters are split in tokens of letters and digits, lowercased.
+ * Each token is hashed as it is read, and each bit of its hash votes for the same bit of the fingerprint.
+ */
+public final class SimHash {
+
+    private static final char[] SCRIPT = "script".toCharArray();
+
+    private static final char[] STYLE = "style".toCharArray();
+
+    private SimHash() {}
+
+    /**
+     * Compute the fingerprint of a page.
+     *
+     * @param html the content of the page.
+     * @return the fingerprint, {@code 0} if the page has no text.
+     */
+    public static long fingerprint(CharSequence html) {
+        return fingerprint(html, 0).getAsLong();
+    }
+
+    /**
+     * Compute the fingerprint of a page, unless it has too little text for the fingerprint to tell it apart: the
+     * fingerprints of pages with a few tokens are close to those of many unrelated pages, and all pages without text
+     * have the same.
+     *
+     * @param html the content of the page.
+     * @param minTokens the number of tokens the page must have at least.
+     * @return the fingerprint, or empty if the page has fewer tokens.
+     */
+    public static OptionalLong fingerprint(CharSequence html, int minTokens) {
+        int[] votes = new int[Long.SIZE];
+        int tokens = 0;
+        long hash = Hash64.SEED;
+        boolean inToken = false;
+        int length = html.length();
+        int i = 0;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                hash = Hash64.update(hash, Character.toLowerCase(c));
+                inToken = true;
+                i++;
+                continue;
+            }
+            if (inToken) {
+                vote(votes, Hash64.mix(hash));
+                tokens++;
+                hash = Hash64.SEED;
+                inToken = false;
+            }
+            i = c == '<' ? skipMarkup(html, i) : i + 1;
+        }
+        if (inToken) {
+            vote(votes, Hash64.mix(hash));
+            tokens++;
+        }
+        if (tokens < minTokens) {
+            return OptionalLong.empty();
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (votes[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return OptionalLong.of(fingerprint);
+    }
+
+    /**
+     * Return the number of bits two fingerprints differ in.
+     */
+    public static int distance(long fingerprint, long other) {
+        return Long.bitCount(fingerprint ^ other);
+    }
+
+    private static void vote(int[] votes, long tokenHash) {
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            votes[bit] += (int) ((tokenHash >>> bit) & 1) * 2 - 1;
+        }
+    }
+
+    /**
+     * Skip the tag starting at {@code start}, and the content up to the closing tag for {@code script} and
+     * {@code style} elements.
+     *
+     * @return the index following the skipped markup.
+     */
+    private static int skipMarkup(CharSequence html, int start) {
+        int end = indexOf(html, '>', start + 1);
+        if (end < 0) {
+            return html.length();
+        }
+        char[] rawText = startsWithName(html, start + 1, SCRIPT) ? SCRIPT : startsWithName(html, start + 1, STYLE) ? STYLE : null;
+        if (rawText == null) {
+            return end + 1;
+        }
+        for (int i = end + 1; (i = indexOf(html, '<', i)) >= 0; i++) {
+            if (i + 1 < html.length() && html.charAt(i + 1) == '/' && startsWithName(html, i + 2, rawText)) {
+                int close = indexOf(html, '>', i);
+                return close < 0 ? html.length() : close + 1;
+            }
+        }
+        return html.length();
+    }
+
+    private static boolean startsWithName(CharSequence html, int start, char[] name) {
+        if (start + name.length > html.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (Character.toLowerCase(html.charAt(start + i)) != name[i]) {
+                return false;
+            }
+        }
+        return start + name.length == html.length() || !Character.isLetterOrDigit(html.charAt(start + name.length));
+    }
+
+    private static int indexOf(CharSequence html, char c, int from) {
+        for (int i = from; i < html.length(); i++) {
+            if (html.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,101 @@
+package com.mycompany.myapp.service.crawl;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongObjectHashMap;
+
+/**
+ * The {@link SimHash} fingerprints of the pages of a crawl, to find those within {@code maxDistance} bits of a new one
+ * without comparing it to all of them.
+ * <p>
+ * The 64 bits are split in {@code maxDistance + 1} blocks: two fingerprints differing in at most {@code maxDistance}
+ * bits have at least one block in common. The index holds one table per block, as if the fingerprints were permuted to
+ * lead with that block, and keyed by it: a lookup only compares the fingerprints sharing one of its blocks, about
+ * {@code 2^-16} of them per table with the default distance of 3.
+ * <p>
+ * An index is not thread-safe: the crawl owning it serializes its calls.
+ */
+public final class SimHashIndex {
+
+    private final int maxDistance;
+
+    private final int[] blockShifts;
+
+    private final long[] blockMasks;
+
+    private final LongObjectHashMap<LongArrayList>[] tables;
+
+    private int size;
+
+    /**
+     * @param maxDistance the number of bits near-duplicates differ in at most, from 0 to 63.
+     */
+    @SuppressWarnings("unchecked")
+    public SimHashIndex(int maxDistance) {
+        if (maxDistance < 0 || maxDistance >= Long.SIZE) {
+            throw new IllegalArgumentException("The distance must be between 0 and 63: " + maxDistance);
+        }
+        int blocks = maxDistance + 1;
+        this.maxDistance = maxDistance;
+        this.blockShifts = new int[blocks];
+        this.blockMasks = new long[blocks];
+        this.tables = new LongObjectHashMap[blocks];
+        for (int block = 0; block < blocks; block++) {
+            int from = block * Long.SIZE / blocks;
+            int to = (block + 1) * Long.SIZE / blocks;
+            blockShifts[block] = from;
+            blockMasks[block] = to - from == Long.SIZE ? -1 : (1L << (to - from)) - 1;
+            tables[block] = new LongObjectHashMap<>();
+        }
+    }
+
+    /**
+     * Add a fingerprint, unless a near-duplicate of it is indexed already.
+     *
+     * @return {@code true} if the fingerprint was added, {@code false} if it is a near-duplicate.
+     */
+    public boolean add(long fingerprint) {
+        if (containsNear(fingerprint)) {
+            return false;
+        }
+        for (int block = 0; block < tables.length; block++) {
+            long key = key(fingerprint, block);
+            LongArrayList fingerprints = tables[block].get(key);
+            if (fingerprints == null) {
+                fingerprints = new LongArrayList(2);
+                tables[block].put(key, fingerprints);
+            }
+            fingerprints.add(fingerprint);
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Whether a fingerprint within {@code maxDistance} bits of this one is indexed.
+     */
+    public boolean containsNear(long fingerprint) {
+        for (int block = 0; block < tables.length; block++) {
+            LongArrayList candidates = tables[block].get(key(fingerprint, block));
+            if (candidates != null) {
+                long[] buffer = candidates.buffer;
+                for (int i = 0; i < candidates.elementsCount; i++) {
+                    if (SimHash.distance(fingerprint, buffer[i]) <= maxDistance) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the number of fingerprints indexed.
+     */
+    public int size() {
+        return size;
+    }
+
+    private long key(long fingerprint, int block) {
+        return (fingerprint >>> blockShifts[block]) & blockMasks[block];
+    }
+}
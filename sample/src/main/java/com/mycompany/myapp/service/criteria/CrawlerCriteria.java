@@ -30,7 +30,7 @@ public class CrawlerCriteria implements Serializable, Criteria {
 
     private IntegerFilter fetch;
 
-    private StringFilter source;
+    private PrefixStringFilter source;
 
     private Boolean distinct;
 
@@ -94,18 +94,18 @@ public class CrawlerCriteria implements Serializable, Criteria {
         this.fetch = fetch;
     }
 
-    public StringFilter getSource() {
+    public PrefixStringFilter getSource() {
         return source;
     }
 
-    public StringFilter source() {
+    public PrefixStringFilter source() {
         if (source == null) {
-            source = new StringFilter();
+            source = new PrefixStringFilter();
         }
         return source;
     }
 
-    public void setSource(StringFilter source) {
+    public void setSource(PrefixStringFilter source) {
         this.source = source;
     }
 
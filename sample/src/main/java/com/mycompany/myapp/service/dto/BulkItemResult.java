@@ -0,0 +1,82 @@
+package com.mycompany.myapp.service.dto;
+
+/**
+ * The outcome of one item of a bulk write: the saved entity, or why the item was rejected.
+ *
+ * @param <T> the DTO type.
+ */
+public class BulkItemResult<T> {
+
+    /**
+     * What happened to the item.
+     */
+    public enum Status {
+        CREATED,
+        UPDATED,
+        FAILED,
+    }
+
+    private final int index;
+
+    private final Status status;
+
+    private final T entity;
+
+    private final String errorKey;
+
+    private final String message;
+
+    private BulkItemResult(int index, Status status, T entity, String errorKey, String message) {
+        this.index = index;
+        this.status = status;
+        this.entity = entity;
+        this.errorKey = errorKey;
+        this.message = message;
+    }
+
+    public static <T> BulkItemResult<T> created(int index, T entity) {
+        return new BulkItemResult<>(index, Status.CREATED, entity, null, null);
+    }
+
+    public static <T> BulkItemResult<T> updated(int index, T entity) {
+        return new BulkItemResult<>(index, Status.UPDATED, entity, null, null);
+    }
+
+    public static <T> BulkItemResult<T> failed(int index, String errorKey, String message) {
+        return new BulkItemResult<>(index, Status.FAILED, null, errorKey, message);
+    }
+
+    /**
+     * @return the position of the item in the request.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the saved entity, or {@code null} if the item failed.
+     */
+    public T getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return the error key, as used by {@code BadRequestAlertException}, or {@code null} if the item was saved.
+     */
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkItemResult{index=" + index + ", status=" + status + ", errorKey=" + errorKey + "}";
+    }
+}
@@ -0,0 +1,37 @@
+package com.mycompany.myapp.service.dto;
+
+import java.util.List;
+
+/**
+ * The outcome of a bulk write, with one {@link BulkItemResult} per item in the order of the request.
+ *
+ * @param <T> the DTO type.
+ */
+public class BulkResult<T> {
+
+    private final List<BulkItemResult<T>> items;
+
+    private final int failed;
+
+    public BulkResult(List<BulkItemResult<T>> items) {
+        this.items = List.copyOf(items);
+        this.failed = (int) items.stream().filter(item -> item.getStatus() == BulkItemResult.Status.FAILED).count();
+    }
+
+    public List<BulkItemResult<T>> getItems() {
+        return items;
+    }
+
+    public int getSucceeded() {
+        return items.size() - failed;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{succeeded=" + getSucceeded() + ", failed=" + failed + "}";
+    }
+}
@@ -0,0 +1,46 @@
+package com.mycompany.myapp.service.dto;
+
+/**
+ * A committed change of an entity, as sent by the change feeds. Only the id and the new version are sent: the entity
+ * itself can be fetched, conditionally on its entity tag.
+ */
+public class ChangeDTO {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+    }
+
+    private final Type type;
+
+    private final Long id;
+
+    private final Long version;
+
+    public ChangeDTO(Type type, Long id, Long version) {
+        this.type = type;
+        this.id = id;
+        this.version = version;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * The version of the entity after the change, or the deleted version.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeDTO{type=" + type + ", id=" + id + ", version=" + version + "}";
+    }
+}
@@ -0,0 +1,37 @@
+package com.mycompany.myapp.service.dto;
+
+/**
+ * A number of entities, either counted exactly or estimated from the database statistics.
+ */
+public class CountResult {
+
+    private final long count;
+
+    private final boolean exact;
+
+    private CountResult(long count, boolean exact) {
+        this.count = count;
+        this.exact = exact;
+    }
+
+    public static CountResult exact(long count) {
+        return new CountResult(count, true);
+    }
+
+    public static CountResult estimate(long count) {
+        return new CountResult(count, false);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+
+    @Override
+    public String toString() {
+        return "CountResult{count=" + count + ", exact=" + exact + "}";
+    }
+}
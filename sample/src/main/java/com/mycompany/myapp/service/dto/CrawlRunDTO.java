@@ -0,0 +1,157 @@
+package com.mycompany.myapp.service.dto;
+
+import com.mycompany.myapp.domain.enumeration.CrawlRunStatus;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.mycompany.myapp.domain.CrawlRun} entity.
+ */
+public class CrawlRunDTO implements Serializable {
+
+    private Long id;
+
+    private Long crawlerId;
+
+    private CrawlRunStatus status;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private int pagesFetched;
+
+    private int pagesFailed;
+
+    private int pagesDuplicate;
+
+    private long urlsDiscovered;
+
+    private String error;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCrawlerId() {
+        return crawlerId;
+    }
+
+    public void setCrawlerId(Long crawlerId) {
+        this.crawlerId = crawlerId;
+    }
+
+    public CrawlRunStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CrawlRunStatus status) {
+        this.status = status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public int getPagesFetched() {
+        return pagesFetched;
+    }
+
+    public void setPagesFetched(int pagesFetched) {
+        this.pagesFetched = pagesFetched;
+    }
+
+    public int getPagesFailed() {
+        return pagesFailed;
+    }
+
+    public void setPagesFailed(int pagesFailed) {
+        this.pagesFailed = pagesFailed;
+    }
+
+    public int getPagesDuplicate() {
+        return pagesDuplicate;
+    }
+
+    public void setPagesDuplicate(int pagesDuplicate) {
+        this.pagesDuplicate = pagesDuplicate;
+    }
+
+    /**
+     * Share of the pages fetched which were near-duplicates of a page fetched before.
+     */
+    public double getDuplicateRatio() {
+        return pagesFetched == 0 ? 0 : (double) pagesDuplicate / pagesFetched;
+    }
+
+    public long getUrlsDiscovered() {
+        return urlsDiscovered;
+    }
+
+    public void setUrlsDiscovered(long urlsDiscovered) {
+        this.urlsDiscovered = urlsDiscovered;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CrawlRunDTO)) {
+            return false;
+        }
+
+        CrawlRunDTO crawlRunDTO = (CrawlRunDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, crawlRunDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CrawlRunDTO{" +
+            "id=" + getId() +
+            ", crawlerId=" + getCrawlerId() +
+            ", status='" + getStatus() + "'" +
+            ", startedAt='" + getStartedAt() + "'" +
+            ", finishedAt='" + getFinishedAt() + "'" +
+            ", pagesFetched=" + getPagesFetched() +
+            ", pagesFailed=" + getPagesFailed() +
+            ", pagesDuplicate=" + getPagesDuplicate() +
+            ", urlsDiscovered=" + getUrlsDiscovered() +
+            ", error='" + getError() + "'" +
+            "}";
+    }
+}
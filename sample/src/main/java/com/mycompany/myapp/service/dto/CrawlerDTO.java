@@ -1,5 +1,6 @@
 package com.mycompany.myapp.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.io.Serializable;
 import java.util.Objects;
 import javax.validation.constraints.*;
@@ -11,6 +12,13 @@ public class CrawlerDTO implements Serializable {
 
     private Long id;
 
+    /**
+     * The version of the entity, exchanged through the {@code ETag} and {@code If-Match} headers rather than the body.
+     * When set on a DTO to save, it is the version the entity is expected to have.
+     */
+    @JsonIgnore
+    private Long version;
+
     @NotNull
     private String name;
 
@@ -53,6 +61,14 @@ public class CrawlerDTO implements Serializable {
         this.source = source;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,47 @@
+package com.mycompany.myapp.service.dto;
+
+/**
+ * The outcome of a delete by criteria: the number of entities deleted, or that would be deleted by a dry run, the
+ * number of dependent entities deleted along with them, and whether more entities match than the request could delete.
+ */
+public class DeleteResult {
+
+    private final long deleted;
+
+    private final long dependents;
+
+    private final boolean dryRun;
+
+    private final boolean more;
+
+    public DeleteResult(long deleted, long dependents, boolean dryRun, boolean more) {
+        this.deleted = deleted;
+        this.dependents = dependents;
+        this.dryRun = dryRun;
+        this.more = more;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public long getDependents() {
+        return dependents;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    /**
+     * Whether entities still match once the deleted ones are gone, as the request deleted as many as it could.
+     */
+    public boolean isMore() {
+        return more;
+    }
+
+    @Override
+    public String toString() {
+        return "DeleteResult{deleted=" + deleted + ", dependents=" + dependents + ", dryRun=" + dryRun + ", more=" + more + "}";
+    }
+}
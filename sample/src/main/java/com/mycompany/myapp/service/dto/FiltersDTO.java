@@ -1,5 +1,6 @@
 package com.mycompany.myapp.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.io.Serializable;
 import java.util.Objects;
 
@@ -10,6 +11,13 @@ public class FiltersDTO implements Serializable {
 
     private Long id;
 
+    /**
+     * The version of the entity, exchanged through the {@code ETag} and {@code If-Match} headers rather than the body.
+     * When set on a DTO to save, it is the version the entity is expected to have.
+     */
+    @JsonIgnore
+    private Long version;
+
     private CrawlerDTO crawler;
 
     public Long getId() {
@@ -28,6 +36,14 @@ public class FiltersDTO implements Serializable {
         this.crawler = crawler;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
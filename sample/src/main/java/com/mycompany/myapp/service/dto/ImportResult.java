@@ -0,0 +1,113 @@
+package com.mycompany.myapp.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of an import: how many rows were accepted and rejected, why the first rejected rows were, and whether
+ * the whole file was read.
+ */
+public class ImportResult {
+
+    private final int maxRejections;
+
+    private long accepted;
+
+    private long rejected;
+
+    private boolean complete = true;
+
+    private final List<Rejection> rejections = new ArrayList<>();
+
+    /**
+     * @param maxRejections the number of rejected rows reported with their reason, the others being only counted.
+     */
+    public ImportResult(int maxRejections) {
+        this.maxRejections = maxRejections;
+    }
+
+    public void accept(long rows) {
+        accepted += rows;
+    }
+
+    public void reject(long line, String errorKey, String message) {
+        rejected++;
+        if (rejections.size() < maxRejections) {
+            rejections.add(new Rejection(line, errorKey, message));
+        }
+    }
+
+    /**
+     * Reject a row which could not be read, after which the rest of the file is not read either. It is reported even
+     * when the rejected rows reported are already at their maximum.
+     */
+    public void stop(long line, String errorKey, String message) {
+        rejected++;
+        rejections.add(new Rejection(line, errorKey, message));
+        complete = false;
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return whether every row of the file was read: when {@code false}, the rows after the last rejected one were
+     * neither accepted nor rejected.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return the first rejected rows, in the order they were rejected.
+     */
+    public List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{accepted=" + accepted + ", rejected=" + rejected + ", complete=" + complete + "}";
+    }
+
+    /**
+     * A rejected row.
+     */
+    public static class Rejection {
+
+        private final long line;
+
+        private final String errorKey;
+
+        private final String message;
+
+        public Rejection(long line, String errorKey, String message) {
+            this.line = line;
+            this.errorKey = errorKey;
+            this.message = message;
+        }
+
+        /**
+         * @return the line of the row in the file, counting from 1 with the header.
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * @return the error key, as used by {@code BadRequestAlertException}.
+         */
+        public String getErrorKey() {
+            return errorKey;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
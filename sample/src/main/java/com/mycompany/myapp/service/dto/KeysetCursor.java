@@ -0,0 +1,157 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import org.springframework.data.domain.Sort;
+
+/**
+ * A position in a keyset (seek) pagination, ordered by a sort property and then by id.
+ * <p>
+ * The cursor carries the sort property, the direction and the {@code (sort key, id)} of the last row
+ * that was returned, and is handed to clients as an opaque token by {@link #encode()}.
+ */
+public final class KeysetCursor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String ID_PROPERTY = "id";
+
+    private static final String SEPARATOR = ":";
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    private final String value;
+
+    private final Long id;
+
+    private KeysetCursor(String property, Sort.Direction direction, String value, Long id) {
+        this.property = Objects.requireNonNull(property);
+        this.direction = Objects.requireNonNull(direction);
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Create a cursor positioned before the first row.
+     *
+     * @param property the sort property, or {@code null} to sort by id.
+     * @param direction the sort direction, or {@code null} for ascending.
+     * @return the cursor.
+     */
+    public static KeysetCursor first(String property, Sort.Direction direction) {
+        return new KeysetCursor(
+            property == null ? ID_PROPERTY : property,
+            direction == null ? Sort.Direction.ASC : direction,
+            null,
+            null
+        );
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @param token the opaque cursor token.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static KeysetCursor decode(String token) {
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = decoded.split(SEPARATOR, 4);
+        if (parts.length != 4 || parts[0].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        return new KeysetCursor(parts[0], Sort.Direction.fromString(parts[1]), parts[3], Long.valueOf(parts[2]));
+    }
+
+    /**
+     * Return the cursor positioned after the row with the given sort key and id.
+     *
+     * @param value the sort key of the last returned row.
+     * @param id the id of the last returned row.
+     * @return the cursor for the next slice.
+     */
+    public KeysetCursor after(String value, Long id) {
+        return new KeysetCursor(property, direction, Objects.requireNonNull(value), Objects.requireNonNull(id));
+    }
+
+    /**
+     * Encode the cursor as an opaque, URL-safe token.
+     *
+     * @return the token.
+     */
+    public String encode() {
+        if (isFirst()) {
+            throw new IllegalStateException("The first cursor has no position to encode");
+        }
+        String raw = String.join(SEPARATOR, property, direction.name(), id.toString(), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public boolean isById() {
+        return ID_PROPERTY.equals(property);
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Return the order matching the cursor: the sort property, then the id as a tie-breaker.
+     *
+     * @return the sort.
+     */
+    public Sort toSort() {
+        Sort sort = Sort.by(direction, property);
+        return isById() ? sort : sort.and(Sort.by(direction, ID_PROPERTY));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeysetCursor)) {
+            return false;
+        }
+        KeysetCursor that = (KeysetCursor) o;
+        return (
+            property.equals(that.property) && direction == that.direction && Objects.equals(value, that.value) && Objects.equals(id, that.id)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(property, direction, value, id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "KeysetCursor{" +
+            "property='" + getProperty() + "'" +
+            ", direction=" + getDirection() +
+            ", value='" + getValue() + "'" +
+            ", id=" + getId() +
+            "}";
+    }
+}
@@ -0,0 +1,33 @@
+package com.mycompany.myapp.service.dto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A slice of a keyset pagination, with the cursor of the next slice if there is one.
+ *
+ * @param <T> the type of the content.
+ */
+public class KeysetSlice<T> {
+
+    private final List<T> content;
+
+    private final KeysetCursor next;
+
+    public KeysetSlice(List<T> content, KeysetCursor next) {
+        this.content = content;
+        this.next = next;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public Optional<KeysetCursor> getNext() {
+        return Optional.ofNullable(next);
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
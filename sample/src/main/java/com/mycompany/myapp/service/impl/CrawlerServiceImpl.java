@@ -2,17 +2,43 @@ package com.mycompany.myapp.service.impl;
 
 import com.mycompany.myapp.domain.Crawler;
 import com.mycompany.myapp.repository.CrawlerRepository;
+import com.mycompany.myapp.service.ChangeFeedService;
+import com.mycompany.myapp.service.CrawlerIndex;
 import com.mycompany.myapp.service.CrawlerService;
+import com.mycompany.myapp.service.CriteriaCountCache;
+import com.mycompany.myapp.service.CsvReader;
+import com.mycompany.myapp.service.dto.BulkItemResult;
+import com.mycompany.myapp.service.dto.BulkResult;
+import com.mycompany.myapp.service.dto.ChangeDTO;
 import com.mycompany.myapp.service.dto.CrawlerDTO;
+import com.mycompany.myapp.service.dto.ImportResult;
 import com.mycompany.myapp.service.mapper.CrawlerMapper;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service Implementation for managing {@link Crawler}.
@@ -21,38 +47,350 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class CrawlerServiceImpl implements CrawlerService {
 
+    /**
+     * Number of JDBC batches written by each transaction of a bulk write.
+     */
+    private static final int BULK_BATCHES_PER_TRANSACTION = 20;
+
+    /**
+     * Number of rows of a CSV import written by each transaction.
+     */
+    private static final int IMPORT_CHUNK_SIZE = 10000;
+
+    /**
+     * Number of rejected rows of a CSV import reported with their reason.
+     */
+    private static final int IMPORT_MAX_REJECTIONS = 100;
+
+    private static final char IMPORT_DELIMITER = ';';
+
     private final Logger log = LoggerFactory.getLogger(CrawlerServiceImpl.class);
 
     private final CrawlerRepository crawlerRepository;
 
     private final CrawlerMapper crawlerMapper;
 
-    public CrawlerServiceImpl(CrawlerRepository crawlerRepository, CrawlerMapper crawlerMapper) {
+    private final CriteriaCountCache countCache;
+
+    private final Validator validator;
+
+    private final ChangeFeedService changeFeedService;
+
+    private final Optional<CrawlerIndex> crawlerIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int bulkChunkSize;
+
+    public CrawlerServiceImpl(
+        CrawlerRepository crawlerRepository,
+        CrawlerMapper crawlerMapper,
+        CriteriaCountCache countCache,
+        Validator validator,
+        ChangeFeedService changeFeedService,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        Optional<CrawlerIndex> crawlerIndex
+    ) {
         this.crawlerRepository = crawlerRepository;
         this.crawlerMapper = crawlerMapper;
+        this.countCache = countCache;
+        this.validator = validator;
+        this.changeFeedService = changeFeedService;
+        this.crawlerIndex = crawlerIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        int batchSize = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getSessionFactoryOptions().getJdbcBatchSize();
+        this.bulkChunkSize = Math.max(batchSize, 1) * BULK_BATCHES_PER_TRANSACTION;
     }
 
     @Override
     public CrawlerDTO save(CrawlerDTO crawlerDTO) {
         log.debug("Request to save Crawler : {}", crawlerDTO);
         Crawler crawler = crawlerMapper.toEntity(crawlerDTO);
-        crawler = crawlerRepository.save(crawler);
+        countCache.evict(Crawler.class);
+        Optional<Crawler> existingCrawler = crawler.getId() == null ? Optional.empty() : crawlerRepository.findById(crawler.getId());
+        if (existingCrawler.isPresent()) {
+            // merge the DTO at the current version, so that only the expected version is checked
+            checkVersion(existingCrawler.get(), crawlerDTO.getVersion());
+            crawler.setVersion(existingCrawler.get().getVersion());
+        }
+        crawler = crawlerRepository.saveAndFlush(crawler);
+        indexAfterCommit(List.of(crawler));
         return crawlerMapper.toDto(crawler);
     }
 
+    @Override
+    public Optional<CrawlerDTO> update(CrawlerDTO crawlerDTO) {
+        log.debug("Request to update Crawler : {}", crawlerDTO);
+        return update(crawlerDTO, false);
+    }
+
     @Override
     public Optional<CrawlerDTO> partialUpdate(CrawlerDTO crawlerDTO) {
         log.debug("Request to partially update Crawler : {}", crawlerDTO);
+        // the null fields are left unchanged, so only the constraints of the others apply
+        Set<ConstraintViolation<CrawlerDTO>> violations = validator
+            .validate(crawlerDTO)
+            .stream()
+            .filter(violation -> violation.getInvalidValue() != null)
+            .collect(Collectors.toSet());
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return update(crawlerDTO, true);
+    }
+
+    private Optional<CrawlerDTO> update(CrawlerDTO crawlerDTO, boolean partial) {
+        countCache.evict(Crawler.class);
+        Optional<Crawler> crawler = crawlerRepository.updateById(crawlerMapper.toEntity(crawlerDTO), crawlerDTO.getVersion(), partial);
+        if (crawler.isEmpty() && crawlerDTO.getVersion() != null && crawlerRepository.existsById(crawlerDTO.getId())) {
+            throw staleVersion(crawlerDTO.getId());
+        }
+        crawler.ifPresent(updated -> {
+            changeFeedService.publishAfterCommit(
+                Crawler.class,
+                new ChangeDTO(ChangeDTO.Type.UPDATED, updated.getId(), updated.getVersion())
+            );
+            indexAfterCommit(List.of(updated));
+        });
+        return crawler.map(crawlerMapper::toDto);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult<CrawlerDTO> createAll(List<CrawlerDTO> crawlerDTOs) {
+        log.debug("Request to create {} Crawlers", crawlerDTOs.size());
+        return saveAll(crawlerDTOs, true);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkResult<CrawlerDTO> updateAll(List<CrawlerDTO> crawlerDTOs) {
+        log.debug("Request to update {} Crawlers", crawlerDTOs.size());
+        return saveAll(crawlerDTOs, false);
+    }
+
+    /**
+     * Validate each crawler on its own, then write the valid ones in chunks of several JDBC batches, one transaction
+     * per chunk. When a chunk fails, its crawlers are written again one by one, so only the faulty ones are reported.
+     */
+    private BulkResult<CrawlerDTO> saveAll(List<CrawlerDTO> crawlerDTOs, boolean create) {
+        List<BulkItemResult<CrawlerDTO>> results = new ArrayList<>(Collections.nCopies(crawlerDTOs.size(), null));
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < crawlerDTOs.size(); i++) {
+            BulkItemResult<CrawlerDTO> rejected = validate(i, crawlerDTOs.get(i), create);
+            if (rejected != null) {
+                results.set(i, rejected);
+            } else {
+                valid.add(i);
+            }
+        }
+        for (int from = 0; from < valid.size(); from += bulkChunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + bulkChunkSize, valid.size()));
+            try {
+                for (BulkItemResult<CrawlerDTO> result : transactionTemplate.execute(status -> write(crawlerDTOs, chunk, create))) {
+                    results.set(result.getIndex(), result);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Bulk write of {} Crawlers failed, writing them one by one: {}", chunk.size(), e.toString());
+                for (Integer index : chunk) {
+                    try {
+                        results.set(index, transactionTemplate.execute(status -> write(crawlerDTOs, List.of(index), create)).get(0));
+                    } catch (RuntimeException itemException) {
+                        log.debug("Crawler at index {} could not be saved", index, itemException);
+                        results.set(index, BulkItemResult.failed(index, "savefailed", "The crawler could not be saved"));
+                    }
+                }
+            }
+        }
+        return new BulkResult<>(results);
+    }
+
+    private BulkItemResult<CrawlerDTO> validate(int index, CrawlerDTO crawlerDTO, boolean create) {
+        if (crawlerDTO == null) {
+            return BulkItemResult.failed(index, "invalid", "The crawler must not be null");
+        }
+        if (create && crawlerDTO.getId() != null) {
+            return BulkItemResult.failed(index, "idexists", "A new crawler cannot already have an ID");
+        }
+        if (!create && crawlerDTO.getId() == null) {
+            return BulkItemResult.failed(index, "idnull", "Invalid id");
+        }
+        String violations = validator
+            .validate(crawlerDTO)
+            .stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+        return violations.isEmpty() ? null : BulkItemResult.failed(index, "invalid", violations);
+    }
 
-        return crawlerRepository
-            .findById(crawlerDTO.getId())
-            .map(existingCrawler -> {
-                crawlerMapper.partialUpdate(existingCrawler, crawlerDTO);
+    /**
+     * Write the crawlers at the given indexes and flush them, so that the inserts or updates are sent in JDBC
+     * batches and any constraint violation is raised within the transaction. The counts are evicted as the
+     * transaction completes, so they see each chunk once it is committed.
+     */
+    private List<BulkItemResult<CrawlerDTO>> write(List<CrawlerDTO> crawlerDTOs, List<Integer> indexes, boolean create) {
+        countCache.evict(Crawler.class);
+        List<BulkItemResult<CrawlerDTO>> results = new ArrayList<>(indexes.size());
+        if (create) {
+            List<Crawler> crawlers = new ArrayList<>(indexes.size());
+            for (Integer index : indexes) {
+                crawlers.add(crawlerMapper.toEntity(crawlerDTOs.get(index)));
+            }
+            crawlerRepository.saveAll(crawlers);
+            crawlerRepository.flush();
+            indexAfterCommit(crawlers);
+            for (int i = 0; i < indexes.size(); i++) {
+                results.add(BulkItemResult.created(indexes.get(i), crawlerMapper.toDto(crawlers.get(i))));
+            }
+        } else {
+            List<Long> ids = indexes.stream().map(index -> crawlerDTOs.get(index).getId()).collect(Collectors.toList());
+            Map<Long, Crawler> existing = crawlerRepository
+                .findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(Crawler::getId, Function.identity()));
+            List<Crawler> updated = new ArrayList<>(indexes.size());
+            List<Integer> updatedIndexes = new ArrayList<>(indexes.size());
+            for (Integer index : indexes) {
+                CrawlerDTO crawlerDTO = crawlerDTOs.get(index);
+                Crawler crawler = existing.get(crawlerDTO.getId());
+                if (crawler == null) {
+                    results.add(BulkItemResult.failed(index, "idnotfound", "Entity not found"));
+                } else if (isStale(crawler, crawlerDTO.getVersion())) {
+                    results.add(BulkItemResult.failed(index, "preconditionfailed", "The crawler is not at the expected version"));
+                } else {
+                    // a full update, like PUT /crawlers/{id}: every crawler has been validated as a whole
+                    crawlerMapper.update(crawler, crawlerDTO);
+                    updated.add(crawler);
+                    updatedIndexes.add(index);
+                }
+            }
+            crawlerRepository.flush();
+            // mapped once flushed, for the results to carry the incremented versions
+            for (int i = 0; i < updated.size(); i++) {
+                results.add(BulkItemResult.updated(updatedIndexes.get(i), crawlerMapper.toDto(updated.get(i))));
+            }
+            indexAfterCommit(updated);
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportResult importCsv(Reader reader) throws IOException {
+        log.debug("Request to import Crawlers");
+        long start = System.nanoTime();
+        CsvReader csvReader = new CsvReader(reader, IMPORT_DELIMITER);
+        List<String> header = csvReader.read();
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        int nameColumn = column(header, "name");
+        int fetchColumn = column(header, "jhi_fetch");
+        int sourceColumn = column(header, "source");
+
+        ImportResult result = new ImportResult(IMPORT_MAX_REJECTIONS);
+        List<Crawler> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        List<Long> chunkLines = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        for (List<String> row = readRow(csvReader, result); row != null; row = readRow(csvReader, result)) {
+            long line = csvReader.getLine();
+            if (row.size() != header.size()) {
+                result.reject(line, "columns", "The row has " + row.size() + " columns, the header " + header.size());
+                continue;
+            }
+            CrawlerDTO crawlerDTO = new CrawlerDTO();
+            crawlerDTO.setName(row.get(nameColumn));
+            crawlerDTO.setSource(row.get(sourceColumn));
+            try {
+                crawlerDTO.setFetch(Integer.valueOf(row.get(fetchColumn).strip()));
+            } catch (NumberFormatException e) {
+                result.reject(line, "invalid", "fetch: must be an integer");
+                continue;
+            }
+            BulkItemResult<CrawlerDTO> rejected = validate(0, crawlerDTO, true);
+            if (rejected != null) {
+                result.reject(line, rejected.getErrorKey(), rejected.getMessage());
+                continue;
+            }
+            chunk.add(crawlerMapper.toEntity(crawlerDTO));
+            chunkLines.add(line);
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                insert(chunk, chunkLines, result);
+            }
+        }
+        insert(chunk, chunkLines, result);
+        log.info(
+            "Imported {} Crawlers and rejected {} in {} ms",
+            result.getAccepted(),
+            result.getRejected(),
+            (System.nanoTime() - start) / 1_000_000
+        );
+        return result;
+    }
+
+    /**
+     * Read the next row, or stop the import at a row which is not well formed: the rows before it are imported all the
+     * same, as the previous chunks are already committed.
+     *
+     * @return the row, or {@code null} at the end of the file or if the import stopped.
+     */
+    private static List<String> readRow(CsvReader csvReader, ImportResult result) throws IOException {
+        try {
+            return csvReader.read();
+        } catch (IllegalArgumentException e) {
+            result.stop(csvReader.getLine(), "malformed", e.getMessage());
+            return null;
+        }
+    }
 
-                return existingCrawler;
-            })
-            .map(crawlerRepository::save)
-            .map(crawlerMapper::toDto);
+    private static int column(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).strip().toLowerCase(Locale.ROOT).equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("The header has no " + name + " column");
+    }
+
+    /**
+     * Insert a chunk of crawlers in one transaction. When it fails, its crawlers are inserted again one by one, so
+     * only the faulty ones are rejected. As they are not inserted by Hibernate, their creation is published to the
+     * change feed by the service.
+     */
+    private void insert(List<Crawler> chunk, List<Long> chunkLines, ImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertAll(chunk));
+            result.accept(chunk.size());
+        } catch (RuntimeException e) {
+            log.warn("Import of {} Crawlers failed, inserting them one by one: {}", chunk.size(), e.toString());
+            for (int i = 0; i < chunk.size(); i++) {
+                Crawler crawler = chunk.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertAll(List.of(crawler)));
+                    result.accept(1);
+                } catch (RuntimeException itemException) {
+                    log.debug("Crawler at line {} could not be imported", chunkLines.get(i), itemException);
+                    result.reject(chunkLines.get(i), "savefailed", "The crawler could not be saved");
+                }
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    /**
+     * Insert crawlers within the current transaction, evicting the counts as it completes: the counts see each chunk
+     * once it is committed, rather than once the whole import is over.
+     */
+    private void insertAll(List<Crawler> crawlers) {
+        countCache.evict(Crawler.class);
+        crawlerRepository.insertAll(crawlers);
+        publishCreatedAfterCommit(crawlers);
+        indexAfterCommit(crawlers);
     }
 
     @Override
@@ -66,12 +404,65 @@ public class CrawlerServiceImpl implements CrawlerService {
     @Transactional(readOnly = true)
     public Optional<CrawlerDTO> findOne(Long id) {
         log.debug("Request to get Crawler : {}", id);
+        if (crawlerIndex.isPresent()) {
+            return Optional.ofNullable(crawlerIndex.get().get(id)).map(CrawlerIndex.Entry::toDto);
+        }
         return crawlerRepository.findById(id).map(crawlerMapper::toDto);
     }
 
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Crawler : {}", id);
+        countCache.evict(Crawler.class);
         crawlerRepository.deleteById(id);
+        unindexAfterCommit(List.of(id));
+    }
+
+    @Override
+    public void delete(Long id, long expectedVersion) {
+        log.debug("Request to delete Crawler : {} at version {}", id, expectedVersion);
+        countCache.evict(Crawler.class);
+        Crawler crawler = crawlerRepository.findById(id).orElseThrow(() -> staleVersion(id));
+        checkVersion(crawler, expectedVersion);
+        crawlerRepository.delete(crawler);
+        unindexAfterCommit(List.of(id));
+    }
+
+    /**
+     * Publish the creation of crawlers inserted without Hibernate, once the transaction commits.
+     */
+    private void publishCreatedAfterCommit(List<Crawler> crawlers) {
+        changeFeedService.publishAfterCommit(
+            Crawler.class,
+            crawlers
+                .stream()
+                .map(crawler -> new ChangeDTO(ChangeDTO.Type.CREATED, crawler.getId(), crawler.getVersion()))
+                .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Write the crawlers to the {@link CrawlerIndex}, if enabled, once the transaction commits.
+     */
+    private void indexAfterCommit(Collection<Crawler> crawlers) {
+        crawlerIndex.ifPresent(index -> index.putAllAfterCommit(crawlers));
+    }
+
+    private void unindexAfterCommit(Collection<Long> ids) {
+        crawlerIndex.ifPresent(index -> index.removeAllAfterCommit(ids));
+    }
+
+    private static void checkVersion(Crawler crawler, Long expectedVersion) {
+        if (isStale(crawler, expectedVersion)) {
+            throw staleVersion(crawler.getId());
+        }
+    }
+
+    private static boolean isStale(Crawler crawler, Long expectedVersion) {
+        return expectedVersion != null && expectedVersion != crawler.getVersion();
+    }
+
+    private static OptimisticLockingFailureException staleVersion(Long id) {
+        return new OptimisticLockingFailureException("Crawler " + id + " is not at the expected version");
     }
 }
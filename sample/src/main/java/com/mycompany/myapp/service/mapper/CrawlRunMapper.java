@@ -0,0 +1,15 @@
+package com.mycompany.myapp.service.mapper;
+
+import com.mycompany.myapp.domain.CrawlRun;
+import com.mycompany.myapp.service.dto.CrawlRunDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper from the entity {@link CrawlRun} to its DTO {@link CrawlRunDTO}. Runs are only written by the crawl engine,
+ * so there is no mapping back to the entity.
+ */
+@Mapper(componentModel = "spring")
+public interface CrawlRunMapper {
+    @Mapping(target = "crawlerId", source = "crawler.id")
+    CrawlRunDTO toDto(CrawlRun crawlRun);
+}
@@ -13,4 +13,26 @@ public interface CrawlerMapper extends EntityMapper<CrawlerDTO, Crawler> {
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
     CrawlerDTO toDtoId(Crawler crawler);
+
+    /**
+     * The version of the DTO is the version the entity is expected to have, checked by the writes: it is never mapped
+     * onto the entity, whose version is only incremented by the writes themselves.
+     */
+    @Override
+    @Mapping(target = "version", ignore = true)
+    Crawler toEntity(CrawlerDTO dto);
+
+    /**
+     * Replace every field of the entity by the one of the DTO, as a full update does, including the null ones.
+     */
+    @Named("update")
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void update(@MappingTarget Crawler entity, CrawlerDTO dto);
+
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "version", ignore = true)
+    void partialUpdate(@MappingTarget Crawler entity, CrawlerDTO dto);
 }
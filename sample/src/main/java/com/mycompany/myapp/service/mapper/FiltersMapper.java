@@ -11,4 +11,18 @@ import org.mapstruct.*;
 public interface FiltersMapper extends EntityMapper<FiltersDTO, Filters> {
     @Mapping(target = "crawler", source = "crawler", qualifiedByName = "id")
     FiltersDTO toDto(Filters s);
+
+    /**
+     * The version of the DTO is the version the entity is expected to have, checked by the writes: it is never mapped
+     * onto the entity, whose version is only incremented by the writes themselves.
+     */
+    @Override
+    @Mapping(target = "version", ignore = true)
+    Filters toEntity(FiltersDTO dto);
+
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "version", ignore = true)
+    void partialUpdate(@MappingTarget Filters entity, FiltersDTO dto);
 }
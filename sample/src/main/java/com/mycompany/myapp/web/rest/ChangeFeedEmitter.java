@@ -0,0 +1,61 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.service.ChangeFeed;
+import com.mycompany.myapp.service.ChangeFeedService;
+import com.mycompany.myapp.service.dto.ChangeDTO;
+import java.io.IOException;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Utility class streaming a change feed as server-sent events.
+ * <p>
+ * Each change is sent as a {@code change} event, with its id, so that a client reconnecting with {@code Last-Event-ID}
+ * resumes where it stopped. A fresh subscription starts with an {@code open} event, and a subscription that could not
+ * resume with a {@code reset} event, after which the client should reload the entities. Idle subscriptions get a
+ * comment from time to time. The stream ends when the subscriber does not keep up, or after the timeout of the feeds.
+ */
+final class ChangeFeedEmitter {
+
+    static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private ChangeFeedEmitter() {}
+
+    static SseEmitter subscribe(ChangeFeedService changeFeedService, Class<?> entityClass, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(changeFeedService.getTimeout().toMillis());
+        ChangeFeed.Subscription subscription = changeFeedService.subscribe(
+            entityClass,
+            lastEventId,
+            new ChangeFeed.Subscriber() {
+                @Override
+                public void onOpen(String eventId) throws IOException {
+                    emitter.send(SseEmitter.event().id(eventId).name("open").data(eventId));
+                }
+
+                @Override
+                public void onReset(String eventId) throws IOException {
+                    emitter.send(SseEmitter.event().id(eventId).name("reset").data(eventId));
+                }
+
+                @Override
+                public void onChange(String eventId, ChangeDTO change) throws IOException {
+                    emitter.send(SseEmitter.event().id(eventId).name("change").data(change, MediaType.APPLICATION_JSON));
+                }
+
+                @Override
+                public void onHeartbeat() throws IOException {
+                    emitter.send(SseEmitter.event().comment(""));
+                }
+
+                @Override
+                public void onDropped() {
+                    emitter.complete();
+                }
+            }
+        );
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+}
@@ -0,0 +1,62 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.service.CrawlRunService;
+import com.mycompany.myapp.service.dto.CrawlRunDTO;
+import java.net.URI;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for running {@link com.mycompany.myapp.domain.Crawler} definitions, as
+ * {@link com.mycompany.myapp.domain.CrawlRun} jobs.
+ */
+@RestController
+@RequestMapping("/api")
+public class CrawlRunResource {
+
+    private final Logger log = LoggerFactory.getLogger(CrawlRunResource.class);
+
+    private final CrawlRunService crawlRunService;
+
+    public CrawlRunResource(CrawlRunService crawlRunService) {
+        this.crawlRunService = crawlRunService;
+    }
+
+    /**
+     * {@code POST  /crawlers/:crawlerId/runs} : Start a run of the "crawlerId" crawler, which proceeds asynchronously.
+     *
+     * @param crawlerId the id of the crawler to run.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}, the location of the run to follow its
+     * progress, and with body the started run, or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/crawlers/{crawlerId}/runs")
+    public ResponseEntity<CrawlRunDTO> startCrawlRun(@PathVariable Long crawlerId) {
+        log.debug("REST request to start a run of Crawler : {}", crawlerId);
+        return crawlRunService
+            .start(crawlerId)
+            .map(result ->
+                ResponseEntity.accepted().location(URI.create("/api/crawlers/" + crawlerId + "/runs/" + result.getId())).body(result)
+            )
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * {@code GET  /crawlers/:crawlerId/runs/:id} : get the "id" run of the "crawlerId" crawler, with its progress.
+     *
+     * @param crawlerId the id of the crawler.
+     * @param id the id of the run to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the run, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/crawlers/{crawlerId}/runs/{id}")
+    public ResponseEntity<CrawlRunDTO> getCrawlRun(@PathVariable Long crawlerId, @PathVariable Long id) {
+        log.debug("REST request to get CrawlRun : {} of Crawler : {}", id, crawlerId);
+        Optional<CrawlRunDTO> crawlRunDTO = crawlRunService.findOne(crawlerId, id);
+        return ResponseUtil.wrapOrNotFound(crawlRunDTO);
+    }
+}
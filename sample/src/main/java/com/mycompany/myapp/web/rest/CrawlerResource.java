@@ -1,25 +1,51 @@
 package com.mycompany.myapp.web.rest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mycompany.myapp.config.ReplicaRoutingDataSource;
+import com.mycompany.myapp.domain.Crawler;
 import com.mycompany.myapp.repository.CrawlerRepository;
+import com.mycompany.myapp.service.ChangeFeedService;
 import com.mycompany.myapp.service.CrawlerQueryService;
 import com.mycompany.myapp.service.CrawlerService;
 import com.mycompany.myapp.service.criteria.CrawlerCriteria;
+import com.mycompany.myapp.service.dto.BulkResult;
+import com.mycompany.myapp.service.dto.CountResult;
 import com.mycompany.myapp.service.dto.CrawlerDTO;
+import com.mycompany.myapp.service.dto.DeleteResult;
+import com.mycompany.myapp.service.dto.ImportResult;
+import com.mycompany.myapp.service.dto.KeysetSlice;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.errors.PreconditionFailedAlertException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.mycompany.myapp.domain.Crawler}.
@@ -32,6 +58,26 @@ public class CrawlerResource {
 
     private static final String ENTITY_NAME = "sampleCrawler";
 
+    private static final int DEFAULT_CURSOR_SIZE = 20;
+
+    private static final int MAX_CURSOR_SIZE = 1000;
+
+    private static final int DEFAULT_SEARCH_SIZE = 20;
+
+    private static final int MAX_SEARCH_SIZE = 100;
+
+    private static final String COUNT_EXACT_HEADER = "X-Count-Exact";
+
+    private static final int MAX_BULK_SIZE = 10000;
+
+    private static final int DEFAULT_DELETE_LIMIT = 1000;
+
+    private static final int MAX_DELETE_LIMIT = 10000;
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final int IMPORT_BUFFER_SIZE = 64 * 1024;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -41,10 +87,29 @@ public class CrawlerResource {
 
     private final CrawlerQueryService crawlerQueryService;
 
-    public CrawlerResource(CrawlerService crawlerService, CrawlerRepository crawlerRepository, CrawlerQueryService crawlerQueryService) {
+    private final ChangeFeedService changeFeedService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter exportWriter;
+
+    public CrawlerResource(
+        CrawlerService crawlerService,
+        CrawlerRepository crawlerRepository,
+        CrawlerQueryService crawlerQueryService,
+        ChangeFeedService changeFeedService,
+        ObjectMapper objectMapper
+    ) {
         this.crawlerService = crawlerService;
         this.crawlerRepository = crawlerRepository;
         this.crawlerQueryService = crawlerQueryService;
+        this.changeFeedService = changeFeedService;
+        this.objectMapper = objectMapper;
+        this.exportWriter =
+            objectMapper
+                .writerFor(CrawlerDTO.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
@@ -72,15 +137,18 @@ public class CrawlerResource {
      *
      * @param id the id of the crawlerDTO to save.
      * @param crawlerDTO the crawlerDTO to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated crawlerDTO,
-     * or with status {@code 400 (Bad Request)} if the crawlerDTO is not valid,
+     * @param ifMatch the entity tag the crawler is expected to have, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated crawlerDTO and its entity tag,
+     * or with status {@code 412 (Precondition Failed)} if the crawler does not exist or match {@code If-Match},
+     * or with status {@code 400 (Bad Request)} if the crawlerDTO is not valid, or not found without {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the crawlerDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/crawlers/{id}")
     public ResponseEntity<CrawlerDTO> updateCrawler(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody CrawlerDTO crawlerDTO
+        @Valid @RequestBody CrawlerDTO crawlerDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Crawler : {}, {}", id, crawlerDTO);
         if (crawlerDTO.getId() == null) {
@@ -90,32 +158,108 @@ public class CrawlerResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!crawlerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        CrawlerDTO result = crawlerService.save(crawlerDTO);
+        crawlerDTO.setVersion(ETagUtil.expectedVersion(ifMatch, ENTITY_NAME));
+        CrawlerDTO result = ETagUtil
+            .checkPrecondition(ifMatch, ENTITY_NAME, () -> crawlerService.update(crawlerDTO))
+            .orElseThrow(() -> ETagUtil.notFound(ifMatch, ENTITY_NAME));
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, crawlerDTO.getId().toString()))
+            .eTag(ETagUtil.forVersion(result.getVersion()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /crawlers/bulk} : Create several crawlers at once.
+     * Each crawler is validated on its own, and an invalid crawler does not prevent the others from being created.
+     *
+     * @param crawlerDTOs the crawlerDTOs to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} if every crawler was created,
+     * or with status {@code 207 (Multi-Status)} if some were not, and with body the outcome of each crawler in order,
+     * or with status {@code 400 (Bad Request)} if the list is empty or too large.
+     */
+    @PostMapping("/crawlers/bulk")
+    public ResponseEntity<BulkResult<CrawlerDTO>> createCrawlers(@RequestBody List<CrawlerDTO> crawlerDTOs) {
+        log.debug("REST request to save {} Crawlers", crawlerDTOs.size());
+        checkBulkSize(crawlerDTOs);
+        return bulkResponse(crawlerService.createAll(crawlerDTOs));
+    }
+
+    /**
+     * {@code PUT  /crawlers/bulk} : Updates several existing crawlers at once.
+     * Each crawler is validated on its own, and an invalid or missing crawler does not prevent the others from being updated.
+     * A crawler carrying a version is only updated if it is still at that version.
+     *
+     * @param crawlerDTOs the crawlerDTOs to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} if every crawler was updated,
+     * or with status {@code 207 (Multi-Status)} if some were not, and with body the outcome of each crawler in order,
+     * or with status {@code 400 (Bad Request)} if the list is empty or too large.
+     */
+    @PutMapping("/crawlers/bulk")
+    public ResponseEntity<BulkResult<CrawlerDTO>> updateCrawlers(@RequestBody List<CrawlerDTO> crawlerDTOs) {
+        log.debug("REST request to update {} Crawlers", crawlerDTOs.size());
+        checkBulkSize(crawlerDTOs);
+        return bulkResponse(crawlerService.updateAll(crawlerDTOs));
+    }
+
+    /**
+     * {@code POST  /crawlers/import} : Create the crawlers of a CSV file.
+     * <p>
+     * The file is read from the request body while the crawlers are written, instead of being held in memory. It is
+     * shaped like {@code config/liquibase/fake-data/crawler.csv}: a header, then the {@code name}, {@code jhi_fetch}
+     * and {@code source} of a crawler per row, separated by semicolons. Each row is validated on its own, and an
+     * invalid row does not prevent the others from being created. A row which is not well formed stops the import, and
+     * is reported as the last rejected row of a result which is not {@code complete}.
+     *
+     * @param request the request holding the file, in UTF-8 unless its content type names another charset.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of rows created and
+     * rejected, why the first rejected rows were and whether every row was read, or with status
+     * {@code 400 (Bad Request)} if the header misses a column or is not well formed.
+     * @throws IOException if the request couldn't be read.
+     */
+    @PostMapping(value = "/crawlers/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<ImportResult> importCrawlers(HttpServletRequest request) throws IOException {
+        log.debug("REST request to import Crawlers");
+        String encoding = request.getCharacterEncoding();
+        try (
+            Reader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), encoding != null ? encoding : StandardCharsets.UTF_8.name()),
+                IMPORT_BUFFER_SIZE
+            )
+        ) {
+            return ResponseEntity.ok().body(crawlerService.importCsv(reader));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid");
+        }
+    }
+
+    private static void checkBulkSize(List<CrawlerDTO> crawlerDTOs) {
+        if (crawlerDTOs.isEmpty() || crawlerDTOs.size() > MAX_BULK_SIZE) {
+            throw new BadRequestAlertException("The list must hold between 1 and " + MAX_BULK_SIZE + " crawlers", ENTITY_NAME, "bulksize");
+        }
+    }
+
+    private static ResponseEntity<BulkResult<CrawlerDTO>> bulkResponse(BulkResult<CrawlerDTO> result) {
+        return ResponseEntity.status(result.getFailed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(result);
+    }
+
     /**
      * {@code PATCH  /crawlers/:id} : Partial updates given fields of an existing crawler, field will ignore if it is null
      *
      * @param id the id of the crawlerDTO to save.
      * @param crawlerDTO the crawlerDTO to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated crawlerDTO,
-     * or with status {@code 400 (Bad Request)} if the crawlerDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the crawlerDTO is not found,
+     * @param ifMatch the entity tag the crawler is expected to have, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated crawlerDTO and its entity tag,
+     * or with status {@code 412 (Precondition Failed)} if the crawler does not exist or match {@code If-Match},
+     * or with status {@code 400 (Bad Request)} if the crawlerDTO is not valid, or not found without {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the crawlerDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/crawlers/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<CrawlerDTO> partialUpdateCrawler(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody CrawlerDTO crawlerDTO
+        @NotNull @RequestBody CrawlerDTO crawlerDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update Crawler partially : {}, {}", id, crawlerDTO);
         if (crawlerDTO.getId() == null) {
@@ -125,69 +269,247 @@ public class CrawlerResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!crawlerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<CrawlerDTO> result = crawlerService.partialUpdate(crawlerDTO);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, crawlerDTO.getId().toString())
-        );
+        crawlerDTO.setVersion(ETagUtil.expectedVersion(ifMatch, ENTITY_NAME));
+        CrawlerDTO result = ETagUtil
+            .checkPrecondition(ifMatch, ENTITY_NAME, () -> crawlerService.partialUpdate(crawlerDTO))
+            .orElseThrow(() -> ETagUtil.notFound(ifMatch, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, crawlerDTO.getId().toString()))
+            .eTag(ETagUtil.forVersion(result.getVersion()))
+            .body(result);
     }
 
     /**
      * {@code GET  /crawlers} : get all the crawlers.
+     * <p>
+     * When {@code after} or {@code size} is given, the crawlers are returned in slices using keyset pagination,
+     * sorted by {@code id}, {@code name}, {@code fetch} or {@code source}, and the cursor of the next slice is sent in the {@code Link} header.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of crawlers in body.
+     * @param after the cursor of the slice to return, as sent in the previous {@code Link} header.
+     * @param size the maximum number of crawlers in the slice.
+     * @param sort the order of the first slice, following slices keep the order of their cursor.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of crawlers and its entity tag,
+     * or with status {@code 304 (Not Modified)} if it matches {@code If-None-Match},
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort is not valid.
      */
     @GetMapping("/crawlers")
-    public ResponseEntity<List<CrawlerDTO>> getAllCrawlers(CrawlerCriteria criteria) {
+    public ResponseEntity<List<CrawlerDTO>> getAllCrawlers(
+        CrawlerCriteria criteria,
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "size", required = false) Integer size,
+        Sort sort
+    ) {
+        if (after != null || size != null) {
+            return getCrawlersSlice(criteria, after, size, sort);
+        }
         log.debug("REST request to get Crawlers by criteria: {}", criteria);
         List<CrawlerDTO> entityList = crawlerQueryService.findByCriteria(criteria);
-        return ResponseEntity.ok().body(entityList);
+        return ResponseEntity.ok().eTag(ETagUtil.forList(entityList, CrawlerDTO::getId, CrawlerDTO::getVersion)).body(entityList);
+    }
+
+    private ResponseEntity<List<CrawlerDTO>> getCrawlersSlice(CrawlerCriteria criteria, String after, Integer size, Sort sort) {
+        log.debug("REST request to get Crawlers by criteria: {}, after: {}, size: {}", criteria, after, size);
+        int sliceSize = KeysetPaginationUtil.sliceSize(size, DEFAULT_CURSOR_SIZE, MAX_CURSOR_SIZE);
+        KeysetSlice<CrawlerDTO> slice = KeysetPaginationUtil.findSlice(
+            after,
+            sort,
+            ENTITY_NAME,
+            cursor -> crawlerQueryService.findByCriteria(criteria, cursor, sliceSize)
+        );
+        return ResponseEntity
+            .ok()
+            .headers(KeysetPaginationUtil.generateSliceHttpHeaders(slice, sliceSize))
+            .eTag(ETagUtil.forList(slice.getContent(), CrawlerDTO::getId, CrawlerDTO::getVersion))
+            .body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /crawlers?fields=:fields} : get the requested fields of all the crawlers.
+     * Only the requested columns are read, and the {@code id} is always returned.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param fields the names of the requested fields.
+     * @param after must be absent, keyset pagination does not support sparse fieldsets.
+     * @param size must be absent, keyset pagination does not support sparse fieldsets.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of crawlers in body, holding the requested fields only,
+     * or with status {@code 400 (Bad Request)} if a field is unknown or a cursor is given.
+     */
+    @GetMapping(value = "/crawlers", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllCrawlersFields(
+        CrawlerCriteria criteria,
+        @RequestParam("fields") List<String> fields,
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "size", required = false) Integer size
+    ) {
+        log.debug("REST request to get the fields {} of Crawlers by criteria: {}", fields, criteria);
+        if (after != null || size != null) {
+            throw new BadRequestAlertException("Sparse fieldsets cannot be paginated by cursor", ENTITY_NAME, "fieldsinvalid");
+        }
+        try {
+            return ResponseEntity.ok().body(crawlerQueryService.findFieldsByCriteria(criteria, fields));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
+    }
+
+    /**
+     * {@code GET  /crawlers/_search?q=:text} : search the crawlers whose name or source contains a text, ignoring case.
+     *
+     * @param text the text to search for.
+     * @param size the maximum number of crawlers to return, at most 100.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of crawlers in body, the most relevant first,
+     * or with status {@code 400 (Bad Request)} if the text is blank.
+     */
+    @GetMapping("/crawlers/_search")
+    public ResponseEntity<List<CrawlerDTO>> searchCrawlers(
+        @RequestParam("q") String text,
+        @RequestParam(value = "size", required = false) Integer size
+    ) {
+        log.debug("REST request to search Crawlers for : {}", text);
+        if (text.isBlank()) {
+            throw new BadRequestAlertException("The search text must not be blank", ENTITY_NAME, "searchblank");
+        }
+        int limit = KeysetPaginationUtil.sliceSize(size, DEFAULT_SEARCH_SIZE, MAX_SEARCH_SIZE);
+        return ResponseEntity.ok().body(crawlerQueryService.search(text.strip(), limit));
     }
 
     /**
      * {@code GET  /crawlers/count} : count all the crawlers.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     * @param approximate whether an estimate from the database statistics is enough.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body,
+     * and the {@code X-Count-Exact} header telling whether the count is exact or estimated.
      */
     @GetMapping("/crawlers/count")
-    public ResponseEntity<Long> countCrawlers(CrawlerCriteria criteria) {
-        log.debug("REST request to count Crawlers by criteria: {}", criteria);
-        return ResponseEntity.ok().body(crawlerQueryService.countByCriteria(criteria));
+    public ResponseEntity<Long> countCrawlers(CrawlerCriteria criteria, @RequestParam(defaultValue = "false") boolean approximate) {
+        log.debug("REST request to count Crawlers by criteria: {}, approximate: {}", criteria, approximate);
+        CountResult count = crawlerQueryService.countByCriteria(criteria, approximate);
+        return ResponseEntity.ok().header(COUNT_EXACT_HEADER, String.valueOf(count.isExact())).body(count.getCount());
+    }
+
+    /**
+     * {@code GET  /crawlers/export} : export all the crawlers as newline-delimited JSON.
+     * <p>
+     * The crawlers are written to the response while they are read from the database, through a single
+     * JSON generator, instead of being collected in memory first.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @param response the response the crawlers are written to, with status {@code 200 (OK)}.
+     * @throws IOException if the response couldn't be written.
+     */
+    @GetMapping(value = "/crawlers/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportCrawlers(CrawlerCriteria criteria, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export Crawlers by criteria: {}", criteria);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            crawlerQueryService.exportByCriteria(
+                criteria,
+                crawlerDTO -> {
+                    try {
+                        exportWriter.writeValue(generator, crawlerDTO);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            );
+        }
+    }
+
+    /**
+     * {@code GET  /crawlers/changes} : stream the committed changes of the crawlers, as server-sent events.
+     *
+     * @param lastEventId the id of the last event received, to resume a previous stream.
+     * @return the stream of the changes.
+     */
+    @GetMapping(value = "/crawlers/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getCrawlerChanges(@RequestHeader(value = ChangeFeedEmitter.LAST_EVENT_ID, required = false) String lastEventId) {
+        log.debug("REST request to stream the changes of Crawlers after : {}", lastEventId);
+        return ChangeFeedEmitter.subscribe(changeFeedService, Crawler.class, lastEventId);
     }
 
     /**
      * {@code GET  /crawlers/:id} : get the "id" crawler.
      *
+     * A conditional request is read from the primary database, as the entity tag it compares must not lag behind a write.
+     *
      * @param id the id of the crawlerDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the crawlerDTO, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tags the client already has, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the crawlerDTO and its entity tag,
+     * or with status {@code 304 (Not Modified)} if it matches {@code If-None-Match}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/crawlers/{id}")
-    public ResponseEntity<CrawlerDTO> getCrawler(@PathVariable Long id) {
+    public ResponseEntity<CrawlerDTO> getCrawler(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Crawler : {}", id);
-        Optional<CrawlerDTO> crawlerDTO = crawlerService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(crawlerDTO);
+        Optional<CrawlerDTO> crawlerDTO = ifNoneMatch == null
+            ? crawlerService.findOne(id)
+            : ReplicaRoutingDataSource.readFromPrimary(() -> crawlerService.findOne(id));
+        return ETagUtil.wrapOrNotFound(crawlerDTO, CrawlerDTO::getVersion, new HttpHeaders());
     }
 
     /**
      * {@code DELETE  /crawlers/:id} : delete the "id" crawler.
      *
      * @param id the id of the crawlerDTO to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @param ifMatch the entity tag the crawler is expected to have, if any.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 412 (Precondition Failed)} if the crawler does not exist or match {@code If-Match}.
      */
     @DeleteMapping("/crawlers/{id}")
-    public ResponseEntity<Void> deleteCrawler(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteCrawler(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         log.debug("REST request to delete Crawler : {}", id);
-        crawlerService.delete(id);
+        Long expectedVersion = ETagUtil.expectedVersion(ifMatch, ENTITY_NAME);
+        if (expectedVersion != null) {
+            ETagUtil.checkPrecondition(ifMatch, ENTITY_NAME, () -> {
+                crawlerService.delete(id, expectedVersion);
+                return null;
+            });
+        } else if (ifMatch != null && !crawlerRepository.existsById(id)) {
+            throw new PreconditionFailedAlertException("The entity tag does not match", ENTITY_NAME, "preconditionfailed");
+        } else {
+            crawlerService.delete(id);
+        }
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * {@code DELETE  /crawlers} : delete the crawlers which match the criteria, along with their filters.
+     * <p>
+     * At most {@code limit} crawlers are deleted per request, the lowest ids first, and the response tells whether more
+     * of them match, for the request to be repeated. A dry run only counts the entities it would delete.
+     *
+     * @param criteria the criteria which the deleted entities should match, with at least one filter.
+     * @param limit the maximum number of crawlers to delete.
+     * @param dryRun whether to only count the entities which would be deleted.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of crawlers and of filters deleted,
+     * or with status {@code 400 (Bad Request)} if the criteria hold no filter.
+     */
+    @DeleteMapping("/crawlers")
+    public ResponseEntity<DeleteResult> deleteCrawlers(
+        CrawlerCriteria criteria,
+        @RequestParam(value = "limit", required = false) Integer limit,
+        @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun
+    ) {
+        log.debug("REST request to delete Crawlers by criteria: {}, limit: {}, dry run: {}", criteria, limit, dryRun);
+        int maxDeleted = limit == null ? DEFAULT_DELETE_LIMIT : Math.max(1, Math.min(limit, MAX_DELETE_LIMIT));
+        try {
+            return ResponseEntity.ok().body(crawlerQueryService.deleteByCriteria(criteria, maxDeleted, dryRun));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "criteriarequired");
+        }
+    }
 }
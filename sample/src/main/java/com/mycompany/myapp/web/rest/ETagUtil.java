@@ -0,0 +1,108 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.errors.PreconditionFailedAlertException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.zalando.problem.AbstractThrowableProblem;
+
+/**
+ * Utility class for the entity tags of versioned entities.
+ * <p>
+ * The tag of an entity is its version, and the tag of a list is a digest of the ids and versions of its entities: both
+ * change whenever the representation does, so they are strong tags. A {@link ResponseEntity} holding one is answered
+ * with {@code 304 (Not Modified)} by Spring MVC when it matches {@code If-None-Match}, without serializing the body.
+ */
+final class ETagUtil {
+
+    private static final Pattern VERSION_TAG = Pattern.compile("\"(\\d{1,18})\"");
+
+    private ETagUtil() {}
+
+    /**
+     * The entity tag of an entity at the given version.
+     */
+    static String forVersion(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The entity tag of a list of entities, in order.
+     */
+    static <T> String forList(List<T> entities, Function<T, Long> id, Function<T, Long> version) {
+        StringBuilder state = new StringBuilder();
+        for (T entity : entities) {
+            state.append(id.apply(entity)).append(':').append(version.apply(entity)).append(',');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Wrap the optional entity into a {@link ResponseEntity} tagged with its version, or a {@code 404 (Not Found)}.
+     */
+    static <T> ResponseEntity<T> wrapOrNotFound(Optional<T> maybeResponse, Function<T, Long> version, HttpHeaders headers) {
+        return maybeResponse
+            .map(response -> ResponseEntity.ok().headers(headers).eTag(forVersion(version.apply(response))).body(response))
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Parse an {@code If-Match} header into the version the entity is expected to have.
+     *
+     * @param ifMatch the header, may be {@code null}.
+     * @param entityName the name of the entity, for the error alerts.
+     * @return the expected version, or {@code null} if any version matches.
+     * @throws PreconditionFailedAlertException if the header is not the tag of a version: weak tags never match.
+     * @throws BadRequestAlertException if the header holds several tags.
+     */
+    static Long expectedVersion(String ifMatch, String entityName) {
+        if (ifMatch == null || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        if (ifMatch.indexOf(',') >= 0) {
+            throw new BadRequestAlertException("Only one entity tag is supported in If-Match", entityName, "ifmatchinvalid");
+        }
+        Matcher matcher = VERSION_TAG.matcher(ifMatch.trim());
+        if (!matcher.matches()) {
+            throw new PreconditionFailedAlertException("The entity tag does not match", entityName, "preconditionfailed");
+        }
+        return Long.valueOf(matcher.group(1));
+    }
+
+    /**
+     * The error of a write to an entity which does not exist: {@code 412 (Precondition Failed)} if the write is
+     * conditional, since no current representation matches {@code If-Match}, or {@code 400 (Bad Request)} otherwise.
+     */
+    static AbstractThrowableProblem notFound(String ifMatch, String entityName) {
+        if (ifMatch != null) {
+            return new PreconditionFailedAlertException("The entity tag does not match", entityName, "preconditionfailed");
+        }
+        return new BadRequestAlertException("Entity not found", entityName, "idnotfound");
+    }
+
+    /**
+     * Run a write, reporting a version mismatch as {@code 412 (Precondition Failed)} if the write is conditional,
+     * or leaving it to the {@code 409 (Conflict)} of concurrency failures otherwise.
+     */
+    static <T> T checkPrecondition(String ifMatch, String entityName, Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            throw new PreconditionFailedAlertException("The entity tag does not match", entityName, "preconditionfailed");
+        }
+    }
+}
@@ -1,23 +1,34 @@
 package com.mycompany.myapp.web.rest;
 
+import com.mycompany.myapp.config.ReplicaRoutingDataSource;
+import com.mycompany.myapp.domain.Filters;
 import com.mycompany.myapp.repository.FiltersRepository;
+import com.mycompany.myapp.service.ChangeFeedService;
 import com.mycompany.myapp.service.FiltersQueryService;
 import com.mycompany.myapp.service.FiltersService;
 import com.mycompany.myapp.service.criteria.FiltersCriteria;
+import com.mycompany.myapp.service.dto.CountResult;
+import com.mycompany.myapp.service.dto.DeleteResult;
 import com.mycompany.myapp.service.dto.FiltersDTO;
+import com.mycompany.myapp.service.dto.KeysetSlice;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.errors.PreconditionFailedAlertException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link com.mycompany.myapp.domain.Filters}.
@@ -30,6 +41,16 @@ public class FiltersResource {
 
     private static final String ENTITY_NAME = "sampleFilters";
 
+    private static final int DEFAULT_CURSOR_SIZE = 20;
+
+    private static final int MAX_CURSOR_SIZE = 1000;
+
+    private static final String COUNT_EXACT_HEADER = "X-Count-Exact";
+
+    private static final int DEFAULT_DELETE_LIMIT = 1000;
+
+    private static final int MAX_DELETE_LIMIT = 10000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -39,10 +60,18 @@ public class FiltersResource {
 
     private final FiltersQueryService filtersQueryService;
 
-    public FiltersResource(FiltersService filtersService, FiltersRepository filtersRepository, FiltersQueryService filtersQueryService) {
+    private final ChangeFeedService changeFeedService;
+
+    public FiltersResource(
+        FiltersService filtersService,
+        FiltersRepository filtersRepository,
+        FiltersQueryService filtersQueryService,
+        ChangeFeedService changeFeedService
+    ) {
         this.filtersService = filtersService;
         this.filtersRepository = filtersRepository;
         this.filtersQueryService = filtersQueryService;
+        this.changeFeedService = changeFeedService;
     }
 
     /**
@@ -70,15 +99,18 @@ public class FiltersResource {
      *
      * @param id the id of the filtersDTO to save.
      * @param filtersDTO the filtersDTO to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated filtersDTO,
-     * or with status {@code 400 (Bad Request)} if the filtersDTO is not valid,
+     * @param ifMatch the entity tag the filters is expected to have, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated filtersDTO and its entity tag,
+     * or with status {@code 412 (Precondition Failed)} if the filters does not exist or match {@code If-Match},
+     * or with status {@code 400 (Bad Request)} if the filtersDTO is not valid, or not found without {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the filtersDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/filters/{id}")
     public ResponseEntity<FiltersDTO> updateFilters(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody FiltersDTO filtersDTO
+        @RequestBody FiltersDTO filtersDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to update Filters : {}, {}", id, filtersDTO);
         if (filtersDTO.getId() == null) {
@@ -88,14 +120,14 @@ public class FiltersResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!filtersRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        FiltersDTO result = filtersService.save(filtersDTO);
+        filtersDTO.setVersion(ETagUtil.expectedVersion(ifMatch, ENTITY_NAME));
+        FiltersDTO result = ETagUtil
+            .checkPrecondition(ifMatch, ENTITY_NAME, () -> filtersService.update(filtersDTO))
+            .orElseThrow(() -> ETagUtil.notFound(ifMatch, ENTITY_NAME));
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, filtersDTO.getId().toString()))
+            .eTag(ETagUtil.forVersion(result.getVersion()))
             .body(result);
     }
 
@@ -104,16 +136,18 @@ public class FiltersResource {
      *
      * @param id the id of the filtersDTO to save.
      * @param filtersDTO the filtersDTO to update.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated filtersDTO,
-     * or with status {@code 400 (Bad Request)} if the filtersDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the filtersDTO is not found,
+     * @param ifMatch the entity tag the filters is expected to have, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated filtersDTO and its entity tag,
+     * or with status {@code 412 (Precondition Failed)} if the filters does not exist or match {@code If-Match},
+     * or with status {@code 400 (Bad Request)} if the filtersDTO is not valid, or not found without {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the filtersDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/filters/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<FiltersDTO> partialUpdateFilters(
         @PathVariable(value = "id", required = false) final Long id,
-        @RequestBody FiltersDTO filtersDTO
+        @RequestBody FiltersDTO filtersDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         log.debug("REST request to partial update Filters partially : {}, {}", id, filtersDTO);
         if (filtersDTO.getId() == null) {
@@ -123,69 +157,195 @@ public class FiltersResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!filtersRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<FiltersDTO> result = filtersService.partialUpdate(filtersDTO);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, filtersDTO.getId().toString())
-        );
+        filtersDTO.setVersion(ETagUtil.expectedVersion(ifMatch, ENTITY_NAME));
+        FiltersDTO result = ETagUtil
+            .checkPrecondition(ifMatch, ENTITY_NAME, () -> filtersService.partialUpdate(filtersDTO))
+            .orElseThrow(() -> ETagUtil.notFound(ifMatch, ENTITY_NAME));
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, filtersDTO.getId().toString()))
+            .eTag(ETagUtil.forVersion(result.getVersion()))
+            .body(result);
     }
 
     /**
      * {@code GET  /filters} : get all the filters.
+     * <p>
+     * When {@code after} or {@code size} is given, the filters are returned in slices using keyset pagination,
+     * sorted by {@code id} only, and the cursor of the next slice is sent in the {@code Link} header.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of filters in body.
+     * @param after the cursor of the slice to return, as sent in the previous {@code Link} header.
+     * @param size the maximum number of filters in the slice.
+     * @param sort the order of the first slice, following slices keep the order of their cursor.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of filters and its entity tag,
+     * or with status {@code 304 (Not Modified)} if it matches {@code If-None-Match},
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort is not valid.
      */
     @GetMapping("/filters")
-    public ResponseEntity<List<FiltersDTO>> getAllFilters(FiltersCriteria criteria) {
+    public ResponseEntity<List<FiltersDTO>> getAllFilters(
+        FiltersCriteria criteria,
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "size", required = false) Integer size,
+        Sort sort
+    ) {
+        if (after != null || size != null) {
+            return getFiltersSlice(criteria, after, size, sort);
+        }
         log.debug("REST request to get Filters by criteria: {}", criteria);
         List<FiltersDTO> entityList = filtersQueryService.findByCriteria(criteria);
-        return ResponseEntity.ok().body(entityList);
+        return ResponseEntity.ok().eTag(ETagUtil.forList(entityList, FiltersDTO::getId, FiltersDTO::getVersion)).body(entityList);
+    }
+
+    private ResponseEntity<List<FiltersDTO>> getFiltersSlice(FiltersCriteria criteria, String after, Integer size, Sort sort) {
+        log.debug("REST request to get Filters by criteria: {}, after: {}, size: {}", criteria, after, size);
+        int sliceSize = KeysetPaginationUtil.sliceSize(size, DEFAULT_CURSOR_SIZE, MAX_CURSOR_SIZE);
+        KeysetSlice<FiltersDTO> slice = KeysetPaginationUtil.findSlice(
+            after,
+            sort,
+            ENTITY_NAME,
+            cursor -> filtersQueryService.findByCriteria(criteria, cursor, sliceSize)
+        );
+        return ResponseEntity
+            .ok()
+            .headers(KeysetPaginationUtil.generateSliceHttpHeaders(slice, sliceSize))
+            .eTag(ETagUtil.forList(slice.getContent(), FiltersDTO::getId, FiltersDTO::getVersion))
+            .body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /filters?fields=:fields} : get the requested fields of all the filters.
+     * Only the requested columns are read, and the {@code id} is always returned.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param fields the names of the requested fields.
+     * @param after must be absent, keyset pagination does not support sparse fieldsets.
+     * @param size must be absent, keyset pagination does not support sparse fieldsets.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of filters in body, holding the requested fields only,
+     * or with status {@code 400 (Bad Request)} if a field is unknown or a cursor is given.
+     */
+    @GetMapping(value = "/filters", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllFiltersFields(
+        FiltersCriteria criteria,
+        @RequestParam("fields") List<String> fields,
+        @RequestParam(value = "after", required = false) String after,
+        @RequestParam(value = "size", required = false) Integer size
+    ) {
+        log.debug("REST request to get the fields {} of Filters by criteria: {}", fields, criteria);
+        if (after != null || size != null) {
+            throw new BadRequestAlertException("Sparse fieldsets cannot be paginated by cursor", ENTITY_NAME, "fieldsinvalid");
+        }
+        try {
+            return ResponseEntity.ok().body(filtersQueryService.findFieldsByCriteria(criteria, fields));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "fieldsinvalid");
+        }
     }
 
     /**
      * {@code GET  /filters/count} : count all the filters.
      *
      * @param criteria the criteria which the requested entities should match.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     * @param approximate whether an estimate from the database statistics is enough.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body,
+     * and the {@code X-Count-Exact} header telling whether the count is exact or estimated.
      */
     @GetMapping("/filters/count")
-    public ResponseEntity<Long> countFilters(FiltersCriteria criteria) {
-        log.debug("REST request to count Filters by criteria: {}", criteria);
-        return ResponseEntity.ok().body(filtersQueryService.countByCriteria(criteria));
+    public ResponseEntity<Long> countFilters(FiltersCriteria criteria, @RequestParam(defaultValue = "false") boolean approximate) {
+        log.debug("REST request to count Filters by criteria: {}, approximate: {}", criteria, approximate);
+        CountResult count = filtersQueryService.countByCriteria(criteria, approximate);
+        return ResponseEntity.ok().header(COUNT_EXACT_HEADER, String.valueOf(count.isExact())).body(count.getCount());
+    }
+
+    /**
+     * {@code GET  /filters/changes} : stream the committed changes of the filters, as server-sent events.
+     *
+     * @param lastEventId the id of the last event received, to resume a previous stream.
+     * @return the stream of the changes.
+     */
+    @GetMapping(value = "/filters/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getFiltersChanges(@RequestHeader(value = ChangeFeedEmitter.LAST_EVENT_ID, required = false) String lastEventId) {
+        log.debug("REST request to stream the changes of Filters after : {}", lastEventId);
+        return ChangeFeedEmitter.subscribe(changeFeedService, Filters.class, lastEventId);
     }
 
     /**
      * {@code GET  /filters/:id} : get the "id" filters.
      *
+     * A conditional request is read from the primary database, as the entity tag it compares must not lag behind a write.
+     *
      * @param id the id of the filtersDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the filtersDTO, or with status {@code 404 (Not Found)}.
+     * @param ifNoneMatch the entity tags the client already has, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the filtersDTO and its entity tag,
+     * or with status {@code 304 (Not Modified)} if it matches {@code If-None-Match}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/filters/{id}")
-    public ResponseEntity<FiltersDTO> getFilters(@PathVariable Long id) {
+    public ResponseEntity<FiltersDTO> getFilters(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         log.debug("REST request to get Filters : {}", id);
-        Optional<FiltersDTO> filtersDTO = filtersService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(filtersDTO);
+        Optional<FiltersDTO> filtersDTO = ifNoneMatch == null
+            ? filtersService.findOne(id)
+            : ReplicaRoutingDataSource.readFromPrimary(() -> filtersService.findOne(id));
+        return ETagUtil.wrapOrNotFound(filtersDTO, FiltersDTO::getVersion, new HttpHeaders());
     }
 
     /**
      * {@code DELETE  /filters/:id} : delete the "id" filters.
      *
      * @param id the id of the filtersDTO to delete.
-     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     * @param ifMatch the entity tag the filters is expected to have, if any.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 412 (Precondition Failed)} if the filters does not exist or match {@code If-Match}.
      */
     @DeleteMapping("/filters/{id}")
-    public ResponseEntity<Void> deleteFilters(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteFilters(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         log.debug("REST request to delete Filters : {}", id);
-        filtersService.delete(id);
+        Long expectedVersion = ETagUtil.expectedVersion(ifMatch, ENTITY_NAME);
+        if (expectedVersion != null) {
+            ETagUtil.checkPrecondition(ifMatch, ENTITY_NAME, () -> {
+                filtersService.delete(id, expectedVersion);
+                return null;
+            });
+        } else if (ifMatch != null && !filtersRepository.existsById(id)) {
+            throw new PreconditionFailedAlertException("The entity tag does not match", ENTITY_NAME, "preconditionfailed");
+        } else {
+            filtersService.delete(id);
+        }
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * {@code DELETE  /filters} : delete the filters which match the criteria.
+     * <p>
+     * At most {@code limit} filters are deleted per request, the lowest ids first, and the response tells whether more
+     * of them match, for the request to be repeated. A dry run only counts the entities it would delete.
+     *
+     * @param criteria the criteria which the deleted entities should match, with at least one filter.
+     * @param limit the maximum number of filters to delete.
+     * @param dryRun whether to only count the entities which would be deleted.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of filters deleted,
+     * or with status {@code 400 (Bad Request)} if the criteria hold no filter.
+     */
+    @DeleteMapping("/filters")
+    public ResponseEntity<DeleteResult> deleteFilters(
+        FiltersCriteria criteria,
+        @RequestParam(value = "limit", required = false) Integer limit,
+        @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun
+    ) {
+        log.debug("REST request to delete Filters by criteria: {}, limit: {}, dry run: {}", criteria, limit, dryRun);
+        int maxDeleted = limit == null ? DEFAULT_DELETE_LIMIT : Math.max(1, Math.min(limit, MAX_DELETE_LIMIT));
+        try {
+            return ResponseEntity.ok().body(filtersQueryService.deleteByCriteria(criteria, maxDeleted, dryRun));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "criteriarequired");
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package com.mycompany.myapp.web.rest;
+
+import com.mycompany.myapp.service.dto.KeysetCursor;
+import com.mycompany.myapp.service.dto.KeysetSlice;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.util.function.Function;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Utility class for the keyset pagination of the list endpoints: a slice is requested with the {@code after} cursor
+ * and the {@code size} parameters, and the cursor of the next slice is sent in the {@code Link} header.
+ */
+final class KeysetPaginationUtil {
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * The size of the slice to return: the requested size within {@code [1, maxSize]}, or the default size if none
+     * was requested.
+     */
+    static int sliceSize(Integer size, int defaultSize, int maxSize) {
+        return size == null ? defaultSize : Math.max(1, Math.min(size, maxSize));
+    }
+
+    /**
+     * Find a slice, from the decoded cursor or, for the first slice, from the cursor of the first order of the sort.
+     *
+     * @param after the cursor of the slice, as sent in a previous {@code Link} header, or {@code null} for the first one.
+     * @param sort the order of the first slice.
+     * @param entityName the name of the entity, for the error.
+     * @param finder finds the slice following a cursor.
+     * @param <T> the type of the entities.
+     * @return the slice.
+     * @throws BadRequestAlertException if the cursor or the sort is not valid.
+     */
+    static <T> KeysetSlice<T> findSlice(String after, Sort sort, String entityName, Function<KeysetCursor, KeysetSlice<T>> finder) {
+        try {
+            return finder.apply(after != null ? KeysetCursor.decode(after) : firstCursor(sort));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor or sort", entityName, "cursorinvalid");
+        }
+    }
+
+    private static KeysetCursor firstCursor(Sort sort) {
+        return sort
+            .stream()
+            .findFirst()
+            .map(order -> KeysetCursor.first(order.getProperty(), order.getDirection()))
+            .orElseGet(() -> KeysetCursor.first(null, null));
+    }
+
+    /**
+     * Generate the {@code Link} header of the next slice, if there is one, on the current request.
+     */
+    static HttpHeaders generateSliceHttpHeaders(KeysetSlice<?> slice, int sliceSize) {
+        HttpHeaders headers = new HttpHeaders();
+        slice
+            .getNext()
+            .ifPresent(next -> {
+                String link = ServletUriComponentsBuilder
+                    .fromCurrentRequest()
+                    .replaceQueryParam("after", next.encode())
+                    .replaceQueryParam("size", sliceSize)
+                    .toUriString();
+                headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+            });
+        return headers;
+    }
+}
@@ -0,0 +1,113 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.service.CrawlerIndex;
+import com.mycompany.myapp.service.CrawlerQueryService;
+import com.mycompany.myapp.service.CrawlerService;
+import com.mycompany.myapp.service.criteria.CrawlerCriteria;
+import com.mycompany.myapp.service.dto.CrawlerDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import tech.jhipster.service.filter.IntegerFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Integration tests for the in-memory {@link CrawlerIndex}, kept up to date by the services writing crawlers.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.crawler-index.enabled=true")
+class CrawlerIndexIT {
+
+    @Autowired
+    private CrawlerIndex crawlerIndex;
+
+    @Autowired
+    private CrawlerService crawlerService;
+
+    @Autowired
+    private CrawlerQueryService crawlerQueryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long crawlerRepositoryQueries() {
+        return meterRegistry
+            .find("hibernate.query.executions")
+            .tag("repository", "CrawlerRepository")
+            .timers()
+            .stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
+
+    private static CrawlerDTO crawler(String name, int fetch, String source) {
+        CrawlerDTO crawlerDTO = new CrawlerDTO();
+        crawlerDTO.setName(name);
+        crawlerDTO.setFetch(fetch);
+        crawlerDTO.setSource(source);
+        return crawlerDTO;
+    }
+
+    @Test
+    void writesAreAppliedToTheIndex() {
+        CrawlerDTO saved = crawlerService.save(crawler("AAAAAAAAAA", 1, "https://index.example.com"));
+        try {
+            assertThat(crawlerIndex.get(saved.getId())).isNotNull();
+            assertThat(crawlerIndex.get(saved.getId()).getSource()).isEqualTo("https://index.example.com");
+
+            CrawlerDTO patch = new CrawlerDTO();
+            patch.setId(saved.getId());
+            patch.setFetch(2);
+            crawlerService.partialUpdate(patch);
+            assertThat(crawlerIndex.get(saved.getId()).getFetch()).isEqualTo(2);
+            assertThat(crawlerIndex.get(saved.getId()).getName()).isEqualTo("AAAAAAAAAA");
+        } finally {
+            crawlerService.delete(saved.getId());
+        }
+        assertThat(crawlerIndex.get(saved.getId())).isNull();
+    }
+
+    @Test
+    void readsAreServedFromTheIndex() {
+        CrawlerDTO first = crawlerService.save(crawler("AAAAAAAAAA", 41, "https://index.example.org/a"));
+        CrawlerDTO second = crawlerService.save(crawler("BBBBBBBBBB", 42, "https://index.example.org/b"));
+        try {
+            long queries = crawlerRepositoryQueries();
+
+            assertThat(crawlerService.findOne(first.getId()))
+                .hasValueSatisfying(found -> assertThat(found.getName()).isEqualTo("AAAAAAAAAA"));
+
+            CrawlerCriteria byFetch = new CrawlerCriteria();
+            IntegerFilter fetch = new IntegerFilter();
+            fetch.setGreaterThan(40);
+            fetch.setLessThanOrEqual(42);
+            byFetch.setFetch(fetch);
+            assertThat(crawlerQueryService.findByCriteria(byFetch))
+                .extracting(CrawlerDTO::getId)
+                .containsExactly(first.getId(), second.getId());
+            assertThat(crawlerQueryService.findByCriteria(byFetch, PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"))))
+                .extracting(CrawlerDTO::getId)
+                .containsExactly(second.getId());
+            assertThat(crawlerQueryService.countByCriteria(byFetch)).isEqualTo(2);
+
+            assertThat(crawlerRepositoryQueries()).isEqualTo(queries);
+
+            CrawlerCriteria byName = new CrawlerCriteria();
+            StringFilter name = new StringFilter();
+            name.setEquals("BBBBBBBBBB");
+            byName.setName(name);
+            assertThat(crawlerQueryService.findByCriteria(byName)).extracting(CrawlerDTO::getId).contains(second.getId());
+            assertThat(crawlerRepositoryQueries()).isGreaterThan(queries);
+        } finally {
+            crawlerService.delete(first.getId());
+            crawlerService.delete(second.getId());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mycompany.myapp.service.dto.CrawlerDTO;
+import com.mycompany.myapp.service.dto.FiltersDTO;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+class JsonListHttpMessageConverterTest {
+
+    private static final Type CRAWLER_LIST_TYPE = new ParameterizedTypeReference<List<CrawlerDTO>>() {}.getType();
+
+    private static final Type FILTERS_LIST_TYPE = new ParameterizedTypeReference<List<FiltersDTO>>() {}.getType();
+
+    private MappingJackson2HttpMessageConverter defaultConverter;
+
+    private MappingJackson2HttpMessageConverter listConverter;
+
+    private List<CrawlerDTO> crawlers;
+
+    @BeforeEach
+    void setUp() {
+        JacksonConfiguration configuration = new JacksonConfiguration();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder
+            .json()
+            .modules(configuration.javaTimeModule(), configuration.jdk8TimeModule(), configuration.blackbirdModule())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        defaultConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        listConverter = new JsonListHttpMessageConverter(objectMapper, CrawlerDTO.class);
+
+        CrawlerDTO crawler = new CrawlerDTO();
+        crawler.setId(1L);
+        crawler.setVersion(0L);
+        crawler.setName("crawler-é");
+        crawler.setFetch(5);
+        crawler.setSource("https://example.com/1");
+        crawlers = List.of(crawler, new CrawlerDTO());
+    }
+
+    private static String write(MappingJackson2HttpMessageConverter converter, Object value, Type type, MediaType contentType)
+        throws Exception {
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(value, type, contentType, outputMessage);
+        return outputMessage.getBodyAsString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void listIsWrittenAsByTheDefaultConverter() throws Exception {
+        String written = write(listConverter, crawlers, CRAWLER_LIST_TYPE, MediaType.APPLICATION_JSON);
+
+        assertThat(written)
+            .isEqualTo(write(defaultConverter, crawlers, CRAWLER_LIST_TYPE, MediaType.APPLICATION_JSON))
+            .contains("\"name\":\"crawler-é\"");
+    }
+
+    @Test
+    void otherValuesAreWrittenByTheDefaultConverter() throws Exception {
+        FiltersDTO filters = new FiltersDTO();
+        filters.setId(2L);
+
+        assertThat(write(listConverter, List.of(filters), FILTERS_LIST_TYPE, MediaType.APPLICATION_JSON))
+            .isEqualTo(write(defaultConverter, List.of(filters), FILTERS_LIST_TYPE, MediaType.APPLICATION_JSON));
+        assertThat(write(listConverter, Set.of(crawlers.get(0)), CrawlerDTO.class, MediaType.APPLICATION_JSON))
+            .isEqualTo(write(defaultConverter, Set.of(crawlers.get(0)), CrawlerDTO.class, MediaType.APPLICATION_JSON));
+        assertThat(write(listConverter, Map.of("count", 1), null, MediaType.APPLICATION_JSON)).isEqualTo("{\"count\":1}");
+    }
+
+    @Test
+    void listInAnotherCharsetIsWrittenByTheDefaultConverter() throws Exception {
+        MediaType utf16 = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_16BE);
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        listConverter.write(crawlers, CRAWLER_LIST_TYPE, utf16, outputMessage);
+
+        assertThat(outputMessage.getBodyAsString(StandardCharsets.UTF_16BE))
+            .isEqualTo(write(defaultConverter, crawlers, CRAWLER_LIST_TYPE, MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,68 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.repository.CrawlerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the query metrics.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class QueryMetricsIT {
+
+    @Autowired
+    private CrawlerRepository crawlerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueriesEndpoint queriesEndpoint;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private long crawlerRepositoryQueries() {
+        return meterRegistry
+            .find("hibernate.query.executions")
+            .tag("repository", "CrawlerRepository")
+            .timers()
+            .stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
+
+    @Test
+    @Transactional
+    void queriesArePublishedPerRepositoryAndPerRequest() throws Exception {
+        crawlerRepository.saveAndFlush(new Crawler().name("AAAAAAAAAA").fetch(0).source("AAAAAAAAAA"));
+        long queries = crawlerRepositoryQueries();
+
+        restMockMvc.perform(get("/api/crawlers?sort=id,desc")).andExpect(status().isOk());
+
+        assertThat(crawlerRepositoryQueries()).isGreaterThan(queries);
+        assertThat(
+            meterRegistry.get("http.server.requests.statements").tag("method", "GET").tag("uri", "/api/crawlers").summary().totalAmount()
+        )
+            .isPositive();
+        assertThat(queriesEndpoint.queries(null))
+            .isNotEmpty()
+            .allSatisfy(shape -> assertThat(shape.getCount()).isPositive())
+            .anySatisfy(shape -> assertThat(shape.getQuery()).startsWith("select").contains(" from crawler "));
+        assertThat(queriesEndpoint.queries(1)).hasSize(1);
+    }
+}
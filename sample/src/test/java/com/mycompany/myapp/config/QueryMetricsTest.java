@@ -0,0 +1,107 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+
+class QueryMetricsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final QueryMetrics queryMetrics = new QueryMetrics(meterRegistry, 2, Duration.ofMillis(100));
+
+    @Test
+    void normalizeCollapsesLiteralsInListsAndWhitespace() {
+        assertThat(QueryMetrics.normalize("select c from Crawler c\n  where c.name = 'it''s' and c.fetch > 10 and c.id in (:p0, :p1, :p2)"))
+            .isEqualTo("select c from Crawler c where c.name = ? and c.fetch > ? and c.id in (?)");
+        assertThat(QueryMetrics.normalize("select * from crawler where id in (?, ?) and source2 = ?"))
+            .isEqualTo("select * from crawler where id in (?) and source2 = ?");
+    }
+
+    @Test
+    void queriesOfTheSameShapeAreMeasuredTogether() {
+        String previous = queryMetrics.enterRepository("CrawlerRepository");
+        queryMetrics.queryExecuted("select c from Crawler c where c.id = 1", 1, 2);
+        queryMetrics.queryExecuted("select c from Crawler c where c.id = 2", 0, 4);
+        queryMetrics.exitRepository(previous);
+        queryMetrics.queryExecuted("select f from Filters f", 3, 1);
+
+        assertThat(queryMetrics.getSlowestQueries(10))
+            .extracting(QueryMetrics.QueryShape::getQuery, QueryMetrics.QueryShape::getCount, QueryMetrics.QueryShape::getRows)
+            .containsExactly(
+                Tuple.tuple("select c from Crawler c where c.id = ?", 2L, 1L),
+                Tuple.tuple("select f from Filters f", 1L, 3L)
+            );
+        String id = queryMetrics.getSlowestQueries(1).get(0).getId();
+        assertThat(meterRegistry.get("hibernate.query.executions").tag("query", id).tag("repository", "CrawlerRepository").timer().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.find("hibernate.query.executions").tag("repository", QueryMetrics.NO_REPOSITORY).timer()).isNotNull();
+    }
+
+    @Test
+    void queriesAreShapedByTheirSql() {
+        queryMetrics.queryExecuted("select c from Crawler c where c.id = 1", hql -> "select c.id, c.name from crawler c where c.id = 1", 1, 2);
+        queryMetrics.queryExecuted(
+            "select c from Crawler c where c.id = 2",
+            hql -> {
+                throw new AssertionError("The SQL of a known shape is not rendered again");
+            },
+            1,
+            2
+        );
+
+        assertThat(queryMetrics.getSlowestQueries(10))
+            .extracting(QueryMetrics.QueryShape::getQuery, QueryMetrics.QueryShape::getCount)
+            .containsExactly(Tuple.tuple("select c.id, c.name from crawler c where c.id = ?", 2L));
+        assertThat(meterRegistry.get("hibernate.query.executions").timers()).hasSize(1);
+    }
+
+    @Test
+    void shapesBeyondTheMaximumAreMeasuredAsOther() {
+        queryMetrics.queryExecuted("select a from A a", 0, 1);
+        queryMetrics.queryExecuted("select b from B b", 0, 1);
+        queryMetrics.queryExecuted("select c from C c", 0, 1);
+        queryMetrics.queryExecuted("select d from D d", 0, 1);
+
+        assertThat(queryMetrics.getSlowestQueries(10))
+            .extracting(QueryMetrics.QueryShape::getId)
+            .contains(QueryMetrics.OTHER_SHAPE)
+            .hasSize(3);
+        assertThat(meterRegistry.get("hibernate.query.executions").tag("query", QueryMetrics.OTHER_SHAPE).timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void slowQueriesAreCounted() {
+        queryMetrics.queryExecuted("select c from Crawler c", 0, 50);
+        queryMetrics.queryExecuted("select c from Crawler c", 0, 150);
+
+        assertThat(meterRegistry.get("hibernate.query.slow").counter().count()).isEqualTo(1);
+        assertThat(queryMetrics.getSlowestQueries(1).get(0).getMaxTime()).isEqualTo(150);
+    }
+
+    @Test
+    void statementsAreCountedPerRequest() {
+        queryMetrics.statementPrepared();
+        queryMetrics.startRequest();
+        queryMetrics.statementPrepared();
+        queryMetrics.statementPrepared();
+
+        assertThat(queryMetrics.finishRequest()).isEqualTo(2);
+        assertThat(queryMetrics.finishRequest()).isZero();
+    }
+
+    @Test
+    void cacheHitRatioIsPublished() {
+        queryMetrics.cacheRequested("second-level", "com.mycompany.myapp.domain.Crawler", true);
+        queryMetrics.cacheRequested("second-level", "com.mycompany.myapp.domain.Crawler", true);
+        queryMetrics.cacheRequested("second-level", "com.mycompany.myapp.domain.Crawler", false);
+        queryMetrics.cacheRequested("second-level", "com.mycompany.myapp.domain.Crawler", true);
+
+        assertThat(meterRegistry.get("hibernate.cache.hit.ratio").tag("cache", "second-level").gauge().value()).isEqualTo(0.75);
+        assertThat(meterRegistry.get("hibernate.cache.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+}
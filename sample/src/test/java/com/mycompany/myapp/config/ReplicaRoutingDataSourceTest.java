@@ -0,0 +1,141 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Routes between two local databases, each telling its name, as a primary and its replica.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicReference<Object> replicaLag = new AtomicReference<>(Duration.ZERO);
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        routingDataSource =
+            new ReplicaRoutingDataSource(
+                "primary",
+                primary,
+                Map.of("replica", replica),
+                MAX_LAG,
+                connection -> {
+                    Object lag = replicaLag.get();
+                    if (lag instanceof SQLException) {
+                        throw (SQLException) lag;
+                    }
+                    return (Duration) lag;
+                },
+                meterRegistry
+            );
+        routingDataSource.checkReplicas();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        routingDataSource.close();
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table database_name (name varchar(20))");
+        jdbcTemplate.update("insert into database_name values (?)", name);
+        return dataSource;
+    }
+
+    private String databaseName(boolean readOnly) {
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select name from database_name", String.class));
+    }
+
+    private double routedConnections(String pool, String reason) {
+        return meterRegistry.get("datasource.routing.connections").tag("pool", pool).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertThat(databaseName(true)).isEqualTo("replica");
+        assertThat(routedConnections("replica", "read-only")).isEqualTo(1);
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("pool", "replica").gauge().value()).isZero();
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        double readWrite = routedConnections("primary", "read-write");
+
+        assertThat(databaseName(false)).isEqualTo("primary");
+        assertThat(jdbcTemplate.queryForObject("select name from database_name", String.class)).isEqualTo("primary");
+        assertThat(routedConnections("primary", "read-write")).isEqualTo(readWrite + 2);
+    }
+
+    @Test
+    void readsFromThePrimaryAreRoutedToThePrimaryEvenWhenReadOnly() {
+        assertThat(ReplicaRoutingDataSource.readFromPrimary(() -> databaseName(true))).isEqualTo("primary");
+        assertThat(routedConnections("primary", "primary-required")).isEqualTo(1);
+        assertThat(databaseName(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimaryUntilItCatchesUp() {
+        replicaLag.set(MAX_LAG.plusSeconds(1));
+        routingDataSource.checkReplicas();
+
+        assertThat(databaseName(true)).isEqualTo("primary");
+        assertThat(routedConnections("primary", "fallback")).isEqualTo(1);
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("pool", "replica").gauge().value()).isEqualTo(6);
+
+        replicaLag.set(MAX_LAG);
+        routingDataSource.checkReplicas();
+
+        assertThat(databaseName(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        replicaLag.set(new SQLException("Connection refused"));
+        routingDataSource.checkReplicas();
+
+        assertThat(databaseName(true)).isEqualTo("primary");
+        assertThat(meterRegistry.get("datasource.replica.lag").tag("pool", "replica").gauge().value()).isNaN();
+    }
+
+    @Test
+    void unknownLagFallsBackToThePrimary() {
+        replicaLag.set(null);
+        routingDataSource.checkReplicas();
+
+        assertThat(databaseName(true)).isEqualTo("primary");
+    }
+}
@@ -0,0 +1,68 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.service.CrawlerQueryService;
+import com.mycompany.myapp.service.CrawlerService;
+import com.mycompany.myapp.service.criteria.CrawlerCriteria;
+import com.mycompany.myapp.service.dto.CrawlerDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the routing of read-only transactions, with a replica pool connected to the test database.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.datasource.replicas[0].url=jdbc:h2:mem:sample;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+class ReplicaRoutingIT {
+
+    @Autowired
+    private CrawlerService crawlerService;
+
+    @Autowired
+    private CrawlerQueryService crawlerQueryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double routedConnections(String pool, String reason) {
+        return meterRegistry.get("datasource.routing.connections").tag("pool", pool).tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaPool() {
+        double readOnly = routedConnections("primary-replica-1", "read-only");
+        double readWrite = routedConnections("primary", "read-write");
+
+        CrawlerDTO crawlerDTO = new CrawlerDTO();
+        crawlerDTO.setName("AAAAAAAAAA");
+        crawlerDTO.setFetch(0);
+        crawlerDTO.setSource("AAAAAAAAAA");
+        CrawlerDTO saved = crawlerService.save(crawlerDTO);
+        try {
+            assertThat(routedConnections("primary", "read-write")).isEqualTo(readWrite + 1);
+
+            assertThat(crawlerService.findAll()).extracting(CrawlerDTO::getId).contains(saved.getId());
+            assertThat(routedConnections("primary-replica-1", "read-only")).isEqualTo(readOnly + 1);
+            assertThat(routedConnections("primary", "read-write")).isEqualTo(readWrite + 1);
+        } finally {
+            crawlerService.delete(saved.getId());
+        }
+    }
+
+    @Test
+    void countsAreReadFromTheReplicaAndSingleCrawlersFromThePrimaryOnlyWhenAsked() {
+        double readOnly = routedConnections("primary-replica-1", "read-only");
+        double primaryRequired = routedConnections("primary", "primary-required");
+
+        crawlerQueryService.countByCriteria(new CrawlerCriteria());
+        assertThat(routedConnections("primary-replica-1", "read-only")).isEqualTo(readOnly + 1);
+
+        ReplicaRoutingDataSource.readFromPrimary(() -> crawlerService.findOne(Long.MAX_VALUE));
+        assertThat(routedConnections("primary", "primary-required")).isEqualTo(primaryRequired + 1);
+        assertThat(routedConnections("primary-replica-1", "read-only")).isEqualTo(readOnly + 1);
+    }
+}
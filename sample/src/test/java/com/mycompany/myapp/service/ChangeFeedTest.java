@@ -0,0 +1,172 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.service.dto.ChangeDTO;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.Test;
+
+class ChangeFeedTest {
+
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+
+    private final Executor executor = pendingTasks::add;
+
+    private final ChangeFeed feed = new ChangeFeed("crawler", "epoch", 3, 2, Duration.ofMinutes(1), executor);
+
+    private void runPendingTasks() {
+        while (!pendingTasks.isEmpty()) {
+            pendingTasks.remove(0).run();
+        }
+    }
+
+    private static ChangeDTO updated(long id) {
+        return new ChangeDTO(ChangeDTO.Type.UPDATED, id, 1L);
+    }
+
+    @Test
+    void freshSubscriptionOpensAtTheCurrentEvent() {
+        feed.publish(updated(1));
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        feed.subscribe(null, subscriber);
+        feed.publish(updated(2));
+        runPendingTasks();
+
+        assertThat(subscriber.events).containsExactly("open epoch-1", "change epoch-2 2");
+    }
+
+    @Test
+    void subscriptionResumesAfterTheLastEventId() {
+        feed.publish(updated(1));
+        feed.publish(updated(2));
+        feed.publish(updated(3));
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        feed.subscribe("epoch-1", subscriber);
+        runPendingTasks();
+
+        assertThat(subscriber.events).containsExactly("change epoch-2 2", "change epoch-3 3");
+    }
+
+    @Test
+    void subscriptionResetsWhenChangesWereMissed() {
+        for (long id = 1; id <= 5; id++) {
+            feed.publish(updated(id));
+        }
+
+        RecordingSubscriber forgotten = new RecordingSubscriber();
+        feed.subscribe("epoch-1", forgotten);
+        RecordingSubscriber restarted = new RecordingSubscriber();
+        feed.subscribe("other-4", restarted);
+        RecordingSubscriber malformed = new RecordingSubscriber();
+        feed.subscribe("epoch-x", malformed);
+        runPendingTasks();
+
+        assertThat(forgotten.events).containsExactly("reset epoch-5");
+        assertThat(restarted.events).containsExactly("reset epoch-5");
+        assertThat(malformed.events).containsExactly("reset epoch-5");
+    }
+
+    @Test
+    void slowSubscriberIsDropped() {
+        RecordingSubscriber slow = new RecordingSubscriber();
+        feed.subscribe(null, slow);
+
+        feed.publish(updated(1));
+        feed.publish(updated(2));
+        assertThat(feed.getSubscriberCount()).isZero();
+        assertThat(feed.getDroppedCount()).isEqualTo(1);
+        runPendingTasks();
+
+        assertThat(slow.events).containsExactly("dropped");
+    }
+
+    @Test
+    void failingSubscriberIsDropped() {
+        RecordingSubscriber failing = new RecordingSubscriber() {
+            @Override
+            public void onChange(String eventId, ChangeDTO change) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        feed.subscribe(null, failing);
+
+        feed.publish(updated(1));
+        runPendingTasks();
+        feed.publish(updated(2));
+        runPendingTasks();
+
+        assertThat(failing.events).containsExactly("open epoch-0", "dropped");
+        assertThat(feed.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void stalledSubscriberIsDroppedWithTheNextHeartbeat() {
+        ChangeFeed stallingFeed = new ChangeFeed("crawler", "epoch", 3, 2, Duration.ZERO, executor);
+        RecordingSubscriber stalled = new RecordingSubscriber() {
+            @Override
+            public void onChange(String eventId, ChangeDTO change) throws IOException {
+                super.onChange(eventId, change);
+                // the heartbeat runs while the write is still in progress
+                stallingFeed.heartbeat();
+            }
+        };
+        stallingFeed.subscribe(null, stalled);
+
+        stallingFeed.publish(updated(1));
+        runPendingTasks();
+
+        assertThat(stalled.events).containsExactly("open epoch-0", "change epoch-1 1", "dropped");
+        assertThat(stallingFeed.getSubscriberCount()).isZero();
+        assertThat(stallingFeed.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void heartbeatsDoNotDropSubscribers() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        feed.subscribe(null, subscriber);
+
+        feed.heartbeat();
+        feed.heartbeat();
+        feed.heartbeat();
+        runPendingTasks();
+
+        assertThat(subscriber.events).containsExactly("open epoch-0", "heartbeat");
+        assertThat(feed.getSubscriberCount()).isEqualTo(1);
+    }
+
+    private static class RecordingSubscriber implements ChangeFeed.Subscriber {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onOpen(String eventId) throws IOException {
+            events.add("open " + eventId);
+        }
+
+        @Override
+        public void onReset(String eventId) throws IOException {
+            events.add("reset " + eventId);
+        }
+
+        @Override
+        public void onChange(String eventId, ChangeDTO change) throws IOException {
+            events.add("change " + eventId + " " + change.getId());
+        }
+
+        @Override
+        public void onHeartbeat() throws IOException {
+            events.add("heartbeat");
+        }
+
+        @Override
+        public void onDropped() {
+            events.add("dropped");
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.service.criteria.CrawlerCriteria;
+import com.mycompany.myapp.service.criteria.PrefixStringFilter;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.jhipster.service.filter.IntegerFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+class CrawlerIndexTest {
+
+    private final CrawlerIndex crawlerIndex = new CrawlerIndex();
+
+    @BeforeEach
+    void fill() {
+        crawlerIndex.putAll(
+            List.of(
+                new CrawlerIndex.Entry(3L, "c", 10, "https://example.com/a", 0L),
+                new CrawlerIndex.Entry(1L, "a", 5, "https://example.com", 0L),
+                new CrawlerIndex.Entry(2L, "b", 10, "https://example.org", 0L),
+                new CrawlerIndex.Entry(4L, "d", 20, "https://example.com/b", 0L)
+            )
+        );
+    }
+
+    private static List<Long> ids(List<CrawlerIndex.Entry> entries) {
+        return entries.stream().map(CrawlerIndex.Entry::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void entriesArePutAndRemoved() {
+        assertThat(crawlerIndex.size()).isEqualTo(4);
+        assertThat(crawlerIndex.get(2L).getSource()).isEqualTo("https://example.org");
+
+        crawlerIndex.removeAll(List.of(2L, 42L));
+
+        assertThat(crawlerIndex.size()).isEqualTo(3);
+        assertThat(crawlerIndex.get(2L)).isNull();
+        assertThat(ids(crawlerIndex.find(null))).containsExactly(1L, 3L, 4L);
+    }
+
+    @Test
+    void olderVersionDoesNotReplaceNewerOne() {
+        crawlerIndex.putAll(List.of(new CrawlerIndex.Entry(1L, "a2", 7, "https://example.net", 2L)));
+        crawlerIndex.putAll(List.of(new CrawlerIndex.Entry(1L, "a1", 6, "https://example.com", 1L)));
+
+        assertThat(crawlerIndex.get(1L).getName()).isEqualTo("a2");
+        assertThat(crawlerIndex.get(1L).getVersion()).isEqualTo(2L);
+
+        CrawlerCriteria criteria = new CrawlerCriteria();
+        IntegerFilter fetch = new IntegerFilter();
+        fetch.setEquals(5);
+        criteria.setFetch(fetch);
+        assertThat(crawlerIndex.find(criteria)).isEmpty();
+    }
+
+    @Test
+    void updateAppliedAfterTheRemovalDoesNotBringTheCrawlerBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Crawler crawler = new Crawler().id(1L).name("a1").fetch(6).source("https://example.com");
+            crawler.setVersion(1L);
+            crawlerIndex.putAllAfterCommit(List.of(crawler));
+
+            // the removal commits after the update, but is applied first
+            crawlerIndex.removeAll(List.of(1L));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(crawlerIndex.get(1L)).isNull();
+        assertThat(ids(crawlerIndex.find(null))).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void removedIdIsDroppedOnceNoWriteIsPending() {
+        crawlerIndex.removeAll(List.of(1L));
+        crawlerIndex.putAll(List.of(new CrawlerIndex.Entry(1L, "a1", 6, "https://example.com", 1L)));
+
+        assertThat(crawlerIndex.get(1L)).isNotNull();
+    }
+
+    @Test
+    void fetchRangeIsServed() {
+        CrawlerCriteria criteria = new CrawlerCriteria();
+        IntegerFilter fetch = new IntegerFilter();
+        fetch.setGreaterThanOrEqual(10);
+        fetch.setLessThan(20);
+        criteria.setFetch(fetch);
+
+        assertThat(ids(crawlerIndex.find(criteria))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void sourceEqualsIsServed() {
+        CrawlerCriteria criteria = new CrawlerCriteria();
+        PrefixStringFilter source = new PrefixStringFilter();
+        source.setEquals("https://example.com");
+        criteria.setSource(source);
+
+        assertThat(ids(crawlerIndex.find(criteria))).containsExactly(1L);
+        source.setEquals("https://example.com/a");
+        assertThat(ids(crawlerIndex.find(criteria))).containsExactly(3L);
+        source.setEquals("https://example");
+        assertThat(crawlerIndex.find(criteria)).isEmpty();
+    }
+
+    @Test
+    void sourcePrefixIsServed() {
+        CrawlerCriteria criteria = new CrawlerCriteria();
+        criteria.source().setStartsWith("https://example.com/");
+
+        assertThat(ids(crawlerIndex.find(criteria))).containsExactly(3L, 4L);
+        criteria.source().setStartsWith("https://example.");
+        assertThat(ids(crawlerIndex.find(criteria))).containsExactly(1L, 2L, 3L, 4L);
+        criteria.source().setStartsWith("https://example.net");
+        assertThat(crawlerIndex.find(criteria)).isEmpty();
+
+        crawlerIndex.removeAll(List.of(4L));
+        criteria.source().setStartsWith("https://example.com/");
+        assertThat(ids(crawlerIndex.find(criteria))).containsExactly(3L);
+    }
+
+    @Test
+    void repeatedInValuesMatchOnce() {
+        CrawlerCriteria criteria = new CrawlerCriteria();
+        LongFilter id = new LongFilter();
+        id.setIn(List.of(4L, 1L, 4L, 42L));
+        criteria.setId(id);
+
+        assertThat(ids(crawlerIndex.find(criteria))).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void filtersCombineWithAnd() {
+        CrawlerCriteria criteria = new CrawlerCriteria();
+        IntegerFilter fetch = new IntegerFilter();
+        fetch.setEquals(10);
+        criteria.setFetch(fetch);
+        LongFilter id = new LongFilter();
+        id.setGreaterThan(2L);
+        criteria.setId(id);
+
+        assertThat(ids(crawlerIndex.find(criteria))).containsExactly(3L);
+    }
+
+    @Test
+    void unsupportedCriteriaAreNotServed() {
+        CrawlerCriteria byName = new CrawlerCriteria();
+        StringFilter name = new StringFilter();
+        name.setEquals("a");
+        byName.setName(name);
+        assertThat(crawlerIndex.find(byName)).isNull();
+
+        CrawlerCriteria bySourceContains = new CrawlerCriteria();
+        PrefixStringFilter source = new PrefixStringFilter();
+        source.setContains("example");
+        bySourceContains.setSource(source);
+        assertThat(crawlerIndex.find(bySourceContains)).isNull();
+
+        CrawlerCriteria byFetchNotEquals = new CrawlerCriteria();
+        IntegerFilter fetch = new IntegerFilter();
+        fetch.setNotEquals(10);
+        byFetchNotEquals.setFetch(fetch);
+        assertThat(crawlerIndex.find(byFetchNotEquals)).isNull();
+    }
+}
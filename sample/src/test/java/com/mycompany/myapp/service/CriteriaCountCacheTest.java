@@ -0,0 +1,65 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.domain.Filters;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CriteriaCountCacheTest {
+
+    private final CriteriaCountCache countCache = new CriteriaCountCache();
+
+    @Test
+    void countIsCachedPerKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThat(countCache.get(Crawler.class, "a", () -> calls.incrementAndGet() * 10L)).isEqualTo(10L);
+        assertThat(countCache.get(Crawler.class, "a", () -> calls.incrementAndGet() * 10L)).isEqualTo(10L);
+        assertThat(countCache.get(Crawler.class, "b", () -> calls.incrementAndGet() * 10L)).isEqualTo(20L);
+        assertThat(countCache.get(Crawler.class, "a")).hasValue(10L);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void evictOnlyAffectsTheWrittenEntity() {
+        countCache.get(Crawler.class, "a", () -> 1L);
+        countCache.get(Filters.class, "a", () -> 2L);
+
+        countCache.evict(Crawler.class);
+
+        assertThat(countCache.get(Crawler.class, "a")).isEmpty();
+        assertThat(countCache.get(Filters.class, "a")).hasValue(2L);
+    }
+
+    @Test
+    void countRunningDuringAWriteIsNotCached() {
+        long count = countCache.get(
+            Crawler.class,
+            "a",
+            () -> {
+                countCache.evict(Crawler.class);
+                return 1L;
+            }
+        );
+
+        assertThat(count).isEqualTo(1L);
+        assertThat(countCache.get(Crawler.class, "a")).isEmpty();
+    }
+
+    @Test
+    void countTakenWithinTheReplicaLagOfAnEvictionIsNotCached() {
+        countCache.setReplicaLag(Duration.ofHours(1));
+        countCache.get(Crawler.class, "a", () -> 1L);
+        assertThat(countCache.get(Crawler.class, "a")).hasValue(1L);
+
+        countCache.evict(Crawler.class);
+
+        assertThat(countCache.get(Crawler.class, "a", () -> 2L)).isEqualTo(2L);
+        assertThat(countCache.get(Crawler.class, "a")).isEmpty();
+        assertThat(countCache.get(Filters.class, "a", () -> 3L)).isEqualTo(3L);
+        assertThat(countCache.get(Filters.class, "a")).hasValue(3L);
+    }
+}
@@ -0,0 +1,134 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.service.CriteriaQueryPlanCache.CompiledQuery;
+import com.mycompany.myapp.service.criteria.CrawlerCriteria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import tech.jhipster.service.filter.IntegerFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+class CriteriaQueryPlanCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CriteriaQueryPlanCache<CrawlerCriteria> queryPlans;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        queryPlans =
+            CriteriaQueryPlanCache
+                .builder(Crawler.class, CrawlerCriteria::getDistinct)
+                .rangeFilter("id", CrawlerCriteria::getId)
+                .stringFilter("name", CrawlerCriteria::getName)
+                .rangeFilter("fetch", CrawlerCriteria::getFetch)
+                .stringFilter("source", CrawlerCriteria::getSource)
+                .build(meterRegistry, 2);
+    }
+
+    @Test
+    void criteriaOfTheSameShapeShareTheQuery() {
+        CompiledQuery first = queryPlans.compile(nameContains("aaa"), Sort.unsorted());
+        CompiledQuery second = queryPlans.compile(nameContains("bbb"), Sort.unsorted());
+
+        assertThat(first.getQuery()).isEqualTo("select e from Crawler e where upper(e.name) like ?1").isSameAs(second.getQuery());
+        assertThat(first.getCountQuery()).isEqualTo("select count(e) from Crawler e where upper(e.name) like ?1");
+        assertThat(first.getParameters()).containsExactly("%AAA%");
+        assertThat(second.getParameters()).containsExactly("%BBB%");
+        assertThat(hits()).isEqualTo(1);
+        assertThat(misses()).isEqualTo(1);
+    }
+
+    @Test
+    void operatorsAreTranslatedLikeQueryService() {
+        CrawlerCriteria criteria = new CrawlerCriteria();
+        criteria.setDistinct(true);
+        LongFilter id = new LongFilter();
+        id.setEquals(1L);
+        id.setGreaterThan(5L);
+        criteria.setId(id);
+        StringFilter name = new StringFilter();
+        name.setIn(List.of());
+        name.setContains("ignored");
+        criteria.setName(name);
+        IntegerFilter fetch = new IntegerFilter();
+        fetch.setSpecified(true);
+        fetch.setGreaterThanOrEqual(2);
+        fetch.setNotIn(List.of(3, 4));
+        criteria.setFetch(fetch);
+
+        CompiledQuery query = queryPlans.compile(criteria, Sort.by(Sort.Direction.DESC, "fetch").and(Sort.by("id")));
+
+        assertThat(query.getQuery())
+            .isEqualTo(
+                "select distinct e from Crawler e where e.id = ?1 and 1 = 0" +
+                " and e.fetch is not null and e.fetch not in (?2) and e.fetch >= ?3 order by e.fetch desc, e.id asc"
+            );
+        assertThat(query.getCountQuery()).startsWith("select count(distinct e) from Crawler e where e.id = ?1");
+        assertThat(query.getParameters()).containsExactly(1L, List.of(3, 4), 2);
+    }
+
+    @Test
+    void sourcePrefixIsMatchedWithItsWildcardsEscaped() {
+        CrawlerCriteria criteria = new CrawlerCriteria();
+        criteria.source().setStartsWith("https://a_b%c/");
+        criteria.source().setSpecified(true);
+
+        CompiledQuery query = queryPlans.compile(criteria, Sort.unsorted());
+
+        assertThat(query.getQuery())
+            .isEqualTo("select e from Crawler e where e.source is not null and e.source like ?1 escape '\\'");
+        assertThat(query.getParameters()).containsExactly("https://a\\_b\\%c/%");
+    }
+
+    @Test
+    void selectionIsPartOfTheShape() {
+        CompiledQuery entities = queryPlans.compile(nameContains("aaa"), Sort.unsorted());
+        CompiledQuery fields = queryPlans.compile(nameContains("aaa"), Sort.unsorted(), List.of("id", "name"));
+
+        assertThat(fields.getQuery()).isEqualTo("select e.id, e.name from Crawler e where upper(e.name) like ?1");
+        assertThat(fields.getCountQuery()).isEqualTo(entities.getCountQuery());
+        assertThat(fields.getParameters()).containsExactly("%AAA%");
+        assertThat(misses()).isEqualTo(2);
+    }
+
+    @Test
+    void sortByAnUnknownPropertyIsNotCompiled() {
+        assertThat(queryPlans.compile(null, Sort.by("unknown"))).isNull();
+        assertThat(queryPlans.compile(null, Sort.by(Sort.Order.asc("name").ignoreCase()))).isNull();
+        assertThat(queryPlans.compile(null, Sort.unsorted()).getQuery()).isEqualTo("select e from Crawler e");
+    }
+
+    @Test
+    void cacheIsBounded() {
+        queryPlans.compile(null, Sort.by("id"));
+        queryPlans.compile(null, Sort.by("name"));
+        queryPlans.compile(null, Sort.by("fetch"));
+        queryPlans.compile(null, Sort.by("fetch"));
+
+        assertThat(queryPlans.size()).isEqualTo(2);
+        assertThat(misses()).isEqualTo(4);
+        assertThat(meterRegistry.get("criteria.query.plans.size").gauge().value()).isEqualTo(2);
+    }
+
+    private static CrawlerCriteria nameContains(String value) {
+        CrawlerCriteria criteria = new CrawlerCriteria();
+        criteria.name().setContains(value);
+        return criteria;
+    }
+
+    private double hits() {
+        return meterRegistry.get("criteria.query.plans").tag("result", "hit").counter().count();
+    }
+
+    private double misses() {
+        return meterRegistry.get("criteria.query.plans").tag("result", "miss").counter().count();
+    }
+}
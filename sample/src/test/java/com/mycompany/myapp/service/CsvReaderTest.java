@@ -0,0 +1,68 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+    @Test
+    void readsDelimitedRecords() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("id;name;jhi_fetch;source\n1;Colorado;87446;Towels Avon\n"), ';');
+
+        assertThat(reader.read()).containsExactly("id", "name", "jhi_fetch", "source");
+        assertThat(reader.getLine()).isEqualTo(1);
+        assertThat(reader.read()).containsExactly("1", "Colorado", "87446", "Towels Avon");
+        assertThat(reader.getLine()).isEqualTo(2);
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    void readsQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\"a;b\";\"say \"\"hi\"\"\";\"two\r\nlines\";\r\nnext"), ';');
+
+        assertThat(reader.read()).containsExactly("a;b", "say \"hi\"", "two\r\nlines", "");
+        assertThat(reader.read()).containsExactly("next");
+        assertThat(reader.getLine()).isEqualTo(3);
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    void skipsBlankLines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\n\na;b\r\n\r\n;\n\n"), ';');
+
+        assertThat(reader.read()).containsExactly("a", "b");
+        assertThat(reader.getLine()).isEqualTo(3);
+        assertThat(reader.read()).isEqualTo(List.of("", ""));
+        assertThat(reader.getLine()).isEqualTo(5);
+        assertThat(reader.read()).isNull();
+    }
+
+    @Test
+    void rejectsUnclosedQuotes() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a\n\"b;c\n"), ';');
+
+        assertThat(reader.read()).containsExactly("a");
+        assertThatThrownBy(reader::read).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("line 2");
+    }
+
+    @Test
+    void rejectsCharactersAfterQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a
+"abc" ;x
+"), ';');
+
+        assertThat(reader.read()).containsExactly("a");
+        assertThatThrownBy(reader::read)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unexpected character after quoted field at line 2");
+
+        CsvReader multiline = new CsvReader(new StringReader(""a
+b"b;c"), ';');
+        assertThatThrownBy(multiline::read).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("line 2");
+    }
+}
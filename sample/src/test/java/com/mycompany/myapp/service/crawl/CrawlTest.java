@@ -0,0 +1,146 @@
+package com.mycompany.myapp.service.crawl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Tests of the {@link Crawl} scheduling, crawling a site served by an embedded HTTP server under two host names:
+ * {@code 127.0.0.1}, whose start page links to a page of each host, and {@code localhost}, whose page hangs until the
+ * other host's page is fetched.
+ */
+class CrawlTest {
+
+    private static final Duration POLITENESS_DELAY = Duration.ofMillis(200);
+
+    private static final long HANG_SECONDS = 5;
+
+    private HttpServer site;
+
+    private ExecutorService siteExecutor;
+
+    private ThreadPoolTaskScheduler scheduler;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final CountDownLatch otherHostFetched = new CountDownLatch(1);
+
+    private final AtomicBoolean fetchedWhileHanging = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // every interface, for localhost to be served whichever address it resolves to
+        site = HttpServer.create(new InetSocketAddress(0), 0);
+        site.createContext("/", this::serve);
+        siteExecutor = Executors.newCachedThreadPool();
+        site.setExecutor(siteExecutor);
+        site.start();
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        site.stop(0);
+        siteExecutor.shutdownNow();
+        scheduler.shutdown();
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String html;
+        if (path.equals("/start")) {
+            html = "<a href=\"" + url("localhost", "/hang") + "\">hang</a> <a href=\"/other\">other</a>";
+        } else if (path.equals("/hang")) {
+            try {
+                fetchedWhileHanging.set(otherHostFetched.await(HANG_SECONDS, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            html = "hung";
+        } else if (path.equals("/other")) {
+            otherHostFetched.countDown();
+            html = "other";
+        } else {
+            byte[] body = "Not found".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            return;
+        }
+        byte[] body = ("<html><body>" + html + "</body></html>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private String url(String host, String path) {
+        return "http://" + host + ":" + site.getAddress().getPort() + path;
+    }
+
+    @Test
+    void aHangingHostDoesNotDelayTheOthers() throws Exception {
+        PageFetcher fetcher = new PageFetcher(
+            HttpClient.newHttpClient(),
+            8,
+            Duration.ofSeconds(HANG_SECONDS * 2),
+            64 * 1024,
+            "sample-crawler",
+            meterRegistry
+        );
+        RobotsCache robots = new RobotsCache(
+            fetcher,
+            "sample-crawler",
+            Duration.ofHours(1),
+            Duration.ofHours(1),
+            100,
+            Ticker.systemTicker(),
+            meterRegistry
+        );
+        CompletableFuture<Crawl> finished = new CompletableFuture<>();
+        Crawl crawl = new Crawl(
+            1L,
+            LinkExtractor.normalize(URI.create(url("127.0.0.1", "/start"))),
+            -1,
+            4,
+            false,
+            fetcher,
+            robots,
+            new Frontier(POLITENESS_DELAY, System::nanoTime, new FrontierMetrics(meterRegistry)),
+            scheduler,
+            new SeenUrlFilter(null, 1_000, 0.01, filter -> {}),
+            new SimHashIndex(3),
+            finished::complete
+        );
+
+        crawl.start();
+
+        assertThat(finished.get(HANG_SECONDS * 3, TimeUnit.SECONDS).getPagesFetched()).isEqualTo(3);
+        // the page of 127.0.0.1 was fetched once its politeness delay was over, not once the other host answered
+        assertThat(fetchedWhileHanging).isTrue();
+    }
+}
@@ -0,0 +1,136 @@
+package com.mycompany.myapp.service.crawl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FrontierTest {
+
+    private static final long DELAY = Duration.ofSeconds(1).toNanos();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private long now;
+
+    private Frontier frontier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = 1_000;
+        frontier = new Frontier(Duration.ofNanos(DELAY), () -> now, new FrontierMetrics(meterRegistry));
+    }
+
+    private void add(String uri, int depth, double score) {
+        frontier.add(URI.create(uri), FrontierUrl.PriorityClass.LINK, depth, score);
+    }
+
+    @Test
+    void hostIsNotFetchedAgainBeforeItsDelayIsOver() {
+        add("http://a.example/1", 1, 1);
+        add("http://a.example/2", 1, 1);
+
+        FrontierUrl first = frontier.poll();
+        assertThat(first.getUri()).hasPath("/1");
+        // one request at a time
+        assertThat(frontier.poll()).isNull();
+        assertThat(frontier.nanosUntilReady()).isEqualTo(-1);
+
+        now += 500;
+        frontier.release(first);
+        assertThat(frontier.poll()).isNull();
+        assertThat(frontier.nanosUntilReady()).isEqualTo(DELAY);
+
+        now += DELAY - 1;
+        assertThat(frontier.poll()).isNull();
+        assertThat(frontier.nanosUntilReady()).isEqualTo(1);
+
+        now += 1;
+        assertThat(frontier.nanosUntilReady()).isZero();
+        assertThat(frontier.poll().getUri()).hasPath("/2");
+        assertThat(frontier.isEmpty()).isTrue();
+    }
+
+    @Test
+    void delayedHostDoesNotBlockTheOthers() {
+        add("http://a.example/1", 1, 1);
+        add("http://a.example/2", 1, 1);
+        add("http://b.example/1", 1, 1);
+        frontier.release(frontier.poll());
+
+        FrontierUrl next = frontier.poll();
+
+        assertThat(next.getUri()).hasHost("b.example");
+        assertThat(frontier.poll()).isNull();
+        assertThat(frontier.size()).isEqualTo(1);
+    }
+
+    @Test
+    void urlsOfAHostAreTakenBySeedThenDepthThenScore() {
+        add("http://a.example/deep", 3, 1);
+        add("http://a.example/low", 1, 0.25);
+        add("http://a.example/high", 1, 0.5);
+        add("http://a.example/tie", 1, 0.5);
+        frontier.add(URI.create("http://a.example/seed"), FrontierUrl.PriorityClass.SEED, 0, 0.1);
+
+        StringBuilder order = new StringBuilder();
+        while (!frontier.isEmpty()) {
+            FrontierUrl url = frontier.poll();
+            order.append(url.getUri().getPath());
+            frontier.release(url);
+            now += DELAY;
+        }
+
+        assertThat(order).hasToString("/seed/high/tie/low/deep");
+    }
+
+    @Test
+    void hostsAreTakenInTheOrderTheirDelaysEnd() {
+        add("http://a.example/1", 1, 1);
+        add("http://a.example/2", 1, 1);
+        add("http://b.example/1", 1, 1);
+        add("http://b.example/2", 1, 1);
+        FrontierUrl a = frontier.poll();
+        FrontierUrl b = frontier.poll();
+        frontier.release(b);
+        now += 10;
+        frontier.release(a);
+
+        now += DELAY + 10;
+
+        assertThat(frontier.poll().getUri()).hasHost("b.example");
+        assertThat(frontier.poll().getUri()).hasHost("a.example");
+    }
+
+    @Test
+    void metersFollowTheQueuedUrls() {
+        add("http://a.example/1", 1, 1);
+        add("http://a.example/2", 1, 1);
+        add("http://b.example/1", 1, 1);
+        assertThat(meterRegistry.get("crawl.frontier.urls").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("crawl.frontier.hosts").gauge().value()).isEqualTo(2);
+
+        now += 42;
+        frontier.poll();
+        assertThat(meterRegistry.get("crawl.frontier.urls").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("crawl.frontier.host.queue.depth").summary().max()).isEqualTo(2);
+        assertThat(meterRegistry.get("crawl.frontier.wait").tag("priority", "link").timer().count()).isEqualTo(1);
+
+        frontier.clear();
+        assertThat(frontier.isEmpty()).isTrue();
+        assertThat(frontier.poll()).isNull();
+        assertThat(meterRegistry.get("crawl.frontier.urls").gauge().value()).isZero();
+        assertThat(meterRegistry.get("crawl.frontier.hosts").gauge().value()).isZero();
+    }
+
+    @Test
+    void urlsWithFewerQueryParametersScoreHigher() {
+        assertThat(Crawl.score(URI.create("http://a.example/x"))).isEqualTo(1);
+        assertThat(Crawl.score(URI.create("http://a.example/x?a=1"))).isEqualTo(0.5);
+        assertThat(Crawl.score(URI.create("http://a.example/x?a=1&b=2"))).isGreaterThan(0.33).isLessThan(0.34);
+    }
+}
@@ -0,0 +1,44 @@
+package com.mycompany.myapp.service.crawl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import org.junit.jupiter.api.Test;
+
+class LinkExtractorTest {
+
+    private static final URI BASE = URI.create("http://example.com/dir/page.html");
+
+    @Test
+    void linksAreResolvedAgainstThePage() {
+        String html =
+            "<a href=\"other.html\">a</a><A HREF='/root?a=1&amp;b=2'>b</A><a class=x href=https://Example.COM:443/x#frag>c</a>" +
+            "<a href=\"../up\">d</a>";
+
+        assertThat(LinkExtractor.extract(BASE, html))
+            .containsExactly(
+                URI.create("http://example.com/dir/other.html"),
+                URI.create("http://example.com/root?a=1&b=2"),
+                URI.create("https://example.com/x"),
+                URI.create("http://example.com/up")
+            );
+    }
+
+    @Test
+    void nonHttpAndInvalidLinksAreIgnored() {
+        String html =
+            "<a href=\"mailto:a@example.com\">a</a><a href=\"javascript:void(0)\">b</a><a href=\"#top\">c</a>" +
+            "<a href=\"http://exa mple.com/\">d</a><a name=\"anchor\">e</a><link href=\"/style.css\">";
+
+        assertThat(LinkExtractor.extract(BASE, html)).isEmpty();
+    }
+
+    @Test
+    void uriIsNormalized() {
+        assertThat(LinkExtractor.normalize(URI.create("HTTP://user@Example.com:80"))).isEqualTo(URI.create("http://example.com/"));
+        assertThat(LinkExtractor.normalize(URI.create("http://example.com:8080/a%20b?q#f")))
+            .isEqualTo(URI.create("http://example.com:8080/a%20b?q"));
+        assertThat(LinkExtractor.normalize(URI.create("/relative"))).isNull();
+        assertThat(LinkExtractor.normalize(URI.create("ftp://example.com/"))).isNull();
+    }
+}
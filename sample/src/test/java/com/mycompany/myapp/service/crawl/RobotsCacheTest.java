@@ -0,0 +1,153 @@
+package com.mycompany.myapp.service.crawl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the {@link RobotsCache}, fetching the {@code robots/} fixtures from an embedded HTTP server.
+ */
+class RobotsCacheTest {
+
+    private static final Duration TIME_TO_LIVE = Duration.ofHours(1);
+
+    private static final Duration ERROR_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    private HttpServer site;
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private volatile int status = 200;
+
+    private volatile CountDownLatch responding = new CountDownLatch(0);
+
+    private final AtomicLong now = new AtomicLong();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RobotsCache robotsCache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        site = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        site.createContext("/robots.txt", this::serve);
+        site.start();
+        meterRegistry = new SimpleMeterRegistry();
+        PageFetcher fetcher = new PageFetcher(HttpClient.newHttpClient(), 4, Duration.ofSeconds(5), 1024, "sample-crawler", meterRegistry);
+        robotsCache = new RobotsCache(fetcher, "sample-crawler", TIME_TO_LIVE, ERROR_TIME_TO_LIVE, 100, now::get, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        site.stop(0);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        try {
+            responding.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body;
+        try (InputStream in = RobotsCacheTest.class.getResourceAsStream("/robots/default-only.txt")) {
+            body = in.readAllBytes();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private URI url(String path) {
+        return URI.create("http://127.0.0.1:" + site.getAddress().getPort() + path);
+    }
+
+    private RobotsRules rules() throws Exception {
+        return robotsCache.rules(url("/index.html")).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void concurrentCallersShareASingleFetch() throws Exception {
+        responding = new CountDownLatch(1);
+
+        CompletableFuture<RobotsRules> first = robotsCache.rules(url("/a"));
+        CompletableFuture<RobotsRules> second = robotsCache.rules(url("/cgi-bin/b"));
+        assertThat(robotsCache.getIfPresent(url("/a"))).isNull();
+        responding.countDown();
+
+        RobotsRules rules = first.get(5, TimeUnit.SECONDS);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(rules);
+        assertThat(rules.isAllowed(url("/a"))).isTrue();
+        assertThat(rules.isAllowed(url("/cgi-bin/b"))).isFalse();
+        assertThat(robotsCache.getIfPresent(url("/c"))).isSameAs(rules);
+        assertThat(hits).hasValue(1);
+    }
+
+    @Test
+    void rulesAreFetchedAgainOnceExpired() throws Exception {
+        RobotsRules rules = rules();
+
+        now.addAndGet(TIME_TO_LIVE.minusSeconds(1).toNanos());
+        assertThat(rules()).isSameAs(rules);
+        assertThat(hits).hasValue(1);
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(robotsCache.getIfPresent(url("/"))).isNull();
+        assertThat(rules()).isNotSameAs(rules);
+        assertThat(hits).hasValue(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "crawl.robots").tag("result", "hit").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void missingRobotsTxtAllowsEverythingUntilTheErrorTimeToLive() throws Exception {
+        status = 404;
+
+        assertThat(rules()).isSameAs(RobotsRules.ALLOW_ALL);
+        now.addAndGet(ERROR_TIME_TO_LIVE.minusSeconds(1).toNanos());
+        assertThat(rules()).isSameAs(RobotsRules.ALLOW_ALL);
+        assertThat(hits).hasValue(1);
+
+        status = 200;
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(rules().isAllowed(url("/cgi-bin/"))).isFalse();
+        assertThat(hits).hasValue(2);
+    }
+
+    @Test
+    void serverErrorDisallowsEverything() throws Exception {
+        status = 503;
+
+        assertThat(rules()).isSameAs(RobotsRules.DISALLOW_ALL);
+        assertThat(rules()).isSameAs(RobotsRules.DISALLOW_ALL);
+        assertThat(hits).hasValue(1);
+    }
+
+    @Test
+    void unreachableHostDisallowsEverything() throws Exception {
+        URI url = url("/");
+        site.stop(0);
+
+        assertThat(robotsCache.rules(url).get(5, TimeUnit.SECONDS)).isSameAs(RobotsRules.DISALLOW_ALL);
+    }
+}
@@ -0,0 +1,88 @@
+package com.mycompany.myapp.service.crawl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class RobotsRulesTest {
+
+    private static final String USER_AGENT = "sample-crawler/1.0 (+https://example.com/bot)";
+
+    private static RobotsRules fixture(String name) throws IOException {
+        try (InputStream in = RobotsRulesTest.class.getResourceAsStream("/robots/" + name)) {
+            return RobotsRules.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8), USER_AGENT);
+        }
+    }
+
+    private static boolean allowed(RobotsRules rules, String pathAndQuery) {
+        return rules.isAllowed(URI.create("http://example.com" + pathAndQuery));
+    }
+
+    @Test
+    void groupsOfTheCrawlerAreMergedAndPreferred() throws IOException {
+        RobotsRules rules = fixture("groups.txt");
+
+        assertThat(allowed(rules, "/")).isTrue();
+        assertThat(allowed(rules, "/other")).isTrue();
+        assertThat(allowed(rules, "/private")).isFalse();
+        assertThat(allowed(rules, "/private/x")).isFalse();
+        assertThat(allowed(rules, "/private/public/x")).isTrue();
+        assertThat(allowed(rules, "/tmp/x")).isFalse();
+        assertThat(allowed(rules, "/tmp")).isTrue();
+    }
+
+    @Test
+    void defaultGroupAppliesWithoutAGroupOfTheCrawler() throws IOException {
+        RobotsRules rules = fixture("default-only.txt");
+
+        assertThat(allowed(rules, "/")).isTrue();
+        assertThat(allowed(rules, "/cgi-bin/run")).isFalse();
+    }
+
+    @Test
+    void wildcardsAndEndAnchorsAreMatched() throws IOException {
+        RobotsRules rules = fixture("patterns.txt");
+
+        assertThat(allowed(rules, "/files/a.pdf")).isFalse();
+        assertThat(allowed(rules, "/files/a.pdf?download=1")).isTrue();
+        assertThat(allowed(rules, "/docs/a.pdf")).isTrue();
+        assertThat(allowed(rules, "/search")).isTrue();
+        assertThat(allowed(rules, "/search?page=2")).isTrue();
+        assertThat(allowed(rules, "/search?page=2&q=x")).isFalse();
+        assertThat(allowed(rules, "/axxbyyc")).isFalse();
+        assertThat(allowed(rules, "/acbc")).isFalse();
+        assertThat(allowed(rules, "/axxbyy")).isTrue();
+        assertThat(allowed(rules, "/exact")).isFalse();
+        assertThat(allowed(rules, "/exact/more")).isTrue();
+        assertThat(allowed(rules, "/exact?x=1")).isTrue();
+    }
+
+    @Test
+    void allowWinsATie() throws IOException {
+        assertThat(allowed(fixture("patterns.txt"), "/docs/index.html")).isTrue();
+    }
+
+    @Test
+    void robotsTxtIsAlwaysAllowed() {
+        assertThat(RobotsRules.DISALLOW_ALL.isAllowed(URI.create("http://example.com/robots.txt"))).isTrue();
+        assertThat(RobotsRules.DISALLOW_ALL.isAllowed(URI.create("http://example.com/"))).isFalse();
+        assertThat(RobotsRules.ALLOW_ALL.isAllowed(URI.create("http://example.com/anything"))).isTrue();
+    }
+
+    @Test
+    void emptyOrInvalidFilesAllowEverything() {
+        assertThat(RobotsRules.parse("", USER_AGENT)).isSameAs(RobotsRules.ALLOW_ALL);
+        assertThat(RobotsRules.parse("<html><body>Not a robots.txt</body></html>", USER_AGENT)).isSameAs(RobotsRules.ALLOW_ALL);
+        assertThat(RobotsRules.parse("Disallow: /\nUser-agent: *\n", USER_AGENT)).isSameAs(RobotsRules.ALLOW_ALL);
+    }
+
+    @Test
+    void productTokenIsTheStartOfTheUserAgent() {
+        assertThat(RobotsRules.productToken(USER_AGENT)).isEqualTo("sample-crawler");
+        assertThat(RobotsRules.productToken("sample-crawler")).isEqualTo("sample-crawler");
+    }
+}
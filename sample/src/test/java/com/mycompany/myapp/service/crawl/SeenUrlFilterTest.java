@@ -0,0 +1,133 @@
+package com.mycompany.myapp.service.crawl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SeenUrlFilterTest {
+
+    private final List<SeenUrlFilter> closed = new ArrayList<>();
+
+    private static String url(int i) {
+        return "http://example.com/page/" + i + "?q=" + (i * 31);
+    }
+
+    private static int falsePositives(SeenUrlFilter filter, int from, int to) {
+        int falsePositives = 0;
+        for (int i = from; i < to; i++) {
+            if (filter.mightContain(url(i))) {
+                falsePositives++;
+            }
+        }
+        return falsePositives;
+    }
+
+    @Test
+    void seenUrlsAreNeverNew() {
+        SeenUrlFilter filter = new SeenUrlFilter(null, 10_000, 0.01, closed::add);
+        int added = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.add(url(i))) {
+                added++;
+            }
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.add(url(i))).as(url(i)).isFalse();
+        }
+        assertThat(filter.getCount()).isEqualTo(added).isGreaterThan(9_900);
+        assertThat(filter.getSliceCount()).isEqualTo(1);
+        assertThat(falsePositives(filter, 10_000, 110_000)).isLessThan(1_000);
+        // a full slice has about half of its bits set
+        assertThat(filter.getFillRatio()).isBetween(0.4, 0.6);
+    }
+
+    @Test
+    void filterGrowsAndKeepsItsFalsePositiveRate() {
+        SeenUrlFilter filter = new SeenUrlFilter(null, 1_000, 0.01, closed::add);
+        long firstSize = filter.getSizeInBytes();
+        for (int i = 0; i < 20_000; i++) {
+            filter.add(url(i));
+        }
+
+        // 1000 + 2000 + 4000 + 8000 + 16000
+        assertThat(filter.getSliceCount()).isEqualTo(5);
+        assertThat(filter.getSizeInBytes()).isGreaterThan(20 * firstSize);
+        assertThat(falsePositives(filter, 20_000, 120_000)).isLessThan(1_000);
+        for (int i = 0; i < 20_000; i++) {
+            assertThat(filter.mightContain(url(i))).isTrue();
+        }
+    }
+
+    @Test
+    void filterIsHeldInItsFilesUntilClosed(@TempDir Path directory) {
+        Path runDirectory = directory.resolve("run");
+        SeenUrlFilter filter = new SeenUrlFilter(runDirectory, 100, 0.01, closed::add);
+        for (int i = 0; i < 300; i++) {
+            filter.add(url(i));
+        }
+        assertThat(runDirectory.resolve("slice-0.bloom")).exists();
+        assertThat(runDirectory.resolve("slice-1.bloom")).exists();
+        assertThat(filter.getSliceCount()).isEqualTo(2);
+
+        assertThatThrownBy(() -> new SeenUrlFilter(runDirectory, 100, 0.01, closed::add)).isInstanceOf(IllegalStateException.class);
+
+        filter.close();
+        assertThat(runDirectory).doesNotExist();
+        assertThat(closed).containsExactly(filter);
+        assertThatThrownBy(() -> filter.add(url(300))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void filtersLeftOverByAStopAreDeleted(@TempDir Path directory) {
+        SeenUrlFilters filters = new SeenUrlFilters(directory, 0.01, 10, 1_000, new SimpleMeterRegistry());
+        SeenUrlFilter leftOver = filters.create(1, 10);
+        leftOver.add(url(0));
+
+        SeenUrlFilters restarted = new SeenUrlFilters(directory, 0.01, 10, 1_000, new SimpleMeterRegistry());
+        assertThat(restarted.deleteLeftOverFilters()).isEqualTo(1);
+
+        assertThat(directory.resolve("1")).doesNotExist();
+        SeenUrlFilter filter = restarted.create(1, 10);
+        assertThat(filter.getCount()).isZero();
+        assertThat(filter.add(url(0))).isTrue();
+        filter.close();
+    }
+
+    @Test
+    void filtersAreSizedFromTheFetchBudgetAndMetered() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SeenUrlFilters filters = new SeenUrlFilters(null, 0.01, 10, 1_000_000, meterRegistry);
+
+        SeenUrlFilter bounded = filters.create(1, 99);
+        SeenUrlFilter unbounded = filters.create(2, -1);
+
+        // about 11 bits per URL, the first slice having half the false positive rate
+        assertThat(bounded.getSizeInBytes()).isBetween(1_000L * 10 / 8, 1_000L * 12 / 8);
+        assertThat(unbounded.getSizeInBytes()).isBetween(1_000_000L * 10 / 8, 1_000_000L * 12 / 8);
+        assertThat(meterRegistry.get("crawl.seen.memory").gauge().value())
+            .isEqualTo(bounded.getSizeInBytes() + unbounded.getSizeInBytes());
+
+        for (int i = 0; i < 500; i++) {
+            bounded.add(url(i));
+        }
+        assertThat(meterRegistry.get("crawl.seen.fill.ratio").gauge().value()).isEqualTo(bounded.getFillRatio()).isPositive();
+
+        bounded.close();
+        unbounded.close();
+        assertThat(meterRegistry.get("crawl.seen.memory").gauge().value()).isZero();
+        assertThat(meterRegistry.get("crawl.seen.fill.ratio").gauge().value()).isZero();
+    }
+
+    @Test
+    void invalidSizingIsRejected() {
+        assertThatThrownBy(() -> new SeenUrlFilter(null, 0, 0.01, closed::add)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SeenUrlFilter(null, 100, 1, closed::add)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
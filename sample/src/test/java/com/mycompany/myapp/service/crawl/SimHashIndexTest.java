@@ -0,0 +1,61 @@
+package com.mycompany.myapp.service.crawl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SimHashIndexTest {
+
+    @Test
+    void nearDuplicatesAreNotAdded() {
+        SimHashIndex index = new SimHashIndex(3);
+        long fingerprint = 0x0123_4567_89ab_cdefL;
+
+        assertThat(index.add(fingerprint)).isTrue();
+        assertThat(index.add(fingerprint)).isFalse();
+        // a bit flipped in three of the four blocks
+        assertThat(index.add(fingerprint ^ (1L | 1L << 20 | 1L << 40))).isFalse();
+        assertThat(index.add(fingerprint ^ (1L | 1L << 20 | 1L << 40 | 1L << 60))).isTrue();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void zeroDistanceOnlyMatchesEqualFingerprints() {
+        SimHashIndex index = new SimHashIndex(0);
+
+        assertThat(index.add(-1L)).isTrue();
+        assertThat(index.containsNear(-1L)).isTrue();
+        assertThat(index.containsNear(Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void lookupsMatchAScanOfEveryFingerprint() {
+        Random random = new Random(7);
+        long[] fingerprints = new long[2_000];
+        SimHashIndex index = new SimHashIndex(3);
+        for (int i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = random.nextLong();
+            index.add(fingerprints[i]);
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            long query = fingerprints[random.nextInt(fingerprints.length)];
+            for (int flips = random.nextInt(6); flips > 0; flips--) {
+                query ^= 1L << random.nextInt(Long.SIZE);
+            }
+            boolean near = false;
+            for (long fingerprint : fingerprints) {
+                near |= SimHash.distance(query, fingerprint) <= 3;
+            }
+            assertThat(index.containsNear(query)).as("%x", query).isEqualTo(near);
+        }
+    }
+
+    @Test
+    void distanceMustFitAFingerprint() {
+        assertThatThrownBy(() -> new SimHashIndex(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SimHashIndex(64)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.mycompany.myapp.service.crawl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SimHashTest {
+
+    private static String[] words(long seed, int count) {
+        Random random = new Random(seed);
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = "word" + random.nextInt(2_000);
+        }
+        return words;
+    }
+
+    private static String page(String[] words) {
+        return "<html><body><p>" + String.join(" ", words) + "</p></body></html>";
+    }
+
+    @Test
+    void markupScriptsAndStylesAreIgnored() {
+        String html =
+            "<html><head><SCRIPT type=\"text/javascript\">var hidden = '<b>bold</b>';</script><style>p { color: red }</style>" +
+            "</head><body><p class='lead'>Hello <b>World</b></p><scripts>visible</scripts></body></html>";
+
+        assertThat(SimHash.fingerprint(html)).isEqualTo(SimHash.fingerprint("hello world visible"));
+    }
+
+    @Test
+    void tokensAreLettersAndDigitsInAnyCase() {
+        assertThat(SimHash.fingerprint("Hello, WORLD 42!")).isEqualTo(SimHash.fingerprint("hello world 42"));
+        assertThat(SimHash.fingerprint("hello world")).isNotEqualTo(SimHash.fingerprint("helloworld"));
+    }
+
+    @Test
+    void unterminatedMarkupIsSkipped() {
+        assertThat(SimHash.fingerprint("text<script>never closed")).isEqualTo(SimHash.fingerprint("text"));
+        assertThat(SimHash.fingerprint("text<p class=")).isEqualTo(SimHash.fingerprint("text"));
+        assertThat(SimHash.fingerprint("<p></p>")).isZero();
+    }
+
+    @Test
+    void pagesWithTooFewTokensHaveNoFingerprint() {
+        String gallery = "<html><body><a href=\"1\"><img src=\"1.png\"></a><a href=\"2\"><img src=\"2.png\"></a></body></html>";
+
+        assertThat(SimHash.fingerprint(gallery, 1)).isEmpty();
+        assertThat(SimHash.fingerprint("<p>one two three</p>", 4)).isEmpty();
+        assertThat(SimHash.fingerprint("<p>one two three four</p>", 4)).hasValue(SimHash.fingerprint("one two three four"));
+        assertThat(SimHash.fingerprint(gallery, 0)).hasValue(0);
+    }
+
+    @Test
+    void similarPagesHaveCloseFingerprints() {
+        String[] words = words(42, 500);
+        long fingerprint = SimHash.fingerprint(page(words));
+        words[250] = "changed";
+
+        assertThat(SimHash.distance(fingerprint, SimHash.fingerprint(page(words)))).isLessThanOrEqualTo(3);
+        assertThat(SimHash.distance(fingerprint, SimHash.fingerprint(page(words(43, 500))))).isGreaterThan(10);
+    }
+}
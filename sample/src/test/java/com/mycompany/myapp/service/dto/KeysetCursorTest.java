@@ -0,0 +1,35 @@
+package com.mycompany.myapp.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        KeysetCursor cursor = KeysetCursor.first("name", Sort.Direction.DESC).after("a:b c", 42L);
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.getValue()).isEqualTo("a:b c");
+        assertThat(decoded.getId()).isEqualTo(42L);
+        assertThat(decoded.isFirst()).isFalse();
+    }
+
+    @Test
+    void firstCursorDefaultsToIdAscending() {
+        KeysetCursor cursor = KeysetCursor.first(null, null);
+        assertThat(cursor.isFirst()).isTrue();
+        assertThat(cursor.isById()).isTrue();
+        assertThat(cursor.toSort()).isEqualTo(Sort.by(Sort.Direction.ASC, "id"));
+        assertThat(KeysetCursor.first("fetch", Sort.Direction.DESC).toSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "fetch", "id"));
+    }
+
+    @Test
+    void decodeRejectsInvalidTokens() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("%%%")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,304 @@
+package com.mycompany.myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.SampleApp;
+import com.mycompany.myapp.config.TestSecurityConfiguration;
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.domain.Filters;
+import com.mycompany.myapp.repository.CrawlerRepository;
+import com.mycompany.myapp.repository.FiltersRepository;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Load test of the {@link CrawlerResource} and {@link FiltersResource} REST APIs, through HTTP, to get a baseline of
+ * their throughput and latencies.
+ * <p>
+ * The application is started on H2 with a stubbed identity provider, {@code loadtest.seed-size} crawlers and filters
+ * are created, then requests are sent at {@code loadtest.rate} requests per second during {@code loadtest.warmup} and
+ * {@code loadtest.duration}, mixing the operations with the weights {@code loadtest.weight.<operation>}. The latency
+ * percentiles of each operation are logged, and written to {@code target/load-test}.
+ * <p>
+ * This test only runs when asked for, for instance with:
+ * <pre>
+ * ./mvnw verify -Dloadtest=true -Dloadtest.rate=200 -Dit.test=ApiLoadTestIT -Dtest=NoSuchTest -Dsurefire.failIfNoSpecifiedTests=false
+ * </pre>
+ */
+@SpringBootTest(classes = { SampleApp.class, TestSecurityConfiguration.class }, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ApiLoadTestIT {
+
+    private static final String BEARER_TOKEN = "Bearer load-test";
+
+    private final Logger log = LoggerFactory.getLogger(ApiLoadTestIT.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CrawlerRepository crawlerRepository;
+
+    @Autowired
+    private FiltersRepository filtersRepository;
+
+    private final List<Long> crawlerIds = new ArrayList<>();
+
+    private final List<Long> filtersIds = new ArrayList<>();
+
+    private final Queue<Long> createdCrawlerIds = new ConcurrentLinkedQueue<>();
+
+    private final Queue<Long> createdFiltersIds = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void seed() {
+        when(jwtDecoder.decode(anyString()))
+            .thenReturn(
+                Jwt
+                    .withTokenValue("load-test")
+                    .header("alg", "none")
+                    .subject("load-test")
+                    .claim("groups", List.of(AuthoritiesConstants.USER))
+                    .build()
+            );
+
+        int seedSize = environment.getProperty("loadtest.seed-size", Integer.class, 1000);
+        List<Crawler> crawlers = new ArrayList<>(seedSize);
+        for (int i = 0; i < seedSize; i++) {
+            crawlers.add(new Crawler().name("crawler-" + i).fetch(i % 60).source("https://example.com/" + i));
+        }
+        crawlerRepository.saveAll(crawlers).forEach(crawler -> crawlerIds.add(crawler.getId()));
+        List<Filters> filters = crawlers.stream().map(crawler -> new Filters().crawler(crawler)).collect(Collectors.toList());
+        filtersRepository.saveAll(filters).forEach(filter -> filtersIds.add(filter.getId()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        filtersRepository.deleteAllInBatch();
+        crawlerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @Timeout(value = 1, unit = TimeUnit.HOURS)
+    void crawlersAndFiltersUnderLoad() throws Exception {
+        int rate = environment.getProperty("loadtest.rate", Integer.class, 100);
+        Duration warmup = environment.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(10));
+        Duration duration = environment.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(30));
+        int maxInFlight = environment.getProperty("loadtest.max-in-flight", Integer.class, 500);
+        long seed = environment.getProperty("loadtest.random-seed", Long.class, 1L);
+        double maxErrorRate = environment.getProperty("loadtest.max-error-rate", Double.class, 0.01);
+        double maxDroppedRate = environment.getProperty("loadtest.max-dropped-rate", Double.class, 0.01);
+
+        LoadGenerator generator = new LoadGenerator(HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build());
+        addCrawlerOperations(generator);
+        addFiltersOperations(generator);
+        LoadGenerator.Result result = generator.run(rate, warmup, duration, maxInFlight, seed);
+
+        StringWriter report = new StringWriter();
+        result.print(new PrintWriter(report));
+        log.info("Load test at {} requests per second during {}:\n{}", rate, duration, report);
+        result.writeDistributions(Path.of("target", "load-test"));
+
+        assertThat(result.getRequestCount()).isPositive();
+        assertThat((double) result.getErrorCount() / result.getRequestCount()).isLessThanOrEqualTo(maxErrorRate);
+        assertThat((double) result.getDroppedCount() / (result.getRequestCount() + result.getDroppedCount()))
+            .isLessThanOrEqualTo(maxDroppedRate);
+    }
+
+    private void addCrawlerOperations(LoadGenerator generator) {
+        generator
+            .operation(
+                "POST /api/crawlers",
+                weight("crawlers.create", 5),
+                random -> post("/api/crawlers", "{\"name\":\"load-test\",\"fetch\":" + random.nextInt(60) + ",\"source\":\"load-test\"}"),
+                status -> status == HttpStatus.CREATED.value(),
+                keepId(createdCrawlerIds)
+            )
+            .operation(
+                "GET /api/crawlers/{id}",
+                weight("crawlers.read", 30),
+                random -> get("/api/crawlers/" + pick(crawlerIds, random)),
+                status -> status == HttpStatus.OK.value(),
+                response -> {}
+            )
+            .operation(
+                "GET /api/crawlers",
+                weight("crawlers.list", 15),
+                random -> get("/api/crawlers?page=" + random.nextInt(Math.max(1, crawlerIds.size() / 20)) + "&size=20&sort=id,asc"),
+                status -> status == HttpStatus.OK.value(),
+                response -> {}
+            )
+            .operation(
+                "GET /api/crawlers/count",
+                weight("crawlers.count", 5),
+                random -> get("/api/crawlers/count?fetch.greaterThan=" + random.nextInt(60)),
+                status -> status == HttpStatus.OK.value(),
+                response -> {}
+            )
+            .operation(
+                "PATCH /api/crawlers/{id}",
+                weight("crawlers.patch", 5),
+                random -> {
+                    long id = pick(crawlerIds, random);
+                    return patch("/api/crawlers/" + id, "{\"id\":" + id + ",\"fetch\":" + random.nextInt(60) + "}");
+                },
+                status -> status == HttpStatus.OK.value(),
+                response -> {}
+            )
+            .operation(
+                "DELETE /api/crawlers/{id}",
+                weight("crawlers.delete", 5),
+                deleteCreated("/api/crawlers/", createdCrawlerIds),
+                status -> status == HttpStatus.NO_CONTENT.value(),
+                response -> {}
+            );
+    }
+
+    private void addFiltersOperations(LoadGenerator generator) {
+        generator
+            .operation(
+                "POST /api/filters",
+                weight("filters.create", 5),
+                random -> post("/api/filters", "{\"crawler\":{\"id\":" + pick(crawlerIds, random) + "}}"),
+                status -> status == HttpStatus.CREATED.value(),
+                keepId(createdFiltersIds)
+            )
+            .operation(
+                "GET /api/filters/{id}",
+                weight("filters.read", 15),
+                random -> get("/api/filters/" + pick(filtersIds, random)),
+                status -> status == HttpStatus.OK.value(),
+                response -> {}
+            )
+            .operation(
+                "GET /api/filters",
+                weight("filters.list", 5),
+                random -> get("/api/filters?page=" + random.nextInt(Math.max(1, filtersIds.size() / 20)) + "&size=20&sort=id,asc"),
+                status -> status == HttpStatus.OK.value(),
+                response -> {}
+            )
+            .operation(
+                "GET /api/filters/count",
+                weight("filters.count", 3),
+                random -> get("/api/filters/count?crawlerId.equals=" + pick(crawlerIds, random)),
+                status -> status == HttpStatus.OK.value(),
+                response -> {}
+            )
+            .operation(
+                "PATCH /api/filters/{id}",
+                weight("filters.patch", 4),
+                random -> {
+                    long id = pick(filtersIds, random);
+                    return patch("/api/filters/" + id, "{\"id\":" + id + ",\"crawler\":{\"id\":" + pick(crawlerIds, random) + "}}");
+                },
+                status -> status == HttpStatus.OK.value(),
+                response -> {}
+            )
+            .operation(
+                "DELETE /api/filters/{id}",
+                weight("filters.delete", 3),
+                deleteCreated("/api/filters/", createdFiltersIds),
+                status -> status == HttpStatus.NO_CONTENT.value(),
+                response -> {}
+            );
+    }
+
+    private int weight(String operation, int defaultWeight) {
+        return environment.getProperty("loadtest.weight." + operation, Integer.class, defaultWeight);
+    }
+
+    private static long pick(List<Long> ids, SplittableRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private Consumer<HttpResponse<String>> keepId(Queue<Long> ids) {
+        return response -> {
+            try {
+                ids.add(objectMapper.readTree(response.body()).get("id").asLong());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * Delete the entities created by the load test only, as the seeded ones are read and updated concurrently.
+     */
+    private Function<SplittableRandom, HttpRequest> deleteCreated(String path, Queue<Long> createdIds) {
+        return random -> {
+            Long id = createdIds.poll();
+            return id == null ? null : request(path + id).DELETE().build();
+        };
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest
+            .newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(30))
+            .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN);
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return request(path)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private HttpRequest patch(String path, String body) {
+        return request(path)
+            .header(HttpHeaders.CONTENT_TYPE, "application/merge-patch+json")
+            .method("PATCH", HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+}
@@ -0,0 +1,420 @@
+package com.mycompany.myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.CrawlRun;
+import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.domain.enumeration.CrawlRunStatus;
+import com.mycompany.myapp.repository.CrawlRunRepository;
+import com.mycompany.myapp.repository.CrawlerRepository;
+import com.mycompany.myapp.service.CrawlRunService;
+import com.mycompany.myapp.service.dto.CrawlRunDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link CrawlRunResource} REST controller, crawling a synthetic site served by an embedded
+ * HTTP server: a binary tree of {@value #SITE_PAGES} HTML pages under {@code /site/}, whose root also links to a
+ * missing page, an image, and another host. Its {@code robots.txt} is missing unless a test sets it. It also serves a
+ * shop under {@code /shop/}, whose catalogue is listed in {@value #SHOP_SORTS} sort orders, each linking to another
+ * product page, and a gallery under {@code /gallery/}, whose {@value #GALLERY_ALBUMS} albums only hold image links.
+ * The pages under {@code /moved/} redirect to the site pages of the same number.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CrawlRunResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/crawlers/{crawlerId}/runs";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    private static final int SITE_PAGES = 31;
+
+    private static final int SHOP_SORTS = 8;
+
+    private static final int GALLERY_ALBUMS = 3;
+
+    private static final long RUN_TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private CrawlerRepository crawlerRepository;
+
+    @Autowired
+    private CrawlRunRepository crawlRunRepository;
+
+    @Autowired
+    private CrawlRunService crawlRunService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc restCrawlRunMockMvc;
+
+    private HttpServer site;
+
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    private final AtomicInteger robotsHits = new AtomicInteger();
+
+    private volatile String robotsTxt;
+
+    private Crawler crawler;
+
+    @BeforeEach
+    void startSite() throws IOException {
+        site = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        site.createContext("/", this::serve);
+        site.start();
+    }
+
+    @AfterEach
+    void stopSite() {
+        site.stop(0);
+        if (crawler != null) {
+            crawlerRepository.deleteById(crawler.getId());
+        }
+    }
+
+    private String siteUrl(String path) {
+        return "http://127.0.0.1:" + site.getAddress().getPort() + path;
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/robots.txt")) {
+            robotsHits.incrementAndGet();
+            if (robotsTxt == null) {
+                respond(exchange, 404, "text/html", "<html><body>Not found</body></html>".getBytes(StandardCharsets.UTF_8));
+            } else {
+                respond(exchange, 200, "text/plain", robotsTxt.getBytes(StandardCharsets.UTF_8));
+            }
+            return;
+        }
+        hits.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+        if (path.equals("/image.png")) {
+            respond(exchange, 200, "image/png", new byte[] { (byte) 0x89, 'P', 'N', 'G' });
+            return;
+        }
+        if (path.startsWith("/moved/")) {
+            exchange.getResponseHeaders().set("Location", "/site/" + path.substring("/moved/".length()));
+            respond(exchange, 301, "text/html", new byte[0]);
+            return;
+        }
+        if (path.startsWith("/shop/")) {
+            serveShop(exchange, path);
+            return;
+        }
+        if (path.startsWith("/gallery/")) {
+            serveGallery(exchange, path);
+            return;
+        }
+        int page = path.startsWith("/site/") ? parsePage(path.substring("/site/".length())) : -1;
+        if (page < 0 || page >= SITE_PAGES) {
+            respond(exchange, 404, "text/html", "<html><body>Not found</body></html>".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        StringBuilder html = new StringBuilder("<html><body><h1>Page ").append(page).append("</h1>");
+        html.append("<p>").append(text(page)).append("</p>");
+        for (int child = 2 * page + 1; child <= 2 * page + 2 && child < SITE_PAGES; child++) {
+            html.append("<a href=\"").append(child).append("\">child</a> ");
+        }
+        html.append("<a href='/site/0#top'>home</a> <a href=/site/").append(page).append(">self</a>");
+        if (page == 0) {
+            html.append("<a href=\"/missing\">missing</a> <a class=\"img\" href=\"/image.png\">image</a>");
+            html.append("<a href=\"http://other.invalid/\">elsewhere</a> <a href=\"mailto:crawler@example.com\">mail</a>");
+        }
+        html.append("</body></html>");
+        respond(exchange, 200, "text/html; charset=utf-8", html.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void serveShop(HttpExchange exchange, String path) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        StringBuilder html = new StringBuilder("<html><body>");
+        if (path.equals("/shop/")) {
+            html.append("<h1>Shop</h1><p>").append(text(1_000)).append("</p>");
+            for (int sort = 0; sort < SHOP_SORTS; sort++) {
+                html.append("<a href=\"list?sort=").append(sort).append("\">catalogue</a> ");
+            }
+        } else if (path.equals("/shop/list")) {
+            // the same text whatever the sort order
+            html.append("<h1>Catalogue</h1><p>").append(text(2_000)).append("</p>");
+            html.append("<a href=\"product?").append(query).append("\">first product</a>");
+        } else {
+            html.append("<h1>Product</h1><p>").append(text(3_000)).append("</p>");
+        }
+        html.append("</body></html>");
+        respond(exchange, 200, "text/html; charset=utf-8", html.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void serveGallery(HttpExchange exchange, String path) throws IOException {
+        if (path.equals("/gallery/photo")) {
+            respond(exchange, 200, "image/png", new byte[] { (byte) 0x89, 'P', 'N', 'G' });
+            return;
+        }
+        // pages without any text, the same for every album but for their links
+        StringBuilder html = new StringBuilder("<html><body>");
+        if (path.equals("/gallery/")) {
+            for (int album = 0; album < GALLERY_ALBUMS; album++) {
+                html.append("<a href=\"album?").append(album).append("\"><img src=\"cover.png\"></a>");
+            }
+        } else {
+            html.append("<a href=\"photo?").append(exchange.getRequestURI().getQuery()).append("\"><img src=\"photo.png\"></a>");
+        }
+        html.append("</body></html>");
+        respond(exchange, 200, "text/html; charset=utf-8", html.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Return a text of 50 words drawn from a vocabulary of 1000, the same for a seed.
+     */
+    private static String text(long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            text.append(" term").append(random.nextInt(1_000));
+        }
+        return text.toString();
+    }
+
+    private static int parsePage(String page) {
+        try {
+            return Integer.parseInt(page);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private CrawlRunDTO start(String source, int fetch) throws Exception {
+        crawler = crawlerRepository.saveAndFlush(new Crawler().name("AAAAAAAAAA").fetch(fetch).source(source));
+        MvcResult result = restCrawlRunMockMvc
+            .perform(post(ENTITY_API_URL, crawler.getId()).with(csrf()))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Location", startsWith("/api/crawlers/" + crawler.getId() + "/runs/")))
+            .andExpect(jsonPath("$.crawlerId").value(crawler.getId().intValue()))
+            .andExpect(jsonPath("$.startedAt").exists())
+            .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsByteArray(), CrawlRunDTO.class);
+    }
+
+    private CrawlRunDTO awaitFinished(CrawlRunDTO crawlRun) throws Exception {
+        long deadline = System.currentTimeMillis() + RUN_TIMEOUT_MILLIS;
+        while (true) {
+            MvcResult result = restCrawlRunMockMvc
+                .perform(get(ENTITY_API_URL_ID, crawler.getId(), crawlRun.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+            CrawlRunDTO current = objectMapper.readValue(result.getResponse().getContentAsByteArray(), CrawlRunDTO.class);
+            if (current.getStatus() != CrawlRunStatus.RUNNING) {
+                return current;
+            }
+            assertThat(System.currentTimeMillis()).as("run still running").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void crawlTheWholeSite() throws Exception {
+        CrawlRunDTO crawlRun = start(siteUrl("/site/0"), -1);
+        assertThat(crawlRun.getStatus()).isEqualTo(CrawlRunStatus.RUNNING);
+
+        CrawlRunDTO finished = awaitFinished(crawlRun);
+
+        assertThat(finished.getStatus()).isEqualTo(CrawlRunStatus.COMPLETED);
+        assertThat(finished.getFinishedAt()).isAfterOrEqualTo(finished.getStartedAt());
+        assertThat(finished.getError()).isNull();
+        // the site pages and the image, but not the missing page
+        assertThat(finished.getPagesFetched()).isEqualTo(SITE_PAGES + 1);
+        assertThat(finished.getPagesFailed()).isEqualTo(1);
+        assertThat(finished.getUrlsDiscovered()).isEqualTo(SITE_PAGES + 2);
+        assertThat(hits).hasSize(SITE_PAGES + 2).allSatisfy((path, count) -> assertThat(count).as(path).hasValue(1));
+        assertThat(robotsHits).hasValue(1);
+        assertThat(finished.getPagesDuplicate()).isZero();
+        assertThat(crawlRunRepository.findById(crawlRun.getId())).hasValueSatisfying(saved ->
+            assertThat(saved.getPagesFetched()).isEqualTo(SITE_PAGES + 1)
+        );
+    }
+
+    @Test
+    void crawlSkipsPagesDisallowedByRobotsTxt() throws Exception {
+        // page 2 and, as they are only linked from it, the 14 pages below it
+        robotsTxt = "User-agent: *\nDisallow: /site/2$\n";
+
+        CrawlRunDTO finished = awaitFinished(start(siteUrl("/site/0"), -1));
+
+        assertThat(finished.getStatus()).isEqualTo(CrawlRunStatus.COMPLETED);
+        assertThat(finished.getPagesFetched()).isEqualTo(SITE_PAGES - 15 + 1);
+        assertThat(finished.getPagesFailed()).isEqualTo(1);
+        assertThat(finished.getUrlsDiscovered()).isEqualTo(SITE_PAGES - 14 + 2);
+        assertThat(hits).doesNotContainKey("/site/2").containsKey("/site/1");
+        assertThat(robotsHits).hasValue(1);
+    }
+
+    @Test
+    void crawlFailsIfTheSourceIsDisallowedByRobotsTxt() throws Exception {
+        robotsTxt = "User-agent: sample-crawler\nDisallow: /site/\n\nUser-agent: *\nAllow: /\n";
+
+        CrawlRunDTO finished = awaitFinished(start(siteUrl("/site/0"), -1));
+
+        assertThat(finished.getStatus()).isEqualTo(CrawlRunStatus.FAILED);
+        assertThat(finished.getError()).contains("robots.txt");
+        assertThat(finished.getPagesFetched()).isZero();
+        assertThat(hits).isEmpty();
+    }
+
+    @Test
+    void redirectsAreQueuedLikeLinks() throws Exception {
+        CrawlRunDTO finished = awaitFinished(start(siteUrl("/moved/0"), -1));
+
+        assertThat(finished.getStatus()).isEqualTo(CrawlRunStatus.COMPLETED);
+        assertThat(finished.getError()).isNull();
+        assertThat(finished.getPagesFetched()).isEqualTo(SITE_PAGES + 1);
+        assertThat(finished.getUrlsDiscovered()).isEqualTo(1 + SITE_PAGES + 2);
+        assertThat(hits.get("/moved/0")).hasValue(1);
+        assertThat(hits.get("/site/0")).hasValue(1);
+    }
+
+    @Test
+    void redirectsToPagesDisallowedByRobotsTxtAreNotFollowed() throws Exception {
+        robotsTxt = "User-agent: *\nDisallow: /site/\n";
+
+        CrawlRunDTO finished = awaitFinished(start(siteUrl("/moved/0"), -1));
+
+        assertThat(finished.getPagesFetched()).isZero();
+        assertThat(hits).containsOnlyKeys("/moved/0");
+    }
+
+    @Test
+    void linksOfNearDuplicatePagesAreNotFollowed() throws Exception {
+        CrawlRunDTO finished = awaitFinished(start(siteUrl("/shop/"), -1));
+
+        assertThat(finished.getStatus()).isEqualTo(CrawlRunStatus.COMPLETED);
+        // the shop, every listing, and the product linked from the first one
+        assertThat(finished.getPagesFetched()).isEqualTo(1 + SHOP_SORTS + 1);
+        assertThat(finished.getPagesDuplicate()).isEqualTo(SHOP_SORTS - 1);
+        assertThat(finished.getDuplicateRatio()).isEqualTo((double) (SHOP_SORTS - 1) / (SHOP_SORTS + 2));
+        assertThat(finished.getUrlsDiscovered()).isEqualTo(1 + SHOP_SORTS + 1);
+        assertThat(hits.get("/shop/list")).hasValue(SHOP_SORTS);
+        assertThat(hits.get("/shop/product")).hasValue(1);
+        restCrawlRunMockMvc
+            .perform(get(ENTITY_API_URL_ID, crawler.getId(), finished.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.pagesDuplicate").value(SHOP_SORTS - 1))
+            .andExpect(jsonPath("$.duplicateRatio").value(finished.getDuplicateRatio()));
+    }
+
+    @Test
+    void pagesWithoutTextAreNotNearDuplicates() throws Exception {
+        CrawlRunDTO finished = awaitFinished(start(siteUrl("/gallery/"), -1));
+
+        assertThat(finished.getStatus()).isEqualTo(CrawlRunStatus.COMPLETED);
+        // the gallery, every album, and the photo linked from each album
+        assertThat(finished.getPagesFetched()).isEqualTo(1 + 2 * GALLERY_ALBUMS);
+        assertThat(finished.getPagesDuplicate()).isZero();
+        assertThat(hits.get("/gallery/photo")).hasValue(GALLERY_ALBUMS);
+    }
+
+    @Test
+    void crawlIsCappedByTheFetchBudget() throws Exception {
+        CrawlRunDTO finished = awaitFinished(start(siteUrl("/site/0"), 5));
+
+        assertThat(finished.getStatus()).isEqualTo(CrawlRunStatus.COMPLETED);
+        assertThat(finished.getPagesFetched() + finished.getPagesFailed()).isEqualTo(5);
+        assertThat(hits.values().stream().mapToInt(AtomicInteger::get).sum()).isEqualTo(5);
+    }
+
+    @Test
+    void crawlWithoutBudgetFetchesNothing() throws Exception {
+        CrawlRunDTO finished = awaitFinished(start(siteUrl("/site/0"), 0));
+
+        assertThat(finished.getStatus()).isEqualTo(CrawlRunStatus.COMPLETED);
+        assertThat(finished.getPagesFetched()).isZero();
+        assertThat(hits).isEmpty();
+    }
+
+    @Test
+    void crawlFailsIfTheSourceCannotBeFetched() throws Exception {
+        CrawlRunDTO finished = awaitFinished(start(siteUrl("/missing"), -1));
+
+        assertThat(finished.getStatus()).isEqualTo(CrawlRunStatus.FAILED);
+        assertThat(finished.getPagesFailed()).isEqualTo(1);
+        assertThat(finished.getError()).contains("404");
+    }
+
+    @Test
+    void crawlFailsIfTheSourceIsNotAnHttpUrl() throws Exception {
+        CrawlRunDTO crawlRun = start("ftp://localhost/site", -1);
+
+        assertThat(crawlRun.getStatus()).isEqualTo(CrawlRunStatus.FAILED);
+        assertThat(crawlRun.getError()).isNotNull();
+        assertThat(awaitFinished(crawlRun).getStatus()).isEqualTo(CrawlRunStatus.FAILED);
+    }
+
+    @Test
+    void runsLeftRunningByAStoppedInstanceAreFailed() throws Exception {
+        crawler = crawlerRepository.saveAndFlush(new Crawler().name("AAAAAAAAAA").fetch(0).source(siteUrl("/site/0")));
+        Instant longAgo = Instant.now().minus(Duration.ofHours(1));
+        CrawlRun left = crawlRunRepository.saveAndFlush(
+            new CrawlRun().crawler(crawler).status(CrawlRunStatus.RUNNING).startedAt(longAgo).heartbeatAt(longAgo)
+        );
+        CrawlRun alive = crawlRunRepository.saveAndFlush(
+            new CrawlRun().crawler(crawler).status(CrawlRunStatus.RUNNING).startedAt(longAgo).heartbeatAt(Instant.now())
+        );
+
+        crawlRunService.heartbeat();
+
+        restCrawlRunMockMvc
+            .perform(get(ENTITY_API_URL_ID, crawler.getId(), left.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(CrawlRunStatus.FAILED.toString()))
+            .andExpect(jsonPath("$.finishedAt").exists())
+            .andExpect(jsonPath("$.error").value(containsString("interrupted")));
+        assertThat(crawlRunRepository.findById(alive.getId()))
+            .hasValueSatisfying(crawlRun -> assertThat(crawlRun.getStatus()).isEqualTo(CrawlRunStatus.RUNNING));
+    }
+
+    @Test
+    void startRunOfNonExistingCrawler() throws Exception {
+        restCrawlRunMockMvc.perform(post(ENTITY_API_URL, Long.MAX_VALUE).with(csrf())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getNonExistingCrawlRun() throws Exception {
+        crawler = crawlerRepository.saveAndFlush(new Crawler().name("AAAAAAAAAA").fetch(0).source(siteUrl("/site/0")));
+        restCrawlRunMockMvc.perform(get(ENTITY_API_URL_ID, crawler.getId(), Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+}
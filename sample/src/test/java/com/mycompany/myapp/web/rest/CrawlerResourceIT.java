@@ -1,29 +1,43 @@
 package com.mycompany.myapp.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mycompany.myapp.IntegrationTest;
 import com.mycompany.myapp.domain.Crawler;
+import com.mycompany.myapp.domain.Filters;
 import com.mycompany.myapp.repository.CrawlerRepository;
+import com.mycompany.myapp.service.CriteriaCountCache;
 import com.mycompany.myapp.service.criteria.CrawlerCriteria;
 import com.mycompany.myapp.service.dto.CrawlerDTO;
 import com.mycompany.myapp.service.mapper.CrawlerMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Integration tests for the {@link CrawlerResource} REST controller.
@@ -45,6 +59,8 @@ class CrawlerResourceIT {
 
     private static final String ENTITY_API_URL = "/api/crawlers";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+    private static final String ENTITY_API_URL_BULK = ENTITY_API_URL + "/bulk";
+    private static final String ENTITY_API_URL_IMPORT = ENTITY_API_URL + "/import";
 
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -55,6 +71,12 @@ class CrawlerResourceIT {
     @Autowired
     private CrawlerMapper crawlerMapper;
 
+    @Autowired
+    private CriteriaCountCache countCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private EntityManager em;
 
@@ -87,6 +109,7 @@ class CrawlerResourceIT {
 
     @BeforeEach
     public void initTest() {
+        countCache.evict(Crawler.class);
         crawler = createEntity(em);
     }
 
@@ -207,6 +230,242 @@ class CrawlerResourceIT {
         assertThat(crawlerList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    void createCrawlersInBulk() throws Exception {
+        int databaseSizeBeforeCreate = crawlerRepository.findAll().size();
+        CrawlerDTO withId = crawlerMapper.toDto(createEntity(em));
+        withId.setId(1L);
+        CrawlerDTO invalid = crawlerMapper.toDto(createEntity(em).fetch(SMALLER_FETCH));
+        // Valid for the DTO, but too long for the column: the whole chunk fails and is written again one by one
+        CrawlerDTO tooLong = crawlerMapper.toDto(createEntity(em).name("A".repeat(300)));
+        List<CrawlerDTO> crawlerDTOs = List.of(
+            crawlerMapper.toDto(createEntity(em)),
+            withId,
+            invalid,
+            tooLong,
+            crawlerMapper.toDto(createUpdatedEntity(em))
+        );
+
+        List<Long> ids = new ArrayList<>();
+        try {
+            MvcResult result = restCrawlerMockMvc
+                .perform(
+                    post(ENTITY_API_URL_BULK)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(crawlerDTOs))
+                )
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.items[*].index").value(contains(0, 1, 2, 3, 4)))
+                .andExpect(jsonPath("$.items[*].status").value(contains("CREATED", "FAILED", "FAILED", "FAILED", "CREATED")))
+                .andExpect(jsonPath("$.items[1].errorKey").value("idexists"))
+                .andExpect(jsonPath("$.items[2].errorKey").value("invalid"))
+                .andExpect(jsonPath("$.items[2].message").value(containsString("fetch")))
+                .andExpect(jsonPath("$.items[3].errorKey").value("savefailed"))
+                .andExpect(jsonPath("$.items[4].entity.name").value(UPDATED_NAME))
+                .andReturn();
+            for (JsonNode item : new ObjectMapper().readTree(result.getResponse().getContentAsString()).get("items")) {
+                if (item.hasNonNull("entity")) {
+                    ids.add(item.get("entity").get("id").asLong());
+                }
+            }
+
+            // Validate the Crawlers in the database
+            assertThat(ids).hasSize(2);
+            assertThat(crawlerRepository.findAll()).hasSize(databaseSizeBeforeCreate + 2);
+            assertThat(crawlerRepository.findById(ids.get(0)).get().getName()).isEqualTo(DEFAULT_NAME);
+        } finally {
+            crawlerRepository.deleteAllById(ids);
+        }
+    }
+
+    @Test
+    void importCrawlers() throws Exception {
+        List<Long> idsBeforeImport = crawlerRepository.findAll().stream().map(Crawler::getId).collect(Collectors.toList());
+        MvcResult changes = restCrawlerMockMvc.perform(get(ENTITY_API_URL + "/changes")).andExpect(request().asyncStarted()).andReturn();
+        awaitContent(changes, "event:open");
+        String csv =
+            "id;name;jhi_fetch;source\n" +
+            "1;" + DEFAULT_NAME + ";" + DEFAULT_FETCH + ";" + DEFAULT_SOURCE + "\n" +
+            "2;" + DEFAULT_NAME + ";" + SMALLER_FETCH + ";" + DEFAULT_SOURCE + "\n" +
+            "3;" + DEFAULT_NAME + ";often;" + DEFAULT_SOURCE + "\n" +
+            "4;" + DEFAULT_NAME + "\n" +
+            // Valid for the DTO, but too long for the column: the whole chunk fails and is written again one by one
+            "5;" + "A".repeat(300) + ";" + DEFAULT_FETCH + ";" + DEFAULT_SOURCE + "\n" +
+            "6;\"" + UPDATED_NAME + ";\tand \"\"more\"\"\";" + UPDATED_FETCH + ";" + UPDATED_SOURCE + "\n";
+
+        try {
+            restCrawlerMockMvc
+                .perform(post(ENTITY_API_URL_IMPORT).with(csrf()).contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(4))
+                .andExpect(jsonPath("$.complete").value(true))
+                .andExpect(jsonPath("$.rejections[*].line").value(contains(3, 4, 5, 6)))
+                .andExpect(jsonPath("$.rejections[*].errorKey").value(contains("invalid", "invalid", "columns", "savefailed")))
+                .andExpect(jsonPath("$.rejections[0].message").value(containsString("fetch")));
+
+            // Validate the Crawlers in the database
+            List<Crawler> crawlerList = crawlerRepository.findAll();
+            assertThat(crawlerList).hasSize(idsBeforeImport.size() + 2);
+            assertThat(crawlerList).extracting(Crawler::getName).contains(DEFAULT_NAME, UPDATED_NAME + ";\tand \"more\"");
+
+            // The imported crawlers are published to the change feed, though not inserted by Hibernate
+            for (Crawler imported : crawlerList) {
+                if (!idsBeforeImport.contains(imported.getId())) {
+                    awaitContent(changes, "data:{\"type\":\"CREATED\",\"id\":" + imported.getId() + ",\"version\":0}");
+                }
+            }
+        } finally {
+            crawlerRepository.deleteAll(
+                crawlerRepository
+                    .findAll()
+                    .stream()
+                    .filter(crawler -> crawler.getName().startsWith(DEFAULT_NAME) || crawler.getName().startsWith(UPDATED_NAME))
+                    .collect(Collectors.toList())
+            );
+        }
+    }
+
+    @Test
+    void importCrawlersStopsAtAMalformedRow() throws Exception {
+        String csv =
+            "id;name;jhi_fetch;source\n" +
+            "1;" + DEFAULT_NAME + ";" + DEFAULT_FETCH + ";" + DEFAULT_SOURCE + "\n" +
+            "2;\"" + DEFAULT_NAME + "\" ;" + DEFAULT_FETCH + ";" + DEFAULT_SOURCE + "\n" +
+            "3;" + DEFAULT_NAME + ";" + DEFAULT_FETCH + ";" + DEFAULT_SOURCE + "\n";
+
+        try {
+            restCrawlerMockMvc
+                .perform(post(ENTITY_API_URL_IMPORT).with(csrf()).contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.complete").value(false))
+                .andExpect(jsonPath("$.rejections[0].line").value(3))
+                .andExpect(jsonPath("$.rejections[0].errorKey").value("malformed"));
+
+            assertThat(crawlerRepository.findAll()).filteredOn(crawler -> crawler.getName().equals(DEFAULT_NAME)).hasSize(1);
+        } finally {
+            crawlerRepository.deleteAll(
+                crawlerRepository.findAll().stream().filter(crawler -> crawler.getName().equals(DEFAULT_NAME)).collect(Collectors.toList())
+            );
+        }
+    }
+
+    @Test
+    @Transactional
+    void importCrawlersRejectsAMissingColumn() throws Exception {
+        restCrawlerMockMvc
+            .perform(
+                post(ENTITY_API_URL_IMPORT)
+                    .with(csrf())
+                    .contentType("text/csv")
+                    .content("id;name;source\n1;" + DEFAULT_NAME + ";" + DEFAULT_SOURCE + "\n")
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.importinvalid"));
+    }
+
+    @Test
+    void updateCrawlersInBulk() throws Exception {
+        // Initialize the database, committing the crawlers since each chunk of a bulk write runs in its own transaction
+        List<Crawler> crawlers = crawlerRepository.saveAllAndFlush(List.of(createEntity(em), createEntity(em)));
+        try {
+            List<CrawlerDTO> crawlerDTOs = new ArrayList<>();
+            for (Crawler existing : crawlers) {
+                CrawlerDTO crawlerDTO = crawlerMapper.toDto(createUpdatedEntity(em));
+                crawlerDTO.setId(existing.getId());
+                crawlerDTOs.add(crawlerDTO);
+            }
+
+            restCrawlerMockMvc
+                .perform(
+                    put(ENTITY_API_URL_BULK)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(crawlerDTOs))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.items[*].status").value(contains("UPDATED", "UPDATED")));
+
+            // Validate the Crawlers in the database
+            for (Crawler existing : crawlers) {
+                Crawler testCrawler = crawlerRepository.findById(existing.getId()).get();
+                assertThat(testCrawler.getName()).isEqualTo(UPDATED_NAME);
+                assertThat(testCrawler.getFetch()).isEqualTo(UPDATED_FETCH);
+                assertThat(testCrawler.getSource()).isEqualTo(UPDATED_SOURCE);
+            }
+        } finally {
+            // the crawlers were updated, so delete them at their current version
+            crawlerRepository.deleteAllById(crawlers.stream().map(Crawler::getId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    @Transactional
+    void updateCrawlersInBulkReportsMissingIds() throws Exception {
+        CrawlerDTO withoutId = crawlerMapper.toDto(createUpdatedEntity(em));
+        CrawlerDTO nonExisting = crawlerMapper.toDto(createUpdatedEntity(em));
+        nonExisting.setId(count.incrementAndGet());
+
+        restCrawlerMockMvc
+            .perform(
+                put(ENTITY_API_URL_BULK)
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(List.of(withoutId, nonExisting)))
+            )
+            .andExpect(status().isMultiStatus())
+            .andExpect(jsonPath("$.succeeded").value(0))
+            .andExpect(jsonPath("$.items[*].errorKey").value(contains("idnull", "idnotfound")));
+    }
+
+    @Test
+    void updateCrawlersInBulkReportsStaleVersions() throws Exception {
+        // Initialize the database, committing the crawlers since each chunk of a bulk write runs in its own transaction
+        List<Crawler> crawlers = crawlerRepository.saveAllAndFlush(List.of(createEntity(em), createEntity(em)));
+        try {
+            List<CrawlerDTO> crawlerDTOs = new ArrayList<>();
+            for (Crawler existing : crawlers) {
+                CrawlerDTO crawlerDTO = crawlerMapper.toDto(createUpdatedEntity(em));
+                crawlerDTO.setId(existing.getId());
+                crawlerDTO.setVersion(existing.getVersion());
+                crawlerDTOs.add(crawlerDTO);
+            }
+            crawlerDTOs.get(1).setVersion(crawlers.get(1).getVersion() + 1);
+
+            restCrawlerMockMvc
+                .perform(
+                    put(ENTITY_API_URL_BULK)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(crawlerDTOs))
+                )
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$.items[0].entity.version").value(crawlers.get(0).getVersion() + 1))
+                .andExpect(jsonPath("$.items[1].errorKey").value("preconditionfailed"));
+
+            assertThat(crawlerRepository.findById(crawlers.get(1).getId()).get().getName()).isEqualTo(DEFAULT_NAME);
+        } finally {
+            crawlerRepository.deleteAllById(crawlers.stream().map(Crawler::getId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    @Transactional
+    void createCrawlersInBulkRejectsAnEmptyList() throws Exception {
+        restCrawlerMockMvc
+            .perform(post(ENTITY_API_URL_BULK).with(csrf()).contentType(MediaType.APPLICATION_JSON).content("[]"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getAllCrawlers() throws Exception {
@@ -224,6 +483,209 @@ class CrawlerResourceIT {
             .andExpect(jsonPath("$.[*].source").value(hasItem(DEFAULT_SOURCE)));
     }
 
+    @Test
+    @Transactional
+    void getAllCrawlersByCursor() throws Exception {
+        // Initialize the database
+        Crawler first = crawlerRepository.saveAndFlush(createEntity(em));
+        Crawler second = crawlerRepository.saveAndFlush(createEntity(em));
+        Crawler third = crawlerRepository.saveAndFlush(createEntity(em));
+        String idFilter = "id.in=" + first.getId() + "," + second.getId() + "," + third.getId();
+
+        // Get the first slice, sorted by id
+        MvcResult firstSlice = restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "?size=2&" + idFilter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(second.getId().intValue()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+
+        // Follow the cursor to the last slice
+        restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "?size=2&" + idFilter + "&after=" + nextCursor(firstSlice)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    void getAllCrawlersByCursorSortedByName() throws Exception {
+        // Initialize the database
+        Crawler first = crawlerRepository.saveAndFlush(createEntity(em));
+        Crawler second = crawlerRepository.saveAndFlush(createUpdatedEntity(em));
+        Crawler third = crawlerRepository.saveAndFlush(createEntity(em));
+        String idFilter = "id.in=" + first.getId() + "," + second.getId() + "," + third.getId();
+
+        // UPDATED_NAME sorts after DEFAULT_NAME, ties are broken by id
+        MvcResult firstSlice = restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&sort=name,desc&" + idFilter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(second.getId().intValue()))
+            .andReturn();
+        MvcResult secondSlice = restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&" + idFilter + "&after=" + nextCursor(firstSlice)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()))
+            .andReturn();
+        restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&" + idFilter + "&after=" + nextCursor(secondSlice)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    void getAllCrawlersWithInvalidCursor() throws Exception {
+        restCrawlerMockMvc.perform(get(ENTITY_API_URL + "?after=not-a-cursor")).andExpect(status().isBadRequest());
+        restCrawlerMockMvc.perform(get(ENTITY_API_URL + "?size=2&sort=unknown,asc")).andExpect(status().isBadRequest());
+    }
+
+    private static String nextCursor(MvcResult result) {
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        return UriComponentsBuilder.fromUriString(link.substring(1, link.indexOf('>'))).build().getQueryParams().getFirst("after");
+    }
+
+    @Test
+    @Transactional
+    void exportCrawlers() throws Exception {
+        // Initialize the database
+        Crawler first = crawlerRepository.saveAndFlush(createEntity(em));
+        Crawler second = crawlerRepository.saveAndFlush(createUpdatedEntity(em));
+
+        // Export the crawlers, one JSON document per line
+        String body = restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "/export?id.in=" + first.getId() + "," + second.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(body).endsWith("\n");
+        assertThat(lines).hasSize(2);
+        ObjectMapper objectMapper = new ObjectMapper();
+        CrawlerDTO firstExported = objectMapper.readValue(lines[0], CrawlerDTO.class);
+        CrawlerDTO secondExported = objectMapper.readValue(lines[1], CrawlerDTO.class);
+        assertThat(firstExported.getId()).isEqualTo(first.getId());
+        assertThat(firstExported.getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(secondExported.getId()).isEqualTo(second.getId());
+        assertThat(secondExported.getSource()).isEqualTo(UPDATED_SOURCE);
+    }
+
+    @Test
+    @Transactional
+    void getAllCrawlersFields() throws Exception {
+        // Initialize the database
+        crawlerRepository.saveAndFlush(crawler);
+
+        // Get the name of the crawlers, along with their id
+        restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "?fields=name&id.equals=" + crawler.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[0].id").value(crawler.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].fetch").doesNotExist())
+            .andExpect(jsonPath("$.[0].source").doesNotExist());
+
+        restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "?fields=source,fetch&id.equals=" + crawler.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].fetch").value(DEFAULT_FETCH))
+            .andExpect(jsonPath("$.[0].source").value(DEFAULT_SOURCE))
+            .andExpect(jsonPath("$.[0].name").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getAllCrawlersWithInvalidFields() throws Exception {
+        restCrawlerMockMvc.perform(get(ENTITY_API_URL + "?fields=name,unknown")).andExpect(status().isBadRequest());
+        restCrawlerMockMvc.perform(get(ENTITY_API_URL + "?fields=name&size=10")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void searchCrawlers() throws Exception {
+        // Initialize the database
+        Crawler exact = crawlerRepository.saveAndFlush(createEntity(em).name("Searched"));
+        Crawler bySource = crawlerRepository.saveAndFlush(createEntity(em).source("a searched source"));
+        Crawler byPrefix = crawlerRepository.saveAndFlush(createEntity(em).name("searched crawler"));
+        crawlerRepository.saveAndFlush(createEntity(em));
+
+        // Crawlers named after the text come first, then those whose name starts with it, then the others
+        restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "/_search?q=SEARCHED"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(
+                jsonPath("$.[*].id").value(contains(exact.getId().intValue(), byPrefix.getId().intValue(), bySource.getId().intValue()))
+            );
+
+        restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "/_search?q=searched&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(exact.getId().intValue())));
+
+        // LIKE wildcards are searched literally
+        restCrawlerMockMvc.perform(get(ENTITY_API_URL + "/_search?q=%25")).andExpect(status().isOk()).andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void searchCrawlersWithBlankText() throws Exception {
+        restCrawlerMockMvc.perform(get(ENTITY_API_URL + "/_search?q= ")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void countCrawlersApproximately() throws Exception {
+        // Initialize the database
+        crawlerRepository.saveAndFlush(crawler);
+
+        // H2 has no statistics to estimate from, so the count is exact
+        restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "/count?approximate=true&id.equals=" + crawler.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Count-Exact", "true"))
+            .andExpect(content().string("1"));
+    }
+
+    @Test
+    @Transactional
+    void countCrawlersIsEvictedByWrites() throws Exception {
+        // Initialize the database
+        crawlerRepository.saveAndFlush(crawler);
+        int databaseSize = crawlerRepository.findAll().size();
+
+        restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "/count"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Count-Exact", "true"))
+            .andExpect(content().string(String.valueOf(databaseSize)));
+
+        // Create another crawler through the API, which evicts the cached counts
+        restCrawlerMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(crawlerMapper.toDto(createEntity(em))))
+            )
+            .andExpect(status().isCreated());
+
+        restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "/count"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(String.valueOf(databaseSize + 1)));
+    }
+
     @Test
     @Transactional
     void getCrawler() throws Exception {
@@ -506,6 +968,19 @@ class CrawlerResourceIT {
         defaultCrawlerShouldNotBeFound("source.contains=" + UPDATED_SOURCE);
     }
 
+    @Test
+    @Transactional
+    void getAllCrawlersBySourceStartsWithSomething() throws Exception {
+        // Initialize the database
+        crawlerRepository.saveAndFlush(crawler);
+
+        // Get all the crawlerList where source starts with the beginning of DEFAULT_SOURCE
+        defaultCrawlerShouldBeFound("source.startsWith=" + DEFAULT_SOURCE.substring(0, 5));
+
+        // Get all the crawlerList where source starts with UPDATED_SOURCE
+        defaultCrawlerShouldNotBeFound("source.startsWith=" + UPDATED_SOURCE);
+    }
+
     @Test
     @Transactional
     void getAllCrawlersBySourceNotContainsSomething() throws Exception {
@@ -559,6 +1034,209 @@ class CrawlerResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    void getCrawlerFromSecondLevelCache() throws Exception {
+        // Initialize the database, committing the crawler: rows inserted by the current transaction are not cached
+        crawlerRepository.saveAndFlush(crawler);
+        Cache cache = em.getEntityManagerFactory().getCache();
+        try {
+            cache.evict(Crawler.class);
+
+            // Loading the crawler puts it in its cache region
+            restCrawlerMockMvc.perform(get(ENTITY_API_URL_ID, crawler.getId())).andExpect(status().isOk());
+
+            assertThat(cache.contains(Crawler.class, crawler.getId())).isTrue();
+            assertThat(meterRegistry.find("cache.gets").tag("cache", Crawler.class.getName()).meters()).isNotEmpty();
+        } finally {
+            crawlerRepository.deleteById(crawler.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    void getCrawlerIfNoneMatch() throws Exception {
+        // Initialize the database
+        crawlerRepository.saveAndFlush(crawler);
+
+        // Get the crawler and its entity tag
+        String eTag = restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL_ID, crawler.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Revalidate the crawler
+        restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL_ID, crawler.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Once updated, the crawler is sent again with a new tag
+        crawlerRepository.saveAndFlush(crawler.name(UPDATED_NAME));
+        restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL_ID, crawler.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+    }
+
+    @Test
+    @Transactional
+    void getAllCrawlersIfNoneMatch() throws Exception {
+        // Initialize the database
+        crawlerRepository.saveAndFlush(crawler);
+        String url = ENTITY_API_URL + "?id.equals=" + crawler.getId();
+
+        String eTag = restCrawlerMockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restCrawlerMockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isNotModified());
+
+        crawlerRepository.saveAndFlush(crawler.fetch(UPDATED_FETCH));
+        restCrawlerMockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void updateCrawlerIfMatch() throws Exception {
+        // Initialize the database
+        crawlerRepository.saveAndFlush(crawler);
+        CrawlerDTO crawlerDTO = crawlerMapper.toDto(createUpdatedEntity(em));
+        crawlerDTO.setId(crawler.getId());
+
+        // Update the crawler at its current version
+        restCrawlerMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, crawler.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(crawlerDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // Writes based on the previous version are rejected
+        restCrawlerMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, crawler.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(crawlerDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+        restCrawlerMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, crawler.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(crawlerDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+        restCrawlerMockMvc
+            .perform(delete(ENTITY_API_URL_ID, crawler.getId()).with(csrf()).header(HttpHeaders.IF_MATCH, "W/\"1\""))
+            .andExpect(status().isPreconditionFailed());
+        assertThat(crawlerRepository.findById(crawler.getId())).isPresent();
+
+        // Patch then delete at the current version
+        restCrawlerMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, crawler.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"1\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(crawlerDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        restCrawlerMockMvc
+            .perform(delete(ENTITY_API_URL_ID, crawler.getId()).with(csrf()).header(HttpHeaders.IF_MATCH, "\"1\""))
+            .andExpect(status().isNoContent());
+        assertThat(crawlerRepository.findById(crawler.getId())).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void updateNonExistingCrawlerIfMatch() throws Exception {
+        int databaseSizeBeforeUpdate = crawlerRepository.findAll().size();
+        crawler.setId(count.incrementAndGet());
+        CrawlerDTO crawlerDTO = crawlerMapper.toDto(crawler);
+
+        // No current representation matches If-Match, whatever its tag
+        restCrawlerMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, crawlerDTO.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(crawlerDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+        restCrawlerMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, crawlerDTO.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "*")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(crawlerDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+        restCrawlerMockMvc
+            .perform(delete(ENTITY_API_URL_ID, crawlerDTO.getId()).with(csrf()).header(HttpHeaders.IF_MATCH, "\"0\""))
+            .andExpect(status().isPreconditionFailed());
+
+        assertThat(crawlerRepository.findAll()).hasSize(databaseSizeBeforeUpdate);
+    }
+
+    @Test
+    void getCrawlerChanges() throws Exception {
+        MvcResult stream = restCrawlerMockMvc.perform(get(ENTITY_API_URL + "/changes")).andExpect(request().asyncStarted()).andReturn();
+        String openEventId = awaitContent(stream, "event:open").split("\n")[0].substring("id:".length());
+
+        // Commit the changes, since they are only published once their transaction commits
+        Crawler created = crawlerRepository.saveAndFlush(createEntity(em));
+        crawlerRepository.deleteById(created.getId());
+
+        assertThat(awaitContent(stream, "\"type\":\"DELETED\""))
+            .contains("event:change")
+            .contains("data:{\"type\":\"CREATED\",\"id\":" + created.getId() + ",\"version\":0}")
+            .contains("data:{\"type\":\"DELETED\",\"id\":" + created.getId() + ",\"version\":0}");
+
+        // Resume after the open event
+        MvcResult resumed = restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "/changes").header("Last-Event-ID", openEventId))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertThat(awaitContent(resumed, "\"type\":\"DELETED\"")).contains("\"type\":\"CREATED\"").doesNotContain("event:open");
+
+        // Resuming from an unknown event resets the client
+        MvcResult reset = restCrawlerMockMvc
+            .perform(get(ENTITY_API_URL + "/changes").header("Last-Event-ID", "unknown-1"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        awaitContent(reset, "event:reset");
+    }
+
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
     @Test
     @Transactional
     void getNonExistingCrawler() throws Exception {
@@ -735,6 +1413,52 @@ class CrawlerResourceIT {
         assertThat(testCrawler.getSource()).isEqualTo(UPDATED_SOURCE);
     }
 
+    @Test
+    @Transactional
+    void partialUpdateCrawlerReturnsTheUpdatedRow() throws Exception {
+        // Initialize the database
+        crawlerRepository.saveAndFlush(crawler);
+
+        // Only the fetch is sent, the other columns are left as they are
+        restCrawlerMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, crawler.getId())
+                    .with(csrf())
+                    .contentType("application/merge-patch+json")
+                    .content("{\"id\":" + crawler.getId() + ",\"fetch\":" + UPDATED_FETCH + "}")
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.fetch").value(UPDATED_FETCH))
+            .andExpect(jsonPath("$.source").value(DEFAULT_SOURCE));
+
+        Crawler testCrawler = crawlerRepository.findById(crawler.getId()).get();
+        assertThat(testCrawler.getFetch()).isEqualTo(UPDATED_FETCH);
+        assertThat(testCrawler.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @Transactional
+    void partialUpdateCrawlerWithInvalidFieldIsRejected() throws Exception {
+        // Initialize the database
+        crawlerRepository.saveAndFlush(crawler);
+
+        // The fields sent are validated, the ones left out are not
+        restCrawlerMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, crawler.getId())
+                    .with(csrf())
+                    .contentType("application/merge-patch+json")
+                    .content("{\"id\":" + crawler.getId() + ",\"fetch\":-2}")
+            )
+            .andExpect(status().isBadRequest());
+
+        Crawler testCrawler = crawlerRepository.findById(crawler.getId()).get();
+        assertThat(testCrawler.getFetch()).isEqualTo(DEFAULT_FETCH);
+        assertThat(testCrawler.getVersion()).isZero();
+    }
+
     @Test
     @Transactional
     void patchNonExistingCrawler() throws Exception {
@@ -824,4 +1548,70 @@ class CrawlerResourceIT {
         List<Crawler> crawlerList = crawlerRepository.findAll();
         assertThat(crawlerList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void deleteCrawlersByCriteria() throws Exception {
+        // Initialize the database with three matching crawlers, two of them with filters, and one which does not match
+        String name = "bulk-delete-" + count.incrementAndGet();
+        List<Crawler> matching = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            matching.add(crawlerRepository.saveAndFlush(createEntity(em).name(name + "-" + i)));
+        }
+        em.persist(new Filters().crawler(matching.get(0)));
+        em.persist(new Filters().crawler(matching.get(2)));
+        Crawler other = crawlerRepository.saveAndFlush(createEntity(em).name("kept-" + name));
+        em.flush();
+        String url = ENTITY_API_URL + "?name.contains=" + name + "-&fetch.equals=" + DEFAULT_FETCH;
+
+        // A dry run counts what would be deleted, without deleting it
+        restCrawlerMockMvc
+            .perform(delete(url + "&dryRun=true").with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deleted").value(3))
+            .andExpect(jsonPath("$.dependents").value(2))
+            .andExpect(jsonPath("$.dryRun").value(true))
+            .andExpect(jsonPath("$.more").value(false));
+        assertThat(crawlerRepository.findAllById(List.of(matching.get(0).getId(), matching.get(2).getId()))).hasSize(2);
+
+        // The lowest ids are deleted first, along with their filters, up to the limit
+        restCrawlerMockMvc
+            .perform(delete(url + "&limit=2").with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deleted").value(2))
+            .andExpect(jsonPath("$.dependents").value(1))
+            .andExpect(jsonPath("$.dryRun").value(false))
+            .andExpect(jsonPath("$.more").value(true));
+        assertThat(crawlerRepository.findById(matching.get(0).getId())).isEmpty();
+        assertThat(crawlerRepository.findById(matching.get(1).getId())).isEmpty();
+        assertThat(crawlerRepository.findById(matching.get(2).getId())).isPresent();
+
+        restCrawlerMockMvc
+            .perform(delete(url).with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deleted").value(1))
+            .andExpect(jsonPath("$.dependents").value(1))
+            .andExpect(jsonPath("$.more").value(false));
+        assertThat(crawlerRepository.findById(matching.get(2).getId())).isEmpty();
+        assertThat(crawlerRepository.findById(other.getId())).isPresent();
+        assertThat(
+            em
+                .createQuery("select count(f) from Filters f where f.crawler.id in ?1", Long.class)
+                .setParameter(1, matching.stream().map(Crawler::getId).collect(Collectors.toList()))
+                .getSingleResult()
+        )
+            .isZero();
+    }
+
+    @Test
+    @Transactional
+    void deleteCrawlersWithoutCriteriaIsRejected() throws Exception {
+        // Initialize the database
+        crawlerRepository.saveAndFlush(crawler);
+
+        restCrawlerMockMvc.perform(delete(ENTITY_API_URL).with(csrf())).andExpect(status().isBadRequest());
+        restCrawlerMockMvc.perform(delete(ENTITY_API_URL + "?dryRun=true").with(csrf())).andExpect(status().isBadRequest());
+
+        assertThat(crawlerRepository.findById(crawler.getId())).isPresent();
+    }
 }
@@ -2,6 +2,7 @@ package com.mycompany.myapp.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -10,21 +11,29 @@ import com.mycompany.myapp.IntegrationTest;
 import com.mycompany.myapp.domain.Crawler;
 import com.mycompany.myapp.domain.Filters;
 import com.mycompany.myapp.repository.FiltersRepository;
+import com.mycompany.myapp.service.CriteriaCountCache;
 import com.mycompany.myapp.service.criteria.FiltersCriteria;
 import com.mycompany.myapp.service.dto.FiltersDTO;
 import com.mycompany.myapp.service.mapper.FiltersMapper;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Integration tests for the {@link FiltersResource} REST controller.
@@ -46,6 +55,9 @@ class FiltersResourceIT {
     @Autowired
     private FiltersMapper filtersMapper;
 
+    @Autowired
+    private CriteriaCountCache countCache;
+
     @Autowired
     private EntityManager em;
 
@@ -78,6 +90,7 @@ class FiltersResourceIT {
 
     @BeforeEach
     public void initTest() {
+        countCache.evict(Filters.class);
         filters = createEntity(em);
     }
 
@@ -140,6 +153,52 @@ class FiltersResourceIT {
             .andExpect(jsonPath("$.[*].id").value(hasItem(filters.getId().intValue())));
     }
 
+    @Test
+    @Transactional
+    void getAllFiltersByCursor() throws Exception {
+        // Initialize the database
+        Filters first = filtersRepository.saveAndFlush(createEntity(em));
+        Filters second = filtersRepository.saveAndFlush(createEntity(em));
+        String idFilter = "id.in=" + first.getId() + "," + second.getId();
+
+        // Get the first slice, sorted by id descending
+        MvcResult firstSlice = restFiltersMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&sort=id,desc&" + idFilter))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(second.getId().intValue()))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andReturn();
+        String link = firstSlice.getResponse().getHeader(HttpHeaders.LINK);
+        String after = UriComponentsBuilder
+            .fromUriString(link.substring(1, link.indexOf('>')))
+            .build()
+            .getQueryParams()
+            .getFirst("after");
+
+        // Follow the cursor to the last slice
+        restFiltersMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&" + idFilter + "&after=" + after))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()))
+            .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    @Transactional
+    void countFiltersApproximately() throws Exception {
+        // Initialize the database
+        filtersRepository.saveAndFlush(filters);
+
+        // H2 has no statistics to estimate from, so the count is exact
+        restFiltersMockMvc
+            .perform(get(ENTITY_API_URL + "/count?approximate=true&id.equals=" + filters.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Count-Exact", "true"))
+            .andExpect(content().string("1"));
+    }
+
     @Test
     @Transactional
     void getFilters() throws Exception {
@@ -198,6 +257,85 @@ class FiltersResourceIT {
         defaultFiltersShouldNotBeFound("crawlerId.equals=" + (crawlerId + 1));
     }
 
+    @Test
+    @Transactional
+    void getAllFiltersIsASingleStatement() throws Exception {
+        // Initialize the database with the filters of several crawlers
+        List<Long> crawlerIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Crawler crawler = CrawlerResourceIT.createEntity(em);
+            em.persist(crawler);
+            em.persist(createEntity(em).crawler(crawler));
+            em.persist(createEntity(em).crawler(crawler));
+            crawlerIds.add(crawler.getId());
+        }
+        em.flush();
+        // Neither the persistence context nor the second-level cache hold the crawlers anymore
+        em.clear();
+        em.getEntityManagerFactory().getCache().evict(Crawler.class);
+        Statistics statistics = clearStatistics();
+
+        // Get the filters of the crawlers
+        String crawlerIdIn = crawlerIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        restFiltersMockMvc
+            .perform(get(ENTITY_API_URL + "?crawlerId.in=" + crawlerIdIn))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(6))
+            .andExpect(jsonPath("$.[*].crawler.id").value(hasItem(crawlerIds.get(2).intValue())));
+
+        // Only the filters rows were read, with the id of their crawler
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(Crawler.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void getAllFiltersFields() throws Exception {
+        // Initialize the database
+        Crawler crawler = CrawlerResourceIT.createEntity(em);
+        em.persist(crawler);
+        filtersRepository.saveAndFlush(filters.crawler(crawler));
+        Filters withoutCrawler = filtersRepository.saveAndFlush(createEntity(em));
+
+        // Get the crawler of the filters, shaped like in FiltersDTO
+        restFiltersMockMvc
+            .perform(get(ENTITY_API_URL + "?fields=crawler&id.in=" + filters.getId() + "," + withoutCrawler.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(filters.getId().intValue())))
+            .andExpect(jsonPath("$.[?(@.id == " + filters.getId() + ")].crawler.id").value(hasItem(crawler.getId().intValue())))
+            .andExpect(jsonPath("$.[?(@.id == " + withoutCrawler.getId() + ")].crawler").value(hasItem(nullValue())));
+
+        restFiltersMockMvc.perform(get(ENTITY_API_URL + "?fields=name")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getFiltersDoesNotLoadTheCrawler() throws Exception {
+        // Initialize the database
+        Crawler crawler = CrawlerResourceIT.createEntity(em);
+        em.persist(crawler);
+        filtersRepository.saveAndFlush(filters.crawler(crawler));
+        em.clear();
+        em.getEntityManagerFactory().getCache().evict(Crawler.class);
+        em.getEntityManagerFactory().getCache().evict(Filters.class);
+        Statistics statistics = clearStatistics();
+
+        // Get the filters
+        restFiltersMockMvc
+            .perform(get(ENTITY_API_URL_ID, filters.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.crawler.id").value(crawler.getId().intValue()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(Crawler.class.getName()).getLoadCount()).isZero();
+    }
+
+    private Statistics clearStatistics() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -235,6 +373,117 @@ class FiltersResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getFiltersIfNoneMatch() throws Exception {
+        // Initialize the database
+        filtersRepository.saveAndFlush(filters);
+
+        // Get the filters and their entity tag
+        String eTag = restFiltersMockMvc
+            .perform(get(ENTITY_API_URL_ID, filters.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Revalidate the filters
+        restFiltersMockMvc
+            .perform(get(ENTITY_API_URL_ID, filters.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // The list is tagged as well
+        String url = ENTITY_API_URL + "?id.equals=" + filters.getId();
+        String listETag = restFiltersMockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        restFiltersMockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, listETag)).andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    void updateFiltersIfMatch() throws Exception {
+        // Initialize the database, with filters referencing a crawler
+        Crawler crawler = CrawlerResourceIT.createEntity(em);
+        em.persist(crawler);
+        Crawler otherCrawler = CrawlerResourceIT.createEntity(em);
+        em.persist(otherCrawler);
+        filtersRepository.saveAndFlush(filters.crawler(crawler));
+        FiltersDTO filtersDTO = filtersMapper.toDto(new Filters().id(filters.getId()).crawler(otherCrawler));
+
+        // Move the filters to the other crawler at their current version, the crawler being referenced by id only
+        restFiltersMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, filters.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(filtersDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+            .andExpect(jsonPath("$.crawler.id").value(otherCrawler.getId().intValue()));
+
+        // Writes based on the previous version are rejected
+        restFiltersMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, filters.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(filtersDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+        restFiltersMockMvc
+            .perform(delete(ENTITY_API_URL_ID, filters.getId()).with(csrf()).header(HttpHeaders.IF_MATCH, "\"0\""))
+            .andExpect(status().isPreconditionFailed());
+
+        // The current version can be deleted
+        restFiltersMockMvc
+            .perform(delete(ENTITY_API_URL_ID, filters.getId()).with(csrf()).header(HttpHeaders.IF_MATCH, "\"1\""))
+            .andExpect(status().isNoContent());
+        assertThat(filtersRepository.findById(filters.getId())).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void updateNonExistingFiltersIfMatch() throws Exception {
+        int databaseSizeBeforeUpdate = filtersRepository.findAll().size();
+        filters.setId(count.incrementAndGet());
+        FiltersDTO filtersDTO = filtersMapper.toDto(filters);
+
+        // No current representation matches If-Match, whatever its tag
+        restFiltersMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, filtersDTO.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "*")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(filtersDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+        restFiltersMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, filtersDTO.getId())
+                    .with(csrf())
+                    .header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(filtersDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+        restFiltersMockMvc
+            .perform(delete(ENTITY_API_URL_ID, filtersDTO.getId()).with(csrf()).header(HttpHeaders.IF_MATCH, "*"))
+            .andExpect(status().isPreconditionFailed());
+
+        assertThat(filtersRepository.findAll()).hasSize(databaseSizeBeforeUpdate);
+    }
+
     @Test
     @Transactional
     void getNonExistingFilters() throws Exception {
@@ -486,4 +735,54 @@ class FiltersResourceIT {
         List<Filters> filtersList = filtersRepository.findAll();
         assertThat(filtersList).hasSize(databaseSizeBeforeDelete - 1);
     }
+
+    @Test
+    @Transactional
+    void deleteFiltersByCriteria() throws Exception {
+        // Initialize the database with three filters of the same crawler
+        Crawler crawler = CrawlerResourceIT.createEntity(em);
+        em.persist(crawler);
+        List<Filters> matching = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            matching.add(filtersRepository.saveAndFlush(new Filters().crawler(crawler)));
+        }
+        String url = ENTITY_API_URL + "?crawlerId.equals=" + crawler.getId();
+
+        // A dry run counts what would be deleted, without deleting it
+        restFiltersMockMvc
+            .perform(delete(url + "&dryRun=true").with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deleted").value(3))
+            .andExpect(jsonPath("$.dryRun").value(true))
+            .andExpect(jsonPath("$.more").value(false));
+        assertThat(filtersRepository.findAllById(matching.stream().map(Filters::getId).collect(Collectors.toList()))).hasSize(3);
+
+        // The lowest ids are deleted first, up to the limit
+        restFiltersMockMvc
+            .perform(delete(url + "&limit=2").with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deleted").value(2))
+            .andExpect(jsonPath("$.dependents").value(0))
+            .andExpect(jsonPath("$.more").value(true));
+        assertThat(filtersRepository.findById(matching.get(1).getId())).isEmpty();
+        assertThat(filtersRepository.findById(matching.get(2).getId())).isPresent();
+
+        restFiltersMockMvc
+            .perform(delete(url).with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deleted").value(1))
+            .andExpect(jsonPath("$.more").value(false));
+        assertThat(filtersRepository.findById(matching.get(2).getId())).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void deleteFiltersWithoutCriteriaIsRejected() throws Exception {
+        // Initialize the database
+        filtersRepository.saveAndFlush(filters);
+
+        restFiltersMockMvc.perform(delete(ENTITY_API_URL).with(csrf())).andExpect(status().isBadRequest());
+
+        assertThat(filtersRepository.findById(filters.getId())).isPresent();
+    }
 }
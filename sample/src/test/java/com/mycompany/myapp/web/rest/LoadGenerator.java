@@ -0,0 +1,275 @@
+package com.mycompany.myapp.web.rest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-model load generator: requests are sent at a constant arrival rate, whether or not the previous ones have been
+ * answered, so that a slow server queues requests up as it would in production instead of slowing the load down.
+ * <p>
+ * Each request is drawn among weighted operations. Its latency is measured from the time it was due to be sent, not
+ * from the time it was actually sent, so that the delays of the generator itself are not hidden (coordinated
+ * omission). The latencies measured after the warm-up are recorded into an HdrHistogram per operation.
+ */
+public final class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    private final HttpClient client;
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    private int totalWeight;
+
+    public LoadGenerator(HttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Add an operation to the mix.
+     *
+     * @param name the name of the operation in the report, for instance {@code GET /api/crawlers/{id}}.
+     * @param weight the share of the requests drawn for this operation, relative to the other operations.
+     * @param request the request to send, given a random number generator, or {@code null} when there is nothing to
+     *     send, for instance no entity to delete: nothing is sent until the next request is due.
+     * @param success whether a response status is a success.
+     * @param onSuccess called with the successful responses, for instance to keep the ids of the created entities.
+     * @return this generator.
+     */
+    public LoadGenerator operation(
+        String name,
+        int weight,
+        Function<SplittableRandom, HttpRequest> request,
+        IntPredicate success,
+        Consumer<HttpResponse<String>> onSuccess
+    ) {
+        if (weight > 0) {
+            operations.add(new Operation(name, weight, request, success, onSuccess));
+            totalWeight += weight;
+        }
+        return this;
+    }
+
+    /**
+     * Send requests at a constant rate, then wait for their responses.
+     *
+     * @param rate the number of requests per second.
+     * @param warmup the time during which the latencies are not recorded.
+     * @param duration the time during which the latencies are recorded, after the warm-up.
+     * @param maxInFlight the number of requests waiting for their responses above which new requests are dropped.
+     * @param seed the seed of the draws, for the runs to be repeatable.
+     * @return the result of the run.
+     * @throws InterruptedException if interrupted while waiting for the responses.
+     */
+    public Result run(int rate, Duration warmup, Duration duration, int maxInFlight, long seed) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long period = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureStart = start + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        for (long due = start; due < end; due += period) {
+            long delay = due - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            Operation operation = draw(random);
+            boolean measured = due >= measureStart;
+            HttpRequest request = operation.request.apply(random);
+            if (request == null) {
+                continue;
+            }
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    operation.dropped.increment();
+                }
+                continue;
+            }
+            long dueTime = due;
+            CompletableFuture<HttpResponse<String>> response = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            response.whenComplete((result, error) -> {
+                inFlight.release();
+                boolean succeeded = error == null && operation.success.test(result.statusCode());
+                if (succeeded) {
+                    operation.onSuccess.accept(result);
+                }
+                if (measured) {
+                    operation.record(System.nanoTime() - dueTime, succeeded);
+                }
+            });
+        }
+        if (!inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Responses still awaited a minute after the end of the run");
+        }
+        return new Result(operations, duration);
+    }
+
+    private Operation draw(SplittableRandom random) {
+        int draw = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            draw -= operation.weight;
+            if (draw < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("No operation to draw");
+    }
+
+    private static final class Operation {
+
+        private final String name;
+
+        private final int weight;
+
+        private final Function<SplittableRandom, HttpRequest> request;
+
+        private final IntPredicate success;
+
+        private final Consumer<HttpResponse<String>> onSuccess;
+
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_LATENCY, 3);
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder dropped = new LongAdder();
+
+        private Operation(
+            String name,
+            int weight,
+            Function<SplittableRandom, HttpRequest> request,
+            IntPredicate success,
+            Consumer<HttpResponse<String>> onSuccess
+        ) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+            this.success = success;
+            this.onSuccess = onSuccess;
+        }
+
+        private void record(long latency, boolean succeeded) {
+            latencies.recordValue(Math.min(latency, HIGHEST_TRACKABLE_LATENCY));
+            if (!succeeded) {
+                errors.increment();
+            }
+        }
+    }
+
+    /**
+     * The latencies, in milliseconds, and the errors of a run, per operation and in total.
+     */
+    public static final class Result {
+
+        private static final double NANOS_PER_MILLI = 1e6;
+
+        private final List<Operation> operations;
+
+        private final Duration duration;
+
+        private final Histogram total = new Histogram(HIGHEST_TRACKABLE_LATENCY, 3);
+
+        private Result(List<Operation> operations, Duration duration) {
+            this.operations = operations;
+            this.duration = duration;
+            operations.forEach(operation -> total.add(operation.latencies));
+        }
+
+        public long getRequestCount() {
+            return total.getTotalCount();
+        }
+
+        public long getErrorCount() {
+            return operations.stream().mapToLong(operation -> operation.errors.sum()).sum();
+        }
+
+        public long getDroppedCount() {
+            return operations.stream().mapToLong(operation -> operation.dropped.sum()).sum();
+        }
+
+        /**
+         * Print the throughput and the percentiles of each operation, then of all of them.
+         */
+        public void print(PrintWriter out) {
+            out.println(
+                String.format(
+                    Locale.ROOT,
+                    "%-28s %8s %8s %7s %7s %9s %9s %9s %9s %9s",
+                    "operation",
+                    "requests",
+                    "req/s",
+                    "errors",
+                    "dropped",
+                    "p50 ms",
+                    "p90 ms",
+                    "p99 ms",
+                    "p99.9 ms",
+                    "max ms"
+                )
+            );
+            for (Operation operation : operations) {
+                print(out, operation.name, operation.latencies, operation.errors.sum(), operation.dropped.sum());
+            }
+            print(out, "total", total, getErrorCount(), getDroppedCount());
+        }
+
+        private void print(PrintWriter out, String name, Histogram latencies, long errors, long dropped) {
+            out.println(
+                String.format(
+                    Locale.ROOT,
+                    "%-28s %8d %8.1f %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    name,
+                    latencies.getTotalCount(),
+                    latencies.getTotalCount() * 1000.0 / duration.toMillis(),
+                    errors,
+                    dropped,
+                    latencies.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                    latencies.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                    latencies.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                    latencies.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                    latencies.getMaxValue() / NANOS_PER_MILLI
+                )
+            );
+        }
+
+        /**
+         * Write the percentile distribution of each operation, and of all of them, to {@code <name>.hgrm} files, in
+         * milliseconds, to be plotted or compared between runs.
+         */
+        public void writeDistributions(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (Operation operation : operations) {
+                writeDistribution(directory, operation.name, operation.latencies);
+            }
+            writeDistribution(directory, "total", total);
+        }
+
+        private static void writeDistribution(Path directory, String name, Histogram latencies) throws IOException {
+            String fileName = name.replaceAll("[^A-Za-z0-9]+", "-").replaceAll("(^-|-$)", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)), false, StandardCharsets.UTF_8)) {
+                latencies.outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+}